@@ -0,0 +1,7 @@
+
+@REM Script to tell Maven to create the fat jar together with an AppCDS archive (class data sharing),
+@REM which is generated by a training run over the files in folder ExampleFiles; requires Java 13 or newer.
+@REM Result files will be written into folder target, e.g. target\kahoot_result2word-1.0-SNAPSHOT.jsa
+@REM Start the program with script run_FastStartup.bat
+
+mvn package -Pfast-startup
@@ -0,0 +1,8 @@
+#!/bin/bash
+
+# Script to tell Maven to create the fat jar together with an AppCDS archive (class data sharing),
+# which is generated by a training run over the files in folder ExampleFiles; requires Java 13 or newer.
+# Result files will be written into folder target, e.g. target/kahoot_result2word-1.0-SNAPSHOT.jsa
+# Start the program with script run_FastStartup.sh
+
+mvn package -Pfast-startup
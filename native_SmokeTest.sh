@@ -0,0 +1,70 @@
+#!/bin/bash
+
+# Smoke test for the native executable built with "mvn package -Pnative":
+# converts both files in folder ExampleFiles with the fat jar and with the native executable,
+# compares the generated Word files (all parts but docProps/core.xml, which contains the creation time)
+# and reports wall time and peak resident set size (RSS) of both variants.
+# Exit code is 1 if an output differs or a conversion fails.
+# Not run yet: the native profile is untested, see comment of profile "native" in pom.xml.
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+FAT_JAR="$SCRIPT_DIR/target/kahoot_result2word-1.0-SNAPSHOT-jar-with-dependencies.jar"
+NATIVE_EXE="$SCRIPT_DIR/target/kahoot_result2word"
+WORK_DIR="$(mktemp -d)"
+
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+if [ ! -f "$FAT_JAR" ] || [ ! -x "$NATIVE_EXE" ]; then
+    echo "Fat jar or native executable not found, build them with: mvn package -Pnative"
+    exit 1
+fi
+
+
+# Execute command, print wall time in ms and peak RSS in KB (VmHWM, polled while the process runs).
+measure() {
+    local start=$(date +%s%N)
+    "$@" > "$WORK_DIR/last_output.txt" 2>&1 &
+    local pid=$!
+    local peak=0
+    while kill -0 $pid 2> /dev/null; do
+        local hwm=$(awk '/VmHWM/ {print $2}' /proc/$pid/status 2> /dev/null)
+        if [ -n "$hwm" ] && [ "$hwm" -gt "$peak" ]; then peak=$hwm; fi
+        sleep 0.005
+    done
+    wait $pid
+    local resultCode=$?
+    local end=$(date +%s%N)
+    echo "$(( (end - start) / 1000000 )) ms, peak RSS $peak KB"
+    return $resultCode
+}
+
+
+# Extract docx file into folder and remove docProps/core.xml, which contains the creation time.
+extract_docx() {
+    unzip -q -o "$1" -d "$2"
+    rm -f "$2/docProps/core.xml"
+}
+
+
+failed=0
+for inputFile in "$SCRIPT_DIR"/ExampleFiles/*.xlsx; do
+
+    name=$(basename "$inputFile" .xlsx)
+    mkdir -p "$WORK_DIR/jvm" "$WORK_DIR/native"
+
+    echo "$name:"
+    echo -n "  JVM   : "; measure java -jar "$FAT_JAR" -f "$inputFile" -o "$WORK_DIR/jvm"    || failed=1
+    echo -n "  native: "; measure "$NATIVE_EXE"     -f "$inputFile" -o "$WORK_DIR/native" || { failed=1; cat "$WORK_DIR/last_output.txt"; }
+
+    extract_docx "$WORK_DIR/jvm/$name.docx"    "$WORK_DIR/jvm/$name"
+    extract_docx "$WORK_DIR/native/$name.docx" "$WORK_DIR/native/$name"
+
+    if diff -r "$WORK_DIR/jvm/$name" "$WORK_DIR/native/$name" > /dev/null; then
+        echo "  output: identical"
+    else
+        echo "  output: DIFFERENT"
+        failed=1
+    fi
+done
+
+exit $failed
@@ -0,0 +1,7 @@
+
+@REM Script to start the fat jar with the AppCDS archive created by maven_BuildFastStartup.bat and with
+@REM pre-initialization of POI in the background while the command line arguments are parsed.
+@REM Example: run_FastStartup.bat --infile ExampleFiles\input_result_1.xlsx
+@REM Without the archive (e.g. after a plain "mvn package") the JVM starts as usual (-Xshare:auto).
+
+java -XX:SharedArchiveFile="%~dp0target\kahoot_result2word-1.0-SNAPSHOT.jsa" -Xshare:auto -Dde.mide.kahoot.warmup=true -jar "%~dp0target\kahoot_result2word-1.0-SNAPSHOT-jar-with-dependencies.jar" %*
@@ -0,0 +1,11 @@
+#!/bin/bash
+
+# Script to start the fat jar with the AppCDS archive created by maven_BuildFastStartup.sh and with
+# pre-initialization of POI in the background while the command line arguments are parsed.
+# Example: ./run_FastStartup.sh --infile ExampleFiles/input_result_1.xlsx
+# Without the archive (e.g. after a plain "mvn package") the JVM starts as usual (-Xshare:auto).
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+java -XX:SharedArchiveFile="$SCRIPT_DIR/target/kahoot_result2word-1.0-SNAPSHOT.jsa" -Xshare:auto -Dde.mide.kahoot.warmup=true \
+     -jar "$SCRIPT_DIR/target/kahoot_result2word-1.0-SNAPSHOT-jar-with-dependencies.jar" "$@"
@@ -1,10 +1,32 @@
 package de.mide.kahoot.result2word;
 
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_A_FOR_READ_AHEAD;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_B_FOR_BANK;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_B_FOR_BUDGET;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_C_FOR_CLAIM;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_D_FOR_DAEMON;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_E_FOR_QUERY;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_G_FOR_SCAN;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_H_FOR_HELP;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_J_FOR_THREADS;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_K_FOR_CACHE;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_L_FOR_LOCALE;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_M_FOR_MERGE;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_O_FOR_OUTPUT_FOLDER;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_R_FOR_RESUME;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_S_FOR_SHARD;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_V_FOR_VIRTUAL_THREADS;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_W_FOR_WORKERS;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_X_FOR_INDEX;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_Y_FOR_SEARCH;
+import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.parseCommandLineArguments;
 import static de.mide.kahoot.result2word.utils.CmdLineArgsParser.printHelpOnCmdLineArgs;
 import static de.mide.kahoot.result2word.utils.DirectoryUtil.findAllXlsxFilesInDirectory;
@@ -12,18 +34,58 @@ import static de.mide.kahoot.result2word.utils.TranslatedTextsProvider.writeWarn
 import static de.mide.kahoot.result2word.utils.DirectoryUtil.checkIfDirectoryExists;
 import static de.mide.kahoot.result2word.utils.DirectoryUtil.changeOutputFolder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.ParseException;
 
+import de.mide.kahoot.result2word.batch.BatchJournal;
+import de.mide.kahoot.result2word.batch.BatchRunner;
+import de.mide.kahoot.result2word.batch.FilePrefetcher;
+import de.mide.kahoot.result2word.batch.MemoryGovernor;
+import de.mide.kahoot.result2word.batch.ParallelExtractor;
+import de.mide.kahoot.result2word.batch.PhasedConverter;
+import de.mide.kahoot.result2word.batch.SchedulingPolicyEnum;
+import de.mide.kahoot.result2word.batch.ShardSelector;
+import de.mide.kahoot.result2word.batch.WorkClaimManager;
+import de.mide.kahoot.result2word.batch.WorkerProcessPool;
+import de.mide.kahoot.result2word.cache.QuestionListCache;
+import de.mide.kahoot.result2word.catalog.GameCatalog;
+import de.mide.kahoot.result2word.catalog.GameMetadata;
+import de.mide.kahoot.result2word.cache.RenderedSectionCache;
+import de.mide.kahoot.result2word.daemon.ConversionDaemon;
+import de.mide.kahoot.result2word.daemon.DaemonClient;
+import de.mide.kahoot.result2word.dedup.DuplicateFinder;
+import de.mide.kahoot.result2word.dedup.QuestionBank;
+import de.mide.kahoot.result2word.index.QuestionIndex;
+import de.mide.kahoot.result2word.model.AnswerOption;
 import de.mide.kahoot.result2word.model.QuestionList;
 import de.mide.kahoot.result2word.poi.KahootResultDocxWriter;
 import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.MergedDocxWriter;
+import de.mide.kahoot.result2word.poi.PoiWarmUp;
+import de.mide.kahoot.result2word.poi.QuestionBankDocxWriter;
+import de.mide.kahoot.result2word.poi.ReaderEngineSelector;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
 import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.StringInternPool;
 import de.mide.kahoot.result2word.utils.StringUtils;
 import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+import de.mide.kahoot.result2word.utils.XlsxResourceLimits;
 import de.mide.kahoot.result2word.utils.CmdLineArgsParser;
 
 
@@ -49,6 +111,28 @@ public class Main {
 	/** Output folder that can be optionally specified by user with cmdline option {@code --outfolder}. */
 	protected static Optional<String> sOutputFolderOptional = Optional.empty();
 
+	/** Cache of the question lists with option {@code --cache}, empty without this option. */
+	protected static Optional<QuestionListCache> sQuestionListCacheOptional = Optional.empty();
+
+	/** Number of files read ahead per worker thread with option {@code --readahead}, the limit in MB applies in addition. */
+	protected static final int READ_AHEAD_FILES_PER_THREAD = 2;
+
+	/** True when running as daemon (option {@code --daemon}), then requests must not start another daemon. */
+	protected static boolean sRunningAsDaemon = false;
+
+	/** Letters of the options with a file or folder as value, which is made absolute when forwarded to the daemon. */
+	protected static final Set<String> PATH_OPTION_LETTERS = new HashSet<String>( Arrays.asList( CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE,
+	                                                                                             CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER,
+	                                                                                             CMDLINE_OPTION_LETTER_O_FOR_OUTPUT_FOLDER,
+	                                                                                             CMDLINE_OPTION_LETTER_K_FOR_CACHE,
+	                                                                                             CMDLINE_OPTION_LETTER_X_FOR_INDEX,
+	                                                                                             CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES,
+	                                                                                             CMDLINE_OPTION_LETTER_B_FOR_BANK,
+	                                                                                             CMDLINE_OPTION_LETTER_M_FOR_MERGE ) );
+
+	/** Command line arguments as passed to {@link #run(String[])}, are passed on to worker processes. */
+	protected static String[] sArgs = new String[0];
+
 	/** Result of parse command line options as returned by {@link CmdLineArgsParser#parseCommandLineArguments(String[])}. */
 	protected static CommandLine sCmdLine = null;
 
@@ -60,6 +144,49 @@ public class Main {
      */
     public static void main(String[] args)  {
 
+        if (Boolean.getBoolean(PoiWarmUp.WARM_UP_PROPERTY) && !isClientOfDaemon(args)) {
+
+            PoiWarmUp.startInBackground(); // loads POI while the arguments are parsed
+        }
+
+        int resultCode = run( args );
+
+        if (resultCode != 0) { System.exit( resultCode ); }
+    }
+
+
+    /**
+     * Check the raw command line arguments for option {@code --usedaemon}, a client of the daemon does not need POI.
+     *
+     * @param args  Command line arguments, not parsed yet.
+     *
+     * @return  True if option {@code -u} or {@code --usedaemon} is present.
+     */
+    protected static boolean isClientOfDaemon(String[] args) {
+
+        for (String arg: args) {
+
+            if ( arg.equals("-" + CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON) || arg.startsWith("--usedaemon") ) { return true; }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Execute one invocation of the program; is called by {@link #main(String[])} and by the daemon
+     * (option {@code --daemon}) for each request of a client.
+     *
+     * @param args  Command line arguments, to be analyzed by {@link CmdLineArgsParser#parseCommandLineArguments(String[])}.
+     *
+     * @return  Result code, 0 on success.
+     */
+    public static int run(String[] args) {
+
+        sArgs                 = args.clone();
+        sOutputFolderOptional = Optional.empty();
+        sQuestionListCacheOptional = Optional.empty();
+
         try {
 
             sCmdLine = parseCommandLineArguments( args );
@@ -67,10 +194,16 @@ public class Main {
         catch (ParseException ex) {
 
             printHelpOnCmdLineArgs();
-            System.exit( RESULT_CODE_ON_INVALID_ARGS );
+            return RESULT_CODE_ON_INVALID_ARGS;
         }
 
-        abortBasedOnCommandLineArgsIfNeeded( sCmdLine );
+        if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_D_FOR_DAEMON) || sCmdLine.hasOption(CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON)) {
+
+            return runDaemonOrClient();
+        }
+
+        Optional<Integer> abortResultCodeOptional = abortBasedOnCommandLineArgsIfNeeded( sCmdLine );
+        if (abortResultCodeOptional.isPresent()) { return abortResultCodeOptional.get(); }
 
         loadLanguage( sCmdLine );
 
@@ -81,11 +214,42 @@ public class Main {
         }
 
 
-        // When we come to this line, then programm was started either with cmdline option -i <inputFolder> or -f <inputFile>
+        // When we come to this line, then programm was started either with cmdline option -i <inputFolder> or -f <inputFile>,
+        // or with options -x <indexFolder> and -y <words> to search the index
 
         try {
 
-            if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE)) {
+            if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_K_FOR_CACHE)) {
+
+            	String cacheFolder = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_K_FOR_CACHE);
+            	sQuestionListCacheOptional = Optional.of( QuestionListCache.fromSystemProperties(Paths.get(cacheFolder)) );
+            }
+
+            if (Boolean.getBoolean(WorkerProcessPool.WORKER_MODE_PROPERTY)) {
+
+            	WorkerProcessPool.serveRequests( Main::xlsx2docx, getFileTimeBudgetMillis() ); // started by another process with option -w
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_X_FOR_INDEX)) {
+
+            	updateOrSearchIndex();
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES)) {
+
+            	findDuplicateQuestions();
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_B_FOR_BANK)) {
+
+            	writeQuestionBank();
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_M_FOR_MERGE)) {
+
+            	writeMergedFile();
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_G_FOR_SCAN) || sCmdLine.hasOption(CMDLINE_OPTION_LETTER_E_FOR_QUERY)) {
+
+            	scanOrQueryCatalog();
+
+            } else if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE)) {
 
             	proccessSingleExcelFile();
 
@@ -99,8 +263,341 @@ public class Main {
             System.err.println( "Error: " + ex.getMessage() );
             ex.printStackTrace();
 
-            System.exit( RESULT_CODE_ON_EXCEPTION_DURING_PROCESSING );
+            return RESULT_CODE_ON_EXCEPTION_DURING_PROCESSING;
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Handle options {@code --daemon} (keep converter resident and serve requests on a Unix domain socket)
+     * and {@code --usedaemon} (forward this invocation to the daemon).
+     *
+     * @return  Result code; for the client the result code of the request executed by the daemon.
+     */
+    protected static int runDaemonOrClient() {
+
+        if (sRunningAsDaemon) {
+
+            System.out.println("\nOptions -d and -u cannot be forwarded to a daemon, aborting request.\n");
+            return RESULT_CODE_ON_INVALID_ARGS;
+        }
+
+        try {
+
+            if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON)) {
+
+                return DaemonClient.forwardRequest( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON),
+                                                    buildArgsForDaemon(), System.out, System.err );
+            }
+
+            String pathToSocketFile = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_D_FOR_DAEMON);
+
+            warmUp();
+
+            sRunningAsDaemon = true;
+
+            ConversionDaemon daemon = new ConversionDaemon( pathToSocketFile, Main::run );
+
+            System.out.println("Daemon listening on socket \"" + pathToSocketFile + "\".");
+
+            daemon.serve();
+
+            return 0;
+        }
+        catch (KahootException ex) {
+
+            System.err.println( "Error: " + ex.getMessage() );
+
+            return RESULT_CODE_ON_EXCEPTION_DURING_PROCESSING;
+        }
+    }
+
+
+    /**
+     * Build command line arguments to be forwarded to the daemon: all options of this invocation but
+     * {@code --usedaemon}, with the paths of the options in {@link #PATH_OPTION_LETTERS} made absolute,
+     * because the daemon has another working directory.
+     *
+     * @return  Arguments for {@link DaemonClient#forwardRequest(String, String[], java.io.PrintStream, java.io.PrintStream)}.
+     */
+    protected static String[] buildArgsForDaemon() {
+
+        List<String> argList = new ArrayList<String>();
+
+        for (Option option: sCmdLine.getOptions()) {
+
+            String optionLetter = option.getOpt();
+            if (optionLetter.equals(CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON)) { continue; }
+
+            argList.add( "-" + optionLetter );
+
+            if (option.hasArg()) {
+
+                String value = option.getValue();
+
+                if (PATH_OPTION_LETTERS.contains(optionLetter)) {
+
+                    value = new File(value).getAbsolutePath();
+                }
+
+                argList.add( value );
+            }
         }
+
+        argList.addAll( sCmdLine.getArgList() );
+
+        return argList.toArray( new String[argList.size()] );
+    }
+
+
+    /**
+     * Load the classes of POI and the resource bundles before the first request, so that the first
+     * request to the daemon is not slower than the following ones.
+     */
+    protected static void warmUp() {
+
+        long startNanos = System.nanoTime();
+
+        PoiWarmUp.warmUp();
+
+        TranslatedTextsProvider.loadResourceBundle(Locale.ENGLISH);
+
+        System.out.println("Warm-up of daemon took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.");
+    }
+
+
+    /**
+     * Handle options {@code --scan} and {@code --query}: with {@code --scan} the catalog of the folder given with {@code -i}
+     * is brought up to date without converting any file, see {@link GameCatalog}; with {@code --query} the games of the
+     * catalog matching the query are printed. The catalog file is in the output folder, or in the input folder if no
+     * output folder is specified.
+     *
+     * @throws KahootException  Folder or catalog could not be read, or catalog could not be written.
+     */
+    protected static void scanOrQueryCatalog() throws KahootException {
+
+    	String inputFolder   = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER);
+    	String pathToCatalog = changeOutputFolder( GameCatalog.CATALOG_FILE_NAME, sOutputFolderOptional.orElse(inputFolder) );
+
+    	GameCatalog catalog = GameCatalog.load(pathToCatalog);
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_G_FOR_SCAN)) {
+
+    		int numberOfThreads = parsePositiveNumber( sCmdLine.getOptionValue( CMDLINE_OPTION_LETTER_J_FOR_THREADS,
+    		                                                                    Runtime.getRuntime().availableProcessors() + "" ), "--threads" );
+
+    		long startNanos = System.nanoTime();
+
+    		catalog.update( findAllXlsxFilesInDirectory(inputFolder), numberOfThreads );
+    		catalog.save();
+
+    		System.out.println("\n" + catalog + " Took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.\n");
+    	}
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_E_FOR_QUERY)) {
+
+    		List<GameMetadata> games = catalog.query( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_E_FOR_QUERY) );
+
+    		for (GameMetadata game: games) {
+
+    			System.out.println(game);
+    		}
+
+    		System.out.println("\n" + games.size() + " of " + catalog.getNumberOfEntries() + " games in catalog match the query.\n");
+    	}
+    }
+
+
+    /**
+     * Handle options {@code --index} and {@code --search}: the files given with {@code -i} or {@code -f} are added to the
+     * full-text index in the folder given with {@code --index} without converting them, see {@link QuestionIndex}; with
+     * {@code --search} the games of the index with a question containing all words are printed.
+     *
+     * @throws KahootException  Folder or index could not be read, or index could not be written.
+     */
+    protected static void updateOrSearchIndex() throws KahootException {
+
+    	QuestionIndex index = QuestionIndex.load( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_X_FOR_INDEX) );
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) || sCmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE)) {
+
+    		String[] xlsxFiles = getInputFiles();
+
+    		int numberOfThreads = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_J_FOR_THREADS, "1"), "--threads" );
+
+    		long startNanos = System.nanoTime();
+
+    		index.update( xlsxFiles, Main::extractQuestionList, numberOfThreads );
+    		index.save();
+
+    		System.out.println("\n" + index + " Took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.\n");
+    	}
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_Y_FOR_SEARCH)) {
+
+    		long startNanos = System.nanoTime();
+
+    		List<QuestionIndex.SearchHit> hits = index.search( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_Y_FOR_SEARCH) );
+
+    		long searchMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+
+    		for (QuestionIndex.SearchHit hit: hits) {
+
+    			System.out.println(hit);
+    		}
+
+    		System.out.println("\n" + hits.size() + " of " + index.getNumberOfGames() + " games in index match the search. Took " + searchMillis + " ms.\n");
+    	}
+    }
+
+
+    /**
+     * Handle option {@code --duplicates}: the questions of the files given with {@code -i} or {@code -f} are extracted
+     * without converting the files, and the clusters of near-duplicate questions are written into the report file,
+     * see {@link DuplicateFinder}.
+     *
+     * @throws KahootException  Folder could not be read, or report could not be written.
+     */
+    protected static void findDuplicateQuestions() throws KahootException {
+
+    	String pathToReport    = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES);
+    	int    numberOfThreads = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_J_FOR_THREADS, "1"), "--threads" );
+
+    	long startNanos = System.nanoTime();
+
+    	DuplicateFinder   finder            = DuplicateFinder.fromSystemProperties();
+    	ParallelExtractor parallelExtractor = new ParallelExtractor( Main::extractQuestionList, numberOfThreads );
+
+    	parallelExtractor.extractAll( Arrays.asList(getInputFiles()), finder::addQuestionList );
+
+    	finder.writeReport( pathToReport, finder.findClusters() );
+
+    	System.out.println("\n" + finder + " Report written to \"" + pathToReport + "\". Took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.\n");
+    }
+
+
+    /**
+     * Handle option {@code --bank}: the questions of the files given with {@code -i} or {@code -f} are extracted
+     * without converting the files, and each distinct question is written with the games it was asked in into
+     * one Word file, see {@link QuestionBank}.
+     *
+     * @throws KahootException  Folder could not be read, or Word file could not be written.
+     */
+    protected static void writeQuestionBank() throws KahootException {
+
+    	String pathToBank      = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_B_FOR_BANK);
+    	int    numberOfThreads = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_J_FOR_THREADS, "1"), "--threads" );
+
+    	long startNanos = System.nanoTime();
+
+    	try (QuestionBank questionBank = new QuestionBank()) {
+
+    		ParallelExtractor parallelExtractor = new ParallelExtractor( Main::extractQuestionList, numberOfThreads );
+
+    		parallelExtractor.extractAll( Arrays.asList(getInputFiles()), questionBank::addQuestionList );
+
+    		QuestionBankDocxWriter docxWriter = new QuestionBankDocxWriter( pathToBank, sCmdLine.hasOption(CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE),
+    		                                                                CmdLineArgsParser.getToplineText() );
+    		docxWriter.writeQuestionBank(questionBank);
+
+    		System.out.println("\n" + questionBank + " Bank written to \"" + pathToBank + "\". Took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.\n");
+    	}
+    }
+
+
+    /**
+     * Handle option {@code --merge}: the questions of the files given with {@code -i} or {@code -f} are written into
+     * one Word file with a section per game, see {@link MergedDocxWriter}. The sections are ordered by the "Played on"
+     * date of the games, or by the policy of option {@code --queueorder} if it is given.
+     *
+     * @throws KahootException  Folder could not be read, or Word file could not be written.
+     */
+    protected static void writeMergedFile() throws KahootException {
+
+    	String pathToMerged    = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_M_FOR_MERGE);
+    	int    numberOfThreads = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_J_FOR_THREADS, "1"), "--threads" );
+
+    	long startNanos = System.nanoTime();
+
+    	String[] xlsxFiles = getInputFiles();
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER)) {
+
+    		xlsxFiles = SchedulingPolicyEnum.fromOptionValue( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER) ).sortFiles(xlsxFiles);
+
+    	} else {
+
+    		xlsxFiles = MergedDocxWriter.sortByPlayedOnDate(xlsxFiles);
+    	}
+
+    	try (MergedDocxWriter docxWriter = new MergedDocxWriter( pathToMerged,
+    	                                                         sCmdLine.hasOption(CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE),
+    	                                                         sCmdLine.hasOption(CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE),
+    	                                                         CmdLineArgsParser.getToplineText(),
+    	                                                         xlsxFiles.length )) {
+
+    		ParallelExtractor parallelExtractor = new ParallelExtractor( Main::extractQuestionList, numberOfThreads );
+
+    		parallelExtractor.extractAll( Arrays.asList(xlsxFiles), docxWriter::appendGame );
+
+    		docxWriter.finish();
+
+    		System.out.println("\n" + docxWriter + " Written to \"" + pathToMerged + "\". Took " + (System.nanoTime() - startNanos) / 1_000_000L + " ms.\n");
+    	}
+    }
+
+
+    /**
+     * Get the Excel files to be processed without converting them, for the full-text index, the duplicate report,
+     * the question bank and the merged file.
+     *
+     * @return  Files of the folder given with {@code -i}, or the file given with {@code -f}.
+     *
+     * @throws KahootException  Folder could not be read.
+     */
+    protected static String[] getInputFiles() throws KahootException {
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER)) {
+
+    		return findAllXlsxFilesInDirectory( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) );
+    	}
+
+    	return new String[] { sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE) };
+    }
+
+
+    /**
+     * Extract the questions of an Excel file without writing a Word file, e.g. for the full-text index;
+     * the cache of option {@code --cache} is used if present. Can be called by several threads at the same time.
+     *
+     * @param pathToInputExcel  Path of Excel file with Kahoot results.
+     *
+     * @return  Questions of the file.
+     *
+     * @throws KahootException  File could not be read.
+     */
+    protected static QuestionList extractQuestionList(String pathToInputExcel) throws KahootException {
+
+        Optional<String> cacheKeyOptional = Optional.empty();
+
+        if (sQuestionListCacheOptional.isPresent()) {
+
+            cacheKeyOptional = Optional.of( FileHashUtil.computeFileHash(pathToInputExcel) );
+
+            Optional<QuestionList> questionListOptional = sQuestionListCacheOptional.get().get( cacheKeyOptional.get() );
+            if (questionListOptional.isPresent()) { return questionListOptional.get(); }
+        }
+
+        KahootResultXlsxReader xlsxReader = new KahootResultXlsxReader(pathToInputExcel);
+        xlsxReader.setPrintQuestionsFound(false);
+
+        QuestionList questionList = xlsxReader.extractQuestionList();
+
+        if (cacheKeyOptional.isPresent()) { putQuestionListIntoCache(cacheKeyOptional.get(), questionList); }
+
+        return questionList;
     }
 
 
@@ -121,6 +618,16 @@ public class Main {
     /**
      * Method for processing when program was called to process all xlsx files form a particular folder
      * (which will be read from {@code CmdLineArgsParser}).
+     * The progress is recorded in a {@link BatchJournal}, so that an interrupted run can be resumed
+     * with option {@code --resume}. With option {@code --shard k/N} only the files of one shard are processed,
+     * see {@link ShardSelector}. With option {@code --claim} several processes can work on the same folder,
+     * see {@link WorkClaimManager}. With option {@code --threads} several files are converted at the same time
+     * by a {@link BatchRunner}, limited by the heap budget of a {@link MemoryGovernor}; the order in which the
+     * files are started can be set with option {@code --queueorder}, see {@link SchedulingPolicyEnum}. With option
+     * {@code --virtualthreads} each file is read and written on a virtual thread, while parsing and rendering
+     * runs on a pool with the number of threads given by {@code --threads}, see {@link PhasedConverter}. With option
+     * {@code --readahead} the next files are read into memory while the current ones are converted, see {@link FilePrefetcher}.
+     * With option {@code --workers} the files are converted in separate JVMs, see {@link WorkerProcessPool}.
      *
      * @throws KahootException  Something went wrong during performing "xlsx2docx" or when no xlsx files are found
      *                          in the specified folder.
@@ -139,43 +646,322 @@ public class Main {
 
     	System.out.println("\nNumber of xlsx files found in input folder: " + numOfXlsxFiles + "\n");
 
-    	for (String fileName: xlsxFilesInFolderStringArray) {
+    	String journalFileName = BatchJournal.JOURNAL_FILE_NAME;
+    	String resultFolder    = sOutputFolderOptional.orElse(inputFolder);
+
+    	Optional<ShardSelector> shardSelectorOptional = Optional.empty();
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_S_FOR_SHARD)) {
 
-    		xlsx2docx( fileName );
+    		ShardSelector shardSelector = ShardSelector.parse( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_S_FOR_SHARD) );
+    		shardSelectorOptional       = Optional.of(shardSelector);
 
-    		System.out.println("  file  \"" + fileName + "\" was processed.");
+    		xlsxFilesInFolderStringArray = shardSelector.selectFiles( xlsxFilesInFolderStringArray );
+    		journalFileName             += "_" + shardSelector.getFileNameSuffix(); // each node needs its own journal
+
+    		System.out.println("Number of xlsx files in shard " + shardSelector + ": " + xlsxFilesInFolderStringArray.length + "\n");
+    	}
+
+    	boolean resume = sCmdLine.hasOption(CMDLINE_OPTION_LETTER_R_FOR_RESUME);
+
+    	Set<String> completedInputs = new HashSet<String>();
+
+    	Optional<WorkClaimManager> claimManagerOptional = Optional.empty();
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_C_FOR_CLAIM)) {
+
+    		long leaseMillis = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_C_FOR_CLAIM), "--claim" ) * 1000L;
+
+    		WorkClaimManager claimManager = new WorkClaimManager(resultFolder, leaseMillis);
+    		claimManager.setOutputOptionsKey( getOutputOptionsKey() );
+    		claimManager.setResume( resume );
+    		claimManagerOptional          = Optional.of(claimManager);
+
+    		// the workers sharing the output folder may have finished any file, so all their journals are replayed
+    		if (resume) { completedInputs = BatchJournal.readCompletedInputsOfAllJournals( resultFolder, journalFileName + "_" ); }
+
+    		// several workers share the output folder, so each of them needs its own journal; the journals are named by
+    		// host and number (see BatchJournal.openFreeSlot), so the next run uses the same journals
+    		journalFileName += "_" + claimManager.getHostName().replaceAll("[^A-Za-z0-9._-]", "_");
+
+    		System.out.println("Claiming input files as worker " + claimManager.getWorkerId() + "\n");
+
+    	} else if (resume) {
+
+    		completedInputs = BatchJournal.readCompletedInputs( changeOutputFolder(journalFileName, resultFolder) );
+    	}
+
+    	String pathToJournal = changeOutputFolder( journalFileName, resultFolder );
+
+    	int     numberOfThreads   = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_J_FOR_THREADS, "1"), "--threads" );
+    	boolean useVirtualThreads = sCmdLine.hasOption(CMDLINE_OPTION_LETTER_V_FOR_VIRTUAL_THREADS);
+
+    	Optional<WorkerProcessPool> workerPoolOptional = Optional.empty();
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_W_FOR_WORKERS)) {
+
+    		int numberOfWorkers = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_W_FOR_WORKERS), "--workers" );
+
+    		workerPoolOptional = Optional.of( new WorkerProcessPool(buildWorkerCommand(), numberOfWorkers) );
+    		numberOfThreads    = numberOfWorkers; // one thread per worker, which waits for the reply of its worker
+    		useVirtualThreads  = false;
+
+    		System.out.println("Converting files in " + numberOfWorkers + " worker processes.\n");
+    	}
+
+    	Optional<MemoryGovernor> memoryGovernorOptional = Optional.empty();
+    	boolean needsGovernor = sCmdLine.hasOption(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET) || numberOfThreads > 1 || useVirtualThreads;
+    	if (needsGovernor && !workerPoolOptional.isPresent()) { // each worker process has a heap of its own
+
+    		// default budget: half of the maximum heap, the other half is left for everything else
+    		long budgetBytes = sCmdLine.hasOption(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET)
+    				           ? parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET), "--membudget" ) * 1024L * 1024L
+    				           : Runtime.getRuntime().maxMemory() / 2;
+
+    		memoryGovernorOptional = Optional.of( new MemoryGovernor(budgetBytes) );
+    	}
+
+    	SchedulingPolicyEnum schedulingPolicy = SchedulingPolicyEnum.FILE_ORDER;
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER)) {
+
+    		schedulingPolicy = SchedulingPolicyEnum.fromOptionValue( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER) );
+    	}
+
+    	Optional<PhasedConverter> phasedConverterOptional = Optional.empty();
+    	if (useVirtualThreads) {
+
+    		phasedConverterOptional = Optional.of( new PhasedConverter(Main::xlsx2docxInMemory, Main::getPathToOutputWord, numberOfThreads) );
+    	}
+
+    	Optional<FilePrefetcher> prefetcherOptional = Optional.empty();
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_A_FOR_READ_AHEAD) && !workerPoolOptional.isPresent()) {
+
+    		long maxBytes = parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_A_FOR_READ_AHEAD), "--readahead" ) * 1024L * 1024L;
+
+    		if (useVirtualThreads) {
+
+    			System.out.println("Option --readahead is ignored with --virtualthreads, files are read on the virtual threads.\n");
+
+    		} else {
+
+    			prefetcherOptional = Optional.of( new FilePrefetcher(numberOfThreads * READ_AHEAD_FILES_PER_THREAD, maxBytes) );
+    		}
+    	}
+
+    	BatchRunner.FileConverter fileConverter = Main::xlsx2docx;
+    	if (workerPoolOptional.isPresent()) {
+
+    		fileConverter = workerPoolOptional.get();
+
+    	} else if (phasedConverterOptional.isPresent()) {
+
+    		fileConverter = phasedConverterOptional.get();
+
+    	} else if (prefetcherOptional.isPresent()) {
+
+    		FilePrefetcher prefetcher = prefetcherOptional.get();
+    		fileConverter = pathToInputExcel -> xlsx2docx(prefetcher, pathToInputExcel);
+    	}
+
+    	BatchRunner batchRunner = null;
+
+    	try (BatchJournal journal = claimManagerOptional.isPresent() ? BatchJournal.openFreeSlot(pathToJournal, resume)
+    	                                                             : new BatchJournal(pathToJournal, resume)) {
+
+    		batchRunner = new BatchRunner( fileConverter, journal, completedInputs );
+    		batchRunner.setNumberOfThreads( numberOfThreads );
+    		batchRunner.setUseVirtualThreads( useVirtualThreads );
+    		batchRunner.setContinueOnError( workerPoolOptional.isPresent() || sCmdLine.hasOption(CMDLINE_OPTION_LETTER_B_FOR_BUDGET) );
+    		batchRunner.setFileTimeBudgetMillis( getFileTimeBudgetMillis() );
+
+    		prefetcherOptional    .ifPresent( batchRunner::setPrefetcher     );
+
+    		claimManagerOptional  .ifPresent( batchRunner::setClaimManager   );
+    		memoryGovernorOptional.ifPresent( batchRunner::setMemoryGovernor );
+
+    		batchRunner.run( schedulingPolicy.sortFiles(xlsxFilesInFolderStringArray) );
+    	}
+    	finally {
+
+    		claimManagerOptional   .ifPresent( WorkClaimManager::close );
+    		phasedConverterOptional.ifPresent( PhasedConverter::close  );
+    		prefetcherOptional     .ifPresent( FilePrefetcher::close   );
+    		workerPoolOptional     .ifPresent( WorkerProcessPool::close );
+    	}
+
+    	System.out.println("\nScheduling policy \"" + schedulingPolicy.getOptionValue() + "\": " + batchRunner.getStatisticsString());
+
+    	memoryGovernorOptional.ifPresent( memoryGovernor -> System.out.println(memoryGovernor) );
+    	prefetcherOptional    .ifPresent( prefetcher     -> System.out.println(prefetcher)     );
+    	workerPoolOptional    .ifPresent( workerPool     -> System.out.println(workerPool)     );
+
+    	if (!workerPoolOptional.isPresent()) { // workers use the caches themselves
+
+    		sQuestionListCacheOptional.ifPresent( questionListCache -> System.out.println(questionListCache) );
+    		RenderedSectionCache.getDefault().ifPresent( sectionCache -> System.out.println(sectionCache) );
+    	}
+
+    	StringInternPool.getDefault().ifPresent( stringInternPool -> System.out.println(stringInternPool) );
+
+    	if (shardSelectorOptional.isPresent()) {
+
+    		String pathToSummary = shardSelectorOptional.get().writeSummaryFile( resultFolder, xlsxFilesInFolderStringArray,
+    		                                                                    batchRunner.getNumberOfFilesProcessed(),
+    		                                                                    batchRunner.getNumberOfFilesSkipped() );
+
+    		System.out.println("\nSummary for shard written: " + pathToSummary);
+    	}
+
+    	if (batchRunner.getNumberOfFilesFailed() > 0) {
+
+    		throw new KahootException(batchRunner.getNumberOfFilesFailed() + " files could not be converted, see messages above; "
+    		                          + "they can be tried again with option --resume.");
     	}
 
     	System.out.println();
     }
 
 
+    /**
+     * Key of the options determining the content of the docx files (language, new page, percentage, topline),
+     * is written into the done markers of option {@code --claim}, see {@link WorkClaimManager#setOutputOptionsKey(String)}.
+     *
+     * @return  Key derived from the values of the options.
+     */
+    protected static String getOutputOptionsKey() {
+
+    	String options = sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_L_FOR_LOCALE, "en")  + "\n" +
+    	                 sCmdLine.hasOption(CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE)            + "\n" +
+    	                 sCmdLine.hasOption(CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE)         + "\n" +
+    	                 CmdLineArgsParser.getToplineText().orElse("");
+
+    	return UUID.nameUUIDFromBytes( options.getBytes(StandardCharsets.UTF_8) ).toString();
+    }
+
+
+    /**
+     * Build command to start a worker JVM for option {@code --workers}: same Java and class path as this JVM,
+     * same command line arguments, resource limits, reader engine thresholds, string pool and cache sizes; the heap of each worker is the value of {@code --membudget} if specified.
+     *
+     * @return  Command for {@link WorkerProcessPool}.
+     *
+     * @throws KahootException  Invalid value for {@code --membudget}.
+     */
+    protected static List<String> buildWorkerCommand() throws KahootException {
+
+    	List<String> command = new ArrayList<String>();
+
+    	command.add( System.getProperty("java.home") + File.separator + "bin" + File.separator + "java" );
+    	command.add( "-XX:+ExitOnOutOfMemoryError" ); // worker dies and is restarted instead of limping on
+
+    	if (sCmdLine.hasOption(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET)) {
+
+    		command.add( "-Xmx" + parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET), "--membudget" ) + "m" );
+    	}
+
+    	command.add( "-D" + WorkerProcessPool.WORKER_MODE_PROPERTY + "=true" );
+
+    	for (String propertyName: System.getProperties().stringPropertyNames()) {
+
+    		if ( propertyName.startsWith(XlsxResourceLimits.PROPERTY_PREFIX) ||  // workers must reject the same files
+    		     propertyName.startsWith(ReaderEngineSelector.PROPERTY_PREFIX) ||
+    		     propertyName.startsWith(StringInternPool.PROPERTY_PREFIX)     ||
+    		     propertyName.startsWith(QuestionListCache.PROPERTY_PREFIX)    ||
+    		     propertyName.startsWith(RenderedSectionCache.PROPERTY_PREFIX) ) {
+
+    			command.add( "-D" + propertyName + "=" + System.getProperty(propertyName) );
+    		}
+    	}
+    	command.add( "-cp" );
+    	command.add( System.getProperty("java.class.path") );
+    	command.add( Main.class.getName() );
+    	command.addAll( Arrays.asList(sArgs) );
+
+    	return command;
+    }
+
+
+    /**
+     * Get time budget for each file from option {@code --budget}.
+     *
+     * @return  Milliseconds per file, 0 if the option was not given.
+     *
+     * @throws KahootException  Value of option is not a positive number.
+     */
+    protected static long getFileTimeBudgetMillis() throws KahootException {
+
+    	if (!sCmdLine.hasOption(CMDLINE_OPTION_LETTER_B_FOR_BUDGET)) { return 0; }
+
+    	return parsePositiveNumber( sCmdLine.getOptionValue(CMDLINE_OPTION_LETTER_B_FOR_BUDGET), "--budget" ) * 1000L;
+    }
+
+
+    /**
+     * Parse value of a command line option which has to be a positive number, e.g. {@code --claim} or {@code --threads}.
+     *
+     * @param numberString  Value of command line option.
+     *
+     * @param optionName  Name of option, for error message.
+     *
+     * @return  Parsed number, is positive.
+     *
+     * @throws KahootException  Value is not a positive number.
+     */
+    protected static int parsePositiveNumber(String numberString, String optionName) throws KahootException {
+
+    	try {
+
+    		int number = Integer.parseInt( numberString.trim() );
+
+    		if (number > 0) { return number; }
+    	}
+    	catch (NumberFormatException ex) { /* handled below */ }
+
+    	throw new KahootException("Value for option " + optionName + " must be a positive number, but was \"" + numberString + "\".");
+    }
+
+
     /**
      * Programmatic consistency checks of command line arguments:
-     * When neither option {@code -i} nor {@code -f} is specified, then program executed is aborted with result
+     * When neither option {@code -i} nor {@code -f} is specified (and the index is not only searched with {@code -x} and {@code -y}),
+     * then program executed is aborted with result
      * code {@link #RESULT_CODE_ON_INVALID_ARGS}; the program is also aborted when both options are specified
      * at the same time (they are not compatible().
      *
      * @param cmdLine  Object with result of parsing command line arguments.
+     *
+     * @return  Result code with which the program is to be aborted, or empty Optional if the program is to continue.
      */
-    protected static void abortBasedOnCommandLineArgsIfNeeded(CommandLine cmdLine) {
+    protected static Optional<Integer> abortBasedOnCommandLineArgsIfNeeded(CommandLine cmdLine) {
 
         if ( cmdLine.hasOption(CMDLINE_OPTION_LETTER_H_FOR_HELP) ) {
 
             printHelpOnCmdLineArgs();
-            System.exit(0);
+            return Optional.of(0);
         }
 
-        if (!cmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) && !cmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE)) {
+        boolean onlySearchIndex = cmdLine.hasOption(CMDLINE_OPTION_LETTER_X_FOR_INDEX) && cmdLine.hasOption(CMDLINE_OPTION_LETTER_Y_FOR_SEARCH);
+
+        if (!cmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) && !cmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE) && !onlySearchIndex) {
 
             System.out.println("\nNeither Command Line Option -i nor -f was specified, aborting program.\n");
-            System.exit(RESULT_CODE_ON_INVALID_ARGS);
+            return Optional.of(RESULT_CODE_ON_INVALID_ARGS);
         }
 
         if (cmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) && cmdLine.hasOption(CMDLINE_OPTION_LETTER_F_FOR_INPUT_FILE)) {
 
             System.out.println("\nBoth command line options -i and -f were specified, aborting program.\n");
-            System.exit(RESULT_CODE_ON_INVALID_ARGS);
+            return Optional.of(RESULT_CODE_ON_INVALID_ARGS);
+        }
+
+        if ( (cmdLine.hasOption(CMDLINE_OPTION_LETTER_G_FOR_SCAN) || cmdLine.hasOption(CMDLINE_OPTION_LETTER_E_FOR_QUERY))
+             && !cmdLine.hasOption(CMDLINE_OPTION_LETTER_I_FOR_INPUT_FOLDER) ) {
+
+            System.out.println("\nCommand line options --scan and --query need option -i, aborting program.\n");
+            return Optional.of(RESULT_CODE_ON_INVALID_ARGS);
+        }
+
+        if (cmdLine.hasOption(CMDLINE_OPTION_LETTER_Y_FOR_SEARCH) && !cmdLine.hasOption(CMDLINE_OPTION_LETTER_X_FOR_INDEX)) {
+
+            System.out.println("\nCommand line option --search needs option -x, aborting program.\n");
+            return Optional.of(RESULT_CODE_ON_INVALID_ARGS);
         }
 
         if (cmdLine.hasOption(CMDLINE_OPTION_LETTER_O_FOR_OUTPUT_FOLDER)) {
@@ -185,9 +971,11 @@ public class Main {
 
         	if (targetFolderExists == false) {
         		System.out.println("\nTarget folder \"" + targetFolder + "\" does not exist or is not a folder, aborting program.\n");
-        		System.exit(RESULT_CODE_TARGET_FOLDER_NOT_EXISTING);
+        		return Optional.of(RESULT_CODE_TARGET_FOLDER_NOT_EXISTING);
         	}
         }
+
+        return Optional.empty();
     }
 
 
@@ -211,6 +999,8 @@ public class Main {
 
             TranslatedTextsProvider.loadResourceBundle(Locale.ENGLISH);
         }
+
+        AnswerOption.resetTranslatedTexts(); // daemon might serve requests with different languages
     }
 
 
@@ -220,33 +1010,235 @@ public class Main {
      * @param pathToInputExcel  Relative path to Excel file with Kahoot results to be read; suffix {@code .xlsx}
      *                          is replaced with {@code .docx} to obtain name of target file.
      *
+     * @return  Path of the Word file that was written.
+     *
      * @throws KahootException  Something went wrong
      */
-    protected static void xlsx2docx(String pathToInputExcel) throws KahootException {
+    protected static String xlsx2docx(String pathToInputExcel) throws KahootException {
 
-        QuestionList questionList = null;
+        Optional<String> cacheKeyOptional = Optional.empty();
+
+        if (sQuestionListCacheOptional.isPresent()) {
+
+            cacheKeyOptional = Optional.of( FileHashUtil.computeFileHash(pathToInputExcel) );
+
+            Optional<QuestionList> questionListOptional = getCachedQuestionList(cacheKeyOptional.get(), pathToInputExcel);
+            if (questionListOptional.isPresent()) { return writeWordFile(questionListOptional.get(), pathToInputExcel); }
+        }
 
         KahootResultXlsxReader xlsxReader = new KahootResultXlsxReader(pathToInputExcel);
 
+        return xlsx2docx(xlsxReader, pathToInputExcel, cacheKeyOptional);
+    }
+
+
+    /**
+     * Variant of {@link #xlsx2docx(String)} which takes the content of the input file from a read-ahead buffer
+     * if available.
+     *
+     * @param prefetcher  Prefetcher which has read ahead the input files.
+     *
+     * @param pathToInputExcel  Relative path to Excel file with Kahoot results to be read.
+     *
+     * @return  Path of the Word file that was written.
+     *
+     * @throws KahootException  Something went wrong
+     */
+    protected static String xlsx2docx(FilePrefetcher prefetcher, String pathToInputExcel) throws KahootException {
+
+        ByteBuffer xlsxBuffer = prefetcher.take(pathToInputExcel);
+
+        if (xlsxBuffer == null) { return xlsx2docx(pathToInputExcel); } // file was not read ahead
+
+        Optional<String>       cacheKeyOptional     = Optional.empty();
+        Optional<QuestionList> questionListOptional = Optional.empty();
+
+        KahootResultXlsxReader xlsxReader = null;
+        try {
+
+            if (sQuestionListCacheOptional.isPresent()) {
+
+                cacheKeyOptional     = Optional.of( QuestionListCache.computeKey(xlsxBuffer) );
+                questionListOptional = getCachedQuestionList(cacheKeyOptional.get(), pathToInputExcel);
+            }
+
+            if (!questionListOptional.isPresent()) {
+
+                xlsxReader = new KahootResultXlsxReader(xlsxBuffer, pathToInputExcel);
+            }
+        }
+        finally {
+
+            prefetcher.release(pathToInputExcel); // workbook was loaded, so buffer can be reused
+        }
+
+        if (questionListOptional.isPresent()) { return writeWordFile(questionListOptional.get(), pathToInputExcel); }
+
+        return xlsx2docx(xlsxReader, pathToInputExcel, cacheKeyOptional);
+    }
+
+
+    /**
+     * Extract questions from workbook loaded by {@code xlsxReader}, add them to the cache and write Word file.
+     *
+     * @param xlsxReader  Reader with loaded workbook.
+     *
+     * @param pathToInputExcel  Path of Excel file, to obtain name of target file.
+     *
+     * @param cacheKeyOptional  Key of the question list in the cache of option {@code --cache}, if used.
+     *
+     * @return  Path of the Word file that was written.
+     *
+     * @throws KahootException  Something went wrong
+     */
+    protected static String xlsx2docx(KahootResultXlsxReader xlsxReader, String pathToInputExcel, Optional<String> cacheKeyOptional) throws KahootException {
+
+        QuestionList questionList = null;
+
         // read input file (Excel file with results downloaded from Kahoot)
         questionList = xlsxReader.extractQuestionList();
 
+        if (cacheKeyOptional.isPresent()) { putQuestionListIntoCache(cacheKeyOptional.get(), questionList); }
 
-        System.out.println( "\n" + questionList.toString() + "\n");
+        return writeWordFile(questionList, pathToInputExcel);
+    }
 
 
-        String pathToOutputWord = StringUtils.changeFilenameExtensionXlsx2Docx(pathToInputExcel);
+    /**
+     * Write Word file for the questions of an Excel file.
+     *
+     * @param questionList  Questions extracted from the Excel file or taken from the cache.
+     *
+     * @param pathToInputExcel  Path of Excel file, to obtain name of target file.
+     *
+     * @return  Path of the Word file that was written.
+     *
+     * @throws KahootException  Something went wrong
+     */
+    protected static String writeWordFile(QuestionList questionList, String pathToInputExcel) throws KahootException {
 
-        if (sOutputFolderOptional.isPresent()) {
+        System.out.println( "\n" + questionList.toString() + "\n");
 
-        	pathToOutputWord = changeOutputFolder(pathToOutputWord, sOutputFolderOptional.get());
-        }
+
+        String pathToOutputWord = getPathToOutputWord(pathToInputExcel);
 
         KahootResultDocxWriter docxWriter = new KahootResultDocxWriter(questionList, pathToOutputWord, sCmdLine);
 
         docxWriter.writeResultFile();
 
         System.out.println("Target file written: " + pathToOutputWord);
+
+        return pathToOutputWord;
+    }
+
+
+    /**
+     * CPU-heavy part of {@link #xlsx2docx(String)} without any file access: parse content of input file
+     * and render the Word document into memory.
+     *
+     * @param xlsxBytes  Content of Excel file with Kahoot results.
+     *
+     * @param pathToInputExcel  Path of Excel file the content was read from, to obtain name of target file.
+     *
+     * @return  Content of Word file.
+     *
+     * @throws KahootException  Something went wrong
+     */
+    protected static byte[] xlsx2docxInMemory(byte[] xlsxBytes, String pathToInputExcel) throws KahootException {
+
+        Optional<QuestionList> questionListOptional = Optional.empty();
+        String cacheKey = null;
+
+        if (sQuestionListCacheOptional.isPresent()) {
+
+            cacheKey             = QuestionListCache.computeKey( ByteBuffer.wrap(xlsxBytes) );
+            questionListOptional = getCachedQuestionList(cacheKey, pathToInputExcel);
+        }
+
+        QuestionList questionList = null;
+        if (questionListOptional.isPresent()) {
+
+            questionList = questionListOptional.get();
+
+        } else {
+
+            KahootResultXlsxReader xlsxReader = new KahootResultXlsxReader( new ByteArrayInputStream(xlsxBytes), pathToInputExcel );
+
+            questionList = xlsxReader.extractQuestionList();
+
+            if (cacheKey != null) { putQuestionListIntoCache(cacheKey, questionList); }
+        }
+
+        System.out.println( "\n" + questionList.toString() + "\n");
+
+        KahootResultDocxWriter docxWriter = new KahootResultDocxWriter(questionList, getPathToOutputWord(pathToInputExcel), sCmdLine);
+
+        ByteArrayOutputStream docxStream = new ByteArrayOutputStream();
+
+        docxWriter.writeResultFile(docxStream);
+
+        return docxStream.toByteArray();
+    }
+
+
+    /**
+     * Look up question list in the cache of option {@code --cache}, which must be present.
+     *
+     * @param cacheKey  Hash of content of Excel file.
+     *
+     * @param pathToInputExcel  Path of Excel file, for the message written to STDOUT.
+     *
+     * @return  Question list, or empty if the file was not converted before.
+     */
+    protected static Optional<QuestionList> getCachedQuestionList(String cacheKey, String pathToInputExcel) {
+
+        Optional<QuestionList> questionListOptional = sQuestionListCacheOptional.get().get(cacheKey);
+
+        if (questionListOptional.isPresent()) { System.out.println("Questions of \"" + pathToInputExcel + "\" taken from cache."); }
+
+        return questionListOptional;
+    }
+
+
+    /**
+     * Add question list to the cache of option {@code --cache}, which must be present; a failure is only reported,
+     * as the conversion itself was successful.
+     *
+     * @param cacheKey  Hash of content of Excel file.
+     *
+     * @param questionList  Questions extracted from the Excel file.
+     */
+    protected static void putQuestionListIntoCache(String cacheKey, QuestionList questionList) {
+
+        try {
+            sQuestionListCacheOptional.get().put(cacheKey, questionList);
+        }
+        catch (KahootException ex) {
+
+            System.out.println("Question list not cached: " + ex.getMessage());
+        }
+    }
+
+
+    /**
+     * Get path of Word file to be written for an Excel file, considering the output folder.
+     *
+     * @param pathToInputExcel  Path of Excel file with Kahoot results.
+     *
+     * @return  Path of Word file: suffix {@code .xlsx} replaced with {@code .docx}, in the output folder if specified.
+     *
+     * @throws KahootException  Output folder could not be applied.
+     */
+    protected static String getPathToOutputWord(String pathToInputExcel) throws KahootException {
+
+        String pathToOutputWord = StringUtils.changeFilenameExtensionXlsx2Docx(pathToInputExcel);
+
+        if (sOutputFolderOptional.isPresent()) {
+
+        	pathToOutputWord = changeOutputFolder(pathToOutputWord, sOutputFolderOptional.get());
+        }
+
+        return pathToOutputWord;
     }
 
 }
@@ -0,0 +1,231 @@
+package de.mide.kahoot.result2word.api;
+
+import java.util.Optional;
+
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+
+
+/**
+ * Event sent by {@link ConversionEventPublisher}; which getters return a value depends on the type of the event.
+ * Objects of this class are immutable.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionEvent {
+
+	/** Type of event. */
+	protected final ConversionEventTypeEnum _type;
+
+	/** Input file the event refers to. */
+	protected final String _nameOfInput;
+
+	/** Title of the game, for events of type {@link ConversionEventTypeEnum#TITLE}. */
+	protected final String _title;
+
+	/** Number of questions for events of type TITLE, 1-based number of question for type QUESTION, else 0. */
+	protected final int _number;
+
+	/** Question, for events of type {@link ConversionEventTypeEnum#QUESTION}. */
+	protected final AbstractQuestion _question;
+
+	/** Path of Word file written, or error message for events of type {@link ConversionEventTypeEnum#FILE_FAILED}. */
+	protected final String _detail;
+
+
+	/**
+	 * Constructor, use the static factory methods.
+	 *
+	 * @param type  Type of event.
+	 *
+	 * @param nameOfInput  Input file the event refers to.
+	 *
+	 * @param title  Title of game or {@code null}.
+	 *
+	 * @param number  Number of questions or of question.
+	 *
+	 * @param question  Question or {@code null}.
+	 *
+	 * @param detail  Path of output file, error message or {@code null}.
+	 */
+	protected ConversionEvent(ConversionEventTypeEnum type, String nameOfInput, String title, int number, AbstractQuestion question, String detail) {
+
+		_type        = type;
+		_nameOfInput = nameOfInput;
+		_title       = title;
+		_number      = number;
+		_question    = question;
+		_detail      = detail;
+	}
+
+
+	/**
+	 * Create event of type {@link ConversionEventTypeEnum#TITLE}.
+	 *
+	 * @param nameOfInput  Input file.
+	 *
+	 * @param title  Title of game.
+	 *
+	 * @param numberOfQuestions  Number of sheets with questions.
+	 *
+	 * @return  New event.
+	 */
+	public static ConversionEvent createTitleEvent(String nameOfInput, String title, int numberOfQuestions) {
+
+		return new ConversionEvent(ConversionEventTypeEnum.TITLE, nameOfInput, title, numberOfQuestions, null, null);
+	}
+
+
+	/**
+	 * Create event of type {@link ConversionEventTypeEnum#QUESTION}.
+	 *
+	 * @param nameOfInput  Input file.
+	 *
+	 * @param questionNo  1-based number of question.
+	 *
+	 * @param question  Question.
+	 *
+	 * @return  New event.
+	 */
+	public static ConversionEvent createQuestionEvent(String nameOfInput, int questionNo, AbstractQuestion question) {
+
+		return new ConversionEvent(ConversionEventTypeEnum.QUESTION, nameOfInput, null, questionNo, question, null);
+	}
+
+
+	/**
+	 * Create event of type {@link ConversionEventTypeEnum#FILE_COMPLETED}.
+	 *
+	 * @param nameOfInput  Input file.
+	 *
+	 * @param pathOfOutput  Word file written, or {@code null} if the questions were only extracted.
+	 *
+	 * @return  New event.
+	 */
+	public static ConversionEvent createFileCompletedEvent(String nameOfInput, String pathOfOutput) {
+
+		return new ConversionEvent(ConversionEventTypeEnum.FILE_COMPLETED, nameOfInput, null, 0, null, pathOfOutput);
+	}
+
+
+	/**
+	 * Create event of type {@link ConversionEventTypeEnum#FILE_FAILED}.
+	 *
+	 * @param nameOfInput  Input file.
+	 *
+	 * @param errorMessage  Description of error.
+	 *
+	 * @return  New event.
+	 */
+	public static ConversionEvent createFileFailedEvent(String nameOfInput, String errorMessage) {
+
+		return new ConversionEvent(ConversionEventTypeEnum.FILE_FAILED, nameOfInput, null, 0, null, errorMessage);
+	}
+
+
+	/**
+	 * Getter for type of event.
+	 *
+	 * @return  Type of event.
+	 */
+	public ConversionEventTypeEnum getType() {
+
+		return _type;
+	}
+
+
+	/**
+	 * Getter for input file the event refers to.
+	 *
+	 * @return  Path of input file.
+	 */
+	public String getNameOfInput() {
+
+		return _nameOfInput;
+	}
+
+
+	/**
+	 * Getter for title of game.
+	 *
+	 * @return  Title for events of type {@link ConversionEventTypeEnum#TITLE}, else empty.
+	 */
+	public Optional<String> getTitle() {
+
+		return Optional.ofNullable(_title);
+	}
+
+
+	/**
+	 * Getter for number of questions of the input file.
+	 *
+	 * @return  Number of questions for events of type {@link ConversionEventTypeEnum#TITLE}, else 0.
+	 */
+	public int getNumberOfQuestions() {
+
+		return _type == ConversionEventTypeEnum.TITLE ? _number : 0;
+	}
+
+
+	/**
+	 * Getter for number of question.
+	 *
+	 * @return  1-based number of question for events of type {@link ConversionEventTypeEnum#QUESTION}, else 0.
+	 */
+	public int getQuestionNo() {
+
+		return _type == ConversionEventTypeEnum.QUESTION ? _number : 0;
+	}
+
+
+	/**
+	 * Getter for question.
+	 *
+	 * @return  Question for events of type {@link ConversionEventTypeEnum#QUESTION}, else empty.
+	 */
+	public Optional<AbstractQuestion> getQuestion() {
+
+		return Optional.ofNullable(_question);
+	}
+
+
+	/**
+	 * Getter for Word file written.
+	 *
+	 * @return  Path of Word file for events of type {@link ConversionEventTypeEnum#FILE_COMPLETED}
+	 *          if a Word file was written, else empty.
+	 */
+	public Optional<String> getPathOfOutput() {
+
+		return _type == ConversionEventTypeEnum.FILE_COMPLETED ? Optional.ofNullable(_detail) : Optional.empty();
+	}
+
+
+	/**
+	 * Getter for error message.
+	 *
+	 * @return  Error message for events of type {@link ConversionEventTypeEnum#FILE_FAILED}, else empty.
+	 */
+	public Optional<String> getErrorMessage() {
+
+		return _type == ConversionEventTypeEnum.FILE_FAILED ? Optional.ofNullable(_detail) : Optional.empty();
+	}
+
+
+	/**
+	 * String representation of event for logging.
+	 *
+	 * @return  Type, input and details of event.
+	 */
+	@Override
+	public String toString() {
+
+		switch (_type) {
+
+			case TITLE:    return "TITLE of \"" + _nameOfInput + "\": \"" + _title + "\" with " + _number + " questions";
+			case QUESTION: return "QUESTION " + _number + " of \"" + _nameOfInput + "\": " + _question;
+			default:       return _type + " \"" + _nameOfInput + "\"" + (_detail != null ? ": " + _detail : "");
+		}
+	}
+
+}
@@ -0,0 +1,378 @@
+package de.mide.kahoot.result2word.api;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.DirectoryUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Publisher converting one or several Kahoot result files and sending a {@link ConversionEvent} for the title
+ * of each file, for each question as soon as its sheet was decoded and for the completion of each file;
+ * {@link EventFlow.Subscriber#onComplete()} is called after the last file. A file that cannot be converted
+ * results in an event of type {@link ConversionEventTypeEnum#FILE_FAILED}, the following files are still converted.
+ * <br><br>
+ *
+ * Each subscription converts the files on its own thread. The subscriber controls the pace: when it has
+ * not requested further events, the conversion waits before decoding the next sheet, so events are never
+ * buffered. After {@link EventFlow.Subscription#cancel()} the conversion stops at the next event, or at the
+ * next question when the Word file is written.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionEventPublisher implements EventFlow.Publisher<ConversionEvent> {
+
+	/** Converter used for writing the Word files. */
+	protected final KahootResultConverter _converter;
+
+	/** Input files, converted in this order. */
+	protected final List<Path> _inputFiles;
+
+	/** Folder for the Word files; if empty, the questions are only extracted. */
+	protected final Optional<Path> _outputFolderOptional;
+
+	/** Options for the conversions, copied by the constructor. */
+	protected final ConversionOptions _options;
+
+	/** Executor running the conversion of each subscription, {@code null} for a new thread. */
+	protected Executor _executor = null;
+
+
+	/**
+	 * Thrown internally to end the conversion after the subscription was cancelled.
+	 */
+	protected static class SubscriptionCancelledException extends KahootException {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Constructor. */
+		protected SubscriptionCancelledException() {
+
+			super("Subscription was cancelled.");
+		}
+	}
+
+
+	/**
+	 * Subscription of one subscriber, also the task converting the files.
+	 */
+	protected class ConversionSubscription implements EventFlow.Subscription, Runnable {
+
+		/** Receiver of the events. */
+		protected final EventFlow.Subscriber<? super ConversionEvent> _subscriber;
+
+		/** Number of events requested but not sent yet, guarded by {@code this}. */
+		protected long _demand = 0;
+
+		/** Set by {@link #cancel()}, guarded by {@code this}. */
+		protected boolean _cancelled = false;
+
+		/** Illegal argument of {@link #request(long)}, reported by the conversion thread; guarded by {@code this}. */
+		protected IllegalArgumentException _illegalRequestException = null;
+
+		/** Token of the conversion thread, cancelled by {@link #cancel()} so that also writing the Word file stops. */
+		protected final CancellationToken _cancellationToken = new CancellationToken();
+
+
+		/**
+		 * Constructor.
+		 *
+		 * @param subscriber  Receiver of the events.
+		 */
+		protected ConversionSubscription(EventFlow.Subscriber<? super ConversionEvent> subscriber) {
+
+			_subscriber = subscriber;
+		}
+
+		@Override
+		public synchronized void request(long n) {
+
+			if (n <= 0) {
+
+				_illegalRequestException = new IllegalArgumentException("Number of requested events must be positive, but was " + n + ".");
+
+			} else {
+
+				_demand = _demand + n < 0 ? Long.MAX_VALUE : _demand + n; // no overflow
+			}
+
+			notifyAll();
+		}
+
+		@Override
+		public synchronized void cancel() {
+
+			_cancelled = true;
+			_cancellationToken.cancel();
+
+			notifyAll();
+		}
+
+		@Override
+		public void run() {
+
+			CancellationToken.setCurrent(_cancellationToken);
+			try {
+
+				for (Path inputFile: _inputFiles) {
+
+					convertFile(inputFile);
+				}
+
+				if (waitForDemand(false)) { _subscriber.onComplete(); }
+			}
+			catch (SubscriptionCancelledException ex) {
+
+				// no further signals after cancel()
+			}
+			catch (IllegalArgumentException ex) {
+
+				_subscriber.onError(ex);
+			}
+			catch (RuntimeException ex) {
+
+				boolean cancelled;
+				synchronized (this) { cancelled = _cancelled; }
+
+				if (!cancelled) { _subscriber.onError(ex); }
+			}
+			finally {
+
+				CancellationToken.setCurrent(null);
+			}
+		}
+
+
+		/**
+		 * Convert one file and send its events.
+		 *
+		 * @param inputFile  Xlsx file.
+		 *
+		 * @throws SubscriptionCancelledException  Subscription was cancelled.
+		 */
+		protected void convertFile(Path inputFile) throws SubscriptionCancelledException {
+
+			String nameOfInput = inputFile.toString();
+
+			try {
+
+				KahootResultXlsxReader reader = KahootResultConverter.createReader( inputFile, _options.getResourceLimits() );
+
+				reader.setExtractionListener( new KahootResultXlsxReader.ExtractionListener() {
+
+					@Override
+					public void titleExtracted(String title, int numberOfQuestions) throws KahootException {
+
+						emit( ConversionEvent.createTitleEvent(nameOfInput, title, numberOfQuestions) );
+					}
+
+					@Override
+					public void questionExtracted(int questionNo, AbstractQuestion question) throws KahootException {
+
+						emit( ConversionEvent.createQuestionEvent(nameOfInput, questionNo, question) );
+					}
+				});
+
+				String pathOfOutput = null;
+
+				if (_outputFolderOptional.isPresent()) {
+
+					Path outputFile = _outputFolderOptional.get().resolve( KahootResultConverter.getNameOfWordDocument(inputFile.getFileName().toString()) );
+
+					try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(outputFile))) {
+
+						_converter.convert(reader, nameOfInput, outputStream, _options);
+					}
+					catch (KahootException | IOException ex) {
+
+						Files.deleteIfExists(outputFile); // no incomplete Word files
+						throw ex;
+					}
+					pathOfOutput = outputFile.toString();
+
+				} else {
+
+					reader.setPrintQuestionsFound( _options.getPrintQuestionsFound() );
+					reader.setStringInternPool( _options.getStringInternPool().orElse(null) );
+					reader.extractQuestionList();
+				}
+
+				emit( ConversionEvent.createFileCompletedEvent(nameOfInput, pathOfOutput) );
+			}
+			catch (SubscriptionCancelledException ex) {
+
+				throw ex;
+			}
+			catch (KahootException | IOException ex) {
+
+				emit( ConversionEvent.createFileFailedEvent(nameOfInput, ex.getMessage()) );
+			}
+		}
+
+
+		/**
+		 * Send event as soon as the subscriber has requested it.
+		 *
+		 * @param event  Event to be sent.
+		 *
+		 * @throws SubscriptionCancelledException  Subscription was cancelled.
+		 */
+		protected void emit(ConversionEvent event) throws SubscriptionCancelledException {
+
+			if ( !waitForDemand(true) ) { throw new SubscriptionCancelledException(); }
+
+			_subscriber.onNext(event);
+		}
+
+
+		/**
+		 * Wait until an event was requested.
+		 *
+		 * @param consume  True if the demand is to be decremented.
+		 *
+		 * @return  False if the subscription was cancelled.
+		 *
+		 * @throws IllegalArgumentException  Subscriber requested an illegal number of events.
+		 */
+		protected synchronized boolean waitForDemand(boolean consume) {
+
+			while (true) {
+
+				if (_illegalRequestException != null) { throw _illegalRequestException; }
+
+				if (_cancelled) { return false; }
+
+				if (_demand > 0 || !consume) { break; }
+
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+
+					Thread.currentThread().interrupt();
+					_cancelled = true;
+				}
+			}
+
+			if (consume && _demand != Long.MAX_VALUE) { _demand--; }
+
+			return true;
+		}
+	}
+
+
+	/**
+	 * Create publisher for one file.
+	 *
+	 * @param converter  Converter used for writing the Word file.
+	 *
+	 * @param inputFile  Xlsx file.
+	 *
+	 * @param outputFolder  Folder for the Word file, or {@code null} if the questions are only to be extracted.
+	 *
+	 * @param options  Options for the conversion, are copied.
+	 */
+	public ConversionEventPublisher(KahootResultConverter converter, Path inputFile, Path outputFolder, ConversionOptions options) {
+
+		this( converter, Collections.singletonList(inputFile), outputFolder, options );
+	}
+
+
+	/**
+	 * Create publisher for several files.
+	 *
+	 * @param converter  Converter used for writing the Word files.
+	 *
+	 * @param inputFiles  Xlsx files, are converted in this order.
+	 *
+	 * @param outputFolder  Folder for the Word files, or {@code null} if the questions are only to be extracted.
+	 *
+	 * @param options  Options for the conversions, are copied.
+	 */
+	public ConversionEventPublisher(KahootResultConverter converter, List<Path> inputFiles, Path outputFolder, ConversionOptions options) {
+
+		_converter            = converter;
+		_inputFiles           = new ArrayList<Path>(inputFiles);
+		_outputFolderOptional = Optional.ofNullable(outputFolder);
+		_options              = new ConversionOptions(options);
+	}
+
+
+	/**
+	 * Create publisher for all xlsx files in a folder.
+	 *
+	 * @param converter  Converter used for writing the Word files.
+	 *
+	 * @param inputFolder  Folder with xlsx files.
+	 *
+	 * @param outputFolder  Folder for the Word files, or {@code null} if the questions are only to be extracted.
+	 *
+	 * @param options  Options for the conversions, are copied.
+	 *
+	 * @return  New publisher.
+	 *
+	 * @throws KahootException  Folder does not exist.
+	 */
+	public static ConversionEventPublisher forFolder(KahootResultConverter converter, Path inputFolder, Path outputFolder,
+			                                         ConversionOptions options) throws KahootException {
+
+		List<Path> inputFiles = new ArrayList<Path>();
+		for (String pathOfFile: DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.toString())) {
+
+			inputFiles.add( Paths.get(pathOfFile) );
+		}
+
+		return new ConversionEventPublisher(converter, inputFiles, outputFolder, options);
+	}
+
+
+	/**
+	 * Set executor running the conversion of each subscription, e.g. a pool shared by several publishers.
+	 *
+	 * @param executor  Executor, or {@code null} for a new thread per subscription (default).
+	 */
+	public void setExecutor(Executor executor) {
+
+		_executor = executor;
+	}
+
+
+	/**
+	 * Start conversion for a new subscriber; the files are converted again for each subscriber.
+	 *
+	 * @param subscriber  Receiver of the events.
+	 */
+	@Override
+	public void subscribe(EventFlow.Subscriber<? super ConversionEvent> subscriber) {
+
+		ConversionSubscription subscription = new ConversionSubscription(subscriber);
+
+		subscriber.onSubscribe(subscription);
+
+		if (_executor != null) {
+
+			_executor.execute(subscription);
+
+		} else {
+
+			Thread thread = new Thread(subscription, "conversion-events");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+}
@@ -0,0 +1,23 @@
+package de.mide.kahoot.result2word.api;
+
+
+/**
+ * Types of events sent by {@link ConversionEventPublisher}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public enum ConversionEventTypeEnum {
+
+	/** Title of the game and number of questions of an input file, is the first event of each file. */
+	TITLE,
+
+	/** One question, sent as soon as its sheet was decoded. */
+	QUESTION,
+
+	/** Input file was converted successfully, is the last event of this file. */
+	FILE_COMPLETED,
+
+	/** Input file could not be converted, is the last event of this file. */
+	FILE_FAILED;
+}
@@ -0,0 +1,240 @@
+package de.mide.kahoot.result2word.api;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.StringInternPool;
+import de.mide.kahoot.result2word.utils.XlsxResourceLimits;
+
+
+/**
+ * Options for one conversion by {@link KahootResultConverter}, corresponding to the command line options
+ * {@code --locale}, {@code --newpage}, {@code --percentage} and {@code --topline}. The converter copies
+ * the options at the beginning of a conversion, so an object can be changed and reused for the next call.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionOptions {
+
+	/** Language of the texts in the Word document. */
+	protected Locale _locale = Locale.ENGLISH;
+
+	/** Begin each question except the first one on a new page. */
+	protected boolean _newPageForEachQuestion = false;
+
+	/** Write percentage of players who gave the right answer for each question. */
+	protected boolean _writePercentage = false;
+
+	/** Text for header on each page. */
+	protected Optional<String> _toplineTextOptional = Optional.empty();
+
+	/** Write the questions found to STDOUT like the command line program does. */
+	protected boolean _printQuestionsFound = false;
+
+	/** Token for aborting the conversion, {@code null} for the token of the calling thread. */
+	protected CancellationToken _cancellationToken = null;
+
+	/** Limits checked before the input is parsed, {@code null} for the default limits. */
+	protected XlsxResourceLimits _resourceLimits = null;
+
+	/** Pool for the texts of the questions, {@code null} for {@link StringInternPool#getDefault()}. */
+	protected StringInternPool _stringInternPool = null;
+
+
+	/**
+	 * Create options with default values: English, no new pages, no percentages, no topline, no output to STDOUT.
+	 */
+	public ConversionOptions() {}
+
+
+	/**
+	 * Copy constructor.
+	 *
+	 * @param other  Options to be copied.
+	 */
+	public ConversionOptions(ConversionOptions other) {
+
+		_locale                 = other._locale;
+		_newPageForEachQuestion = other._newPageForEachQuestion;
+		_writePercentage        = other._writePercentage;
+		_toplineTextOptional    = other._toplineTextOptional;
+		_printQuestionsFound    = other._printQuestionsFound;
+		_cancellationToken      = other._cancellationToken;
+		_resourceLimits         = other._resourceLimits;
+		_stringInternPool       = other._stringInternPool;
+	}
+
+
+	/**
+	 * Setter for language of the texts in the Word document; languages without bundle fall back to English.
+	 *
+	 * @param locale  E.g. {@link Locale#GERMAN}.
+	 */
+	public void setLocale(Locale locale) {
+
+		_locale = locale;
+	}
+
+	/**
+	 * Getter for language of the texts in the Word document.
+	 *
+	 * @return  Locale, default is {@link Locale#ENGLISH}.
+	 */
+	public Locale getLocale() {
+
+		return _locale;
+	}
+
+
+	/**
+	 * Setter for beginning each question except the first one on a new page (option {@code --newpage}).
+	 *
+	 * @param newPageForEachQuestion  True for new pages.
+	 */
+	public void setNewPageForEachQuestion(boolean newPageForEachQuestion) {
+
+		_newPageForEachQuestion = newPageForEachQuestion;
+	}
+
+	/**
+	 * Getter for beginning each question on a new page.
+	 *
+	 * @return  True for new pages.
+	 */
+	public boolean getNewPageForEachQuestion() {
+
+		return _newPageForEachQuestion;
+	}
+
+
+	/**
+	 * Setter for writing the percentage of players who gave the right answer (option {@code --percentage}).
+	 *
+	 * @param writePercentage  True if percentages are to be written.
+	 */
+	public void setWritePercentage(boolean writePercentage) {
+
+		_writePercentage = writePercentage;
+	}
+
+	/**
+	 * Getter for writing the percentage of players who gave the right answer.
+	 *
+	 * @return  True if percentages are to be written.
+	 */
+	public boolean getWritePercentage() {
+
+		return _writePercentage;
+	}
+
+
+	/**
+	 * Setter for text in header of each page (option {@code --topline}).
+	 *
+	 * @param toplineText  Text for header, or {@code null} for no header.
+	 */
+	public void setToplineText(String toplineText) {
+
+		_toplineTextOptional = Optional.ofNullable(toplineText);
+	}
+
+	/**
+	 * Getter for text in header of each page.
+	 *
+	 * @return  Text for header, or empty.
+	 */
+	public Optional<String> getToplineText() {
+
+		return _toplineTextOptional;
+	}
+
+
+	/**
+	 * Setter for writing the questions found to STDOUT.
+	 *
+	 * @param printQuestionsFound  True to write the same output as the command line program; default is false.
+	 */
+	public void setPrintQuestionsFound(boolean printQuestionsFound) {
+
+		_printQuestionsFound = printQuestionsFound;
+	}
+
+	/**
+	 * Getter for writing the questions found to STDOUT.
+	 *
+	 * @return  True if the questions found are written to STDOUT.
+	 */
+	public boolean getPrintQuestionsFound() {
+
+		return _printQuestionsFound;
+	}
+
+
+	/**
+	 * Setter for token checked between sheets and between questions, e.g. with a time budget:
+	 * {@code new CancellationToken(null, 5000)}; the token is shared, not copied.
+	 *
+	 * @param cancellationToken  Token, or {@code null} for the token of the calling thread (default).
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+
+		_cancellationToken = cancellationToken;
+	}
+
+	/**
+	 * Getter for token checked between sheets and between questions.
+	 *
+	 * @return  Token set with {@link #setCancellationToken(CancellationToken)}, otherwise the token of the calling thread.
+	 */
+	public CancellationToken getCancellationToken() {
+
+		return _cancellationToken != null ? _cancellationToken : CancellationToken.getCurrent();
+	}
+
+
+	/**
+	 * Setter for limits checked against the ZIP central directory before the input is parsed; an input exceeding
+	 * a limit fails with a {@code ResourceLimitExceededException}. The limits are shared, not copied.
+	 *
+	 * @param resourceLimits  Limits, or {@code null} for {@link XlsxResourceLimits#getDefault()} (default).
+	 */
+	public void setResourceLimits(XlsxResourceLimits resourceLimits) {
+
+		_resourceLimits = resourceLimits;
+	}
+
+	/**
+	 * Getter for limits checked before the input is parsed.
+	 *
+	 * @return  Limits set with {@link #setResourceLimits(XlsxResourceLimits)}, otherwise the default limits.
+	 */
+	public XlsxResourceLimits getResourceLimits() {
+
+		return _resourceLimits != null ? _resourceLimits : XlsxResourceLimits.getDefault();
+	}
+
+
+	/**
+	 * Setter for pool in which title, question texts and answer options are interned, e.g. one pool for all
+	 * conversions whose question lists are retained. The pool is shared, not copied.
+	 *
+	 * @param stringInternPool  Pool, or {@code null} for {@link StringInternPool#getDefault()} (default).
+	 */
+	public void setStringInternPool(StringInternPool stringInternPool) {
+
+		_stringInternPool = stringInternPool;
+	}
+
+	/**
+	 * Getter for pool in which the texts of the questions are interned.
+	 *
+	 * @return  Pool set with {@link #setStringInternPool(StringInternPool)}, otherwise the default pool; empty if none is used.
+	 */
+	public Optional<StringInternPool> getStringInternPool() {
+
+		return _stringInternPool != null ? Optional.of(_stringInternPool) : StringInternPool.getDefault();
+	}
+
+}
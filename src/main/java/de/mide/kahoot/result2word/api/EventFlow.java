@@ -0,0 +1,90 @@
+package de.mide.kahoot.result2word.api;
+
+
+/**
+ * Interfaces for publishing events with backpressure driven by the subscriber. They have the same methods and
+ * contract as the nested interfaces of {@code java.util.concurrent.Flow} (Reactive Streams), which is not
+ * available on Java 8, the version this project is built for; on Java 9 or newer class {@code FlowAdapters}
+ * (compiled for Java 9 from folder {@code src/main/java9}) converts them to and from {@code java.util.concurrent.Flow}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public final class EventFlow {
+
+	/** No objects of this class, it only contains the interfaces. */
+	private EventFlow() {}
+
+
+	/**
+	 * Producer of items received by subscribers.
+	 *
+	 * @param <T>  Type of items.
+	 */
+	@FunctionalInterface
+	public interface Publisher<T> {
+
+		/**
+		 * Add subscriber; its method {@link Subscriber#onSubscribe(Subscription)} is called first.
+		 *
+		 * @param subscriber  Receiver of the items.
+		 */
+		void subscribe(Subscriber<? super T> subscriber);
+	}
+
+
+	/**
+	 * Receiver of items; the methods of one subscription are called one after the other, never concurrently.
+	 *
+	 * @param <T>  Type of items.
+	 */
+	public interface Subscriber<T> {
+
+		/**
+		 * Called before any other method of the subscription; no items are sent before
+		 * {@link Subscription#request(long)} was called.
+		 *
+		 * @param subscription  Subscription for requesting items or cancelling.
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Next item, not more items are sent than requested.
+		 *
+		 * @param item  Item.
+		 */
+		void onNext(T item);
+
+		/**
+		 * Subscription ended because of an error, no further methods are called.
+		 *
+		 * @param throwable  Error.
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * All items were sent, no further methods are called.
+		 */
+		void onComplete();
+	}
+
+
+	/**
+	 * Link between a publisher and a subscriber.
+	 */
+	public interface Subscription {
+
+		/**
+		 * Add {@code n} to the number of items the subscriber is ready to receive.
+		 *
+		 * @param n  Number of items, must be positive ({@code Long.MAX_VALUE} for no limit).
+		 */
+		void request(long n);
+
+		/**
+		 * Stop sending items; some items might still be received.
+		 */
+		void cancel();
+	}
+
+}
@@ -0,0 +1,227 @@
+package de.mide.kahoot.result2word.api;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultDocxWriter;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.PoiWarmUp;
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.StringUtils;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+import de.mide.kahoot.result2word.utils.XlsxResourceLimits;
+
+
+/**
+ * Converter for applications that convert Kahoot result files in-process, e.g. a web backend receiving uploads.
+ * Unlike {@code Main} it does not read static options, does not write to STDOUT (unless requested with
+ * {@link ConversionOptions#setPrintQuestionsFound(boolean)}) and does not call {@code System.exit(int)};
+ * errors are reported as {@link KahootException}.
+ * <br><br>
+ *
+ * One object can be shared by any number of threads. The language bundles are loaded once per language
+ * and kept; {@link #warmUp()} loads POI before the first request.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class KahootResultConverter {
+
+	/** Size of buffer between the Word writer and the output stream of the caller. */
+	protected static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+	/** Name used in error messages when the caller did not supply a name for the input. */
+	protected static final String DEFAULT_NAME_OF_INPUT = "input.xlsx";
+
+	/** Language bundles loaded so far. */
+	protected final ConcurrentMap<Locale, ResourceBundle> _resourceBundles = new ConcurrentHashMap<Locale, ResourceBundle>();
+
+
+	/**
+	 * Load the classes of POI and the English and German language bundles, so that the first conversion
+	 * is not slower than the following ones. Calling this method is optional.
+	 *
+	 * @return  Milliseconds needed for the warm-up.
+	 */
+	public long warmUp() {
+
+		long startNanos = System.nanoTime();
+
+		PoiWarmUp.warmUp();
+
+		getResourceBundle(Locale.ENGLISH);
+		getResourceBundle(Locale.GERMAN );
+
+		return (System.nanoTime() - startNanos) / 1_000_000L;
+	}
+
+
+	/**
+	 * Convert Kahoot result file read from a stream.
+	 *
+	 * @param inputStream  Content of xlsx file, is read completely but not closed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. file name of upload) for error messages, may be {@code null}.
+	 *
+	 * @param outputStream  Stream to which the docx document is written, is flushed but not closed.
+	 *
+	 * @param options  Options for this conversion.
+	 *
+	 * @throws KahootException  Input is not a Kahoot result file, I/O error, or conversion was cancelled
+	 *                          (see {@link ConversionOptions#setCancellationToken(de.mide.kahoot.result2word.utils.CancellationToken)}).
+	 */
+	public void convert(InputStream inputStream, String nameOfInput, OutputStream outputStream, ConversionOptions options) throws KahootException {
+
+		String name = nameOfInput != null ? nameOfInput : DEFAULT_NAME_OF_INPUT;
+
+		convert( new KahootResultXlsxReader(inputStream, name, options.getResourceLimits()), name, outputStream, options );
+	}
+
+
+	/**
+	 * Convert Kahoot result file.
+	 *
+	 * @param xlsxFile  Path of xlsx file.
+	 *
+	 * @param outputStream  Stream to which the docx document is written, is flushed but not closed.
+	 *
+	 * @param options  Options for this conversion.
+	 *
+	 * @throws KahootException  File not found, not a Kahoot result file, exceeds a limit, or I/O error.
+	 */
+	public void convert(Path xlsxFile, OutputStream outputStream, ConversionOptions options) throws KahootException {
+
+		convert( createReader(xlsxFile, options.getResourceLimits()), xlsxFile.toString(), outputStream, options );
+	}
+
+
+	/**
+	 * Load xlsx file into a reader.
+	 *
+	 * @param xlsxFile  Path of xlsx file.
+	 *
+	 * @param resourceLimits  Limits checked before the file is parsed.
+	 *
+	 * @return  Reader with loaded workbook.
+	 *
+	 * @throws KahootException  File not found, not an xlsx file, or exceeds a limit.
+	 */
+	protected static KahootResultXlsxReader createReader(Path xlsxFile, XlsxResourceLimits resourceLimits) throws KahootException {
+
+		return new KahootResultXlsxReader(xlsxFile.toString(), resourceLimits);
+	}
+
+
+	/**
+	 * Convert Kahoot result file whose content is in a buffer.
+	 *
+	 * @param xlsxBuffer  Content of xlsx file between position and limit; position is not changed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. file name of upload) for error messages, may be {@code null}.
+	 *
+	 * @param outputStream  Stream to which the docx document is written, is flushed but not closed.
+	 *
+	 * @param options  Options for this conversion.
+	 *
+	 * @throws KahootException  Content is not a Kahoot result file, or I/O error.
+	 */
+	public void convert(ByteBuffer xlsxBuffer, String nameOfInput, OutputStream outputStream, ConversionOptions options) throws KahootException {
+
+		String name = nameOfInput != null ? nameOfInput : DEFAULT_NAME_OF_INPUT;
+
+		convert( new KahootResultXlsxReader(xlsxBuffer, name, options.getResourceLimits()), name, outputStream, options );
+	}
+
+
+	/**
+	 * Extract the questions and write the Word document with the language bundle of the options
+	 * set for the current thread only.
+	 *
+	 * @param reader  Reader with loaded workbook.
+	 *
+	 * @param nameOfInput  Name of input for error messages.
+	 *
+	 * @param outputStream  Stream to which the docx document is written.
+	 *
+	 * @param options  Options for this conversion, are copied.
+	 *
+	 * @throws KahootException  Error during conversion.
+	 */
+	protected void convert(KahootResultXlsxReader reader, String nameOfInput, OutputStream outputStream, ConversionOptions options) throws KahootException {
+
+		ConversionOptions optionsCopy = new ConversionOptions(options);
+
+		reader.setPrintQuestionsFound( optionsCopy.getPrintQuestionsFound() );
+		reader.setCancellationToken( optionsCopy.getCancellationToken() );
+		reader.setStringInternPool( optionsCopy.getStringInternPool().orElse(null) );
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( getResourceBundle(optionsCopy.getLocale()) );
+		try {
+
+			QuestionList questionList = reader.extractQuestionList();
+
+			KahootResultDocxWriter docxWriter = new KahootResultDocxWriter( questionList, getNameOfWordDocument(nameOfInput),
+			                                                                optionsCopy.getNewPageForEachQuestion(),
+			                                                                optionsCopy.getWritePercentage(),
+			                                                                optionsCopy.getToplineText() );
+			docxWriter.setCancellationToken( optionsCopy.getCancellationToken() );
+
+			BufferedOutputStream bufferedStream = new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE);
+
+			docxWriter.writeResultFile(bufferedStream);
+
+			bufferedStream.flush();
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O Error when writing docx document for input \"" + nameOfInput + "\".", ex);
+		}
+		finally {
+
+			TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+		}
+	}
+
+
+	/**
+	 * Get language bundle, load it on first use.
+	 *
+	 * @param locale  Language.
+	 *
+	 * @return  Bundle for language, or English bundle if there is no bundle for this language.
+	 */
+	protected ResourceBundle getResourceBundle(Locale locale) {
+
+		return _resourceBundles.computeIfAbsent( locale, TranslatedTextsProvider::getResourceBundle );
+	}
+
+
+	/**
+	 * Derive name of the Word document from name of input, only used for error messages of the writer.
+	 *
+	 * @param nameOfInput  Name of input, e.g. {@code result.xlsx}.
+	 *
+	 * @return  Name with suffix {@code .docx}, e.g. {@code result.docx}.
+	 *
+	 * @throws KahootException  Should not happen.
+	 */
+	protected static String getNameOfWordDocument(String nameOfInput) throws KahootException {
+
+		if ( nameOfInput.toLowerCase().endsWith(".xlsx") ) {
+
+			return StringUtils.changeFilenameExtensionXlsx2Docx(nameOfInput);
+		}
+
+		return nameOfInput + ".docx";
+	}
+
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains the API for applications that convert Kahoot result files in-process instead of
+ * starting the program via its command line, see class {@link de.mide.kahoot.result2word.api.KahootResultConverter}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.api;
@@ -0,0 +1,433 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Append-only journal for batch runs (command line option {@code -i}): for each input file a record
+ * is written when its processing starts and another one when the docx file was written successfully.
+ * When a run is aborted (e.g. killed because of an {@code OutOfMemoryError} or a reboot), then a
+ * subsequent run with option {@code --resume} replays the journal and only processes the input files
+ * for which no "completed" record was found, or whose docx file is missing or was changed since it was
+ * written (the hash of the docx file is recorded and checked before an input file is skipped).
+ * <br><br>
+ *
+ * Records are plain text lines, e.g.
+ * <code>COMPLETED&lt;TAB&gt;sha256&lt;TAB&gt;/path/to/output.docx&lt;TAB&gt;/path/to/input.xlsx</code>.
+ * To keep the journal cheap, records are not forced to disk one by one but in groups of
+ * {@link #RECORDS_PER_SYNC_GROUP} records (and when the journal is closed). A crash can therefore
+ * only lose the records of the last group, which just means that these files will be processed again.
+ * <br><br>
+ *
+ * The journal file is locked while it is open, so two processes cannot write into the same journal; processes
+ * sharing an output folder (option {@code --claim}) each take the first free journal of a numbered series,
+ * see {@link #openFreeSlot(String, boolean)}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class BatchJournal implements AutoCloseable {
+
+	/** Name of journal file, will be written into the output folder (or input folder if no output folder is specified). */
+	public static final String JOURNAL_FILE_NAME = ".kahoot_result2word.journal";
+
+	/** Number of records after which buffered records are written and forced to disk. */
+	protected static final int RECORDS_PER_SYNC_GROUP = 32;
+
+	/** Type of record written when processing of an input file starts. */
+	protected static final String RECORD_TYPE_STARTED = "STARTED";
+
+	/** Type of record written when docx file for an input file was written successfully. */
+	protected static final String RECORD_TYPE_COMPLETED = "COMPLETED";
+
+	/** Separator between the fields of a record. */
+	protected static final char FIELD_SEPARATOR = '\t';
+
+	/** Highest number of journals of a series tried by {@link #openFreeSlot(String, boolean)}. */
+	protected static final int MAX_SLOTS = 1000;
+
+
+	/** Stream for journal file, needed to get the channel for forcing records to disk. */
+	protected FileOutputStream _fileOutputStream = null;
+
+	/** Buffered writer for records, wraps {@link #_fileOutputStream}. */
+	protected Writer _writer = null;
+
+	/** Number of records appended since records were forced to disk for the last time. */
+	protected int _recordsSinceLastSync = 0;
+
+
+	/**
+	 * Open journal file for writing.
+	 *
+	 * @param pathToJournalFile  Path of journal file, will be created if it does not exist yet.
+	 *
+	 * @param append  {@code true} if records are to be appended to existing journal (resuming a run),
+	 *                {@code false} if an existing journal is to be truncated (new run).
+	 *
+	 * @throws KahootException  Journal file could not be opened, or is used by another process.
+	 */
+	public BatchJournal(String pathToJournalFile, boolean append) throws KahootException {
+
+		if ( !open(pathToJournalFile, append) ) {
+
+			throw new KahootException("Journal file \"" + pathToJournalFile + "\" is used by another process.");
+		}
+	}
+
+
+	/**
+	 * Constructor for {@link #tryOpen(String, boolean)}, the journal has to be opened with {@link #open(String, boolean)}.
+	 */
+	protected BatchJournal() {}
+
+
+	/**
+	 * Open journal file for writing unless it is used by another process.
+	 *
+	 * @param pathToJournalFile  Path of journal file, will be created if it does not exist yet.
+	 *
+	 * @param append  {@code true} if records are to be appended to existing journal (resuming a run),
+	 *                {@code false} if an existing journal is to be truncated (new run).
+	 *
+	 * @return  Opened journal, or empty if the journal file is locked by another process.
+	 *
+	 * @throws KahootException  Journal file could not be opened.
+	 */
+	public static Optional<BatchJournal> tryOpen(String pathToJournalFile, boolean append) throws KahootException {
+
+		BatchJournal journal = new BatchJournal();
+
+		return journal.open(pathToJournalFile, append) ? Optional.of(journal) : Optional.empty();
+	}
+
+
+	/**
+	 * Open the first journal of a numbered series ({@code <pathPrefix>_0}, {@code <pathPrefix>_1}, ...) which is
+	 * not used by another process; so each of several processes on the same host gets a journal of its own, and
+	 * the journals have the same names in the next run.
+	 *
+	 * @param pathPrefix  Path of journal file without number.
+	 *
+	 * @param append  {@code true} if records are to be appended to existing journal (resuming a run),
+	 *                {@code false} if an existing journal is to be truncated (new run).
+	 *
+	 * @return  Opened journal.
+	 *
+	 * @throws KahootException  Journal file could not be opened, or all journals of the series are used.
+	 */
+	public static BatchJournal openFreeSlot(String pathPrefix, boolean append) throws KahootException {
+
+		for (int slot = 0; slot < MAX_SLOTS; slot++) {
+
+			Optional<BatchJournal> journalOptional = tryOpen(pathPrefix + "_" + slot, append);
+			if (journalOptional.isPresent()) { return journalOptional.get(); }
+		}
+
+		throw new KahootException("All " + MAX_SLOTS + " journal files \"" + pathPrefix + "_<n>\" are used by other processes.");
+	}
+
+
+	/**
+	 * Open and lock the journal file.
+	 *
+	 * @param pathToJournalFile  Path of journal file, will be created if it does not exist yet.
+	 *
+	 * @param append  {@code true} if records are to be appended, {@code false} if the journal is to be truncated.
+	 *
+	 * @return  {@code true} iff the journal was opened; {@code false} if it is locked by another process.
+	 *
+	 * @throws KahootException  Journal file could not be opened.
+	 */
+	protected boolean open(String pathToJournalFile, boolean append) throws KahootException {
+
+		try {
+
+			_fileOutputStream = new FileOutputStream(pathToJournalFile, true); // truncated only after it was locked
+
+			FileLock fileLock = null;
+			try {
+				fileLock = _fileOutputStream.getChannel().tryLock();
+			}
+			catch (OverlappingFileLockException ex) { /* locked by this process */ }
+
+			if (fileLock == null) {
+
+				_fileOutputStream.close();
+				return false;
+			}
+
+			if (!append) { _fileOutputStream.getChannel().truncate(0); }
+
+			_writer = new BufferedWriter( new OutputStreamWriter(_fileOutputStream, StandardCharsets.UTF_8) );
+
+			return true;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not open journal file \"" + pathToJournalFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Append record saying that processing of an input file has started.
+	 *
+	 * @param pathToInputFile  Input file (xlsx) to be processed.
+	 *
+	 * @throws KahootException  I/O error when writing the journal.
+	 */
+	public synchronized void recordStarted(String pathToInputFile) throws KahootException {
+
+		appendRecord( RECORD_TYPE_STARTED + FIELD_SEPARATOR + normalizePath(pathToInputFile) );
+	}
+
+
+	/**
+	 * Append record saying that the output file for an input file was written successfully.
+	 *
+	 * @param pathToInputFile  Input file (xlsx) that was processed.
+	 *
+	 * @param pathToOutputFile  Docx file written for {@code pathToInputFile}.
+	 *
+	 * @param outputHash  Hash of {@code pathToOutputFile}, see method {@link FileHashUtil#computeFileHash(String)}.
+	 *
+	 * @throws KahootException  I/O error when writing the journal.
+	 */
+	public synchronized void recordCompleted(String pathToInputFile, String pathToOutputFile, String outputHash) throws KahootException {
+
+		appendRecord( RECORD_TYPE_COMPLETED + FIELD_SEPARATOR + outputHash + FIELD_SEPARATOR + normalizePath(pathToOutputFile) +
+				      FIELD_SEPARATOR + normalizePath(pathToInputFile) );
+	}
+
+
+	/**
+	 * Write a single record into the buffer; every {@link #RECORDS_PER_SYNC_GROUP} records the buffer
+	 * is forced to disk.
+	 *
+	 * @param record  Record without line break.
+	 *
+	 * @throws KahootException  I/O error when writing the journal.
+	 */
+	protected void appendRecord(String record) throws KahootException {
+
+		try {
+
+			_writer.write(record);
+			_writer.write('\n');
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when writing record to journal.", ex);
+		}
+
+		_recordsSinceLastSync++;
+		if (_recordsSinceLastSync >= RECORDS_PER_SYNC_GROUP) {
+
+			sync();
+		}
+	}
+
+
+	/**
+	 * Write all buffered records and force them to disk (fsync).
+	 *
+	 * @throws KahootException  I/O error when writing the journal.
+	 */
+	public synchronized void sync() throws KahootException {
+
+		try {
+
+			_writer.flush();
+
+			FileChannel channel = _fileOutputStream.getChannel();
+			channel.force(false);
+
+			_recordsSinceLastSync = 0;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when forcing journal to disk.", ex);
+		}
+	}
+
+
+	/**
+	 * Force remaining records to disk and close the journal file.
+	 *
+	 * @throws KahootException  I/O error when writing or closing the journal.
+	 */
+	@Override
+	public synchronized void close() throws KahootException {
+
+		sync();
+
+		try {
+
+			_writer.close();
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when closing journal.", ex);
+		}
+	}
+
+
+	/**
+	 * Replay a journal and collect all input files for which a "completed" record was found and whose
+	 * docx file still exists with the recorded hash. Incomplete lines (e.g. last line written when the
+	 * process was killed) are ignored.
+	 *
+	 * @param pathToJournalFile  Journal file to be read.
+	 *
+	 * @return  Set with normalized paths of completed input files (see method {@link #isCompleted(Set, String)});
+	 *          empty set if journal file does not exist.
+	 *
+	 * @throws KahootException  I/O error when reading the journal.
+	 */
+	public static Set<String> readCompletedInputs(String pathToJournalFile) throws KahootException {
+
+		Set<String> resultSet = new HashSet<String>();
+
+		File journalFile = new File(pathToJournalFile);
+		if ( !journalFile.exists() ) { return resultSet; }
+
+		// input file -> { output hash, output file } of its last "completed" record
+		Map<String, String[]> completedRecords = new LinkedHashMap<String, String[]>();
+
+		try (BufferedReader reader = new BufferedReader( new InputStreamReader( new FileInputStream(journalFile), StandardCharsets.UTF_8) )) {
+
+			String line = null;
+			while ( (line = reader.readLine()) != null ) {
+
+				String[] fields = line.split( String.valueOf(FIELD_SEPARATOR), 4 );
+
+				if (fields.length == 4 && fields[0].equals(RECORD_TYPE_COMPLETED) && fields[3].length() > 0) {
+
+					completedRecords.put( fields[3], new String[]{ fields[1], fields[2] } );
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when reading journal file \"" + pathToJournalFile + "\".", ex);
+		}
+
+		for (Map.Entry<String, String[]> entry: completedRecords.entrySet()) {
+
+			if ( isOutputUnchanged(entry.getValue()[1], entry.getValue()[0]) ) {
+
+				resultSet.add( entry.getKey() );
+
+			} else {
+
+				System.out.println("Output file \"" + entry.getValue()[1] + "\" of \"" + entry.getKey() +
+				                   "\" is missing or was changed, it will be written again.");
+			}
+		}
+
+		return resultSet;
+	}
+
+
+	/**
+	 * Replay all journals in a folder whose names start with a prefix, e.g. all journals of the processes
+	 * sharing an output folder (see {@link #openFreeSlot(String, boolean)}).
+	 *
+	 * @param folder  Folder with the journals.
+	 *
+	 * @param namePrefix  Prefix of the names of the journals.
+	 *
+	 * @return  Union of the sets returned by {@link #readCompletedInputs(String)} for the journals.
+	 *
+	 * @throws KahootException  I/O error when reading a journal.
+	 */
+	public static Set<String> readCompletedInputsOfAllJournals(String folder, String namePrefix) throws KahootException {
+
+		Set<String> resultSet = new HashSet<String>();
+
+		File[] journalFiles = new File(folder).listFiles( file -> file.isFile() && file.getName().startsWith(namePrefix) );
+		if (journalFiles == null) { return resultSet; }
+
+		for (File journalFile: journalFiles) {
+
+			resultSet.addAll( readCompletedInputs(journalFile.getPath()) );
+		}
+
+		return resultSet;
+	}
+
+
+	/**
+	 * Check if input file is contained in set returned by {@link #readCompletedInputs(String)}.
+	 *
+	 * @param completedInputs  Set returned by {@link #readCompletedInputs(String)}.
+	 *
+	 * @param pathToInputFile  Input file (might be a relative path).
+	 *
+	 * @return  {@code true} iff a "completed" record was found for {@code pathToInputFile}.
+	 */
+	public static boolean isCompleted(Set<String> completedInputs, String pathToInputFile) {
+
+		return completedInputs.contains( normalizePath(pathToInputFile) );
+	}
+
+
+	/**
+	 * Check if an output file recorded in the journal still exists with the recorded content.
+	 *
+	 * @param pathToOutputFile  Docx file of a "completed" record.
+	 *
+	 * @param outputHash  Hash of the docx file of the record.
+	 *
+	 * @return  {@code true} iff the file exists and has the hash {@code outputHash}.
+	 */
+	public static boolean isOutputUnchanged(String pathToOutputFile, String outputHash) {
+
+		if ( !new File(pathToOutputFile).isFile() ) { return false; }
+
+		try {
+
+			return FileHashUtil.computeFileHash(pathToOutputFile).equals(outputHash);
+		}
+		catch (KahootException ex) {
+
+			return false;
+		}
+	}
+
+
+	/**
+	 * Normalize path so that relative and absolute paths to the same input file are recognized as equal.
+	 *
+	 * @param path  Path to be normalized.
+	 *
+	 * @return  Absolute path without redundant elements like {@code ./}.
+	 */
+	protected static String normalizePath(String path) {
+
+		return Paths.get(path).toAbsolutePath().normalize().toString();
+	}
+
+}
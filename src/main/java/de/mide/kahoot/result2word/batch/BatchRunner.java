@@ -0,0 +1,470 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Processing of a list of xlsx files (batch mode) with a pool of worker threads. For each file it is checked
+ * whether it was already processed in a previous run (see {@link BatchJournal}) or by another process
+ * (see {@link WorkClaimManager}); before a workbook is loaded, the memory needed for it has to be acquired
+ * from the {@link MemoryGovernor} (if one is set).
+ * <br><br>
+ *
+ * The first file which cannot be converted aborts the whole batch, as it was the case for the sequential loop;
+ * unless {@link #setContinueOnError(boolean)} was called, e.g. for a {@link WorkerProcessPool}.
+ * <br><br>
+ *
+ * Each conversion runs with a {@link CancellationToken} set as token of its thread; it is a child of the
+ * token of the batch and has the time budget set by {@link #setFileTimeBudgetMillis(long)}. When the batch is
+ * aborted or {@link #cancel()} is called, the running conversions stop at the next sheet or question.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class BatchRunner {
+
+	/**
+	 * Functional interface for the actual conversion of a single file.
+	 */
+	@FunctionalInterface
+	public interface FileConverter {
+
+		/**
+		 * Convert a single xlsx file to a docx file.
+		 *
+		 * @param pathToInputFile  Xlsx file to be converted.
+		 *
+		 * @return  Path of the docx file that was written.
+		 *
+		 * @throws KahootException  Conversion failed.
+		 */
+		String convert(String pathToInputFile) throws KahootException;
+	}
+
+
+	/** Object performing the conversion of a single file. */
+	protected FileConverter _fileConverter = null;
+
+	/** Number of worker threads. */
+	protected int _numberOfThreads = 1;
+
+	/** If true, then each file is processed on its own virtual thread, see {@link #setUseVirtualThreads(boolean)}. */
+	protected boolean _useVirtualThreads = false;
+
+	/** If true, then files which cannot be converted are counted as failed and the batch continues. */
+	protected boolean _continueOnError = false;
+
+	/** Description of the threads actually used, for the statistics. */
+	protected String _threadsDescription = "";
+
+	/** Journal into which the progress is written. */
+	protected BatchJournal _journal = null;
+
+	/** Input files recorded as completed in the journal of a previous run. */
+	protected Set<String> _completedInputs = new HashSet<String>();
+
+	/** Manager for claims, is only present when several processes share the input folder. */
+	protected Optional<WorkClaimManager> _claimManagerOptional = Optional.empty();
+
+	/** Governor for heap memory, is only present when a memory budget is to be enforced. */
+	protected Optional<MemoryGovernor> _memoryGovernorOptional = Optional.empty();
+
+	/** Read-ahead of the input files, is only present when enabled. */
+	protected Optional<FilePrefetcher> _prefetcherOptional = Optional.empty();
+
+	/** Milliseconds a single conversion may take, 0 for no limit. */
+	protected long _fileTimeBudgetMillis = 0;
+
+	/** Parent of the tokens of all conversions, is cancelled when the batch is aborted. */
+	protected final CancellationToken _batchCancellationToken = new CancellationToken();
+
+	/** Number of files that were converted. */
+	protected AtomicInteger _numFilesProcessed = new AtomicInteger(0);
+
+	/** Number of files that were skipped, e.g. because they were converted in a previous run. */
+	protected AtomicInteger _numFilesSkipped = new AtomicInteger(0);
+
+	/** Number of files that could not be converted, only counted if {@link #_continueOnError} is set. */
+	protected AtomicInteger _numFilesFailed = new AtomicInteger(0);
+
+	/** Value of {@link System#nanoTime()} when the batch was started. */
+	protected long _batchStartNanos = 0;
+
+	/** Nanoseconds from start of batch until last conversion has finished (makespan). */
+	protected AtomicLong _makespanNanos = new AtomicLong(0);
+
+	/** Sum of the nanoseconds from start of batch until each conversion has finished, for mean completion time. */
+	protected AtomicLong _sumOfCompletionNanos = new AtomicLong(0);
+
+
+	/**
+	 * Create runner for batch.
+	 *
+	 * @param fileConverter  Object performing the conversion of a single file.
+	 *
+	 * @param journal  Journal into which the progress is to be written.
+	 *
+	 * @param completedInputs  Input files recorded as completed in the journal of a previous run whose docx files
+	 *                         are unchanged (see {@link BatchJournal#readCompletedInputs(String)}); might be empty.
+	 */
+	public BatchRunner(FileConverter fileConverter, BatchJournal journal, Set<String> completedInputs) {
+
+		_fileConverter   = fileConverter;
+		_journal         = journal;
+		_completedInputs = completedInputs;
+	}
+
+
+	/**
+	 * Setter for number of worker threads.
+	 *
+	 * @param numberOfThreads  Number of files to be converted at the same time, must be at least 1.
+	 *
+	 * @throws KahootException  Illegal number of threads.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) throws KahootException {
+
+		if (numberOfThreads < 1) {
+
+			throw new KahootException("Number of threads must be at least 1, but was " + numberOfThreads + ".");
+		}
+
+		_numberOfThreads = numberOfThreads;
+	}
+
+
+	/**
+	 * Setter for execution mode: when virtual threads are used, then each file gets its own virtual thread and
+	 * the number of threads set with {@link #setNumberOfThreads(int)} is ignored; the CPU-heavy phases should
+	 * then be bounded by the converter, see {@link PhasedConverter}. Virtual threads require Java 21 or newer,
+	 * on older versions the fixed pool of platform threads is used instead.
+	 *
+	 * @param useVirtualThreads  True for virtual threads, false for a fixed pool of platform threads (default).
+	 */
+	public void setUseVirtualThreads(boolean useVirtualThreads) {
+
+		_useVirtualThreads = useVirtualThreads;
+	}
+
+
+	/**
+	 * Setter for error handling: when set, a file which cannot be converted does not abort the batch, but is
+	 * counted as failed; it is not recorded as completed in the journal, so it is tried again with {@code --resume}.
+	 *
+	 * @param continueOnError  True to continue with the other files after a failed conversion.
+	 */
+	public void setContinueOnError(boolean continueOnError) {
+
+		_continueOnError = continueOnError;
+	}
+
+
+	/**
+	 * Setter for manager of claims.
+	 *
+	 * @param claimManager  Manager for claims, when several processes share the input folder.
+	 */
+	public void setClaimManager(WorkClaimManager claimManager) {
+
+		_claimManagerOptional = Optional.of(claimManager);
+	}
+
+
+	/**
+	 * Setter for memory governor.
+	 *
+	 * @param memoryGovernor  Governor which limits the memory used by concurrent conversions.
+	 */
+	public void setMemoryGovernor(MemoryGovernor memoryGovernor) {
+
+		_memoryGovernorOptional = Optional.of(memoryGovernor);
+	}
+
+
+	/**
+	 * Setter for read-ahead of input files; the converter is expected to take the files from this prefetcher.
+	 *
+	 * @param prefetcher  Prefetcher which is started with the files of the batch in the order of processing.
+	 */
+	public void setPrefetcher(FilePrefetcher prefetcher) {
+
+		_prefetcherOptional = Optional.of(prefetcher);
+	}
+
+
+	/**
+	 * Setter for time budget of each conversion: a conversion taking longer is aborted at the next sheet or
+	 * question and fails; usually combined with {@link #setContinueOnError(boolean)}.
+	 *
+	 * @param fileTimeBudgetMillis  Milliseconds per file, 0 for no limit (default).
+	 */
+	public void setFileTimeBudgetMillis(long fileTimeBudgetMillis) {
+
+		_fileTimeBudgetMillis = fileTimeBudgetMillis;
+	}
+
+
+	/**
+	 * Abort the batch, e.g. from another thread: running conversions stop at the next sheet or question
+	 * and files not started yet are not converted.
+	 */
+	public void cancel() {
+
+		_batchCancellationToken.cancel();
+	}
+
+
+	/**
+	 * Process all files; returns when all files have been processed or when the first conversion has failed.
+	 *
+	 * @param pathsToInputFiles  Xlsx files to be processed.
+	 *
+	 * @throws KahootException  Conversion of a file failed.
+	 */
+	public void run(String[] pathsToInputFiles) throws KahootException {
+
+		ExecutorService executorService = createExecutorService();
+
+		_batchStartNanos = System.nanoTime();
+
+		_prefetcherOptional.ifPresent( prefetcher -> prefetcher.start(pathsToInputFiles) );
+
+		List<Future<?>> futureList = new ArrayList<Future<?>>( pathsToInputFiles.length );
+
+		for (String pathToInputFile: pathsToInputFiles) {
+
+			futureList.add( executorService.submit( () -> { processFile(pathToInputFile); return null; } ) );
+		}
+
+		executorService.shutdown();
+
+		try {
+
+			for (Future<?> future: futureList) {
+
+				future.get();
+			}
+		}
+		catch (ExecutionException ex) {
+
+			_batchCancellationToken.cancel(); // running conversions stop at the next sheet or question
+			executorService.shutdownNow();
+
+			Throwable cause = ex.getCause();
+			if (cause instanceof KahootException) { throw (KahootException) cause; }
+
+			throw new KahootException("Unexpected error in worker thread: " + cause, ex);
+		}
+		catch (InterruptedException ex) {
+
+			_batchCancellationToken.cancel();
+			executorService.shutdownNow();
+			Thread.currentThread().interrupt();
+
+			throw new KahootException("Interrupted while waiting for worker threads.", ex);
+		}
+	}
+
+
+	/**
+	 * Create executor for the worker threads according to the execution mode.
+	 *
+	 * @return  Fixed pool of platform threads, or executor starting a virtual thread per task; the fixed pool also
+	 *          when virtual threads are requested but not available, because all files are submitted at once.
+	 */
+	protected ExecutorService createExecutorService() {
+
+		if (!_useVirtualThreads) {
+
+			_threadsDescription = _numberOfThreads + " threads";
+			return Executors.newFixedThreadPool(_numberOfThreads);
+		}
+
+		try {
+			// called by reflection, because the application is still compiled for Java 8
+			ExecutorService executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+
+			_threadsDescription = "virtual threads";
+			return executorService;
+		}
+		catch (ReflectiveOperationException ex) {
+
+			System.out.println("Virtual threads are not available on Java " + System.getProperty("java.version") +
+			                   ", using " + _numberOfThreads + " platform threads instead.");
+
+			_threadsDescription = _numberOfThreads + " threads";
+			return Executors.newFixedThreadPool(_numberOfThreads);
+		}
+	}
+
+
+	/**
+	 * Process a single file, is executed by a worker thread.
+	 *
+	 * @param pathToInputFile  Xlsx file to be processed.
+	 *
+	 * @throws KahootException  Conversion of the file failed.
+	 */
+	protected void processFile(String pathToInputFile) throws KahootException {
+
+		if ( _batchCancellationToken.isCancelled() ) {
+
+			System.out.println("  file  \"" + pathToInputFile + "\" is not converted, because the batch was aborted.");
+			_prefetcherOptional.ifPresent( prefetcher -> prefetcher.discard(pathToInputFile) );
+			_numFilesSkipped.incrementAndGet();
+			return;
+		}
+
+		if ( BatchJournal.isCompleted(_completedInputs, pathToInputFile) ) {
+
+			System.out.println("  file  \"" + pathToInputFile + "\" was already processed in previous run, skipping it.");
+			_prefetcherOptional.ifPresent( prefetcher -> prefetcher.discard(pathToInputFile) );
+			_numFilesSkipped.incrementAndGet();
+			return;
+		}
+
+		if ( _claimManagerOptional.isPresent() && !_claimManagerOptional.get().tryClaim(pathToInputFile) ) {
+
+			System.out.println("  file  \"" + pathToInputFile + "\" is claimed by another worker or already done, skipping it.");
+			_prefetcherOptional.ifPresent( prefetcher -> prefetcher.discard(pathToInputFile) );
+			_numFilesSkipped.incrementAndGet();
+			return;
+		}
+
+		_journal.recordStarted( pathToInputFile );
+
+		String pathToOutputWord = null;
+		long   memoryAcquired   = 0;
+		try {
+
+			if (_memoryGovernorOptional.isPresent()) { memoryAcquired = _memoryGovernorOptional.get().acquire(pathToInputFile); }
+
+			CancellationToken.setCurrent( _claimManagerOptional.isPresent()
+			                              ? _claimManagerOptional.get().createCancellationToken(pathToInputFile, _batchCancellationToken, _fileTimeBudgetMillis)
+			                              : new CancellationToken(_batchCancellationToken, _fileTimeBudgetMillis) );
+
+			pathToOutputWord = _fileConverter.convert( pathToInputFile );
+		}
+		catch (KahootException | RuntimeException ex) {
+
+			if ( _claimManagerOptional.isPresent() && !_claimManagerOptional.get().holdsClaim(pathToInputFile) ) {
+
+				System.out.println("  file  \"" + pathToInputFile + "\" is left to the worker which has taken over its claim: " + ex.getMessage());
+				_numFilesSkipped.incrementAndGet();
+				return;
+			}
+
+			_claimManagerOptional.ifPresent( claimManager -> claimManager.release(pathToInputFile) );
+
+			if (!_continueOnError) { throw ex; }
+
+			System.out.println("  file  \"" + pathToInputFile + "\" could not be converted: " + ex.getMessage());
+			_numFilesFailed.incrementAndGet();
+			return;
+		}
+		finally {
+
+			CancellationToken.setCurrent(null);
+
+			if (memoryAcquired > 0) { _memoryGovernorOptional.get().release(memoryAcquired); }
+		}
+
+		if ( _claimManagerOptional.isPresent() && !_claimManagerOptional.get().holdsClaim(pathToInputFile) ) {
+
+			// only possible with worker processes, which do not check the claim before writing
+			System.out.println("  file  \"" + pathToInputFile + "\" was converted, but its claim was taken over by another worker meanwhile.");
+			_numFilesSkipped.incrementAndGet();
+			return;
+		}
+
+		String outputHash = FileHashUtil.computeFileHash(pathToOutputWord);
+
+		_journal.recordCompleted( pathToInputFile, pathToOutputWord, outputHash );
+
+		if (_claimManagerOptional.isPresent()) { _claimManagerOptional.get().markDone(pathToInputFile, pathToOutputWord, outputHash); }
+
+		long completionNanos = System.nanoTime() - _batchStartNanos;
+		_sumOfCompletionNanos.addAndGet(completionNanos);
+		_makespanNanos.accumulateAndGet(completionNanos, Math::max);
+
+		System.out.println("  file  \"" + pathToInputFile + "\" was processed.");
+		_numFilesProcessed.incrementAndGet();
+	}
+
+
+	/**
+	 * Getter for number of converted files.
+	 *
+	 * @return  Number of files that were converted.
+	 */
+	public int getNumberOfFilesProcessed() {
+
+		return _numFilesProcessed.get();
+	}
+
+
+	/**
+	 * Getter for number of failed files.
+	 *
+	 * @return  Number of files that could not be converted, see {@link #setContinueOnError(boolean)}.
+	 */
+	public int getNumberOfFilesFailed() {
+
+		return _numFilesFailed.get();
+	}
+
+
+	/**
+	 * Getter for makespan.
+	 *
+	 * @return  Milliseconds from start of batch until the last conversion has finished.
+	 */
+	public long getMakespanMillis() {
+
+		return _makespanNanos.get() / 1_000_000L;
+	}
+
+
+	/**
+	 * Build string with timing statistics of batch, to be written to console after the batch.
+	 *
+	 * @return  String with makespan and mean completion time.
+	 */
+	public String getStatisticsString() {
+
+		int numFilesProcessed = getNumberOfFilesProcessed();
+
+		long meanCompletionMillis = numFilesProcessed == 0 ? 0 : _sumOfCompletionNanos.get() / numFilesProcessed / 1_000_000L;
+
+		String failedString = _numFilesFailed.get() > 0 ? String.format(" %d files could not be converted.", _numFilesFailed.get()) : "";
+
+		return String.format( "Makespan %d ms for %d converted files with %s, mean completion time %d ms.%s",
+				              getMakespanMillis(), numFilesProcessed, _threadsDescription, meanCompletionMillis, failedString );
+	}
+
+
+	/**
+	 * Getter for number of skipped files.
+	 *
+	 * @return  Number of files that were skipped, e.g. because they were already converted in a previous run.
+	 */
+	public int getNumberOfFilesSkipped() {
+
+		return _numFilesSkipped.get();
+	}
+
+}
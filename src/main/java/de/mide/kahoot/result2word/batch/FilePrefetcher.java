@@ -0,0 +1,446 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Read-ahead of the input files of a batch: while the worker threads parse the current files, the next files
+ * (in the order in which they will be processed) are read into memory with {@link AsynchronousFileChannel}.
+ * A worker takes the buffer of its file with {@link #take(String)} and gives it back with {@link #release(String)}
+ * as soon as the workbook was loaded; the buffers are then reused for the following files.
+ * <br><br>
+ *
+ * The read-ahead is bounded both by the number of files and by the memory held: the capacities of the buffers of
+ * the files read ahead and of the unused buffers kept for reuse count against one byte limit, so unused buffers
+ * are dropped when a new buffer is needed. A file larger than the byte limit is never read ahead,
+ * {@link #take(String)} then returns {@code null} and the worker reads the file itself.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class FilePrefetcher implements AutoCloseable {
+
+	/**
+	 * State of the read-ahead of a single file.
+	 */
+	protected static class PrefetchEntry {
+
+		/** Buffer into which the file is read. */
+		protected ByteBuffer buffer = null;
+
+		/** Channel from which the file is read, is closed when reading has finished. */
+		protected AsynchronousFileChannel channel = null;
+
+		/** True when reading has finished (successfully or not). */
+		protected boolean done = false;
+
+		/** True when the file was skipped while it was still being read, so the buffer is released when done. */
+		protected boolean discarded = false;
+
+		/** Error during reading, the file is then read again by the worker. */
+		protected Throwable error = null;
+	}
+
+
+	/** Maximum number of files held in memory (being read or waiting for a worker). */
+	protected int _maxFiles = 0;
+
+	/** Maximum sum of capacities of all buffers held, i.e. {@link #_bytesReserved} plus {@link #_bytesInPool}. */
+	protected long _maxBytes = 0;
+
+	/** Files in the order in which they will be processed. */
+	protected String[] _pathsToFiles = new String[0];
+
+	/** Index in {@link #_pathsToFiles} of next file to be considered for read-ahead. */
+	protected int _nextIndex = 0;
+
+	/** Entries of files currently held in memory, key is path of file. */
+	protected Map<String,PrefetchEntry> _entryMap = new HashMap<String,PrefetchEntry>();
+
+	/** Files already taken or discarded before they were read ahead, they must not be read ahead anymore. */
+	protected Set<String> _consumedFiles = new HashSet<String>();
+
+	/** Sum of capacities of the buffers of the files currently held in memory. */
+	protected long _bytesReserved = 0;
+
+	/** Unused buffers for reuse. */
+	protected Deque<ByteBuffer> _bufferPool = new ArrayDeque<ByteBuffer>();
+
+	/** Sum of capacities of buffers in {@link #_bufferPool}. */
+	protected long _bytesInPool = 0;
+
+	/** Number of files that were served from memory. */
+	protected int _numberOfHits = 0;
+
+	/** Number of files the worker had to read itself. */
+	protected int _numberOfMisses = 0;
+
+	/** Number of buffers that were reused from the pool. */
+	protected int _numberOfBuffersReused = 0;
+
+	/** Highest value of {@link #_bytesReserved} plus {@link #_bytesInPool} so far. */
+	protected long _peakBytesHeld = 0;
+
+
+	/**
+	 * Create prefetcher with particular bounds.
+	 *
+	 * @param maxFiles  Maximum number of files read ahead, must be positive.
+	 *
+	 * @param maxBytes  Maximum sum of capacities of the buffers of files read ahead and of unused buffers, must be positive.
+	 *
+	 * @throws KahootException  Bound is not positive.
+	 */
+	public FilePrefetcher(int maxFiles, long maxBytes) throws KahootException {
+
+		if (maxFiles <= 0 || maxBytes <= 0) {
+
+			throw new KahootException("Bounds for read-ahead must be positive, but were " + maxFiles + " files and " + maxBytes + " bytes.");
+		}
+
+		_maxFiles = maxFiles;
+		_maxBytes = maxBytes;
+	}
+
+
+	/**
+	 * Start read-ahead for a batch.
+	 *
+	 * @param pathsToFiles  Files in the order in which they will be processed.
+	 */
+	public synchronized void start(String[] pathsToFiles) {
+
+		_pathsToFiles = pathsToFiles.clone();
+		_nextIndex    = 0;
+
+		scheduleReads();
+	}
+
+
+	/**
+	 * Start reading further files as long as the bounds allow it.
+	 */
+	protected synchronized void scheduleReads() {
+
+		while (_nextIndex < _pathsToFiles.length && _entryMap.size() < _maxFiles) {
+
+			String pathToFile = _pathsToFiles[_nextIndex];
+			long   fileSize   = new File(pathToFile).length();
+
+			if ( _consumedFiles.contains(pathToFile) || fileSize == 0 || fileSize > _maxBytes || fileSize > Integer.MAX_VALUE ) {
+
+				_nextIndex++; // will be read by the worker itself
+				continue;
+			}
+
+			ByteBuffer buffer = borrowBuffer( (int) fileSize );
+			if (buffer == null) { break; } // wait until buffers are released
+
+			_nextIndex++;
+
+			PrefetchEntry entry = new PrefetchEntry();
+			entry.buffer = buffer;
+
+			_entryMap.put(pathToFile, entry);
+			_bytesReserved += buffer.capacity();
+			_peakBytesHeld  = Math.max(_peakBytesHeld, _bytesReserved + _bytesInPool);
+
+			startRead(pathToFile, entry);
+		}
+	}
+
+
+	/**
+	 * Start asynchronous reading of a file into the buffer of its entry.
+	 *
+	 * @param pathToFile  File to be read.
+	 *
+	 * @param entry  Entry with buffer.
+	 */
+	protected void startRead(String pathToFile, PrefetchEntry entry) {
+
+		try {
+
+			entry.channel = AsynchronousFileChannel.open( Paths.get(pathToFile), StandardOpenOption.READ );
+		}
+		catch (IOException | RuntimeException ex) {
+
+			finishRead(pathToFile, entry, ex);
+			return;
+		}
+
+		entry.channel.read( entry.buffer, 0, entry, new CompletionHandler<Integer,PrefetchEntry>() {
+
+			@Override
+			public void completed(Integer numberOfBytesRead, PrefetchEntry entry) {
+
+				if (numberOfBytesRead < 0 || !entry.buffer.hasRemaining()) {
+
+					finishRead(pathToFile, entry, null);
+
+				} else { // partial read, continue at current position
+
+					entry.channel.read( entry.buffer, entry.buffer.position(), entry, this );
+				}
+			}
+
+			@Override
+			public void failed(Throwable ex, PrefetchEntry entry) {
+
+				finishRead(pathToFile, entry, ex);
+			}
+		});
+	}
+
+
+	/**
+	 * Mark reading of a file as finished, is called by the thread of the channel.
+	 *
+	 * @param pathToFile  File that was read.
+	 *
+	 * @param entry  Entry of file.
+	 *
+	 * @param error  Error during reading, or {@code null}.
+	 */
+	protected void finishRead(String pathToFile, PrefetchEntry entry, Throwable error) {
+
+		if (entry.channel != null) {
+
+			try { entry.channel.close(); } catch (IOException ex) { /* file was read already */ }
+		}
+
+		synchronized (this) {
+
+			entry.done  = true;
+			entry.error = error;
+
+			if (entry.discarded) { release(pathToFile); }
+
+			notifyAll();
+		}
+	}
+
+
+	/**
+	 * Take buffer with content of a file, waits if reading of the file has not finished yet.
+	 *
+	 * @param pathToFile  File to be processed by the calling worker.
+	 *
+	 * @return  Buffer with content of file, ready to be read; {@code null} if the file was not read ahead,
+	 *          then the worker has to read it itself. If not {@code null}, then {@link #release(String)}
+	 *          has to be called after the buffer was used.
+	 *
+	 * @throws KahootException  Interrupted while waiting.
+	 */
+	public synchronized ByteBuffer take(String pathToFile) throws KahootException {
+
+		_consumedFiles.add(pathToFile);
+
+		PrefetchEntry entry = _entryMap.get(pathToFile);
+		if (entry == null) {
+
+			_numberOfMisses++;
+			return null;
+		}
+
+		try {
+			while (!entry.done) { wait(); }
+		}
+		catch (InterruptedException ex) {
+
+			entry.discarded = true;
+			Thread.currentThread().interrupt();
+
+			throw new KahootException("Interrupted while waiting for read-ahead of \"" + pathToFile + "\".", ex);
+		}
+
+		if (entry.error != null) {
+
+			release(pathToFile);
+			_numberOfMisses++;
+			return null;
+		}
+
+		_numberOfHits++;
+
+		ByteBuffer buffer = entry.buffer.duplicate();
+		buffer.flip();
+
+		return buffer;
+	}
+
+
+	/**
+	 * Give back the buffer of a file, so that further files can be read ahead.
+	 *
+	 * @param pathToFile  File whose buffer was returned by {@link #take(String)}.
+	 */
+	public synchronized void release(String pathToFile) {
+
+		PrefetchEntry entry = _entryMap.remove(pathToFile);
+		if (entry == null) { return; }
+
+		_bytesReserved -= entry.buffer.capacity();
+
+		returnBuffer(entry.buffer);
+
+		scheduleReads();
+	}
+
+
+	/**
+	 * Tell the prefetcher that a file will not be processed (e.g. because it was already converted in a previous run),
+	 * so its buffer can be used for other files.
+	 *
+	 * @param pathToFile  File that is skipped.
+	 */
+	public synchronized void discard(String pathToFile) {
+
+		_consumedFiles.add(pathToFile);
+
+		PrefetchEntry entry = _entryMap.get(pathToFile);
+		if (entry == null) { return; }
+
+		if (entry.done) { release(pathToFile); } else { entry.discarded = true; }
+	}
+
+
+	/**
+	 * Get the smallest sufficient buffer from the pool, or allocate a new one if the limit allows it; pooled buffers
+	 * (which are all too small then) are dropped, smallest first, as far as needed to make room for the new buffer.
+	 *
+	 * @param size  Number of bytes needed.
+	 *
+	 * @return  Heap buffer with limit {@code size}, or {@code null} if the limit does not allow a new buffer.
+	 */
+	protected ByteBuffer borrowBuffer(int size) {
+
+		ByteBuffer bestFit = null;
+		for (ByteBuffer pooled: _bufferPool) {
+
+			if (pooled.capacity() >= size && (bestFit == null || pooled.capacity() < bestFit.capacity())) { bestFit = pooled; }
+		}
+
+		if (bestFit != null) { // memory held stays the same
+
+			_bufferPool.remove(bestFit);
+			_bytesInPool -= bestFit.capacity();
+			_numberOfBuffersReused++;
+
+			bestFit.clear();
+			bestFit.limit(size);
+			return bestFit;
+		}
+
+		if (_bytesReserved + size > _maxBytes) { return null; }
+
+		while (_bytesReserved + _bytesInPool + size > _maxBytes) { dropSmallestPooledBuffer(); }
+
+		return ByteBuffer.allocate(size);
+	}
+
+
+	/**
+	 * Put buffer into pool for reuse, if the pool is not full; smallest buffers are dropped first. The memory held
+	 * does not change, the buffer only moves from the files read ahead to the pool.
+	 *
+	 * @param buffer  Buffer no longer used.
+	 */
+	protected void returnBuffer(ByteBuffer buffer) {
+
+		while (_bufferPool.size() >= _maxFiles) {
+
+			if (getSmallestPooledBuffer().capacity() >= buffer.capacity()) { return; } // keep larger ones
+
+			dropSmallestPooledBuffer();
+		}
+
+		_bufferPool.add(buffer);
+		_bytesInPool += buffer.capacity();
+	}
+
+
+	/**
+	 * Get smallest buffer in pool.
+	 *
+	 * @return  Pooled buffer with smallest capacity, or {@code null} if the pool is empty.
+	 */
+	protected ByteBuffer getSmallestPooledBuffer() {
+
+		ByteBuffer smallest = null;
+		for (ByteBuffer pooled: _bufferPool) {
+
+			if (smallest == null || pooled.capacity() < smallest.capacity()) { smallest = pooled; }
+		}
+
+		return smallest;
+	}
+
+
+	/**
+	 * Remove smallest buffer from pool, so it can be garbage collected.
+	 */
+	protected void dropSmallestPooledBuffer() {
+
+		ByteBuffer smallest = getSmallestPooledBuffer();
+		if (smallest == null) { return; }
+
+		_bufferPool.remove(smallest);
+		_bytesInPool -= smallest.capacity();
+	}
+
+
+	/**
+	 * Drop pooled buffers; buffers of files still being read are dropped when reading has finished.
+	 */
+	@Override
+	public synchronized void close() {
+
+		for (PrefetchEntry entry: _entryMap.values()) { entry.discarded = true; }
+
+		_nextIndex = _pathsToFiles.length;
+
+		_bufferPool.clear();
+		_bytesInPool = 0;
+	}
+
+
+	/**
+	 * Getter for the peak of memory held.
+	 *
+	 * @return  Highest sum of capacities of the buffers of files read ahead and of unused buffers so far,
+	 *          never more than the byte limit.
+	 */
+	public synchronized long getPeakBytesHeld() {
+
+		return _peakBytesHeld;
+	}
+
+
+	/**
+	 * Build string with statistics, might be written to console after a batch run.
+	 *
+	 * @return  String with hits, misses and peak of memory held.
+	 */
+	@Override
+	public synchronized String toString() {
+
+		return String.format( "Read-ahead: %d files served from memory, %d files read by workers, %d buffers reused, peak %d KB held incl. unused buffers (limit %d KB).",
+				              _numberOfHits, _numberOfMisses, _numberOfBuffersReused, _peakBytesHeld / 1024, _maxBytes / 1024 );
+	}
+
+}
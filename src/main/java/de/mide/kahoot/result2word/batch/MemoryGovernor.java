@@ -0,0 +1,228 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.XlsxPackageInfo;
+
+
+/**
+ * Admission control for concurrent conversions: before a worker thread loads a workbook it has to acquire
+ * the estimated amount of heap memory needed for this workbook from this governor. If the configured budget
+ * would be exceeded, the worker blocks until other workers have released enough memory. Workers are admitted
+ * in the order in which they have asked (FIFO), so a large workbook cannot be starved by a sequence of small ones.
+ * <br><br>
+ *
+ * The cost of a workbook is estimated from the uncompressed sizes of its parts as found in the ZIP central
+ * directory (see {@link XlsxPackageInfo}), multiplied by {@link #HEAP_BYTES_PER_UNCOMPRESSED_BYTE}. A single
+ * workbook whose estimated cost exceeds the whole budget is admitted when no other workbook is loaded.
+ * <br><br>
+ *
+ * Waiting workers block on a {@link ReentrantLock} instead of a monitor, because a virtual thread (option {@code -v})
+ * waiting in {@code Object.wait()} pins its carrier thread before Java 24.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class MemoryGovernor {
+
+	/**
+	 * Rough factor for heap needed by {@code XSSFWorkbook} (XMLBeans DOM) and {@code XWPFDocument} per byte of
+	 * uncompressed XML in the xlsx file.
+	 */
+	public static final long HEAP_BYTES_PER_UNCOMPRESSED_BYTE = 8;
+
+	/** Minimum cost of a conversion (e.g. for the empty Word document), in bytes. */
+	public static final long MIN_COST_BYTES = 4L * 1024 * 1024;
+
+
+	/** Heap budget in bytes for all conversions running at the same time. */
+	protected long _budgetBytes = 0;
+
+	/** Sum of estimated costs of the conversions currently admitted. */
+	protected long _bytesInUse = 0;
+
+	/** Highest value of {@link #_bytesInUse} so far. */
+	protected long _peakBytesInUse = 0;
+
+	/** Number of times a worker had to wait for admission. */
+	protected int _numberOfWaits = 0;
+
+	/** Next ticket number to be handed out, for FIFO admission. */
+	protected long _nextTicket = 0;
+
+	/** Ticket number of the worker which is next to be admitted. */
+	protected long _ticketToBeAdmitted = 0;
+
+	/** Tickets of workers that were interrupted while waiting for admission. */
+	protected Set<Long> _abandonedTickets = new HashSet<Long>();
+
+	/** Lock guarding all fields above except {@link #_budgetBytes}. */
+	protected final ReentrantLock _lock = new ReentrantLock();
+
+	/** Signalled when memory was released or the next ticket is to be admitted. */
+	protected final Condition _admissionChanged = _lock.newCondition();
+
+
+	/**
+	 * Create governor with a particular budget.
+	 *
+	 * @param budgetBytes  Heap budget in bytes, must be positive.
+	 *
+	 * @throws KahootException  Budget is not positive.
+	 */
+	public MemoryGovernor(long budgetBytes) throws KahootException {
+
+		if (budgetBytes <= 0) {
+
+			throw new KahootException("Memory budget must be positive, but was " + budgetBytes + " bytes.");
+		}
+
+		_budgetBytes = budgetBytes;
+	}
+
+
+	/**
+	 * Estimate heap needed for the conversion of a xlsx file.
+	 *
+	 * @param pathToXlsxFile  Input file.
+	 *
+	 * @return  Estimated cost in bytes, at least {@link #MIN_COST_BYTES}.
+	 *
+	 * @throws KahootException  File could not be inspected.
+	 */
+	public static long estimateCost(String pathToXlsxFile) throws KahootException {
+
+		XlsxPackageInfo packageInfo = XlsxPackageInfo.inspect(pathToXlsxFile);
+
+		return Math.max( MIN_COST_BYTES, packageInfo.getTotalUncompressedSize() * HEAP_BYTES_PER_UNCOMPRESSED_BYTE );
+	}
+
+
+	/**
+	 * Block until the estimated memory for the conversion of a xlsx file is available.
+	 *
+	 * @param pathToXlsxFile  Input file to be converted.
+	 *
+	 * @return  Amount of memory acquired, has to be passed to {@link #release(long)} after the conversion.
+	 *
+	 * @throws KahootException  File could not be inspected, or thread was interrupted while waiting.
+	 */
+	public long acquire(String pathToXlsxFile) throws KahootException {
+
+		long cost = Math.min( estimateCost(pathToXlsxFile), _budgetBytes );
+
+		_lock.lock();
+		try {
+
+			long ticket = _nextTicket++;
+
+			boolean hasWaited = false;
+			try {
+
+				while ( ticket != _ticketToBeAdmitted || (_bytesInUse > 0 && _bytesInUse + cost > _budgetBytes) ) {
+
+					hasWaited = true;
+					_admissionChanged.await();
+				}
+			}
+			catch (InterruptedException ex) {
+
+				// do not block the workers behind us in the queue
+				if (ticket == _ticketToBeAdmitted) { advanceTicketToBeAdmitted(); } else { _abandonedTickets.add(ticket); }
+				_admissionChanged.signalAll();
+				Thread.currentThread().interrupt();
+
+				throw new KahootException("Interrupted while waiting for memory to load \"" + pathToXlsxFile + "\".", ex);
+			}
+
+			if (hasWaited) { _numberOfWaits++; }
+
+			advanceTicketToBeAdmitted();
+			_bytesInUse     += cost;
+			_peakBytesInUse  = Math.max(_peakBytesInUse, _bytesInUse);
+
+			_admissionChanged.signalAll(); // next ticket might fit as well
+		}
+		finally {
+
+			_lock.unlock();
+		}
+
+		return cost;
+	}
+
+
+	/**
+	 * Move on to the next ticket, skipping tickets of workers that were interrupted while waiting.
+	 * Must be called while holding {@link #_lock}.
+	 */
+	protected void advanceTicketToBeAdmitted() {
+
+		_ticketToBeAdmitted++;
+
+		while ( _abandonedTickets.remove(_ticketToBeAdmitted) ) { _ticketToBeAdmitted++; }
+	}
+
+
+	/**
+	 * Give back memory acquired with {@link #acquire(String)}.
+	 *
+	 * @param cost  Value returned by {@link #acquire(String)}.
+	 */
+	public void release(long cost) {
+
+		_lock.lock();
+		try {
+			_bytesInUse -= cost;
+
+			_admissionChanged.signalAll();
+		}
+		finally {
+
+			_lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Getter for sum of estimated costs of conversions currently admitted.
+	 *
+	 * @return  Bytes currently in use according to the estimates.
+	 */
+	public long getBytesInUse() {
+
+		_lock.lock();
+		try {
+			return _bytesInUse;
+		}
+		finally {
+
+			_lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Build string with statistics, might be written to console after a batch run.
+	 *
+	 * @return  String with budget, peak usage and number of waits.
+	 */
+	@Override
+	public String toString() {
+
+		_lock.lock();
+		try {
+			return String.format( "Memory governor: budget %d MB, peak of estimated usage %d MB, %d conversions had to wait.",
+					              _budgetBytes / (1024 * 1024), _peakBytesInUse / (1024 * 1024), _numberOfWaits );
+		}
+		finally {
+
+			_lock.unlock();
+		}
+	}
+
+}
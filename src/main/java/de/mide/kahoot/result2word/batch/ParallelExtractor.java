@@ -0,0 +1,165 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Extraction of the question lists of many xlsx files on a thread pool, for the modes which do not write one docx
+ * file per input file but process the questions of all files together (e.g. full-text index, duplicate report).
+ * The question lists are handed to a consumer on the calling thread in the order of the files; only a window of
+ * {@value #FILES_IN_FLIGHT_PER_THREAD} files per thread is extracted ahead of the consumer, so the heap needed does
+ * not depend on the number of files. A file that cannot be read is reported on STDOUT and skipped.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ParallelExtractor {
+
+	/** Number of files extracted ahead of the consumer per thread. */
+	public static final int FILES_IN_FLIGHT_PER_THREAD = 2;
+
+
+	/**
+	 * Functional interface for extracting the questions of a file, called by several threads at the same time.
+	 */
+	@FunctionalInterface
+	public interface QuestionListExtractor {
+
+		/**
+		 * Extract questions of a xlsx file.
+		 *
+		 * @param pathToInputFile  Path of xlsx file.
+		 *
+		 * @return  Questions and title.
+		 *
+		 * @throws KahootException  File could not be read.
+		 */
+		QuestionList extract(String pathToInputFile) throws KahootException;
+	}
+
+
+	/**
+	 * Functional interface for processing the questions of a file, always called by the thread that called
+	 * {@link ParallelExtractor#extractAll(List, QuestionListConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface QuestionListConsumer {
+
+		/**
+		 * Process questions of a xlsx file.
+		 *
+		 * @param pathToInputFile  Path of xlsx file.
+		 *
+		 * @param questionList  Questions extracted from the file.
+		 *
+		 * @throws KahootException  Processing failed, the extraction of all further files is aborted.
+		 */
+		void accept(String pathToInputFile, QuestionList questionList) throws KahootException;
+	}
+
+
+	/** Object extracting the questions of a single file. */
+	protected final QuestionListExtractor _extractor;
+
+	/** Number of files extracted at the same time. */
+	protected final int _numberOfThreads;
+
+	/** Number of files that could not be read by the last call of {@link #extractAll(List, QuestionListConsumer)}. */
+	protected int _numberOfFilesFailed = 0;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param extractor  Object extracting the questions of a single file.
+	 *
+	 * @param numberOfThreads  Number of files extracted at the same time, at least 1.
+	 */
+	public ParallelExtractor(QuestionListExtractor extractor, int numberOfThreads) {
+
+		_extractor       = extractor;
+		_numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+
+	/**
+	 * Extract the questions of all files and hand them to the consumer in the order of the files.
+	 *
+	 * @param pathsToInputFiles  Paths of xlsx files.
+	 *
+	 * @param consumer  Object processing the questions of each file that could be read.
+	 *
+	 * @return  Number of files handed to the consumer.
+	 *
+	 * @throws KahootException  Consumer failed, or extraction was interrupted.
+	 */
+	public int extractAll(List<String> pathsToInputFiles, QuestionListConsumer consumer) throws KahootException {
+
+		_numberOfFilesFailed = 0;
+
+		if (pathsToInputFiles.isEmpty()) { return 0; }
+
+		int numberOfFilesConsumed = 0;
+		int window                = FILES_IN_FLIGHT_PER_THREAD * _numberOfThreads;
+
+		ExecutorService executorService = Executors.newFixedThreadPool( Math.min(_numberOfThreads, pathsToInputFiles.size()) );
+		try {
+			Deque<Future<QuestionList>> futures = new ArrayDeque<Future<QuestionList>>();
+			int nextToSubmit = 0;
+
+			for (int i = 0; i < pathsToInputFiles.size(); i++) {
+
+				while (nextToSubmit < pathsToInputFiles.size() && nextToSubmit < i + window) {
+
+					String pathToInputFile = pathsToInputFiles.get(nextToSubmit++);
+					futures.add( executorService.submit( () -> _extractor.extract(pathToInputFile) ) );
+				}
+
+				String pathToInputFile = pathsToInputFiles.get(i);
+				try {
+					QuestionList questionList = futures.poll().get();
+
+					consumer.accept(pathToInputFile, questionList);
+					numberOfFilesConsumed++;
+				}
+				catch (ExecutionException ex) {
+
+					System.out.println("Could not read \"" + pathToInputFile + "\": " + ex.getCause().getMessage());
+					_numberOfFilesFailed++;
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+			throw new KahootException("Extraction of questions was interrupted.", ex);
+		}
+		finally {
+
+			executorService.shutdownNow();
+		}
+
+		return numberOfFilesConsumed;
+	}
+
+
+	/**
+	 * Getter for number of failed files.
+	 *
+	 * @return  Number of files that could not be read by the last call of {@link #extractAll(List, QuestionListConsumer)}.
+	 */
+	public int getNumberOfFilesFailed() {
+
+		return _numberOfFilesFailed;
+	}
+
+}
@@ -0,0 +1,192 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Conversion of a single file split into three phases, for the execution of the batch on virtual threads
+ * (see {@link BatchRunner#setUseVirtualThreads(boolean)}):
+ * <ol>
+ * <li>Reading the xlsx file into memory, on the thread calling {@link #convert(String)}.</li>
+ * <li>Parsing the workbook and rendering the Word document into memory, on a bounded pool of platform threads
+ *     ("CPU pool").</li>
+ * <li>Writing the docx file, again on the thread calling {@link #convert(String)}.</li>
+ * </ol>
+ * So the blocking reads and writes (e.g. on a network share) only park cheap virtual threads, while the number of
+ * parse/render phases running at the same time is limited to the size of the CPU pool.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class PhasedConverter implements BatchRunner.FileConverter, AutoCloseable {
+
+	/**
+	 * Functional interface for the CPU-heavy phase of a conversion.
+	 */
+	@FunctionalInterface
+	public interface InMemoryConverter {
+
+		/**
+		 * Convert content of xlsx file to content of docx file.
+		 *
+		 * @param xlsxBytes  Content of xlsx file.
+		 *
+		 * @param pathToInputFile  Path of xlsx file the content was read from.
+		 *
+		 * @return  Content of docx file.
+		 *
+		 * @throws KahootException  Conversion failed.
+		 */
+		byte[] convert(byte[] xlsxBytes, String pathToInputFile) throws KahootException;
+	}
+
+
+	/**
+	 * Functional interface for determining the path of the docx file.
+	 */
+	@FunctionalInterface
+	public interface OutputPathFunction {
+
+		/**
+		 * Get path of docx file to be written for a xlsx file.
+		 *
+		 * @param pathToInputFile  Path of xlsx file.
+		 *
+		 * @return  Path of docx file.
+		 *
+		 * @throws KahootException  Path could not be determined.
+		 */
+		String getPathToOutputFile(String pathToInputFile) throws KahootException;
+	}
+
+
+	/** Object performing parsing and rendering in memory. */
+	protected InMemoryConverter _inMemoryConverter = null;
+
+	/** Function returning path of docx file for path of xlsx file. */
+	protected OutputPathFunction _outputPathFunction = null;
+
+	/** Bounded pool of platform threads for the parse/render phase. */
+	protected ExecutorService _cpuExecutorService = null;
+
+
+	/**
+	 * Create converter with its own CPU pool.
+	 *
+	 * @param inMemoryConverter  Object performing parsing and rendering in memory.
+	 *
+	 * @param outputPathFunction  Function returning path of docx file for path of xlsx file.
+	 *
+	 * @param numberOfCpuThreads  Size of CPU pool, i.e. maximum number of parse/render phases at the same time.
+	 *
+	 * @throws KahootException  Illegal number of threads.
+	 */
+	public PhasedConverter(InMemoryConverter inMemoryConverter, OutputPathFunction outputPathFunction,
+			               int numberOfCpuThreads) throws KahootException {
+
+		if (numberOfCpuThreads < 1) {
+
+			throw new KahootException("Number of CPU threads must be at least 1, but was " + numberOfCpuThreads + ".");
+		}
+
+		_inMemoryConverter  = inMemoryConverter;
+		_outputPathFunction = outputPathFunction;
+		_cpuExecutorService = Executors.newFixedThreadPool(numberOfCpuThreads);
+	}
+
+
+	/**
+	 * Convert a single file in three phases, see class comment.
+	 *
+	 * @param pathToInputFile  Xlsx file to be converted.
+	 *
+	 * @return  Path of the docx file that was written.
+	 *
+	 * @throws KahootException  Reading, conversion or writing failed.
+	 */
+	@Override
+	public String convert(String pathToInputFile) throws KahootException {
+
+		byte[] xlsxBytes = null;
+		try {
+
+			xlsxBytes = Files.readAllBytes( Paths.get(pathToInputFile) );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Error when trying to read input file \"" + pathToInputFile + "\".", ex);
+		}
+
+		final byte[] xlsxBytesFinal = xlsxBytes;
+
+		CancellationToken cancellationToken = CancellationToken.getCurrent(); // token of the file, see BatchRunner
+
+		Future<byte[]> future = _cpuExecutorService.submit( () -> {
+
+			CancellationToken.setCurrent(cancellationToken);
+			try {
+				return _inMemoryConverter.convert(xlsxBytesFinal, pathToInputFile);
+			}
+			finally {
+				CancellationToken.setCurrent(null);
+			}
+		});
+
+		byte[] docxBytes = null;
+		try {
+
+			docxBytes = future.get();
+		}
+		catch (ExecutionException ex) {
+
+			Throwable cause = ex.getCause();
+			if (cause instanceof KahootException) { throw (KahootException) cause; }
+
+			throw new KahootException("Unexpected error when converting \"" + pathToInputFile + "\": " + cause, ex);
+		}
+		catch (InterruptedException ex) {
+
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+
+			throw new KahootException("Interrupted while converting \"" + pathToInputFile + "\".", ex);
+		}
+
+		String pathToOutputWord = _outputPathFunction.getPathToOutputFile(pathToInputFile);
+
+		cancellationToken.throwIfCancelledBeforeWriting("before writing \"" + pathToOutputWord + "\"");
+
+		try {
+
+			Files.write( Paths.get(pathToOutputWord), docxBytes );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O Error when writing docx file \"" + pathToOutputWord + "\".", ex);
+		}
+
+		System.out.println("Target file written: " + pathToOutputWord);
+
+		return pathToOutputWord;
+	}
+
+
+	/**
+	 * Shut down the CPU pool.
+	 */
+	@Override
+	public void close() {
+
+		_cpuExecutorService.shutdownNow();
+	}
+
+}
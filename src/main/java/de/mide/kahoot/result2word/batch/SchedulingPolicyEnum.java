@@ -0,0 +1,118 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Enumeration type for the order in which the files of a batch are handed to the worker threads.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public enum SchedulingPolicyEnum {
+
+	/** Order in which the files are listed by the operating system (behavior of older versions). */
+	FILE_ORDER("file"),
+
+	/**
+	 * Largest files first ("longest processing time first"); minimizes the total wall time (makespan)
+	 * with several worker threads, because no large file is started at the end of the batch.
+	 */
+	LARGEST_FIRST("largest"),
+
+	/** Smallest files first ("shortest job first"); minimizes the mean time until a file is finished. */
+	SMALLEST_FIRST("smallest"),
+
+	/** Most recently modified files first, so the latest results are available as soon as possible. */
+	NEWEST_FIRST("newest");
+
+
+	/** Value of command line option {@code --queueorder} for this policy. */
+	private final String _optionValue;
+
+
+	/**
+	 * Constructor for enum elements.
+	 *
+	 * @param optionValue  Value of command line option for this policy.
+	 */
+	private SchedulingPolicyEnum(String optionValue) {
+
+		_optionValue = optionValue;
+	}
+
+
+	/**
+	 * Getter for value of command line option.
+	 *
+	 * @return  Value of command line option {@code --queueorder} for this policy, e.g. "largest".
+	 */
+	public String getOptionValue() {
+
+		return _optionValue;
+	}
+
+
+	/**
+	 * Get policy for value of command line option.
+	 *
+	 * @param optionValue  Value of command line option, e.g. "largest" (not case-sensitive).
+	 *
+	 * @return  Policy for {@code optionValue}.
+	 *
+	 * @throws KahootException  No policy for {@code optionValue}.
+	 */
+	public static SchedulingPolicyEnum fromOptionValue(String optionValue) throws KahootException {
+
+		for (SchedulingPolicyEnum policy: values()) {
+
+			if (policy._optionValue.equalsIgnoreCase( optionValue.trim() )) { return policy; }
+		}
+
+		throw new KahootException("Unknown scheduling policy \"" + optionValue + "\", expected one of \"file\", \"largest\", \"smallest\", \"newest\".");
+	}
+
+
+	/**
+	 * Sort files according to this policy. Size and last-modified time of each file are queried only once.
+	 *
+	 * @param pathsToFiles  Files to be sorted, is not changed.
+	 *
+	 * @return  New array with the files in the order in which they are to be processed.
+	 */
+	public String[] sortFiles(String[] pathsToFiles) {
+
+		if (this == FILE_ORDER) { return pathsToFiles.clone(); }
+
+		int numFiles = pathsToFiles.length;
+
+		Integer[] indexArray = new Integer[numFiles];
+		long[]    keyArray   = new long[numFiles];
+
+		for (int i = 0; i < numFiles; i++) {
+
+			File file = new File( pathsToFiles[i] );
+
+			indexArray[i] = i;
+			keyArray[i]   = this == NEWEST_FIRST ? file.lastModified() : file.length();
+		}
+
+		Comparator<Integer> comparator = Comparator.comparingLong( index -> keyArray[index] );
+		if (this != SMALLEST_FIRST) { comparator = comparator.reversed(); }
+
+		Arrays.sort(indexArray, comparator); // stable, so files with same key keep their order
+
+		String[] resultArray = new String[numFiles];
+		for (int i = 0; i < numFiles; i++) {
+
+			resultArray[i] = pathsToFiles[ indexArray[i] ];
+		}
+
+		return resultArray;
+	}
+
+}
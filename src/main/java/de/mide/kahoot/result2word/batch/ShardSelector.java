@@ -0,0 +1,223 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Deterministic partitioning of the xlsx files found in an input folder into {@code N} shards, so that
+ * several machines can process one large folder without any coordination service: each machine is
+ * started with option {@code --shard k/N} (with a different {@code k}) and only processes the files of
+ * its own shard.
+ * <br><br>
+ *
+ * The shard of a file is computed from a 64-bit FNV-1a hash of its file name (without path), so the
+ * partition does not depend on the order in which the files are listed by the operating system nor on the
+ * path under which the folder is mounted on the individual machines.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ShardSelector {
+
+	/** Offset basis for 64-bit FNV-1a hash. */
+	protected static final long FNV_64_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	/** Prime for 64-bit FNV-1a hash. */
+	protected static final long FNV_64_PRIME = 0x100000001b3L;
+
+
+	/** Number (1-based) of the shard to be processed by this node, i.e. {@code k} in {@code k/N}. */
+	protected int _shardNumber = 1;
+
+	/** Total number of shards, i.e. {@code N} in {@code k/N}. */
+	protected int _numberOfShards = 1;
+
+
+	/**
+	 * Create selector for one shard.
+	 *
+	 * @param shardNumber  Number of shard, must be between 1 and {@code numberOfShards}.
+	 *
+	 * @param numberOfShards  Total number of shards, must be at least 1.
+	 *
+	 * @throws KahootException  Illegal values for arguments.
+	 */
+	public ShardSelector(int shardNumber, int numberOfShards) throws KahootException {
+
+		if (numberOfShards < 1) {
+
+			throw new KahootException("Number of shards must be at least 1, but was " + numberOfShards + ".");
+		}
+
+		if (shardNumber < 1 || shardNumber > numberOfShards) {
+
+			throw new KahootException("Shard number must be between 1 and " + numberOfShards + ", but was " + shardNumber + ".");
+		}
+
+		_shardNumber    = shardNumber;
+		_numberOfShards = numberOfShards;
+	}
+
+
+	/**
+	 * Create selector from value of command line option {@code --shard}.
+	 *
+	 * @param shardSpec  String like {@code 2/4} for second of four shards.
+	 *
+	 * @return  New selector object.
+	 *
+	 * @throws KahootException  {@code shardSpec} has not the expected format.
+	 */
+	public static ShardSelector parse(String shardSpec) throws KahootException {
+
+		String[] parts = shardSpec.trim().split("/");
+
+		if (parts.length != 2) {
+
+			throw new KahootException("Shard \"" + shardSpec + "\" is not in the format k/N, e.g. \"2/4\".");
+		}
+
+		try {
+
+			return new ShardSelector( Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()) );
+		}
+		catch (NumberFormatException ex) {
+
+			throw new KahootException("Shard \"" + shardSpec + "\" is not in the format k/N, e.g. \"2/4\".", ex);
+		}
+	}
+
+
+	/**
+	 * Compute the shard of a file.
+	 *
+	 * @param pathToFile  File name, might contain a path, which is not considered.
+	 *
+	 * @param numberOfShards  Total number of shards.
+	 *
+	 * @return  Number (1-based) of shard to which the file belongs.
+	 */
+	public static int computeShardNumber(String pathToFile, int numberOfShards) {
+
+		String fileName = new File(pathToFile).getName();
+
+		long hash = FNV_64_OFFSET_BASIS;
+		for (byte b: fileName.getBytes(StandardCharsets.UTF_8)) {
+
+			hash ^= (b & 0xff);
+			hash *= FNV_64_PRIME;
+		}
+
+		return (int) Long.remainderUnsigned(hash, numberOfShards) + 1;
+	}
+
+
+	/**
+	 * Check if a file belongs to the shard of this object.
+	 *
+	 * @param pathToFile  File name, might contain a path, which is not considered.
+	 *
+	 * @return  {@code true} iff the file is to be processed by this node.
+	 */
+	public boolean isInShard(String pathToFile) {
+
+		return computeShardNumber(pathToFile, _numberOfShards) == _shardNumber;
+	}
+
+
+	/**
+	 * Filter array of files, only keeping those files that belong to the shard of this object.
+	 *
+	 * @param pathsToFiles  All files found in the input folder.
+	 *
+	 * @return  Array with files of this shard (same order as in {@code pathsToFiles}); might be empty.
+	 */
+	public String[] selectFiles(String[] pathsToFiles) {
+
+		List<String> resultList = new ArrayList<String>();
+
+		for (String pathToFile: pathsToFiles) {
+
+			if ( isInShard(pathToFile) ) { resultList.add(pathToFile); }
+		}
+
+		return resultList.toArray( new String[resultList.size()] );
+	}
+
+
+	/**
+	 * Suffix for names of files which are written per shard, e.g. journal or summary file.
+	 *
+	 * @return  String like {@code shard_2_of_4}.
+	 */
+	public String getFileNameSuffix() {
+
+		return "shard_" + _shardNumber + "_of_" + _numberOfShards;
+	}
+
+
+	/**
+	 * Write summary file for this shard, so the results of all nodes can be checked and combined afterwards.
+	 *
+	 * @param folder  Folder into which summary file is to be written.
+	 *
+	 * @param filesOfShard  All files belonging to this shard, as returned by {@link #selectFiles(String[])}.
+	 *
+	 * @param numFilesProcessed  Number of files processed in this run.
+	 *
+	 * @param numFilesSkipped  Number of files skipped, because they were already processed in a previous run.
+	 *
+	 * @return  Path of summary file that was written.
+	 *
+	 * @throws KahootException  I/O error when writing the summary file.
+	 */
+	public String writeSummaryFile(String folder, String[] filesOfShard, int numFilesProcessed, int numFilesSkipped) throws KahootException {
+
+		File summaryFile = new File(folder, "kahoot_result2word_" + getFileNameSuffix() + ".summary");
+
+		try (PrintWriter writer = new PrintWriter( new OutputStreamWriter( new FileOutputStream(summaryFile), StandardCharsets.UTF_8) )) {
+
+			writer.println("shard="           + this                   );
+			writer.println("filesInShard="    + filesOfShard.length    );
+			writer.println("filesProcessed="  + numFilesProcessed      );
+			writer.println("filesSkipped="    + numFilesSkipped        );
+			writer.println("finishedAt="      + new Date()             );
+
+			for (String pathToFile: filesOfShard) {
+
+				writer.println("file=" + new File(pathToFile).getName());
+			}
+
+			if (writer.checkError()) { throw new IOException("PrintWriter reported error."); }
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write summary file \"" + summaryFile.getPath() + "\".", ex);
+		}
+
+		return summaryFile.getPath();
+	}
+
+
+	/**
+	 * Shard in the same notation as for the command line option.
+	 *
+	 * @return  String like {@code 2/4}.
+	 */
+	@Override
+	public String toString() {
+
+		return _shardNumber + "/" + _numberOfShards;
+	}
+
+}
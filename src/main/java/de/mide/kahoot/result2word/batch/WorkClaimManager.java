@@ -0,0 +1,721 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.ConversionCancelledException;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Claim protocol that allows any number of processes (on any number of hosts) to cooperatively process
+ * one input folder without processing a file twice. Before a worker processes an input file it has to
+ * create the marker file {@code <name>.claim} in the shared output folder; creating a file that must not
+ * exist yet is an atomic operation on local file systems and on common network file systems, so only one
+ * worker can get the claim. After the docx file was written, the marker {@code <name>.done} is created
+ * and the claim is removed.
+ * <br><br>
+ *
+ * The done marker records the docx file with its hash and a key of the options determining its content
+ * (see {@link #setOutputOptionsKey(String)}). A file is only skipped because of its done marker if the docx
+ * file is unchanged and, unless the run is resumed, was written with the same options; so a new run with e.g.
+ * another language converts all files again, and a deleted or changed docx file is written again.
+ * <br><br>
+ *
+ * A claim is a lease: while a worker holds a claim, its last-modified time is refreshed by a background
+ * thread every third of the lease time. When a worker dies, its claims are no longer refreshed and can be
+ * taken over by another worker after the lease time has expired. To avoid that two workers take over the
+ * same expired claim, a worker taking over first renames the claim file atomically to a name of its own,
+ * {@code <name>.claim.steal.<uuid>}; renaming a file can only succeed for one worker, the others do not
+ * find the claim file anymore and give up.
+ * <br><br>
+ *
+ * A worker that is slow but alive can lose its claim this way. Therefore each claim file contains a unique
+ * token, and the worker checks that the claim file still has its token before it refreshes, releases or
+ * finishes the claim; a conversion started with the token of {@link #createCancellationToken(String, CancellationToken, long)}
+ * is aborted when the claim is lost, at the latest right before the docx file is written. The age of a claim is
+ * measured with the clock of the file system (the last-modified time of a file written by this worker), not with
+ * the clock of this host, so hosts whose clocks differ do not take over claims that are still refreshed.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class WorkClaimManager implements AutoCloseable {
+
+	/** Suffix of marker file for a claimed input file. */
+	public static final String CLAIM_SUFFIX = ".claim";
+
+	/** Suffix of marker file for an input file which was processed completely. */
+	public static final String DONE_SUFFIX = ".done";
+
+	/** Suffix (followed by a unique id of the worker) to which a claim file is renamed while it is taken over or removed. */
+	protected static final String STEAL_SUFFIX = ".steal";
+
+	/** Prefix (followed by a unique id of the worker) of the file whose last-modified time is the current time of the file system. */
+	protected static final String CLOCK_FILE_PREFIX = ".claim_clock.";
+
+
+	/** Folder in which the marker files are created, should be the (shared) output folder. */
+	protected Path _markerFolder = null;
+
+	/** Lease time in milliseconds; claims not refreshed for this time are regarded as abandoned. */
+	protected long _leaseMillis = 0;
+
+	/** Identification of this worker (process id and host name), is written into the claim files. */
+	protected String _workerId = "";
+
+	/** Unique id of this manager, even for managers in the same process. */
+	protected String _instanceId = UUID.randomUUID().toString();
+
+	/** Suffix of the name to which this worker renames claim files, see {@link #STEAL_SUFFIX}. */
+	protected String _stealSuffix = STEAL_SUFFIX + "." + _instanceId;
+
+	/** File written to read the current time of the file system, see {@link #getFileSystemTimeMillis()}. */
+	protected Path _clockPath = null;
+
+	/** Key of the options determining the content of the docx files, is written into the done markers. */
+	protected String _outputOptionsKey = "";
+
+	/** If true, then done markers written with other options are accepted as well (option {@code --resume}). */
+	protected boolean _resume = false;
+
+	/** Claim files currently held by this worker with the token written into each of them; their last-modified time is refreshed periodically. */
+	protected Map<Path, String> _heldClaims = new ConcurrentHashMap<Path, String>();
+
+	/** Executor for background thread refreshing the held claims. */
+	protected ScheduledExecutorService _heartbeatExecutor = null;
+
+
+	/**
+	 * Token for the conversion of a claimed file, is cancelled when the claim is lost; see
+	 * {@link WorkClaimManager#createCancellationToken(String, CancellationToken, long)}.
+	 */
+	protected class ClaimCancellationToken extends CancellationToken {
+
+		/** Claim file of the input file converted with this token. */
+		protected final Path _claimPath;
+
+
+		/**
+		 * Constructor.
+		 *
+		 * @param claimPath  Claim file held by this worker.
+		 *
+		 * @param parent  Token whose cancellation also cancels this token, or {@code null}.
+		 *
+		 * @param timeBudgetMillis  Milliseconds after which this token counts as cancelled, 0 for no time budget.
+		 */
+		protected ClaimCancellationToken(Path claimPath, CancellationToken parent, long timeBudgetMillis) {
+
+			super(parent, timeBudgetMillis);
+
+			_claimPath = claimPath;
+		}
+
+
+		/**
+		 * Check whether the conversion is to be aborted, also when the heartbeat has found the claim lost.
+		 *
+		 * @return  True if the token was cancelled or the claim is no longer held by this worker.
+		 */
+		@Override
+		public boolean isCancelled() {
+
+			return super.isCancelled() || !_heldClaims.containsKey(_claimPath);
+		}
+
+
+		/**
+		 * Abort the conversion if the token is cancelled, with a message saying that the claim was lost.
+		 *
+		 * @param position  Where the conversion is aborted, for the message.
+		 *
+		 * @throws ConversionCancelledException  Token is cancelled or claim is lost.
+		 */
+		@Override
+		public void throwIfCancelled(String position) throws ConversionCancelledException {
+
+			if ( !_heldClaims.containsKey(_claimPath) ) {
+
+				throw new ConversionCancelledException("Conversion aborted " + position + ": claim \"" + _claimPath + "\" was taken over by another worker.");
+			}
+
+			super.throwIfCancelled(position);
+		}
+
+
+		/**
+		 * Check the token in the claim file right before the output file is written.
+		 *
+		 * @param position  Where the conversion is aborted, for the message.
+		 *
+		 * @throws ConversionCancelledException  Token is cancelled or claim is lost.
+		 */
+		@Override
+		public void throwIfCancelledBeforeWriting(String position) throws ConversionCancelledException {
+
+			holdsClaim(_claimPath);
+
+			throwIfCancelled(position);
+		}
+	}
+
+
+	/**
+	 * Create manager for claims in a particular folder.
+	 *
+	 * @param markerFolder  Folder into which the marker files are to be written.
+	 *
+	 * @param leaseMillis  Lease time in milliseconds, must be positive.
+	 *
+	 * @throws KahootException  Illegal lease time.
+	 */
+	public WorkClaimManager(String markerFolder, long leaseMillis) throws KahootException {
+
+		if (leaseMillis <= 0) {
+
+			throw new KahootException("Lease time for claims must be positive, but was " + leaseMillis + " ms.");
+		}
+
+		_markerFolder = Paths.get(markerFolder);
+		_leaseMillis  = leaseMillis;
+		_workerId     = ManagementFactory.getRuntimeMXBean().getName(); // e.g. "12345@hostname"
+		_clockPath    = _markerFolder.resolve(CLOCK_FILE_PREFIX + _instanceId);
+
+		long heartbeatMillis = Math.max(1, leaseMillis / 3);
+
+		_heartbeatExecutor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+
+			Thread thread = new Thread(runnable, "claim-heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		_heartbeatExecutor.scheduleAtFixedRate( this::refreshHeldClaims, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS );
+	}
+
+
+	/**
+	 * Getter for identification of this worker.
+	 *
+	 * @return  String like {@code 12345@hostname}.
+	 */
+	public String getWorkerId() {
+
+		return _workerId;
+	}
+
+
+	/**
+	 * Getter for host name of this worker.
+	 *
+	 * @return  Host name part of {@link #getWorkerId()}.
+	 */
+	public String getHostName() {
+
+		return _workerId.substring( _workerId.indexOf('@') + 1 );
+	}
+
+
+	/**
+	 * Setter for key of the options determining the content of the docx files; done markers written with
+	 * another key are ignored unless the run is resumed.
+	 *
+	 * @param outputOptionsKey  Key without tab and line break, e.g. a hash of the options.
+	 */
+	public void setOutputOptionsKey(String outputOptionsKey) {
+
+		_outputOptionsKey = outputOptionsKey;
+	}
+
+
+	/**
+	 * Setter for resume mode.
+	 *
+	 * @param resume  If true, then done markers are accepted whatever options they were written with,
+	 *                as long as their docx file is unchanged.
+	 */
+	public void setResume(boolean resume) {
+
+		_resume = resume;
+	}
+
+
+	/**
+	 * Try to claim an input file for processing by this worker.
+	 *
+	 * @param pathToInputFile  Input file to be claimed.
+	 *
+	 * @return  {@code true} iff this worker now holds the claim and has to process the file;
+	 *          {@code false} if the file is claimed by another worker or was already processed.
+	 *
+	 * @throws KahootException  I/O error when creating the marker file.
+	 */
+	public boolean tryClaim(String pathToInputFile) throws KahootException {
+
+		Path   claimPath  = getMarkerPath(pathToInputFile, CLAIM_SUFFIX);
+		Path   donePath   = getMarkerPath(pathToInputFile, DONE_SUFFIX);
+		String claimToken = UUID.randomUUID().toString();
+
+		if ( isDone(donePath) ) { return false; }
+
+		try {
+
+			boolean claimed = createClaimFile(claimPath, claimToken);
+
+			if ( !claimed && isExpired(claimPath, _leaseMillis) ) {
+
+				claimed = tryTakeOverExpiredClaim(claimPath, claimToken);
+			}
+
+			if (!claimed) { return false; }
+
+			if ( isDone(donePath) ) { // other worker has finished the file just before we got the claim
+
+				removeOwnClaim(claimPath, claimToken);
+				return false;
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when trying to claim input file \"" + pathToInputFile + "\".", ex);
+		}
+
+		_heldClaims.put(claimPath, claimToken);
+
+		return true;
+	}
+
+
+	/**
+	 * Check that this worker still holds the claim of an input file, i.e. that the claim file still contains
+	 * the token written by {@link #tryClaim(String)}; a lost claim is no longer refreshed.
+	 *
+	 * @param pathToInputFile  Input file that was claimed with {@link #tryClaim(String)}.
+	 *
+	 * @return  {@code true} iff the claim is still held by this worker.
+	 */
+	public boolean holdsClaim(String pathToInputFile) {
+
+		return holdsClaim( getMarkerPath(pathToInputFile, CLAIM_SUFFIX) );
+	}
+
+
+	/**
+	 * Create token for the conversion of a claimed input file: it is cancelled when the claim is found lost by
+	 * the heartbeat, and {@link CancellationToken#throwIfCancelledBeforeWriting(String)} checks the claim file.
+	 *
+	 * @param pathToInputFile  Input file that was claimed with {@link #tryClaim(String)}.
+	 *
+	 * @param parent  Token whose cancellation also cancels the new token, or {@code null}.
+	 *
+	 * @param timeBudgetMillis  Milliseconds after which the token counts as cancelled, 0 for no time budget.
+	 *
+	 * @return  New token.
+	 */
+	public CancellationToken createCancellationToken(String pathToInputFile, CancellationToken parent, long timeBudgetMillis) {
+
+		return new ClaimCancellationToken( getMarkerPath(pathToInputFile, CLAIM_SUFFIX), parent, timeBudgetMillis );
+	}
+
+
+	/**
+	 * Mark a claimed input file as processed completely and remove the claim.
+	 *
+	 * @param pathToInputFile  Input file that was claimed with {@link #tryClaim(String)}.
+	 *
+	 * @param pathToOutputFile  Docx file written for the input file, will be written into the marker file.
+	 *
+	 * @param outputHash  Hash of the written docx file, will be written into the marker file.
+	 *
+	 * @throws KahootException  Claim was taken over by another worker, or I/O error when creating the marker file.
+	 */
+	public void markDone(String pathToInputFile, String pathToOutputFile, String outputHash) throws KahootException {
+
+		Path claimPath = getMarkerPath(pathToInputFile, CLAIM_SUFFIX);
+		Path donePath  = getMarkerPath(pathToInputFile, DONE_SUFFIX);
+
+		if ( !holdsClaim(claimPath) ) {
+
+			throw new KahootException("Input file \"" + pathToInputFile + "\" cannot be marked as done, because its claim was taken over by another worker.");
+		}
+
+		try {
+
+			// done marker has to be written before the claim is removed
+			String doneRecord = _workerId + "\t" + _outputOptionsKey + "\t" + outputHash + "\t" + Paths.get(pathToOutputFile).toAbsolutePath() + "\n";
+
+			Files.write( donePath, doneRecord.getBytes(StandardCharsets.UTF_8) );
+
+			removeOwnClaim( claimPath, _heldClaims.remove(claimPath) );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when marking input file \"" + pathToInputFile + "\" as done.", ex);
+		}
+	}
+
+
+	/**
+	 * Give up claim for an input file, e.g. because processing has failed; the file can then be claimed
+	 * by another worker. A claim that was taken over by another worker is left alone.
+	 *
+	 * @param pathToInputFile  Input file that was claimed with {@link #tryClaim(String)}.
+	 */
+	public void release(String pathToInputFile) {
+
+		Path   claimPath  = getMarkerPath(pathToInputFile, CLAIM_SUFFIX);
+		String claimToken = _heldClaims.remove(claimPath);
+
+		if (claimToken == null) { return; }
+
+		try {
+
+			removeOwnClaim(claimPath, claimToken);
+		}
+		catch (IOException ex) {
+
+			System.err.println("Could not remove claim file \"" + claimPath + "\": " + ex.getMessage());
+		}
+	}
+
+
+	/**
+	 * Stop refreshing claims; claims that are still held will expire after the lease time.
+	 */
+	@Override
+	public void close() {
+
+		_heartbeatExecutor.shutdownNow();
+
+		try {
+
+			_heartbeatExecutor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+		}
+
+		try { Files.deleteIfExists(_clockPath); } catch (IOException ex) { /* only a small file is left behind */ }
+	}
+
+
+	/**
+	 * Atomically create claim file, which must not exist yet.
+	 *
+	 * @param claimPath  Path of claim file.
+	 *
+	 * @param claimToken  Unique token to be written into the claim file.
+	 *
+	 * @return  {@code true} iff the claim file was created by this call.
+	 *
+	 * @throws IOException  I/O error other than that the file already exists.
+	 */
+	protected boolean createClaimFile(Path claimPath, String claimToken) throws IOException {
+
+		try {
+
+			Files.write( claimPath, (_workerId + "\t" + claimToken + "\n").getBytes(StandardCharsets.UTF_8),
+			             StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE );
+
+			return true;
+		}
+		catch (FileAlreadyExistsException ex) {
+
+			return false;
+		}
+	}
+
+
+	/**
+	 * Check if a done marker counts for this run: its docx file must be unchanged and, unless the run is resumed,
+	 * written with the options of this run.
+	 *
+	 * @param donePath  Done marker.
+	 *
+	 * @return  {@code true} iff the input file of the marker does not have to be converted again.
+	 *
+	 * @throws KahootException  I/O error when reading the marker.
+	 */
+	protected boolean isDone(Path donePath) throws KahootException {
+
+		String[] fields = null;
+		try {
+
+			fields = new String( Files.readAllBytes(donePath), StandardCharsets.UTF_8 ).trim().split("\t", 4);
+		}
+		catch (NoSuchFileException ex) {
+
+			return false;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("I/O error when reading done marker \"" + donePath + "\".", ex);
+		}
+
+		if (fields.length < 4) { return false; } // written by an older version, output cannot be checked
+
+		if ( !_resume && !fields[1].equals(_outputOptionsKey) ) { return false; }
+
+		return BatchJournal.isOutputUnchanged(fields[3], fields[2]);
+	}
+
+
+	/**
+	 * Read the token of a claim file.
+	 *
+	 * @param claimPath  Claim file, or claim file renamed to the name of a worker.
+	 *
+	 * @return  Token written by {@link #createClaimFile(Path, String)}, or {@code null} if the file does not exist.
+	 *
+	 * @throws IOException  I/O error when reading the file.
+	 */
+	protected static String readClaimToken(Path claimPath) throws IOException {
+
+		try {
+
+			String content = new String( Files.readAllBytes(claimPath), StandardCharsets.UTF_8 ).trim();
+
+			return content.substring( content.lastIndexOf('\t') + 1 );
+		}
+		catch (NoSuchFileException ex) {
+
+			return null;
+		}
+	}
+
+
+	/**
+	 * Check that this worker still holds a claim; a lost claim is removed from the held claims.
+	 *
+	 * @param claimPath  Claim file.
+	 *
+	 * @return  {@code true} iff the claim file contains the token of this worker.
+	 */
+	protected boolean holdsClaim(Path claimPath) {
+
+		String claimToken = _heldClaims.get(claimPath);
+		if (claimToken == null) { return false; }
+
+		try {
+
+			if ( claimToken.equals(readClaimToken(claimPath)) ) { return true; }
+		}
+		catch (IOException ex) {
+
+			System.err.println("Could not read claim file \"" + claimPath + "\": " + ex.getMessage());
+		}
+
+		if ( _heldClaims.remove(claimPath, claimToken) ) {
+
+			System.out.println("Claim \"" + claimPath + "\" was taken over by another worker.");
+		}
+
+		return false;
+	}
+
+
+	/**
+	 * Take over claim whose lease has expired. The claim file is renamed atomically to a name of this worker,
+	 * which succeeds for only one of the workers trying at the same time; only that worker may recreate the
+	 * claim file. If the renamed claim turns out to be fresh (another worker took it over just before), it is
+	 * renamed back.
+	 *
+	 * @param claimPath  Path of claim file.
+	 *
+	 * @param claimToken  Unique token to be written into the recreated claim file.
+	 *
+	 * @return  {@code true} iff this worker now holds the claim.
+	 *
+	 * @throws IOException  I/O error when handling the marker files.
+	 */
+	protected boolean tryTakeOverExpiredClaim(Path claimPath, String claimToken) throws IOException {
+
+		Path stealPath = claimPath.resolveSibling( claimPath.getFileName() + _stealSuffix );
+
+		try {
+
+			Files.move( claimPath, stealPath, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (NoSuchFileException ex) {
+
+			return false; // other worker has renamed, released or finished this claim
+		}
+
+		if ( !isExpired(stealPath, _leaseMillis) ) { // other worker has taken over the claim just before
+
+			moveBack(stealPath, claimPath);
+			return false;
+		}
+
+		System.out.println("Taking over expired claim \"" + claimPath + "\".");
+
+		Files.deleteIfExists(stealPath);
+
+		return createClaimFile(claimPath, claimToken);
+	}
+
+
+	/**
+	 * Delete a claim file if it still contains the token of this worker. Like for a take-over, the file is
+	 * renamed to a name of this worker first, so a claim recreated by another worker in the meantime is not deleted.
+	 *
+	 * @param claimPath  Claim file.
+	 *
+	 * @param claimToken  Token written into the claim file by this worker.
+	 *
+	 * @throws IOException  I/O error when handling the marker files.
+	 */
+	protected void removeOwnClaim(Path claimPath, String claimToken) throws IOException {
+
+		Path stealPath = claimPath.resolveSibling( claimPath.getFileName() + _stealSuffix );
+
+		try {
+
+			Files.move( claimPath, stealPath, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (NoSuchFileException ex) {
+
+			return; // claim was taken over and finished by another worker
+		}
+
+		if ( claimToken != null && claimToken.equals(readClaimToken(stealPath)) ) {
+
+			Files.deleteIfExists(stealPath);
+
+		} else {
+
+			moveBack(stealPath, claimPath);
+		}
+	}
+
+
+	/**
+	 * Rename a claim file of another worker back to its name.
+	 *
+	 * @param stealPath  Claim file renamed to the name of this worker.
+	 *
+	 * @param claimPath  Name of claim file.
+	 *
+	 * @throws IOException  I/O error when renaming the file.
+	 */
+	protected static void moveBack(Path stealPath, Path claimPath) throws IOException {
+
+		try {
+
+			Files.move( stealPath, claimPath );
+		}
+		catch (FileAlreadyExistsException ex) {
+
+			Files.deleteIfExists(stealPath); // claim was recreated meanwhile
+		}
+	}
+
+
+	/**
+	 * Check if a marker file was not modified for a particular time, measured with the clock of the file system.
+	 *
+	 * @param markerPath  Marker file to be checked.
+	 *
+	 * @param maxAgeMillis  Maximum age in milliseconds.
+	 *
+	 * @return  {@code true} iff marker file is older than {@code maxAgeMillis}, or does not exist (anymore).
+	 *
+	 * @throws IOException  Error when reading last-modified time of file.
+	 */
+	protected boolean isExpired(Path markerPath, long maxAgeMillis) throws IOException {
+
+		try {
+
+			long lastModified = Files.getLastModifiedTime(markerPath).toMillis();
+
+			return getFileSystemTimeMillis() - lastModified > maxAgeMillis;
+		}
+		catch (NoSuchFileException ex) {
+
+			return true;
+		}
+	}
+
+
+	/**
+	 * Get the current time of the file system of the marker folder, which sets the last-modified time of the
+	 * claim files written by all workers (the clocks of the hosts of the workers might differ).
+	 *
+	 * @return  Last-modified time of a file of this worker which was written just now.
+	 *
+	 * @throws IOException  Error when writing the file.
+	 */
+	protected long getFileSystemTimeMillis() throws IOException {
+
+		Files.write( _clockPath, _instanceId.getBytes(StandardCharsets.UTF_8) );
+
+		return Files.getLastModifiedTime(_clockPath).toMillis();
+	}
+
+
+	/**
+	 * Set last-modified time of all claims held by this worker to the current time of the file system, is called
+	 * periodically by the heartbeat thread; claims that were taken over by another worker are dropped.
+	 */
+	protected void refreshHeldClaims() {
+
+		FileTime now = null;
+		try {
+
+			now = FileTime.fromMillis( getFileSystemTimeMillis() );
+		}
+		catch (IOException ex) {
+
+			System.err.println("Could not read time of file system for refreshing claims: " + ex.getMessage());
+			return;
+		}
+
+		for (Path claimPath: _heldClaims.keySet()) {
+
+			if ( !holdsClaim(claimPath) ) { continue; }
+
+			try {
+
+				Files.setLastModifiedTime(claimPath, now);
+			}
+			catch (IOException ex) {
+
+				System.err.println("Could not refresh claim file \"" + claimPath + "\": " + ex.getMessage());
+			}
+		}
+	}
+
+
+	/**
+	 * Get path of marker file for an input file.
+	 *
+	 * @param pathToInputFile  Input file (might include a path, which is not considered).
+	 *
+	 * @param suffix  Suffix of marker file, e.g. {@link #CLAIM_SUFFIX}.
+	 *
+	 * @return  Path of marker file in the marker folder.
+	 */
+	protected Path getMarkerPath(String pathToInputFile, String suffix) {
+
+		return _markerFolder.resolve( new File(pathToInputFile).getName() + suffix );
+	}
+
+}
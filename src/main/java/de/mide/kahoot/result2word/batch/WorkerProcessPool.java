@@ -0,0 +1,435 @@
+package de.mide.kahoot.result2word.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.ConversionCancelledException;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Pool of long-lived worker JVMs performing the conversions, so that a corrupt or gigantic workbook can only
+ * crash the worker converting it, but not the whole batch. Each file is handed to an idle worker as a line with
+ * its path on the worker's stdin; the worker answers with one line on its stdout, starting with {@link #REPLY_OK}
+ * followed by the path of the docx file, or with {@link #REPLY_ERROR} followed by the error message. All other
+ * output of the worker is redirected to its stderr, which is inherited from this process.
+ * <br><br>
+ *
+ * A worker that dies (e.g. because of {@code -XX:+ExitOnOutOfMemoryError}) fails the file it was converting and
+ * is restarted for the next file. On the worker side the requests are served by {@link #serveRequests(BatchRunner.FileConverter)}.
+ * <br><br>
+ *
+ * The reply is awaited as long as the {@link CancellationToken} of the calling thread is not cancelled, i.e. the
+ * time budget of the file is not exceeded, the batch is not cancelled and the claim of the file is not lost. The worker
+ * checks the time budget itself, so it usually replies with an error in time; a worker which has not replied
+ * {@link #DEFAULT_KILL_GRACE_MILLIS} ms after the token was cancelled (e.g. because it hangs in a loop, or because
+ * it cannot know that the claim was taken over) is killed, which counts as death, and restarted for the next file.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class WorkerProcessPool implements BatchRunner.FileConverter, AutoCloseable {
+
+	/** Name of system property which tells the application to run as worker process. */
+	public static final String WORKER_MODE_PROPERTY = "de.mide.kahoot.worker";
+
+	/** Prefix of reply line for successful conversion. */
+	public static final String REPLY_OK = "OK ";
+
+	/** Prefix of reply line for failed conversion. */
+	public static final String REPLY_ERROR = "ERROR ";
+
+	/** Seconds to wait for a worker to exit after its stdin was closed. */
+	protected static final int EXIT_TIMEOUT_SECONDS = 10;
+
+	/** Default for the milliseconds a worker may still reply after the token of its file was cancelled. */
+	public static final long DEFAULT_KILL_GRACE_MILLIS = 5_000L;
+
+	/** Milliseconds between two checks of the tokens of the files being converted. */
+	protected static final long WATCHDOG_PERIOD_MILLIS = 100L;
+
+
+	/**
+	 * A running worker JVM.
+	 */
+	protected static class WorkerProcess {
+
+		/** Process of worker JVM. */
+		protected Process process = null;
+
+		/** Stdin of worker, for requests. */
+		protected BufferedWriter requestWriter = null;
+
+		/** Stdout of worker, for replies. */
+		protected BufferedReader replyReader = null;
+	}
+
+
+	/**
+	 * Place for one worker in the pool; the worker is started on first use and after it has died.
+	 */
+	protected static class WorkerSlot {
+
+		/** Worker of this slot, {@code null} if not started or died. */
+		protected WorkerProcess worker = null;
+	}
+
+
+	/** Command to start a worker JVM. */
+	protected List<String> _workerCommand = null;
+
+	/** Slots of idle workers. */
+	protected BlockingQueue<WorkerSlot> _idleSlots = null;
+
+	/** All slots, for closing the pool. */
+	protected List<WorkerSlot> _allSlots = new ArrayList<WorkerSlot>();
+
+	/** Number of workers started so far. */
+	protected AtomicInteger _numberOfStarts = new AtomicInteger(0);
+
+	/** Number of workers that died during a conversion. */
+	protected AtomicInteger _numberOfDeaths = new AtomicInteger(0);
+
+	/** Number of workers killed because they did not reply in time. */
+	protected AtomicInteger _numberOfKills = new AtomicInteger(0);
+
+	/** Milliseconds a worker may still reply after the token of its file was cancelled, see {@link #setKillGraceMillis(long)}. */
+	protected long _killGraceMillis = DEFAULT_KILL_GRACE_MILLIS;
+
+	/** Thread killing workers which do not reply in time. */
+	protected ScheduledExecutorService _watchdog = Executors.newSingleThreadScheduledExecutor( runnable -> {
+
+		Thread thread = new Thread(runnable, "worker-process-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+
+	/**
+	 * Create pool; the workers are started lazily.
+	 *
+	 * @param workerCommand  Command to start a worker JVM, see {@link #serveRequests(BatchRunner.FileConverter)}.
+	 *
+	 * @param numberOfWorkers  Maximum number of worker JVMs, must be at least 1.
+	 *
+	 * @throws KahootException  Illegal number of workers.
+	 */
+	public WorkerProcessPool(List<String> workerCommand, int numberOfWorkers) throws KahootException {
+
+		if (numberOfWorkers < 1) {
+
+			throw new KahootException("Number of worker processes must be at least 1, but was " + numberOfWorkers + ".");
+		}
+
+		_workerCommand = new ArrayList<String>(workerCommand);
+		_idleSlots     = new ArrayBlockingQueue<WorkerSlot>(numberOfWorkers);
+
+		for (int i = 0; i < numberOfWorkers; i++) {
+
+			WorkerSlot slot = new WorkerSlot();
+			_allSlots.add(slot);
+			_idleSlots.add(slot);
+		}
+	}
+
+
+	/**
+	 * Set the milliseconds a worker may still reply after the token of its file was cancelled before it is killed.
+	 *
+	 * @param killGraceMillis  Milliseconds, 0 to kill the worker as soon as the token is found cancelled.
+	 */
+	public void setKillGraceMillis(long killGraceMillis) {
+
+		_killGraceMillis = killGraceMillis;
+	}
+
+
+	/**
+	 * Convert a file on an idle worker, blocks until a worker is idle.
+	 *
+	 * @param pathToInputFile  Xlsx file to be converted.
+	 *
+	 * @return  Path of the docx file that was written by the worker.
+	 *
+	 * @throws KahootException  Conversion failed, worker died during conversion, or worker was killed because
+	 *                          it did not reply in time.
+	 */
+	@Override
+	public String convert(String pathToInputFile) throws KahootException {
+
+		WorkerSlot slot = null;
+		try {
+
+			slot = _idleSlots.take();
+		}
+		catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+			throw new KahootException("Interrupted while waiting for worker process for \"" + pathToInputFile + "\".", ex);
+		}
+
+		try {
+
+			if (slot.worker == null || !slot.worker.process.isAlive()) { slot.worker = startWorker(); }
+
+			WorkerProcess     worker         = slot.worker;
+			CancellationToken token          = CancellationToken.getCurrent();
+			AtomicLong        cancelledNanos = new AtomicLong(0);
+			AtomicBoolean     killed         = new AtomicBoolean(false);
+
+			ScheduledFuture<?> watchdogTask = _watchdog.scheduleWithFixedDelay( () -> {
+
+				if (!token.isCancelled()) { return; }
+
+				long nowNanos = System.nanoTime();
+				cancelledNanos.compareAndSet(0, nowNanos);
+
+				if (nowNanos - cancelledNanos.get() >= _killGraceMillis * 1_000_000L && killed.compareAndSet(false, true)) {
+
+					worker.process.destroyForcibly(); // reply reader gets end of stream
+				}
+
+			}, WATCHDOG_PERIOD_MILLIS, WATCHDOG_PERIOD_MILLIS, TimeUnit.MILLISECONDS );
+
+			String reply = null;
+			try {
+
+				worker.requestWriter.write(pathToInputFile);
+				worker.requestWriter.newLine();
+				worker.requestWriter.flush();
+
+				reply = worker.replyReader.readLine();
+			}
+			catch (IOException ex) { /* worker died, reply stays null */ }
+			finally {
+
+				watchdogTask.cancel(false);
+			}
+
+			if (reply == null) {
+
+				int exitCode = waitForExit(worker);
+				slot.worker  = null; // will be restarted for next file
+				_numberOfDeaths.incrementAndGet();
+
+				if (killed.get()) {
+
+					_numberOfKills.incrementAndGet();
+
+					throw new ConversionCancelledException("Worker process converting \"" + pathToInputFile + "\" was killed, because it did not reply within " +
+					                                       _killGraceMillis + " ms after the conversion was cancelled or its time budget exceeded; it will be restarted.");
+				}
+
+				throw new KahootException("Worker process died while converting \"" + pathToInputFile + "\" (exit code " + exitCode + "), it will be restarted.");
+			}
+
+			if (reply.startsWith(REPLY_OK)) { return reply.substring( REPLY_OK.length() ); }
+
+			throw new KahootException( reply.startsWith(REPLY_ERROR) ? reply.substring( REPLY_ERROR.length() ) : "Unexpected reply of worker process: " + reply );
+		}
+		finally {
+
+			_idleSlots.add(slot);
+		}
+	}
+
+
+	/**
+	 * Start a new worker JVM.
+	 *
+	 * @return  Running worker.
+	 *
+	 * @throws KahootException  Worker could not be started.
+	 */
+	protected WorkerProcess startWorker() throws KahootException {
+
+		WorkerProcess worker = new WorkerProcess();
+		try {
+
+			worker.process = new ProcessBuilder(_workerCommand).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not start worker process: " + ex.getMessage(), ex);
+		}
+
+		worker.requestWriter = new BufferedWriter( new OutputStreamWriter(worker.process.getOutputStream(), StandardCharsets.UTF_8) );
+		worker.replyReader   = new BufferedReader( new InputStreamReader (worker.process.getInputStream() , StandardCharsets.UTF_8) );
+
+		_numberOfStarts.incrementAndGet();
+
+		return worker;
+	}
+
+
+	/**
+	 * Wait until a worker has exited, kill it if it does not exit in time.
+	 *
+	 * @param worker  Worker which has died or whose stdin was closed.
+	 *
+	 * @return  Exit code of worker, or -1 if it had to be killed.
+	 */
+	protected static int waitForExit(WorkerProcess worker) {
+
+		try {
+
+			if (worker.process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) { return worker.process.exitValue(); }
+		}
+		catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+		}
+
+		worker.process.destroyForcibly();
+
+		return -1;
+	}
+
+
+	/**
+	 * Getter for number of restarts.
+	 *
+	 * @return  Number of workers that died during a conversion; each is restarted when its slot is used again.
+	 */
+	public int getNumberOfRestarts() {
+
+		return _numberOfDeaths.get();
+	}
+
+
+	/**
+	 * Getter for number of kills.
+	 *
+	 * @return  Number of workers killed because they did not reply in time, these are also counted as restarts.
+	 */
+	public int getNumberOfKills() {
+
+		return _numberOfKills.get();
+	}
+
+
+	/**
+	 * Stop all workers by closing their stdin.
+	 */
+	@Override
+	public void close() {
+
+		_watchdog.shutdownNow();
+
+		for (WorkerSlot slot: _allSlots) {
+
+			WorkerProcess worker = slot.worker;
+			if (worker == null) { continue; }
+
+			try { worker.requestWriter.close(); } catch (IOException ex) { /* worker has already exited */ }
+
+			waitForExit(worker);
+		}
+	}
+
+
+	/**
+	 * Build string with statistics, might be written to console after a batch run.
+	 *
+	 * @return  String with number of workers started and died.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "Worker processes: %d started, %d died during a conversion and were restarted (%d of them killed for not replying in time).",
+				              _numberOfStarts.get(), _numberOfDeaths.get(), _numberOfKills.get() );
+	}
+
+
+	/**
+	 * Main loop of a worker JVM: read paths of xlsx files from stdin until it is closed, convert them and write
+	 * one reply line for each file to stdout. Everything else written to {@code System.out} by the converter is
+	 * redirected to stderr.
+	 *
+	 * @param fileConverter  Converter for a single file.
+	 *
+	 * @throws KahootException  Error when reading from stdin.
+	 */
+	public static void serveRequests(BatchRunner.FileConverter fileConverter) throws KahootException {
+
+		serveRequests(fileConverter, 0);
+	}
+
+
+	/**
+	 * Main loop of a worker JVM with a time budget for each file, see {@link BatchRunner#setFileTimeBudgetMillis(long)}.
+	 *
+	 * @param fileConverter  Converter for a single file.
+	 *
+	 * @param fileTimeBudgetMillis  Milliseconds per file, 0 for no limit.
+	 *
+	 * @throws KahootException  Error when reading from stdin.
+	 */
+	public static void serveRequests(BatchRunner.FileConverter fileConverter, long fileTimeBudgetMillis) throws KahootException {
+
+		PrintStream replyStream = null;
+		try {
+
+			replyStream = new PrintStream( new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8.name() );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not open stdout of worker process.", ex);
+		}
+
+		System.setOut(System.err);
+
+		BufferedReader requestReader = new BufferedReader( new InputStreamReader(System.in, StandardCharsets.UTF_8) );
+		try {
+
+			String pathToInputFile = null;
+			while ( (pathToInputFile = requestReader.readLine()) != null ) {
+
+				String reply = null;
+				try {
+
+					CancellationToken.setCurrent( new CancellationToken(null, fileTimeBudgetMillis) );
+
+					reply = REPLY_OK + fileConverter.convert(pathToInputFile);
+				}
+				catch (KahootException | RuntimeException ex) {
+
+					ex.printStackTrace();
+
+					reply = REPLY_ERROR + String.valueOf( ex.getMessage() ).replace('\n', ' ').replace('\r', ' ');
+				}
+				finally {
+
+					CancellationToken.setCurrent(null);
+				}
+
+				replyStream.println(reply);
+				replyStream.flush();
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Error when reading request of worker process.", ex);
+		}
+	}
+
+}
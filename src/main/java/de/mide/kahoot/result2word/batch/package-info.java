@@ -0,0 +1,8 @@
+/**
+ * This package contains classes supporting the processing of whole folders with xlsx files (batch mode),
+ * e.g. the journal which allows to resume an interrupted run.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.batch;
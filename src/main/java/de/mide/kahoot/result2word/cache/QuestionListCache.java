@@ -0,0 +1,390 @@
+package de.mide.kahoot.result2word.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Cache of the question lists extracted from xlsx files, stored in a local folder, so that runs which only
+ * render the Word files again with other options (e.g. {@code -l de} instead of {@code -l en}, or with {@code -p})
+ * do not have to read the xlsx files with POI. The key of an entry is the SHA-256 hash of the content of the
+ * xlsx file (see {@link FileHashUtil#computeFileHash(String)}), so renamed or copied files are found, and changed
+ * files are not; each entry is one file with the question list encoded by {@link QuestionListCodec}.
+ * <br><br>
+ *
+ * The folder is bounded to a maximum size: when an entry is added and the sum of the sizes of all entries
+ * exceeds it, the least recently used entries are deleted until {@value #EVICTION_TARGET_PERCENT} percent of the
+ * maximum size are used. The sum is kept in memory, seeded by listing the folder when the cache is opened, so the
+ * folder is listed again only when the sum exceeds the maximum size. The time of last use is the modification time
+ * of the entry file, which is updated on each hit; so several processes (e.g. workers or processes sharing
+ * a folder with {@code --claim}) can use the same folder; entries added by other processes are counted when the
+ * folder is listed for eviction, so the folder can temporarily exceed the maximum size by their entries. Entries are written to a temporary file and then
+ * renamed, so a reader never sees an incomplete entry. An entry that cannot be decoded (e.g. written by
+ * a former format version) is deleted and counts as miss.
+ * <br><br>
+ *
+ * The default maximum size of {@value #DEFAULT_MAX_MB} MB can be changed with the system property
+ * {@value #PROPERTY_PREFIX}{@code maxMB}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionListCache {
+
+	/** Prefix of the system properties for the cache. */
+	public static final String PROPERTY_PREFIX = "de.mide.kahoot.cache.";
+
+	/** Default for the maximum size of the cache folder in MB; an entry has about 2 KB. */
+	public static final long DEFAULT_MAX_MB = 256;
+
+	/** Suffix of the entry files. */
+	protected static final String ENTRY_SUFFIX = ".qlc";
+
+	/** Suffix of an entry file while it is written. */
+	protected static final String TEMP_SUFFIX = ".tmp";
+
+	/** Percentage of the maximum size to which the cache is reduced by an eviction, so not every following entry causes another one. */
+	protected static final long EVICTION_TARGET_PERCENT = 90;
+
+
+	/** Folder with the entry files. */
+	protected final Path _cacheFolder;
+
+	/** Maximum sum of the sizes of all entry files. */
+	protected final long _maxBytes;
+
+	/** Number of question lists found in the cache. */
+	protected final AtomicLong _hits = new AtomicLong();
+
+	/** Number of question lists not found in the cache. */
+	protected final AtomicLong _misses = new AtomicLong();
+
+	/** Number of entries deleted to keep the maximum size. */
+	protected final AtomicLong _evictions = new AtomicLong();
+
+	/** Sum of the sizes of all entry files as far as known to this process, guarded by {@code this}. */
+	protected long _usedBytes = 0;
+
+
+	/**
+	 * Create cache in folder, which is created if it does not exist; the sizes of the entries in the folder are summed up.
+	 *
+	 * @param cacheFolder  Folder with the entry files.
+	 *
+	 * @param maxBytes  Maximum sum of the sizes of all entry files, must be positive.
+	 *
+	 * @throws KahootException  Folder could not be created, or maximum size not positive.
+	 */
+	public QuestionListCache(Path cacheFolder, long maxBytes) throws KahootException {
+
+		if (maxBytes <= 0) { throw new KahootException("Maximum size of cache must be positive."); }
+
+		try {
+			Files.createDirectories(cacheFolder);
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not create cache folder \"" + cacheFolder + "\".", ex);
+		}
+
+		_cacheFolder = cacheFolder;
+		_maxBytes    = maxBytes;
+		_usedBytes   = scanEntries( new HashMap<Path, FileTime>(), new HashMap<Path, Long>() );
+	}
+
+
+	/**
+	 * Create cache in folder with the maximum size from the system property {@value #PROPERTY_PREFIX}{@code maxMB}.
+	 *
+	 * @param cacheFolder  Folder with the entry files.
+	 *
+	 * @return  New cache.
+	 *
+	 * @throws KahootException  Folder could not be created, or value of system property is not a positive number.
+	 */
+	public static QuestionListCache fromSystemProperties(Path cacheFolder) throws KahootException {
+
+		String value = System.getProperty(PROPERTY_PREFIX + "maxMB");
+
+		long maxMB = DEFAULT_MAX_MB;
+		try {
+			if (value != null) { maxMB = Long.parseLong(value.trim()); }
+		}
+		catch (NumberFormatException ex) {
+
+			throw new KahootException("Value \"" + value + "\" of system property " + PROPERTY_PREFIX + "maxMB is not a number.");
+		}
+
+		return new QuestionListCache(cacheFolder, maxMB * 1024 * 1024);
+	}
+
+
+	/**
+	 * Compute key for the content of a xlsx file, the same as {@link FileHashUtil#computeFileHash(String)} for the file.
+	 *
+	 * @param xlsxBuffer  Content of xlsx file between position and limit; position is not changed.
+	 *
+	 * @return  SHA-256 hash as hex digits.
+	 */
+	public static String computeKey(ByteBuffer xlsxBuffer) {
+
+		return FileHashUtil.computeHash(xlsxBuffer);
+	}
+
+
+	/**
+	 * Get question list of a xlsx file from the cache.
+	 *
+	 * @param key  Hash of content of xlsx file.
+	 *
+	 * @return  Question list, or empty if there is no (valid) entry for the key.
+	 */
+	public Optional<QuestionList> get(String key) {
+
+		Path entryFile = getEntryFile(key);
+
+		try {
+			QuestionList questionList = QuestionListCodec.decode( Files.readAllBytes(entryFile) );
+
+			Files.setLastModifiedTime( entryFile, FileTime.fromMillis(System.currentTimeMillis()) ); // most recently used
+
+			_hits.incrementAndGet();
+
+			return Optional.of(questionList);
+		}
+		catch (NoSuchFileException ex) {
+
+			// not cached yet, or evicted by another process
+		}
+		catch (IOException | KahootException ex) {
+
+			deleteQuietly(entryFile); // written by other format version, or truncated
+		}
+
+		_misses.incrementAndGet();
+
+		return Optional.empty();
+	}
+
+
+	/**
+	 * Add question list of a xlsx file to the cache, then delete the least recently used entries if the maximum size is exceeded.
+	 * The folder is listed only in the latter case.
+	 *
+	 * @param key  Hash of content of xlsx file.
+	 *
+	 * @param questionList  Question list extracted from the xlsx file.
+	 *
+	 * @throws KahootException  Entry could not be written.
+	 */
+	public void put(String key, QuestionList questionList) throws KahootException {
+
+		Path entryFile = getEntryFile(key);
+		Path tempFile  = null;
+
+		byte[] entryBytes    = QuestionListCodec.encode(questionList);
+		long   replacedBytes = 0;
+
+		try {
+			tempFile = Files.createTempFile(_cacheFolder, key, TEMP_SUFFIX); // unique also across processes
+			Files.write( tempFile, entryBytes );
+
+			try {
+				replacedBytes = Files.size(entryFile);
+			}
+			catch (NoSuchFileException ex) {
+
+				// new entry, or evicted by another process meanwhile
+			}
+
+			Files.move( tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (IOException ex) {
+
+			if (tempFile != null) { deleteQuietly(tempFile); }
+
+			throw new KahootException("Could not write cache entry \"" + entryFile + "\".", ex);
+		}
+
+		boolean limitExceeded = false;
+		synchronized (this) {
+
+			_usedBytes   += entryBytes.length - replacedBytes;
+			limitExceeded = _usedBytes > _maxBytes;
+		}
+
+		if (limitExceeded) { evictLeastRecentlyUsed(); }
+	}
+
+
+	/**
+	 * Delete the least recently used entries until the sum of the sizes is not greater than {@value #EVICTION_TARGET_PERCENT}
+	 * percent of the maximum size; the folder is listed, so entries added or deleted by other processes are taken into account.
+	 *
+	 * @throws KahootException  Cache folder could not be listed.
+	 */
+	protected synchronized void evictLeastRecentlyUsed() throws KahootException {
+
+		if (_usedBytes <= _maxBytes) { return; } // another thread has evicted meanwhile
+
+		Map<Path, FileTime> usedTimeMap = new HashMap<Path, FileTime>();
+		Map<Path, Long>     sizeMap     = new HashMap<Path, Long>();
+
+		long totalBytes  = scanEntries(usedTimeMap, sizeMap);
+		long targetBytes = _maxBytes * EVICTION_TARGET_PERCENT / 100;
+
+		if (totalBytes > _maxBytes) {
+
+			List<Path> entryFiles = new ArrayList<Path>( usedTimeMap.keySet() );
+			entryFiles.sort( Comparator.comparing(usedTimeMap::get) );
+
+			for (Path entryFile: entryFiles) {
+
+				if (totalBytes <= targetBytes) { break; }
+
+				deleteQuietly(entryFile);
+
+				totalBytes -= sizeMap.get(entryFile);
+				_evictions.incrementAndGet();
+			}
+		}
+
+		_usedBytes = totalBytes;
+	}
+
+
+	/**
+	 * List the entry files with their times of last use and sizes.
+	 *
+	 * @param usedTimeMap  Map to which the time of last use of each entry file is added.
+	 *
+	 * @param sizeMap  Map to which the size of each entry file is added.
+	 *
+	 * @return  Sum of the sizes of all entry files.
+	 *
+	 * @throws KahootException  Cache folder could not be listed.
+	 */
+	protected long scanEntries(Map<Path, FileTime> usedTimeMap, Map<Path, Long> sizeMap) throws KahootException {
+
+		long totalBytes = 0;
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(_cacheFolder, "*" + ENTRY_SUFFIX)) {
+
+			for (Path entryFile: stream) {
+
+				try {
+					FileTime usedTime = Files.getLastModifiedTime(entryFile);
+					long     size     = Files.size(entryFile);
+
+					usedTimeMap.put(entryFile, usedTime);
+					sizeMap.put(entryFile, size);
+					totalBytes += size;
+				}
+				catch (NoSuchFileException ex) {
+
+					// deleted by another process
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not list cache folder \"" + _cacheFolder + "\".", ex);
+		}
+
+		return totalBytes;
+	}
+
+
+	/**
+	 * Get path of entry file.
+	 *
+	 * @param key  Hash of content of xlsx file.
+	 *
+	 * @return  Path of entry file in cache folder.
+	 */
+	protected Path getEntryFile(String key) {
+
+		return _cacheFolder.resolve(key + ENTRY_SUFFIX);
+	}
+
+
+	/**
+	 * Delete file, ignoring errors.
+	 *
+	 * @param file  File to be deleted.
+	 */
+	protected static void deleteQuietly(Path file) {
+
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException ex) {
+
+			// will be overwritten or evicted later
+		}
+	}
+
+
+	/**
+	 * Getter for number of hits.
+	 *
+	 * @return  Number of question lists found in the cache.
+	 */
+	public long getHits() {
+
+		return _hits.get();
+	}
+
+
+	/**
+	 * Getter for number of misses.
+	 *
+	 * @return  Number of question lists not found in the cache.
+	 */
+	public long getMisses() {
+
+		return _misses.get();
+	}
+
+
+	/**
+	 * Getter for number of evictions.
+	 *
+	 * @return  Number of entries deleted to keep the maximum size.
+	 */
+	public long getEvictions() {
+
+		return _evictions.get();
+	}
+
+
+	/**
+	 * Statistics of cache for the summary of a batch.
+	 *
+	 * @return  Hits, misses and evictions.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "Question list cache \"%s\": %d files taken from cache, %d files parsed, %d entries evicted (limit %d KB).",
+		                      _cacheFolder, getHits(), getMisses(), getEvictions(), _maxBytes / 1024 );
+	}
+
+}
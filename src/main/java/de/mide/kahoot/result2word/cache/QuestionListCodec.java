@@ -0,0 +1,232 @@
+package de.mide.kahoot.result2word.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.AnswerOption;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.model.QuestionTypeEnum;
+import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.StringInternPool;
+
+
+/**
+ * Compact binary format of a {@link QuestionList}, used by {@link QuestionListCache}. A question list of a typical
+ * game with 20 questions needs about 2 KB, compared to several hundred KB for the xlsx file.
+ * <br><br>
+ *
+ * Layout: magic number and format version (int each), title, number of questions (int), then for each question
+ * the type (byte: 0 true/false, 1 single choice, 2 multiple choice), the text and the percentage of correct answers
+ * (float); followed by a boolean with the truth of the statement for true/false questions, or by the number of answer
+ * options (byte) and each option's text and flag (boolean) for the other questions. Strings are stored as length
+ * (int) and UTF-8 bytes. {@link #FORMAT_VERSION} has to be incremented whenever the layout or the model changes,
+ * so that cache entries of former versions are not used.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionListCodec {
+
+	/** First 4 bytes of each encoded question list ("KQL" and 0). */
+	public static final int MAGIC_NUMBER = 0x4B514C00;
+
+	/** Version of layout. */
+	public static final int FORMAT_VERSION = 1;
+
+	/** Code of type {@link QuestionTypeEnum#TRUE_OR_FALSE}. */
+	protected static final byte TYPE_TRUE_OR_FALSE = 0;
+
+	/** Code of type {@link QuestionTypeEnum#SINGLE_CHOICE}. */
+	protected static final byte TYPE_SINGLE_CHOICE = 1;
+
+	/** Code of type {@link QuestionTypeEnum#MULTIPLE_CHOICE}. */
+	protected static final byte TYPE_MULTIPLE_CHOICE = 2;
+
+
+	/**
+	 * Encode question list.
+	 *
+	 * @param questionList  Question list extracted by the reader.
+	 *
+	 * @return  Encoded question list.
+	 *
+	 * @throws KahootException  Question list is inconsistent (should not happen).
+	 */
+	public static byte[] encode(QuestionList questionList) throws KahootException {
+
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream(2048);
+
+		try (DataOutputStream out = new DataOutputStream(byteStream)) {
+
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(FORMAT_VERSION);
+
+			writeString(out, questionList.getTitle());
+
+			int numberOfQuestions = questionList.getNumberOfQuestions();
+			out.writeInt(numberOfQuestions);
+
+			for (int i = 0; i < numberOfQuestions; i++) {
+
+				AbstractQuestion question = questionList.getQuestion(i);
+
+				if (question.isTrueOrFalseQuestion()) {
+
+					out.writeByte(TYPE_TRUE_OR_FALSE);
+					writeString(out, question.getQuestionText());
+					out.writeFloat(question.getPercentageAnswersRightAsFloat());
+					out.writeBoolean( ((TrueFalseQuestion) question).isStatementTrue() );
+
+				} else {
+
+					MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+
+					out.writeByte( question.isSingleChoiceQuestion() ? TYPE_SINGLE_CHOICE : TYPE_MULTIPLE_CHOICE );
+					writeString(out, question.getQuestionText());
+					out.writeFloat(question.getPercentageAnswersRightAsFloat());
+
+					int numberOfAnswerOptions = choiceQuestion.getNumberOfAnswerQuestions();
+					out.writeByte(numberOfAnswerOptions);
+
+					for (int n = 1; n <= numberOfAnswerOptions; n++) {
+
+						AnswerOption answerOption = choiceQuestion.getAnswerOption(n);
+
+						writeString(out, answerOption.getAnswerOptionText());
+						out.writeBoolean(answerOption.getAnswerOptionIsRight());
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not encode question list.", ex); // not possible with ByteArrayOutputStream
+		}
+
+		return byteStream.toByteArray();
+	}
+
+
+	/**
+	 * Decode question list; the texts are interned in the default pool if there is one (see {@link StringInternPool#getDefault()}).
+	 *
+	 * @param encoded  Question list encoded by {@link #encode(QuestionList)}.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws KahootException  Bytes are not an encoded question list of the current format version.
+	 */
+	public static QuestionList decode(byte[] encoded) throws KahootException {
+
+		Optional<StringInternPool> poolOptional = StringInternPool.getDefault();
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+
+			if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+
+				throw new KahootException("Not an encoded question list of format version " + FORMAT_VERSION + ".");
+			}
+
+			String title = readString(in, poolOptional);
+
+			int numberOfQuestions = in.readInt();
+
+			QuestionList questionList = new QuestionList(numberOfQuestions);
+			questionList.setTitle(title);
+
+			for (int i = 0; i < numberOfQuestions; i++) {
+
+				byte   type              = in.readByte();
+				String questionText      = readString(in, poolOptional);
+				float  percentageCorrect = in.readFloat();
+
+				AbstractQuestion question = null;
+
+				if (type == TYPE_TRUE_OR_FALSE) {
+
+					question = new TrueFalseQuestion(questionText, in.readBoolean());
+
+				} else if (type == TYPE_SINGLE_CHOICE || type == TYPE_MULTIPLE_CHOICE) {
+
+					QuestionTypeEnum questionType = type == TYPE_SINGLE_CHOICE ? QuestionTypeEnum.SINGLE_CHOICE : QuestionTypeEnum.MULTIPLE_CHOICE;
+
+					MultipleOrSingleChoiceQuestion choiceQuestion = new MultipleOrSingleChoiceQuestion(questionType, questionText);
+
+					int numberOfAnswerOptions = in.readByte();
+					for (int n = 0; n < numberOfAnswerOptions; n++) {
+
+						String answerOptionText = readString(in, poolOptional);
+						choiceQuestion.addAnswerOption(answerOptionText, in.readBoolean());
+					}
+
+					question = choiceQuestion;
+
+				} else {
+
+					throw new KahootException("Unknown type " + type + " of question " + (i + 1) + " in encoded question list.");
+				}
+
+				question.setPercentageAnswersRight(percentageCorrect);
+				questionList.addQuestion(question);
+			}
+
+			return questionList;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Encoded question list is truncated.", ex);
+		}
+	}
+
+
+	/**
+	 * Write string as length and UTF-8 bytes (unlike {@link DataOutputStream#writeUTF(String)} without limit of 64 KB).
+	 *
+	 * @param out  Target.
+	 *
+	 * @param str  String to be written; {@code null} is written as empty string.
+	 *
+	 * @throws IOException  Error of target.
+	 */
+	protected static void writeString(DataOutputStream out, String str) throws IOException {
+
+		byte[] bytes = (str != null ? str : "").getBytes(StandardCharsets.UTF_8);
+
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+
+	/**
+	 * Read string written by {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param in  Source.
+	 *
+	 * @param poolOptional  Pool in which the string is interned, if present.
+	 *
+	 * @return  String read.
+	 *
+	 * @throws IOException  Source is truncated or length is negative.
+	 */
+	protected static String readString(DataInputStream in, Optional<StringInternPool> poolOptional) throws IOException {
+
+		int length = in.readInt();
+		if (length < 0 || length > in.available()) { throw new IOException("Illegal length " + length + " of string."); }
+
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+
+		String str = new String(bytes, StandardCharsets.UTF_8);
+
+		return poolOptional.isPresent() ? poolOptional.get().intern(str) : str;
+	}
+
+}
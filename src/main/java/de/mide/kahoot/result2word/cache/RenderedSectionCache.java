@@ -0,0 +1,330 @@
+package de.mide.kahoot.result2word.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.xmlbeans.XmlObject;
+
+
+/**
+ * Cache of the WordprocessingML of question sections, shared by all writers of a JVM, so that questions which
+ * are reused in many games are rendered only once; the writer splices the cached fragments into further
+ * documents instead of building the paragraphs and tables again. The fragments are detached copies of the
+ * XmlBeans objects of the paragraphs and tables, which are copied into the target document; this is about three
+ * times faster than building them with POI, while parsing serialized XML would be slower than building. The key is the SHA-256 hash of the content of the
+ * question together with all translated texts of its section, so sections in other languages are separate entries.
+ * Only the part of a section that does not depend on the game is cached: the heading with the number of the
+ * question and the percentage of correct answers (option {@code -p}) are always written by the writer.
+ * <br><br>
+ *
+ * The cache is bounded by the estimated heap size of the fragments; when it is exceeded, the least recently
+ * used sections are evicted. By default the cache has {@value #DEFAULT_MAX_MB} MB; the size can be changed
+ * with the system property {@value #PROPERTY_PREFIX}{@code maxMB}, a value of 0 switches the cache off.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class RenderedSectionCache {
+
+	/** Prefix of the system properties for the default cache. */
+	public static final String PROPERTY_PREFIX = "de.mide.kahoot.sections.";
+
+	/** Default maximum size in MB; a section needs about 10 to 30 KB. */
+	public static final long DEFAULT_MAX_MB = 16;
+
+	/** Estimated bytes of an entry besides its fragments (key, map entry, list). */
+	protected static final long ENTRY_OVERHEAD_BYTES = 256;
+
+	/** Estimated heap bytes of a fragment per char of its XML text (nodes and char arrays of the XmlBeans store). */
+	protected static final long BYTES_PER_XML_CHAR = 4;
+
+	/** Cache used by writers, empty if switched off; {@code null} if the system properties were not read yet. */
+	protected static volatile Optional<RenderedSectionCache> sDefaultCacheOptional = null;
+
+
+	/**
+	 * One body element (paragraph or table) of a rendered section. The XmlBeans object is only read
+	 * (copied into target documents), so objects of this class can be shared by threads.
+	 */
+	public static class SectionFragment {
+
+		/** True for a table ({@code w:tbl}), false for a paragraph ({@code w:p}). */
+		protected final boolean _isTable;
+
+		/** Detached copy of the element ({@code CTTbl} or {@code CTP}), not part of any document. */
+		protected final XmlObject _xmlObject;
+
+		/** Estimated heap size of {@link #_xmlObject}. */
+		protected final long _estimatedBytes;
+
+		/**
+		 * Constructor, copies the element.
+		 *
+		 * @param isTable  True for a table, false for a paragraph.
+		 *
+		 * @param element  {@code CTTbl} or {@code CTP} of the element in the document it was rendered into.
+		 */
+		public SectionFragment(boolean isTable, XmlObject element) {
+
+			_isTable        = isTable;
+			_xmlObject      = element.copy();
+			_estimatedBytes = BYTES_PER_XML_CHAR * element.xmlText().length();
+		}
+
+		/**
+		 * Getter for type of element.
+		 *
+		 * @return  True for a table, false for a paragraph.
+		 */
+		public boolean isTable() {
+
+			return _isTable;
+		}
+
+		/**
+		 * Getter for element, which must not be changed.
+		 *
+		 * @return  Detached copy of the element ({@code CTTbl} or {@code CTP}), to be copied into the target document.
+		 */
+		public XmlObject getXmlObject() {
+
+			return _xmlObject;
+		}
+	}
+
+
+	/** Sections in order of their last use, guarded by {@code this}. */
+	protected final LinkedHashMap<String, List<SectionFragment>> _sectionMap = new LinkedHashMap<String, List<SectionFragment>>(256, 0.75f, true);
+
+	/** Maximum of {@link #_usedBytes}. */
+	protected final long _maxBytes;
+
+	/** Estimated heap size of all sections, guarded by {@code this}. */
+	protected long _usedBytes = 0;
+
+	/** Number of sections found in the cache, guarded by {@code this}. */
+	protected long _hits = 0;
+
+	/** Number of sections not found in the cache, guarded by {@code this}. */
+	protected long _misses = 0;
+
+	/** Number of sections evicted, guarded by {@code this}. */
+	protected long _evictions = 0;
+
+
+	/**
+	 * Create cache.
+	 *
+	 * @param maxBytes  Maximum of the estimated heap size of all sections, must be positive.
+	 *
+	 * @throws IllegalArgumentException  Value not positive.
+	 */
+	public RenderedSectionCache(long maxBytes) {
+
+		if (maxBytes <= 0) { throw new IllegalArgumentException("Maximum size of section cache must be positive."); }
+
+		_maxBytes = maxBytes;
+	}
+
+
+	/**
+	 * Create cache from the system property {@value #PROPERTY_PREFIX}{@code maxMB}.
+	 *
+	 * @return  New cache, or empty if the property is 0.
+	 *
+	 * @throws IllegalArgumentException  Value of system property is not a number.
+	 */
+	public static Optional<RenderedSectionCache> fromSystemProperties() {
+
+		String value = System.getProperty(PROPERTY_PREFIX + "maxMB");
+
+		long maxMB = value != null ? Long.parseLong(value.trim()) : DEFAULT_MAX_MB;
+		if (maxMB <= 0) { return Optional.empty(); }
+
+		return Optional.of( new RenderedSectionCache(maxMB * 1024 * 1024) );
+	}
+
+
+	/**
+	 * Getter for cache used by writers.
+	 *
+	 * @return  Cache set by {@link #setDefault(RenderedSectionCache)}, or else cache from the system properties; empty if switched off.
+	 */
+	public static Optional<RenderedSectionCache> getDefault() {
+
+		Optional<RenderedSectionCache> cacheOptional = sDefaultCacheOptional;
+		if (cacheOptional == null) {
+
+			cacheOptional = fromSystemProperties();
+			sDefaultCacheOptional = cacheOptional;
+		}
+
+		return cacheOptional;
+	}
+
+
+	/**
+	 * Set cache used by writers.
+	 *
+	 * @param cache  New default cache, or {@code null} for no cache.
+	 */
+	public static void setDefault(RenderedSectionCache cache) {
+
+		sDefaultCacheOptional = Optional.ofNullable(cache);
+	}
+
+
+	/**
+	 * Compute key of a section.
+	 *
+	 * @param sectionContent  All texts the section depends on (type and text of question, answer options,
+	 *                        translated texts), separated by a char that does not occur in them.
+	 *
+	 * @return  SHA-256 hash as hex digits.
+	 */
+	public static String computeKey(String sectionContent) {
+
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest( sectionContent.getBytes(StandardCharsets.UTF_8) );
+
+			StringBuilder sb = new StringBuilder();
+			for (byte b: hash) {
+
+				sb.append( String.format("%02x", b) );
+			}
+
+			return sb.toString();
+		}
+		catch (NoSuchAlgorithmException ex) {
+
+			throw new IllegalStateException("SHA-256 not supported by JVM.", ex); // every JVM has to support it
+		}
+	}
+
+
+	/**
+	 * Get rendered section.
+	 *
+	 * @param key  Key computed by {@link #computeKey(String)}.
+	 *
+	 * @return  Fragments of the section in document order, or empty if the section is not cached.
+	 */
+	public synchronized Optional<List<SectionFragment>> get(String key) {
+
+		List<SectionFragment> fragments = _sectionMap.get(key);
+
+		if (fragments == null) {
+
+			_misses++;
+			return Optional.empty();
+		}
+
+		_hits++;
+		return Optional.of(fragments);
+	}
+
+
+	/**
+	 * Add rendered section, then evict the least recently used sections if the maximum size is exceeded.
+	 * A section larger than the maximum size is not added.
+	 *
+	 * @param key  Key computed by {@link #computeKey(String)}.
+	 *
+	 * @param fragments  Fragments of the section in document order.
+	 */
+	public synchronized void put(String key, List<SectionFragment> fragments) {
+
+		long bytes = estimateBytes(fragments);
+		if (bytes > _maxBytes) { return; }
+
+		List<SectionFragment> previous = _sectionMap.put( key, Collections.unmodifiableList(fragments) );
+		if (previous != null) { _usedBytes -= estimateBytes(previous); }
+
+		_usedBytes += bytes;
+
+		Iterator<Map.Entry<String, List<SectionFragment>>> iterator = _sectionMap.entrySet().iterator();
+		while (_usedBytes > _maxBytes && iterator.hasNext()) {
+
+			Map.Entry<String, List<SectionFragment>> eldest = iterator.next();
+
+			_usedBytes -= estimateBytes(eldest.getValue());
+			iterator.remove();
+			_evictions++;
+		}
+	}
+
+
+	/**
+	 * Estimate heap size of a section.
+	 *
+	 * @param fragments  Fragments of section.
+	 *
+	 * @return  Estimated sizes of the fragments plus a fixed overhead.
+	 */
+	protected static long estimateBytes(List<SectionFragment> fragments) {
+
+		long bytes = ENTRY_OVERHEAD_BYTES;
+		for (SectionFragment fragment: fragments) {
+
+			bytes += fragment._estimatedBytes;
+		}
+
+		return bytes;
+	}
+
+
+	/**
+	 * Getter for hit ratio.
+	 *
+	 * @return  Hits divided by all lookups, 0 if there was no lookup.
+	 */
+	public synchronized double getHitRatio() {
+
+		long lookups = _hits + _misses;
+
+		return lookups > 0 ? (double) _hits / lookups : 0.0;
+	}
+
+
+	/**
+	 * Getter for number of hits.
+	 *
+	 * @return  Number of sections found in the cache.
+	 */
+	public synchronized long getHits() {
+
+		return _hits;
+	}
+
+
+	/**
+	 * Getter for number of evictions.
+	 *
+	 * @return  Number of sections evicted to keep the maximum size.
+	 */
+	public synchronized long getEvictions() {
+
+		return _evictions;
+	}
+
+
+	/**
+	 * Statistics of cache for the summary of a batch.
+	 *
+	 * @return  Number of sections, hit ratio, evictions and size.
+	 */
+	@Override
+	public synchronized String toString() {
+
+		return String.format( "Section cache: %d sections, %.1f%% of %d questions spliced from cache, %d evicted, %d KB (limit %d KB).",
+		                      _sectionMap.size(), 100.0 * getHitRatio(), _hits + _misses, _evictions, _usedBytes / 1024, _maxBytes / 1024 );
+	}
+
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains caches which allow to skip work done by a former conversion, e.g. the question
+ * lists of input files that were already parsed, or the rendered sections of questions reused in many games.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.cache;
@@ -0,0 +1,515 @@
+package de.mide.kahoot.result2word.catalog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.mide.kahoot.result2word.poi.GameMetadataReader;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Catalog of the Kahoot result files of a folder for option {@code --scan}: one entry with the metadata of each
+ * file (see {@link GameMetadataReader}), stored as text file so that it can be queried by title, host or date
+ * (option {@code --query}) without opening any xlsx file. The catalog is updated incrementally: a file whose size
+ * and modification time are the same as in its entry is not read again, entries of files that were deleted are
+ * removed. So after the first scan of a large archive, further scans only need to list the folder.
+ * <br><br>
+ *
+ * The file starts with the line {@value #HEADER}, followed by one line per game with the fields path, size,
+ * modification time, number of questions, ISO date (empty if not recognized), title, "Played on", "Hosted by"
+ * and "Played with", separated by tabs. A catalog with another header is ignored and built again.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class GameCatalog {
+
+	/** Name of catalog file, will be written into the output folder (or input folder if no output folder is specified). */
+	public static final String CATALOG_FILE_NAME = ".kahoot_result2word.catalog";
+
+	/** First line of the catalog file, with the version of the format. */
+	protected static final String HEADER = "#kahoot_result2word catalog 1";
+
+	/** Separator between the fields of an entry. */
+	protected static final char FIELD_SEPARATOR = '\t';
+
+	/** Number of fields of an entry. */
+	protected static final int NUMBER_OF_FIELDS = 9;
+
+
+	/** Path of catalog file. */
+	protected final String _pathToCatalogFile;
+
+	/** Entries, key is the normalized path of the xlsx file. */
+	protected final Map<String, GameMetadata> _entryMap = new TreeMap<String, GameMetadata>();
+
+	/** Number of files read by the last update. */
+	protected int _numberOfFilesScanned = 0;
+
+	/** Number of files not read by the last update because their entries were up to date. */
+	protected int _numberOfFilesUnchanged = 0;
+
+	/** Number of entries removed by the last update because their files do not exist anymore. */
+	protected int _numberOfEntriesRemoved = 0;
+
+	/** Number of files that could not be read by the last update. */
+	protected int _numberOfFilesFailed = 0;
+
+
+	/**
+	 * Create empty catalog; use {@link #load(String)} to read an existing catalog file.
+	 *
+	 * @param pathToCatalogFile  Path of catalog file.
+	 */
+	public GameCatalog(String pathToCatalogFile) {
+
+		_pathToCatalogFile = pathToCatalogFile;
+	}
+
+
+	/**
+	 * Read catalog file.
+	 *
+	 * @param pathToCatalogFile  Path of catalog file.
+	 *
+	 * @return  Catalog with the entries of the file; empty if the file does not exist or has another format version.
+	 *
+	 * @throws KahootException  File could not be read.
+	 */
+	public static GameCatalog load(String pathToCatalogFile) throws KahootException {
+
+		GameCatalog catalog = new GameCatalog(pathToCatalogFile);
+
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(pathToCatalogFile), StandardCharsets.UTF_8)) {
+
+			if (!HEADER.equals(reader.readLine())) { return catalog; } // written by another version, will be built again
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+
+				String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), -1);
+				if (fields.length != NUMBER_OF_FIELDS) { continue; } // truncated line
+
+				try {
+					Optional<LocalDate> dateOptional = fields[4].isEmpty() ? Optional.<LocalDate>empty() : Optional.of( LocalDate.parse(fields[4]) );
+
+					GameMetadata metadata = new GameMetadata( fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+					                                          fields[5], fields[6], dateOptional, fields[7], fields[8],
+					                                          Integer.parseInt(fields[3]) );
+
+					catalog._entryMap.put( fields[0], metadata );
+				}
+				catch (NumberFormatException | DateTimeParseException ex) {
+
+					// damaged line, the file will be scanned again
+				}
+			}
+		}
+		catch (NoSuchFileException ex) {
+
+			// first scan
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not read catalog file \"" + pathToCatalogFile + "\".", ex);
+		}
+
+		return catalog;
+	}
+
+
+	/**
+	 * Bring the catalog up to date with the xlsx files of a folder: files without entry or changed since
+	 * they were scanned are read, entries of other files are removed.
+	 *
+	 * @param xlsxFiles  Paths of all xlsx files of the folder.
+	 *
+	 * @param numberOfThreads  Number of files read at the same time.
+	 *
+	 * @throws KahootException  Scanning was interrupted.
+	 */
+	public void update(String[] xlsxFiles, int numberOfThreads) throws KahootException {
+
+		_numberOfFilesScanned   = 0;
+		_numberOfFilesUnchanged = 0;
+		_numberOfEntriesRemoved = 0;
+		_numberOfFilesFailed    = 0;
+
+		Map<String, GameMetadata> previousEntryMap = new HashMap<String, GameMetadata>(_entryMap);
+		_entryMap.clear();
+
+		List<File> filesToScan = new ArrayList<File>();
+
+		for (String xlsxFile: xlsxFiles) {
+
+			File         file     = new File(xlsxFile);
+			String       key      = normalizePath(xlsxFile);
+			GameMetadata previous = previousEntryMap.remove(key);
+
+			if (previous != null && previous.isUpToDate(file.length(), file.lastModified())) {
+
+				_entryMap.put(key, previous);
+				_numberOfFilesUnchanged++;
+
+			} else {
+
+				filesToScan.add(file);
+			}
+		}
+
+		_numberOfEntriesRemoved = previousEntryMap.size();
+
+		if (filesToScan.isEmpty()) { return; }
+
+		ExecutorService executorService = Executors.newFixedThreadPool( Math.max(1, Math.min(numberOfThreads, filesToScan.size())) );
+		try {
+			List<Future<GameMetadata>> futures = new ArrayList<Future<GameMetadata>>();
+			for (File file: filesToScan) {
+
+				futures.add( executorService.submit( () -> GameMetadataReader.read(file) ) );
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+
+				try {
+					GameMetadata metadata = futures.get(i).get();
+
+					_entryMap.put( normalizePath(metadata.getPathToXlsxFile()), metadata );
+					_numberOfFilesScanned++;
+				}
+				catch (ExecutionException ex) {
+
+					System.out.println("Could not scan \"" + filesToScan.get(i) + "\": " + ex.getCause().getMessage());
+					_numberOfFilesFailed++;
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+
+			Thread.currentThread().interrupt();
+			throw new KahootException("Scanning was interrupted.", ex);
+		}
+		finally {
+
+			executorService.shutdownNow();
+		}
+	}
+
+
+	/**
+	 * Write catalog file; it is written to a temporary file first and then renamed, so a query never
+	 * sees an incomplete catalog.
+	 *
+	 * @throws KahootException  File could not be written.
+	 */
+	public void save() throws KahootException {
+
+		Path catalogFile = Paths.get(_pathToCatalogFile).toAbsolutePath();
+		Path tempFile    = null;
+
+		try {
+			tempFile = Files.createTempFile(catalogFile.getParent(), CATALOG_FILE_NAME, ".tmp");
+
+			try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+
+				writer.write(HEADER);
+				writer.write('\n');
+
+				for (Map.Entry<String, GameMetadata> entry: _entryMap.entrySet()) {
+
+					GameMetadata metadata = entry.getValue();
+
+					writer.write( entry.getKey() );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( Long.toString(metadata.getFileSize()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( Long.toString(metadata.getLastModified()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( Integer.toString(metadata.getNumberOfQuestions()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( metadata.getPlayedOnDate().isPresent() ? metadata.getPlayedOnDate().get().toString() : "" );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( escape(metadata.getTitle()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( escape(metadata.getPlayedOn()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( escape(metadata.getHostedBy()) );
+					writer.write( FIELD_SEPARATOR );
+					writer.write( escape(metadata.getPlayedWith()) );
+					writer.write('\n');
+				}
+			}
+
+			Files.move( tempFile, catalogFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (IOException ex) {
+
+			if (tempFile != null) { tempFile.toFile().delete(); }
+
+			throw new KahootException("Could not write catalog file \"" + _pathToCatalogFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Find the games matching a query. The query consists of terms separated by blanks, all terms must match
+	 * (case is ignored):
+	 * <ul>
+	 *   <li>{@code word} or {@code title:word}: title contains the word,</li>
+	 *   <li>{@code host:word}: "Hosted by" contains the word,</li>
+	 *   <li>{@code date:2019-03}: game was played in the year, month or on the day,</li>
+	 *   <li>{@code from:2019-03} and {@code to:2019-03-15}: game was played on or after the first day,
+	 *       or on or before the last day of the year, month or day.</li>
+	 * </ul>
+	 * Games whose date was not recognized do not match date terms.
+	 *
+	 * @param query  Query, an empty query matches all games.
+	 *
+	 * @return  Matching games, ordered by date (games without date last) and path.
+	 *
+	 * @throws KahootException  Date of a term is not a year, month or day in ISO format.
+	 */
+	public List<GameMetadata> query(String query) throws KahootException {
+
+		List<String> titleWords = new ArrayList<String>();
+		List<String> hostWords  = new ArrayList<String>();
+		LocalDate    fromDate   = LocalDate.MIN;
+		LocalDate    toDate     = LocalDate.MAX;
+
+		for (String term: query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+
+			if (term.isEmpty()) { continue; }
+
+			if (term.startsWith("title:")) {
+
+				titleWords.add( term.substring(6) );
+
+			} else if (term.startsWith("host:")) {
+
+				hostWords.add( term.substring(5) );
+
+			} else if (term.startsWith("date:")) {
+
+				LocalDate[] range = parseDateRange( term.substring(5) );
+				fromDate = max(fromDate, range[0]);
+				toDate   = min(toDate,   range[1]);
+
+			} else if (term.startsWith("from:")) {
+
+				fromDate = max( fromDate, parseDateRange(term.substring(5))[0] );
+
+			} else if (term.startsWith("to:")) {
+
+				toDate = min( toDate, parseDateRange(term.substring(3))[1] );
+
+			} else {
+
+				titleWords.add(term);
+			}
+		}
+
+		boolean hasDateTerm = !fromDate.equals(LocalDate.MIN) || !toDate.equals(LocalDate.MAX);
+
+		List<GameMetadata> result = new ArrayList<GameMetadata>();
+		for (GameMetadata metadata: _entryMap.values()) {
+
+			if ( !containsAll(metadata.getTitle(), titleWords) || !containsAll(metadata.getHostedBy(), hostWords) ) { continue; }
+
+			if (hasDateTerm) {
+
+				Optional<LocalDate> dateOptional = metadata.getPlayedOnDate();
+				if ( !dateOptional.isPresent() || dateOptional.get().isBefore(fromDate) || dateOptional.get().isAfter(toDate) ) { continue; }
+			}
+
+			result.add(metadata);
+		}
+
+		result.sort( Comparator.comparing( (GameMetadata metadata) -> metadata.getPlayedOnDate().orElse(LocalDate.MAX) )
+		                       .thenComparing( GameMetadata::getPathToXlsxFile ) );
+
+		return result;
+	}
+
+
+	/**
+	 * Parse the date of a query term.
+	 *
+	 * @param date  Year ({@code 2019}), month ({@code 2019-03}) or day ({@code 2019-03-15}).
+	 *
+	 * @return  First and last day of the year, month or day.
+	 *
+	 * @throws KahootException  Not a year, month or day in ISO format.
+	 */
+	protected static LocalDate[] parseDateRange(String date) throws KahootException {
+
+		try {
+			if (date.matches("\\d{4}")) {
+
+				int year = Integer.parseInt(date);
+				return new LocalDate[] { LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31) };
+			}
+
+			if (date.matches("\\d{4}-\\d{2}")) {
+
+				YearMonth month = YearMonth.parse(date);
+				return new LocalDate[] { month.atDay(1), month.atEndOfMonth() };
+			}
+
+			LocalDate day = LocalDate.parse(date);
+			return new LocalDate[] { day, day };
+		}
+		catch (DateTimeParseException ex) {
+
+			throw new KahootException("Date \"" + date + "\" in query is not a year, month or day like 2019, 2019-03 or 2019-03-15.");
+		}
+	}
+
+
+	/**
+	 * Check whether a text contains all words, ignoring case.
+	 *
+	 * @param text  Text, e.g. title of game.
+	 *
+	 * @param lowerCaseWords  Words in lower case.
+	 *
+	 * @return  True if each word is contained in the text.
+	 */
+	protected static boolean containsAll(String text, List<String> lowerCaseWords) {
+
+		String lowerCaseText = text.toLowerCase(Locale.ROOT);
+
+		for (String word: lowerCaseWords) {
+
+			if (!lowerCaseText.contains(word)) { return false; }
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Later of two dates.
+	 *
+	 * @param date1  First date.
+	 *
+	 * @param date2  Second date.
+	 *
+	 * @return  The later date.
+	 */
+	protected static LocalDate max(LocalDate date1, LocalDate date2) {
+
+		return date1.isAfter(date2) ? date1 : date2;
+	}
+
+
+	/**
+	 * Earlier of two dates.
+	 *
+	 * @param date1  First date.
+	 *
+	 * @param date2  Second date.
+	 *
+	 * @return  The earlier date.
+	 */
+	protected static LocalDate min(LocalDate date1, LocalDate date2) {
+
+		return date1.isBefore(date2) ? date1 : date2;
+	}
+
+
+	/**
+	 * Replace the chars that separate fields and entries by blanks.
+	 *
+	 * @param text  Text of a cell.
+	 *
+	 * @return  Text without tabs and line breaks.
+	 */
+	protected static String escape(String text) {
+
+		return text.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+	}
+
+
+	/**
+	 * Normalize path of a xlsx file, so that the same file is found under another relative path.
+	 *
+	 * @param path  Path as found in the input folder.
+	 *
+	 * @return  Absolute path without redundant elements like {@code ./}.
+	 */
+	protected static String normalizePath(String path) {
+
+		return Paths.get(path).toAbsolutePath().normalize().toString();
+	}
+
+
+	/**
+	 * Getter for number of entries.
+	 *
+	 * @return  Number of games in the catalog.
+	 */
+	public int getNumberOfEntries() {
+
+		return _entryMap.size();
+	}
+
+
+	/**
+	 * Getter for number of files read by the last update.
+	 *
+	 * @return  Number of new or changed files.
+	 */
+	public int getNumberOfFilesScanned() {
+
+		return _numberOfFilesScanned;
+	}
+
+
+	/**
+	 * Getter for number of files not read by the last update.
+	 *
+	 * @return  Number of files whose entries were up to date.
+	 */
+	public int getNumberOfFilesUnchanged() {
+
+		return _numberOfFilesUnchanged;
+	}
+
+
+	/**
+	 * Statistics of the last update.
+	 *
+	 * @return  Number of entries, files scanned, unchanged, failed and entries removed.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "Catalog \"%s\": %d games, %d files scanned, %d unchanged, %d failed, %d entries removed.",
+		                      _pathToCatalogFile, _entryMap.size(), _numberOfFilesScanned, _numberOfFilesUnchanged,
+		                      _numberOfFilesFailed, _numberOfEntriesRemoved );
+	}
+
+}
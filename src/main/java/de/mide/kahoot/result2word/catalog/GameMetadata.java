@@ -0,0 +1,209 @@
+package de.mide.kahoot.result2word.catalog;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+
+/**
+ * Metadata of one Kahoot result file as read from its Overview sheet by option {@code --scan},
+ * together with the size and modification time of the file, which tell whether the entry of the
+ * {@link GameCatalog} is still up to date. Objects of this class are immutable.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class GameMetadata {
+
+	/** Path of the xlsx file. */
+	protected final String _pathToXlsxFile;
+
+	/** Size of the xlsx file in bytes when it was scanned. */
+	protected final long _fileSize;
+
+	/** Modification time of the xlsx file (milliseconds since epoch) when it was scanned. */
+	protected final long _lastModified;
+
+	/** Title of the game (cell A1). */
+	protected final String _title;
+
+	/** Text of cell "Played on" (B2), e.g. "23 Dec 2019". */
+	protected final String _playedOn;
+
+	/** Date parsed from {@link #_playedOn}, empty if it was not recognized. */
+	protected final Optional<LocalDate> _playedOnDateOptional;
+
+	/** Text of cell "Hosted by" (B3). */
+	protected final String _hostedBy;
+
+	/** Text of cell "Played with" (B4), e.g. "25 players". */
+	protected final String _playedWith;
+
+	/** Number of question sheets. */
+	protected final int _numberOfQuestions;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pathToXlsxFile  Path of the xlsx file.
+	 *
+	 * @param fileSize  Size of the file in bytes.
+	 *
+	 * @param lastModified  Modification time of the file.
+	 *
+	 * @param title  Title of the game.
+	 *
+	 * @param playedOn  Text of cell "Played on".
+	 *
+	 * @param playedOnDateOptional  Date of the game, or empty.
+	 *
+	 * @param hostedBy  Text of cell "Hosted by".
+	 *
+	 * @param playedWith  Text of cell "Played with".
+	 *
+	 * @param numberOfQuestions  Number of question sheets.
+	 */
+	public GameMetadata(String pathToXlsxFile, long fileSize, long lastModified, String title, String playedOn,
+	                    Optional<LocalDate> playedOnDateOptional, String hostedBy, String playedWith, int numberOfQuestions) {
+
+		_pathToXlsxFile       = pathToXlsxFile;
+		_fileSize             = fileSize;
+		_lastModified         = lastModified;
+		_title                = title;
+		_playedOn             = playedOn;
+		_playedOnDateOptional = playedOnDateOptional;
+		_hostedBy             = hostedBy;
+		_playedWith           = playedWith;
+		_numberOfQuestions    = numberOfQuestions;
+	}
+
+
+	/**
+	 * Getter for path.
+	 *
+	 * @return  Path of the xlsx file.
+	 */
+	public String getPathToXlsxFile() {
+
+		return _pathToXlsxFile;
+	}
+
+
+	/**
+	 * Getter for file size.
+	 *
+	 * @return  Size of the xlsx file in bytes when it was scanned.
+	 */
+	public long getFileSize() {
+
+		return _fileSize;
+	}
+
+
+	/**
+	 * Getter for modification time.
+	 *
+	 * @return  Modification time of the xlsx file when it was scanned.
+	 */
+	public long getLastModified() {
+
+		return _lastModified;
+	}
+
+
+	/**
+	 * Getter for title.
+	 *
+	 * @return  Title of the game.
+	 */
+	public String getTitle() {
+
+		return _title;
+	}
+
+
+	/**
+	 * Getter for text of "Played on".
+	 *
+	 * @return  Text as in the Overview sheet.
+	 */
+	public String getPlayedOn() {
+
+		return _playedOn;
+	}
+
+
+	/**
+	 * Getter for date of the game.
+	 *
+	 * @return  Date parsed from "Played on", or empty if it was not recognized.
+	 */
+	public Optional<LocalDate> getPlayedOnDate() {
+
+		return _playedOnDateOptional;
+	}
+
+
+	/**
+	 * Getter for text of "Hosted by".
+	 *
+	 * @return  Text as in the Overview sheet.
+	 */
+	public String getHostedBy() {
+
+		return _hostedBy;
+	}
+
+
+	/**
+	 * Getter for text of "Played with".
+	 *
+	 * @return  Text as in the Overview sheet.
+	 */
+	public String getPlayedWith() {
+
+		return _playedWith;
+	}
+
+
+	/**
+	 * Getter for number of questions.
+	 *
+	 * @return  Number of question sheets.
+	 */
+	public int getNumberOfQuestions() {
+
+		return _numberOfQuestions;
+	}
+
+
+	/**
+	 * Check whether the file was changed since it was scanned.
+	 *
+	 * @param fileSize  Current size of the file.
+	 *
+	 * @param lastModified  Current modification time of the file.
+	 *
+	 * @return  True if size and modification time are the same as when the file was scanned.
+	 */
+	public boolean isUpToDate(long fileSize, long lastModified) {
+
+		return _fileSize == fileSize && _lastModified == lastModified;
+	}
+
+
+	/**
+	 * One line for the result of a query.
+	 *
+	 * @return  Date, title, number of questions, host, players and path.
+	 */
+	@Override
+	public String toString() {
+
+		String date = _playedOnDateOptional.isPresent() ? _playedOnDateOptional.get().toString() : _playedOn;
+
+		return date + "  \"" + _title + "\" (" + _numberOfQuestions + " questions, hosted by " + _hostedBy
+		       + ", played with " + _playedWith + "): " + _pathToXlsxFile;
+	}
+
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains the catalog of the metadata of all result files of a folder (option {@code --scan}),
+ * which can be queried by title, host or date without opening the xlsx files.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.catalog;
@@ -0,0 +1,389 @@
+package de.mide.kahoot.result2word.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ProtocolException;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Resident process serving conversion requests of {@link DaemonClient} invocations over a Unix domain socket,
+ * so that the costs for starting the JVM and loading POI are paid only once.
+ * <br><br>
+ *
+ * Protocol: the client sends the number of command line arguments ({@code int}) followed by the arguments
+ * (each with {@link DataOutputStream#writeUTF(String)}). The daemon executes the request and streams back
+ * everything written to {@code System.out} and {@code System.err} as frames of type {@link #FRAME_STDOUT} or
+ * {@link #FRAME_STDERR} (type byte, length {@code int}, bytes in {@link #OUTPUT_ENCODING}); the last frame is of type {@link #FRAME_EXIT}
+ * with the result code ({@code int}).
+ * <br><br>
+ *
+ * Requests with more than {@link #MAX_ARGUMENTS} arguments or an argument longer than {@link #MAX_ARGUMENT_BYTES}
+ * are rejected, and a client that has not sent its complete request within the request timeout is disconnected, so
+ * a broken or hostile client cannot block or kill the daemon. Only the owner can connect to the socket, see
+ * {@link UnixDomainSockets#openServerChannel(String)}.
+ * <br><br>
+ *
+ * The application keeps its options in static variables, so the requests are executed one after the other;
+ * during a request {@code System.out} and {@code System.err} are redirected to the client.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionDaemon {
+
+	/** Frame type for output written to {@code System.out}. */
+	public static final byte FRAME_STDOUT = 1;
+
+	/** Frame type for output written to {@code System.err}. */
+	public static final byte FRAME_STDERR = 2;
+
+	/** Frame type for result code, is the last frame of a request. */
+	public static final byte FRAME_EXIT = 3;
+
+	/** Encoding of the output sent to the client. */
+	public static final String OUTPUT_ENCODING = "UTF-8";
+
+	/** Result code sent to client when the request handler has thrown an unexpected exception. */
+	public static final int RESULT_CODE_ON_UNEXPECTED_ERROR = 2;
+
+	/** Maximum number of command line arguments of a request. */
+	public static final int MAX_ARGUMENTS = 256;
+
+	/** Maximum length of a command line argument in bytes (modified UTF-8). */
+	public static final int MAX_ARGUMENT_BYTES = 8192;
+
+	/** Default for the time in which a client must send its complete request. */
+	public static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 10_000L;
+
+
+	/**
+	 * Functional interface for executing a request.
+	 */
+	@FunctionalInterface
+	public interface RequestHandler {
+
+		/**
+		 * Execute request with the command line arguments of a client.
+		 *
+		 * @param args  Command line arguments.
+		 *
+		 * @return  Result code as it would be returned by {@code System.exit(int)}.
+		 */
+		int handleRequest(String[] args);
+	}
+
+
+	/**
+	 * Stream writing everything as frames of a particular type to the client.
+	 */
+	protected static class FrameOutputStream extends OutputStream {
+
+		/** Stream to client, is used by both frame streams, so it serves as lock. */
+		protected DataOutputStream _clientStream = null;
+
+		/** Type of frames written by this stream. */
+		protected byte _frameType = 0;
+
+
+		/**
+		 * Create stream for one frame type.
+		 *
+		 * @param clientStream  Stream to client.
+		 *
+		 * @param frameType  {@link ConversionDaemon#FRAME_STDOUT} or {@link ConversionDaemon#FRAME_STDERR}.
+		 */
+		protected FrameOutputStream(DataOutputStream clientStream, byte frameType) {
+
+			_clientStream = clientStream;
+			_frameType    = frameType;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+
+			write( new byte[]{ (byte) b }, 0, 1 );
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+
+			if (length == 0) { return; }
+
+			synchronized (_clientStream) {
+
+				_clientStream.writeByte(_frameType);
+				_clientStream.writeInt(length);
+				_clientStream.write(bytes, offset, length);
+				_clientStream.flush();
+			}
+		}
+	}
+
+
+	/** Socket file on which the daemon listens. */
+	protected String _pathToSocketFile = null;
+
+	/** Object executing the requests. */
+	protected RequestHandler _requestHandler = null;
+
+	/** Channel on which the daemon listens, is set by {@link #serve()}. */
+	protected volatile ServerSocketChannel _serverChannel = null;
+
+	/** Number of requests served so far. */
+	protected int _numberOfRequests = 0;
+
+	/** Time in which a client must send its complete request, see {@link #setRequestTimeoutMillis(long)}. */
+	protected long _requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MILLIS;
+
+	/** Thread disconnecting clients which do not send their request in time, exists while {@link #serve()} runs. */
+	protected ScheduledExecutorService _timeoutScheduler = null;
+
+
+	/**
+	 * Create daemon; it does not listen before {@link #serve()} is called.
+	 *
+	 * @param pathToSocketFile  Socket file on which the daemon is to listen.
+	 *
+	 * @param requestHandler  Object executing the requests.
+	 */
+	public ConversionDaemon(String pathToSocketFile, RequestHandler requestHandler) {
+
+		_pathToSocketFile = pathToSocketFile;
+		_requestHandler   = requestHandler;
+	}
+
+
+	/**
+	 * Set the time in which a client must send its complete request, otherwise it is disconnected.
+	 *
+	 * @param requestTimeoutMillis  Timeout in milliseconds.
+	 */
+	public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+
+		_requestTimeoutMillis = requestTimeoutMillis;
+	}
+
+
+	/**
+	 * Listen on the socket file and serve requests until {@link #stop()} is called. A socket file left
+	 * behind by a daemon that was killed is replaced, but not the socket file of a running daemon.
+	 *
+	 * @throws KahootException  Socket could not be opened.
+	 */
+	public void serve() throws KahootException {
+
+		File socketFile = new File(_pathToSocketFile);
+		if (socketFile.exists()) {
+
+			if (isDaemonListening()) {
+
+				throw new KahootException("Another daemon is already listening on socket \"" + _pathToSocketFile + "\".");
+			}
+
+			socketFile.delete(); // left behind by a daemon that was killed
+		}
+
+		_serverChannel = UnixDomainSockets.openServerChannel(_pathToSocketFile);
+		socketFile.deleteOnExit();
+
+		_timeoutScheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+
+			Thread thread = new Thread(runnable, "daemon-request-timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+
+			while (true) {
+
+				try (SocketChannel clientChannel = _serverChannel.accept()) {
+
+					handleConnection(clientChannel);
+				}
+				catch (ClosedChannelException ex) {
+
+					break; // stop() was called
+				}
+				catch (IOException ex) {
+
+					System.err.println("Error in connection to client: " + ex);
+				}
+				catch (RuntimeException | Error ex) { // e.g. OutOfMemoryError, the next client might be served again
+
+					System.err.println("Unexpected error in connection to client: " + ex);
+					ex.printStackTrace();
+				}
+			}
+		}
+		finally {
+
+			_timeoutScheduler.shutdownNow();
+			socketFile.delete();
+		}
+	}
+
+
+	/**
+	 * Check whether a daemon is listening on the socket file.
+	 *
+	 * @return  True if a connection to the socket file could be established.
+	 */
+	protected boolean isDaemonListening() {
+
+		try (SocketChannel channel = UnixDomainSockets.connect(_pathToSocketFile)) {
+
+			return channel.isConnected();
+		}
+		catch (KahootException | IOException ex) {
+
+			return false;
+		}
+	}
+
+
+	/**
+	 * Stop listening, {@link #serve()} returns after the current request.
+	 */
+	public void stop() {
+
+		ServerSocketChannel serverChannel = _serverChannel;
+		if (serverChannel == null) { return; }
+
+		try { serverChannel.close(); } catch (IOException ex) { /* is closed anyway */ }
+	}
+
+
+	/**
+	 * Read request of a client, execute it with output redirected to the client and send the result code.
+	 *
+	 * @param clientChannel  Connection to client.
+	 *
+	 * @throws IOException  Error in communication with client, invalid request, or request not sent in time.
+	 */
+	protected void handleConnection(SocketChannel clientChannel) throws IOException {
+
+		String[] args = null;
+
+		// the channel is closed when the request was not read in time, so the blocked read ends
+		ScheduledFuture<?> timeout = _timeoutScheduler.schedule( () -> {
+
+			try { clientChannel.close(); } catch (IOException ex) { /* is closed anyway */ }
+
+		}, _requestTimeoutMillis, TimeUnit.MILLISECONDS );
+
+		try {
+
+			args = readRequest(clientChannel);
+		}
+		catch (AsynchronousCloseException ex) {
+
+			throw new ProtocolException("Client did not send its request within " + _requestTimeoutMillis + " ms.");
+		}
+		finally {
+
+			timeout.cancel(false);
+		}
+
+		if (!clientChannel.isOpen()) {
+
+			throw new ProtocolException("Client did not send its request within " + _requestTimeoutMillis + " ms.");
+		}
+
+		DataOutputStream clientStream = new DataOutputStream( Channels.newOutputStream(clientChannel) );
+
+		long startNanos = System.nanoTime();
+
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
+
+		int resultCode = 0;
+		try {
+
+			System.setOut( new PrintStream( new FrameOutputStream(clientStream, FRAME_STDOUT), true, OUTPUT_ENCODING ) );
+			System.setErr( new PrintStream( new FrameOutputStream(clientStream, FRAME_STDERR), true, OUTPUT_ENCODING ) );
+
+			resultCode = _requestHandler.handleRequest(args);
+		}
+		catch (RuntimeException | Error ex) {
+
+			ex.printStackTrace();
+			resultCode = RESULT_CODE_ON_UNEXPECTED_ERROR;
+		}
+		finally {
+
+			System.out.flush();
+			System.err.flush();
+
+			System.setOut(originalOut);
+			System.setErr(originalErr);
+		}
+
+		synchronized (clientStream) {
+
+			clientStream.writeByte(FRAME_EXIT);
+			clientStream.writeInt(resultCode);
+			clientStream.flush();
+		}
+
+		_numberOfRequests++;
+		System.out.println("Request " + _numberOfRequests + " served with result code " + resultCode + " in " +
+		                   (System.nanoTime() - startNanos) / 1_000_000L + " ms.");
+	}
+
+
+	/**
+	 * Read command line arguments sent by a client; the number and the lengths of the arguments are checked
+	 * before any memory is allocated for them.
+	 *
+	 * @param clientChannel  Connection to client.
+	 *
+	 * @return  Command line arguments.
+	 *
+	 * @throws IOException  Error in communication with client, or request exceeds the limits.
+	 */
+	protected String[] readRequest(SocketChannel clientChannel) throws IOException {
+
+		DataInputStream requestStream = new DataInputStream( new BufferedInputStream(Channels.newInputStream(clientChannel)) );
+
+		int numberOfArguments = requestStream.readInt();
+		if (numberOfArguments < 0 || numberOfArguments > MAX_ARGUMENTS) {
+
+			throw new ProtocolException("Invalid number of arguments in request: " + numberOfArguments);
+		}
+
+		String[] args = new String[numberOfArguments];
+		for (int i = 0; i < args.length; i++) {
+
+			requestStream.mark(2);
+			int argumentBytes = requestStream.readUnsignedShort(); // length prefix written by writeUTF
+			requestStream.reset();
+
+			if (argumentBytes > MAX_ARGUMENT_BYTES) {
+
+				throw new ProtocolException("Argument " + (i + 1) + " of request is too long: " + argumentBytes + " bytes");
+			}
+
+			args[i] = requestStream.readUTF();
+		}
+
+		return args;
+	}
+
+}
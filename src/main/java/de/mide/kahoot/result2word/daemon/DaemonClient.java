@@ -0,0 +1,75 @@
+package de.mide.kahoot.result2word.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Thin client forwarding the command line arguments of an invocation to a {@link ConversionDaemon} and
+ * streaming back its output and result code, see the class comment of {@link ConversionDaemon} for the protocol.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class DaemonClient {
+
+	/**
+	 * Send request to daemon and copy its output until the result code is received.
+	 *
+	 * @param pathToSocketFile  Socket file on which the daemon listens.
+	 *
+	 * @param args  Command line arguments for the daemon; relative paths must have been made absolute,
+	 *              because the daemon might have another working directory.
+	 *
+	 * @param out  Stream for output the daemon writes to {@code System.out}.
+	 *
+	 * @param err  Stream for output the daemon writes to {@code System.err}.
+	 *
+	 * @return  Result code of request.
+	 *
+	 * @throws KahootException  Daemon not reachable, or connection lost before result code was received.
+	 */
+	public static int forwardRequest(String pathToSocketFile, String[] args, PrintStream out, PrintStream err) throws KahootException {
+
+		try (SocketChannel channel = UnixDomainSockets.connect(pathToSocketFile)) {
+
+			DataOutputStream requestStream = new DataOutputStream( new BufferedOutputStream(Channels.newOutputStream(channel)) );
+
+			requestStream.writeInt(args.length);
+			for (String arg: args) {
+
+				requestStream.writeUTF(arg);
+			}
+			requestStream.flush();
+
+			DataInputStream replyStream = new DataInputStream( new BufferedInputStream(Channels.newInputStream(channel)) );
+
+			while (true) {
+
+				byte frameType = replyStream.readByte();
+
+				if (frameType == ConversionDaemon.FRAME_EXIT) { return replyStream.readInt(); }
+
+				byte[] bytes = new byte[ replyStream.readInt() ];
+				replyStream.readFully(bytes);
+
+				PrintStream targetStream = frameType == ConversionDaemon.FRAME_STDERR ? err : out;
+				targetStream.write(bytes);
+				targetStream.flush();
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Connection to daemon on socket \"" + pathToSocketFile + "\" was lost: " + ex, ex);
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package de.mide.kahoot.result2word.daemon;
+
+import java.io.IOException;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Opening of Unix domain sockets, which are supported by {@code java.nio.channels} since Java 16. The
+ * application is still compiled for Java 8, so the new parts of the API are called by reflection.
+ * <br><br>
+ *
+ * Everybody allowed to write to a socket file can connect to it, so on POSIX file systems the socket of a server is
+ * bound in a new directory only accessible by the owner, restricted to the owner and then moved to its final name;
+ * this way there is no moment in which another user could connect.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class UnixDomainSockets {
+
+	/**
+	 * Check whether Unix domain sockets are supported by the running JVM.
+	 *
+	 * @return  True if Java 16 or newer.
+	 */
+	public static boolean isSupported() {
+
+		try {
+			getUnixProtocolFamily();
+			return true;
+		}
+		catch (KahootException ex) {
+
+			return false;
+		}
+	}
+
+
+	/**
+	 * Open server socket bound to a socket file; on POSIX file systems only the owner can connect to it.
+	 *
+	 * @param pathToSocketFile  Socket file to be created, must not exist.
+	 *
+	 * @return  Bound channel in blocking mode.
+	 *
+	 * @throws KahootException  Not supported, or socket could not be bound.
+	 */
+	public static ServerSocketChannel openServerChannel(String pathToSocketFile) throws KahootException {
+
+		getUnixProtocolFamily();
+
+		if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+
+			return bindServerChannel(pathToSocketFile);
+		}
+
+		Path socketPath = Paths.get(pathToSocketFile).toAbsolutePath();
+		Path privateDir = null;
+		Path boundPath  = null;
+
+		ServerSocketChannel channel = null;
+		try {
+
+			// short names, because the path of a socket file is limited to about 100 bytes
+			privateDir = Files.createTempDirectory( socketPath.getParent(), ".kd", PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")) );
+			boundPath  = privateDir.resolve("s");
+
+			channel = bindServerChannel( boundPath.toString() );
+
+			Files.setPosixFilePermissions( boundPath, PosixFilePermissions.fromString("rw-------") );
+			Files.move( boundPath, socketPath, StandardCopyOption.ATOMIC_MOVE );
+
+			return channel;
+		}
+		catch (IOException ex) {
+
+			if (channel != null) {
+
+				try { channel.close(); } catch (IOException closeEx) { /* socket is not used anyway */ }
+			}
+
+			throw new KahootException("Could not open Unix domain socket \"" + pathToSocketFile + "\": " + ex, ex);
+		}
+		finally {
+
+			try {
+				if (boundPath  != null) { Files.deleteIfExists(boundPath ); } // only if not moved
+				if (privateDir != null) { Files.deleteIfExists(privateDir); }
+			}
+			catch (IOException ex) {
+
+				System.err.println("Could not delete temporary folder \"" + privateDir + "\": " + ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Open server socket and bind it to a socket file with the permissions given by the umask of the process.
+	 *
+	 * @param pathToSocketFile  Socket file to be created, must not exist.
+	 *
+	 * @return  Bound channel in blocking mode.
+	 *
+	 * @throws KahootException  Not supported, or socket could not be bound.
+	 */
+	protected static ServerSocketChannel bindServerChannel(String pathToSocketFile) throws KahootException {
+
+		SocketAddress address = createAddress(pathToSocketFile);
+
+		try {
+
+			ServerSocketChannel channel = (ServerSocketChannel) ServerSocketChannel.class.getMethod("open", ProtocolFamily.class)
+			                                                                     .invoke(null, getUnixProtocolFamily());
+			try {
+				channel.bind(address);
+			}
+			catch (IOException ex) {
+
+				channel.close();
+				throw ex;
+			}
+
+			return channel;
+		}
+		catch (IOException | ReflectiveOperationException ex) {
+
+			throw new KahootException("Could not open Unix domain socket \"" + pathToSocketFile + "\": " + ex, ex);
+		}
+	}
+
+
+	/**
+	 * Connect to server socket.
+	 *
+	 * @param pathToSocketFile  Socket file of server.
+	 *
+	 * @return  Connected channel in blocking mode.
+	 *
+	 * @throws KahootException  Not supported, or no server listening on socket file.
+	 */
+	public static SocketChannel connect(String pathToSocketFile) throws KahootException {
+
+		SocketAddress address = createAddress(pathToSocketFile);
+
+		try {
+
+			SocketChannel channel = (SocketChannel) SocketChannel.class.getMethod("open", ProtocolFamily.class)
+			                                                     .invoke(null, getUnixProtocolFamily());
+			try {
+				channel.connect(address);
+			}
+			catch (IOException ex) {
+
+				channel.close();
+				throw ex;
+			}
+
+			return channel;
+		}
+		catch (IOException | ReflectiveOperationException ex) {
+
+			throw new KahootException("Could not connect to daemon on socket \"" + pathToSocketFile + "\": " + ex, ex);
+		}
+	}
+
+
+	/**
+	 * Get protocol family {@code UNIX}.
+	 *
+	 * @return  Protocol family for Unix domain sockets.
+	 *
+	 * @throws KahootException  Not supported by running JVM.
+	 */
+	protected static ProtocolFamily getUnixProtocolFamily() throws KahootException {
+
+		try {
+
+			return StandardProtocolFamily.valueOf("UNIX");
+		}
+		catch (IllegalArgumentException ex) {
+
+			throw new KahootException("Unix domain sockets require Java 16 or newer, but running on Java " + System.getProperty("java.version") + ".");
+		}
+	}
+
+
+	/**
+	 * Create address of socket file.
+	 *
+	 * @param pathToSocketFile  Socket file.
+	 *
+	 * @return  Object of class {@code java.net.UnixDomainSocketAddress}.
+	 *
+	 * @throws KahootException  Not supported by running JVM.
+	 */
+	protected static SocketAddress createAddress(String pathToSocketFile) throws KahootException {
+
+		getUnixProtocolFamily();
+
+		try {
+
+			Class<?> addressClass = Class.forName("java.net.UnixDomainSocketAddress");
+			Path     socketPath   = Paths.get(pathToSocketFile);
+
+			return (SocketAddress) addressClass.getMethod("of", Path.class).invoke(null, socketPath);
+		}
+		catch (ReflectiveOperationException ex) {
+
+			throw new KahootException("Unix domain sockets are not supported by this JVM: " + ex, ex);
+		}
+	}
+
+}
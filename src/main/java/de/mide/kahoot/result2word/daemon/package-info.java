@@ -0,0 +1,8 @@
+/**
+ * This package contains the classes for the daemon mode: a resident process keeps the converter loaded
+ * and serves the requests of thin client invocations over a Unix domain socket.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.daemon;
@@ -0,0 +1,516 @@
+package de.mide.kahoot.result2word.dedup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Finds clusters of near-duplicate questions across many games (option {@code --duplicates}) without comparing
+ * all pairs of questions: the {@link MinHasher} signature of each question is split into {@value #NUMBER_OF_BANDS}
+ * bands of {@value #ROWS_PER_BAND} values (locality-sensitive hashing); only questions with the same hash of a band
+ * become candidates. For each band the hashes of all questions are sorted, so the work grows with
+ * {@code n log n} instead of {@code n * n}. A candidate pair whose estimated similarity is at least the threshold
+ * joins the clusters of both questions (union-find), so a cluster can contain a chain of edited copies.
+ * <br><br>
+ *
+ * With 32 bands of 4 values, two questions with a similarity of 0.7 become candidates with a probability above 0.99,
+ * questions with a similarity of 0.5 with about 0.87 and questions with a similarity of 0.3 with about 0.23; candidates
+ * below the threshold are dropped after comparing their signatures. The threshold can be set with the system property
+ * {@value #PROPERTY_PREFIX}{@code threshold} (default {@value #DEFAULT_THRESHOLD}), values much below 0.5 miss pairs.
+ * The finder keeps the signature (512 bytes) and the texts of each question on the heap.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class DuplicateFinder {
+
+	/** Prefix of the system properties for the finder. */
+	public static final String PROPERTY_PREFIX = "de.mide.kahoot.duplicates.";
+
+	/** Default minimum of the estimated similarity of two questions in the same cluster. */
+	public static final double DEFAULT_THRESHOLD = 0.7;
+
+	/** Number of bands of a signature. */
+	protected static final int NUMBER_OF_BANDS = 32;
+
+	/** Number of values of a band; bands times rows is the length of a signature. */
+	protected static final int ROWS_PER_BAND = MinHasher.SIGNATURE_LENGTH / NUMBER_OF_BANDS;
+
+	/** Number of low bits of a sort key holding the index of the question, the high bits hold the hash of the band. */
+	protected static final int INDEX_BITS = 24;
+
+	/** Mask of the index of the question in a sort key. */
+	protected static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+
+	/**
+	 * Question of a cluster. Objects of this class are immutable.
+	 */
+	public static class DuplicateQuestion {
+
+		/** Path of the xlsx file. */
+		protected final String _pathToXlsxFile;
+
+		/** Number of the question in the game (1 for the first question). */
+		protected final int _numberOfQuestion;
+
+		/** Text of the question followed by its answer options. */
+		protected final String _text;
+
+		/** Estimated similarity with the first question of the cluster. */
+		protected final double _similarity;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param pathToXlsxFile  Path of the xlsx file.
+		 *
+		 * @param numberOfQuestion  Number of the question in the game.
+		 *
+		 * @param text  Text of the question and its answer options.
+		 *
+		 * @param similarity  Estimated similarity with the first question of the cluster.
+		 */
+		public DuplicateQuestion(String pathToXlsxFile, int numberOfQuestion, String text, double similarity) {
+
+			_pathToXlsxFile   = pathToXlsxFile;
+			_numberOfQuestion = numberOfQuestion;
+			_text             = text;
+			_similarity       = similarity;
+		}
+
+		/**
+		 * Getter for path.
+		 *
+		 * @return  Path of the xlsx file.
+		 */
+		public String getPathToXlsxFile() {
+
+			return _pathToXlsxFile;
+		}
+
+		/**
+		 * Getter for number of question.
+		 *
+		 * @return  Number of the question in the game (1 for the first question).
+		 */
+		public int getNumberOfQuestion() {
+
+			return _numberOfQuestion;
+		}
+
+		/**
+		 * Getter for similarity.
+		 *
+		 * @return  Estimated similarity with the first question of the cluster, 1 for the first question itself.
+		 */
+		public double getSimilarity() {
+
+			return _similarity;
+		}
+
+		/**
+		 * One line of the report.
+		 *
+		 * @return  Similarity, number of question, path and text.
+		 */
+		@Override
+		public String toString() {
+
+			return String.format("%.2f  question %d of \"%s\": %s", _similarity, _numberOfQuestion, _pathToXlsxFile, _text);
+		}
+	}
+
+
+	/** Minimum of the estimated similarity of two questions in the same cluster. */
+	protected final double _threshold;
+
+	/** Paths of the games added, in order of adding. */
+	protected final List<String> _paths = new ArrayList<String>();
+
+	/** Index in {@link #_paths} of each question. */
+	protected int[] _gameOfQuestion = new int[1024];
+
+	/** Number of each question in its game. */
+	protected int[] _numberOfQuestion = new int[1024];
+
+	/** Text of each question with its answer options, for the report. */
+	protected final List<String> _texts = new ArrayList<String>();
+
+	/** Signatures of all questions, {@link MinHasher#SIGNATURE_LENGTH} values per question. */
+	protected int[] _signatures = new int[1024 * MinHasher.SIGNATURE_LENGTH];
+
+	/** Number of questions added. */
+	protected int _numberOfQuestions = 0;
+
+	/** Number of questions skipped because they have no letters or digits. */
+	protected int _numberOfQuestionsSkipped = 0;
+
+	/** Number of candidate pairs compared by the last search. */
+	protected long _numberOfCandidatePairs = 0;
+
+	/** Number of clusters found by the last search. */
+	protected int _numberOfClusters = 0;
+
+	/** Number of questions in the clusters found by the last search. */
+	protected int _numberOfQuestionsInClusters = 0;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param threshold  Minimum of the estimated similarity of two questions in the same cluster, between 0 and 1.
+	 *
+	 * @throws IllegalArgumentException  Threshold not between 0 and 1.
+	 */
+	public DuplicateFinder(double threshold) {
+
+		if (threshold < 0.0 || threshold > 1.0) { throw new IllegalArgumentException("Threshold for duplicates must be between 0 and 1."); }
+
+		_threshold = threshold;
+	}
+
+
+	/**
+	 * Create finder with the threshold of the system property {@value #PROPERTY_PREFIX}{@code threshold}.
+	 *
+	 * @return  New finder.
+	 *
+	 * @throws IllegalArgumentException  Value of system property is not a number between 0 and 1.
+	 */
+	public static DuplicateFinder fromSystemProperties() {
+
+		String value = System.getProperty(PROPERTY_PREFIX + "threshold");
+
+		return new DuplicateFinder( value != null ? Double.parseDouble(value.trim()) : DEFAULT_THRESHOLD );
+	}
+
+
+	/**
+	 * Compute the signatures of the questions of a game.
+	 *
+	 * @param pathToXlsxFile  Path of the xlsx file.
+	 *
+	 * @param questionList  Questions of the game.
+	 *
+	 * @throws KahootException  Question could not be read, or there are more than 2<sup>24</sup> questions.
+	 */
+	public void addQuestionList(String pathToXlsxFile, QuestionList questionList) throws KahootException {
+
+		int numberOfGame = _paths.size();
+		_paths.add(pathToXlsxFile);
+
+		for (int i = 0; i < questionList.getNumberOfQuestions(); i++) {
+
+			AbstractQuestion question       = questionList.getQuestion(i);
+			String           normalizedText = MinHasher.normalize(question);
+
+			if (normalizedText.isEmpty()) {
+
+				_numberOfQuestionsSkipped++;
+				continue;
+			}
+
+			if (_numberOfQuestions > INDEX_MASK) { throw new KahootException("Too many questions for finding duplicates."); }
+
+			ensureCapacity(_numberOfQuestions + 1);
+
+			_gameOfQuestion  [_numberOfQuestions] = numberOfGame;
+			_numberOfQuestion[_numberOfQuestions] = i + 1;
+			_texts.add( getText(question) );
+
+			MinHasher.computeSignature( normalizedText, _signatures, _numberOfQuestions * MinHasher.SIGNATURE_LENGTH );
+			_numberOfQuestions++;
+		}
+	}
+
+
+	/**
+	 * Find the clusters of near-duplicate questions among all questions added.
+	 *
+	 * @return  Clusters with at least two questions, largest clusters first; the questions of a cluster
+	 *          are in the order in which they were added.
+	 */
+	public List<List<DuplicateQuestion>> findClusters() {
+
+		int[] parents = new int[_numberOfQuestions];
+		for (int q = 0; q < _numberOfQuestions; q++) {
+
+			parents[q] = q;
+		}
+
+		_numberOfCandidatePairs = 0;
+
+		long[] sortKeys = new long[_numberOfQuestions];
+		for (int band = 0; band < NUMBER_OF_BANDS; band++) {
+
+			for (int q = 0; q < _numberOfQuestions; q++) {
+
+				sortKeys[q] = (hashOfBand(q, band) & ~INDEX_MASK) | q;
+			}
+			Arrays.sort(sortKeys);
+
+			int bucketStart = 0;
+			for (int k = 1; k <= _numberOfQuestions; k++) {
+
+				if (k < _numberOfQuestions && (sortKeys[k] & ~INDEX_MASK) == (sortKeys[bucketStart] & ~INDEX_MASK)) {
+
+					// compare with the first and the previous question of the bucket, so that a large bucket is not compared pairwise
+					int question = (int) (sortKeys[k] & INDEX_MASK);
+					joinIfSimilar( parents, (int) (sortKeys[bucketStart] & INDEX_MASK), question );
+					if (k - 1 > bucketStart) { joinIfSimilar( parents, (int) (sortKeys[k - 1] & INDEX_MASK), question ); }
+
+				} else {
+
+					bucketStart = k;
+				}
+			}
+		}
+
+		return buildClusters(parents);
+	}
+
+
+	/**
+	 * Join the clusters of two candidate questions if their estimated similarity is at least the threshold.
+	 *
+	 * @param parents  Union-find forest of the questions.
+	 *
+	 * @param question1  Index of first question.
+	 *
+	 * @param question2  Index of second question.
+	 */
+	protected void joinIfSimilar(int[] parents, int question1, int question2) {
+
+		int root1 = findRoot(parents, question1);
+		int root2 = findRoot(parents, question2);
+		if (root1 == root2) { return; }
+
+		_numberOfCandidatePairs++;
+
+		double similarity = MinHasher.estimateSimilarity( _signatures, question1 * MinHasher.SIGNATURE_LENGTH, question2 * MinHasher.SIGNATURE_LENGTH );
+
+		if (similarity >= _threshold) { parents[Math.max(root1, root2)] = Math.min(root1, root2); }
+	}
+
+
+	/**
+	 * Find root of the cluster of a question, with path halving.
+	 *
+	 * @param parents  Union-find forest of the questions.
+	 *
+	 * @param question  Index of question.
+	 *
+	 * @return  Index of the first question of the cluster.
+	 */
+	protected static int findRoot(int[] parents, int question) {
+
+		while (parents[question] != question) {
+
+			parents[question] = parents[parents[question]];
+			question = parents[question];
+		}
+
+		return question;
+	}
+
+
+	/**
+	 * Collect the questions of each cluster.
+	 *
+	 * @param parents  Union-find forest of the questions.
+	 *
+	 * @return  Clusters with at least two questions, largest clusters first.
+	 */
+	protected List<List<DuplicateQuestion>> buildClusters(int[] parents) {
+
+		int[] clusterSizes = new int[_numberOfQuestions];
+		for (int q = 0; q < _numberOfQuestions; q++) {
+
+			clusterSizes[ findRoot(parents, q) ]++;
+		}
+
+		List<List<DuplicateQuestion>> clusters = new ArrayList<List<DuplicateQuestion>>();
+		List<DuplicateQuestion>[] clusterOfRoot = newClusterArray(_numberOfQuestions);
+
+		_numberOfQuestionsInClusters = 0;
+
+		for (int q = 0; q < _numberOfQuestions; q++) {
+
+			int root = findRoot(parents, q);
+			if (clusterSizes[root] < 2) { continue; }
+
+			if (clusterOfRoot[root] == null) {
+
+				clusterOfRoot[root] = new ArrayList<DuplicateQuestion>( clusterSizes[root] );
+				clusters.add( clusterOfRoot[root] );
+			}
+
+			double similarity = MinHasher.estimateSimilarity( _signatures, root * MinHasher.SIGNATURE_LENGTH, q * MinHasher.SIGNATURE_LENGTH );
+
+			clusterOfRoot[root].add( new DuplicateQuestion(_paths.get(_gameOfQuestion[q]), _numberOfQuestion[q], _texts.get(q), similarity) );
+			_numberOfQuestionsInClusters++;
+		}
+
+		clusters.sort( Comparator.comparingInt( (List<DuplicateQuestion> cluster) -> -cluster.size() ) ); // stable, so equal sizes stay in order of first question
+
+		_numberOfClusters = clusters.size();
+
+		return clusters;
+	}
+
+
+	/**
+	 * Write report with all clusters.
+	 *
+	 * @param pathToReport  Path of text file.
+	 *
+	 * @param clusters  Clusters returned by {@link #findClusters()}.
+	 *
+	 * @throws KahootException  File could not be written.
+	 */
+	public void writeReport(String pathToReport, List<List<DuplicateQuestion>> clusters) throws KahootException {
+
+		try (Writer writer = Files.newBufferedWriter(Paths.get(pathToReport), StandardCharsets.UTF_8)) {
+
+			writer.write( String.format("Near-duplicate questions: %d clusters with %d of %d questions in %d games (estimated similarity at least %.2f).%n",
+			                            clusters.size(), _numberOfQuestionsInClusters, _numberOfQuestions, _paths.size(), _threshold) );
+
+			for (int c = 0; c < clusters.size(); c++) {
+
+				writer.write( String.format("%nCluster %d (%d questions):%n", c + 1, clusters.get(c).size()) );
+
+				for (DuplicateQuestion question: clusters.get(c)) {
+
+					writer.write("  " + question + System.lineSeparator());
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write report \"" + pathToReport + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Hash of a band of the signature of a question.
+	 *
+	 * @param question  Index of question.
+	 *
+	 * @param band  Number of band.
+	 *
+	 * @return  Hash of the values of the band, different bands with the same values have different hashes.
+	 */
+	protected long hashOfBand(int question, int band) {
+
+		int  offset = question * MinHasher.SIGNATURE_LENGTH + band * ROWS_PER_BAND;
+		long hash   = band;
+
+		for (int r = 0; r < ROWS_PER_BAND; r++) {
+
+			hash = MinHasher.mix( hash * 31 + _signatures[offset + r] );
+		}
+
+		return hash;
+	}
+
+
+	/**
+	 * Text of a question for the report.
+	 *
+	 * @param question  Question.
+	 *
+	 * @return  Text of the question, followed by the answer options in brackets.
+	 *
+	 * @throws KahootException  Answer option could not be read.
+	 */
+	protected static String getText(AbstractQuestion question) throws KahootException {
+
+		StringBuilder sb = new StringBuilder( question.getQuestionText().replace('\n', ' ').replace('\r', ' ') );
+
+		if (question instanceof MultipleOrSingleChoiceQuestion) {
+
+			MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+
+			sb.append(" [");
+			for (int n = 1; n <= choiceQuestion.getNumberOfAnswerQuestions(); n++) {
+
+				if (n > 1) { sb.append("; "); }
+				sb.append( choiceQuestion.getAnswerOption(n).getAnswerOptionText() );
+			}
+			sb.append(']');
+		}
+
+		return sb.toString();
+	}
+
+
+	/**
+	 * Grow the arrays for the questions if needed.
+	 *
+	 * @param numberOfQuestions  Number of questions the arrays must hold.
+	 */
+	protected void ensureCapacity(int numberOfQuestions) {
+
+		if (numberOfQuestions <= _gameOfQuestion.length) { return; }
+
+		int capacity = 2 * _gameOfQuestion.length;
+
+		_gameOfQuestion   = Arrays.copyOf(_gameOfQuestion,   capacity);
+		_numberOfQuestion = Arrays.copyOf(_numberOfQuestion, capacity);
+		_signatures       = Arrays.copyOf(_signatures,       capacity * MinHasher.SIGNATURE_LENGTH);
+	}
+
+
+	/**
+	 * Create array of clusters (generic arrays cannot be created directly).
+	 *
+	 * @param length  Length of array.
+	 *
+	 * @return  New array with {@code null} elements.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static List<DuplicateQuestion>[] newClusterArray(int length) {
+
+		return (List<DuplicateQuestion>[]) new List<?>[length];
+	}
+
+
+	/**
+	 * Getter for number of questions.
+	 *
+	 * @return  Number of questions added.
+	 */
+	public int getNumberOfQuestions() {
+
+		return _numberOfQuestions;
+	}
+
+
+	/**
+	 * Statistics of the last search.
+	 *
+	 * @return  Number of games, questions, candidate pairs and clusters.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "Duplicates: %d games, %d questions (%d without text), %d candidate pairs compared, %d clusters with %d questions.",
+		                      _paths.size(), _numberOfQuestions, _numberOfQuestionsSkipped, _numberOfCandidatePairs,
+		                      _numberOfClusters, _numberOfQuestionsInClusters );
+	}
+
+}
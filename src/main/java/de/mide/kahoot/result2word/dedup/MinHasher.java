@@ -0,0 +1,206 @@
+package de.mide.kahoot.result2word.dedup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * MinHash signatures of questions: the text of a question and its answer options is normalized and split into
+ * overlapping shingles of {@value #SHINGLE_LENGTH} chars; for each of {@value #SIGNATURE_LENGTH} hash functions the
+ * signature holds the minimum hash value of all shingles. The fraction of equal values in the signatures of two
+ * questions is an estimate of the Jaccard similarity of their sets of shingles, so small edits (a changed word,
+ * a typo, answer options in another order) only change a few values.
+ * <br><br>
+ *
+ * The hash functions are {@code (a * x + b) >>> 32} on the 64 bit hash {@code x} of a shingle, with fixed odd
+ * multipliers {@code a}, so signatures computed by different runs can be compared.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class MinHasher {
+
+	/** Number of values of a signature. */
+	public static final int SIGNATURE_LENGTH = 128;
+
+	/** Number of chars of a shingle. */
+	public static final int SHINGLE_LENGTH = 5;
+
+	/** Seed for the coefficients of the hash functions, must not be changed. */
+	protected static final long SEED = 0x6B61686F6F74L;
+
+	/** Multipliers of the hash functions (odd). */
+	protected static final long[] MULTIPLIERS = new long[SIGNATURE_LENGTH];
+
+	/** Addends of the hash functions. */
+	protected static final long[] ADDENDS = new long[SIGNATURE_LENGTH];
+
+	static {
+		Random random = new Random(SEED);
+		for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+
+			MULTIPLIERS[i] = random.nextLong() | 1L;
+			ADDENDS    [i] = random.nextLong();
+		}
+	}
+
+
+	/**
+	 * Normalize the text of a question and its answer options: lower case, each run of chars other than letters
+	 * and digits replaced by a single blank; the answer options are sorted, so their order does not matter.
+	 *
+	 * @param question  Question.
+	 *
+	 * @return  Normalized text, empty if the question has no letters or digits.
+	 *
+	 * @throws KahootException  Answer option could not be read.
+	 */
+	public static String normalize(AbstractQuestion question) throws KahootException {
+
+		StringBuilder sb = new StringBuilder( normalize(question.getQuestionText()) );
+
+		if (question instanceof MultipleOrSingleChoiceQuestion) {
+
+			MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+
+			List<String> answerTexts = new ArrayList<String>();
+			for (int n = 1; n <= choiceQuestion.getNumberOfAnswerQuestions(); n++) {
+
+				answerTexts.add( normalize(choiceQuestion.getAnswerOption(n).getAnswerOptionText()) );
+			}
+			Collections.sort(answerTexts);
+
+			for (String answerText: answerTexts) {
+
+				if (answerText.isEmpty()) { continue; }
+
+				if (sb.length() > 0) { sb.append(' '); }
+				sb.append(answerText);
+			}
+		}
+
+		return sb.toString();
+	}
+
+
+	/**
+	 * Normalize a text, see {@link #normalize(AbstractQuestion)}.
+	 *
+	 * @param text  Text, may be {@code null}.
+	 *
+	 * @return  Normalized text without leading and trailing blanks.
+	 */
+	public static String normalize(String text) {
+
+		if (text == null) { return ""; }
+
+		StringBuilder sb = new StringBuilder( text.length() );
+		boolean pendingBlank = false;
+
+		int i = 0;
+		while (i < text.length()) {
+
+			int codePoint = text.codePointAt(i);
+			i += Character.charCount(codePoint);
+
+			if (Character.isLetterOrDigit(codePoint)) {
+
+				if (pendingBlank && sb.length() > 0) { sb.append(' '); }
+				pendingBlank = false;
+
+				sb.appendCodePoint( Character.toLowerCase(codePoint) );
+
+			} else {
+
+				pendingBlank = true;
+			}
+		}
+
+		return sb.toString();
+	}
+
+
+	/**
+	 * Compute signature of a normalized text; a text shorter than a shingle is a single shingle.
+	 *
+	 * @param normalizedText  Text returned by {@link #normalize(AbstractQuestion)}, not empty.
+	 *
+	 * @param signatures  Array receiving the signature.
+	 *
+	 * @param offset  Index of the first value of the signature in the array.
+	 */
+	public static void computeSignature(String normalizedText, int[] signatures, int offset) {
+
+		Arrays.fill(signatures, offset, offset + SIGNATURE_LENGTH, Integer.MAX_VALUE);
+
+		int numberOfShingles = Math.max(1, normalizedText.length() - SHINGLE_LENGTH + 1);
+
+		for (int start = 0; start < numberOfShingles; start++) {
+
+			long hash = 0;
+			int  end  = Math.min(normalizedText.length(), start + SHINGLE_LENGTH);
+			for (int i = start; i < end; i++) {
+
+				hash = 31 * hash + normalizedText.charAt(i);
+			}
+			hash = mix(hash);
+
+			for (int j = 0; j < SIGNATURE_LENGTH; j++) {
+
+				int value = (int) ((MULTIPLIERS[j] * hash + ADDENDS[j]) >>> 32);
+
+				if (value < signatures[offset + j]) { signatures[offset + j] = value; }
+			}
+		}
+	}
+
+
+	/**
+	 * Estimate the similarity of two questions from their signatures.
+	 *
+	 * @param signatures  Array with both signatures.
+	 *
+	 * @param offset1  Index of the first value of the first signature.
+	 *
+	 * @param offset2  Index of the first value of the second signature.
+	 *
+	 * @return  Fraction of equal values, between 0 and 1.
+	 */
+	public static double estimateSimilarity(int[] signatures, int offset1, int offset2) {
+
+		int equalValues = 0;
+		for (int j = 0; j < SIGNATURE_LENGTH; j++) {
+
+			if (signatures[offset1 + j] == signatures[offset2 + j]) { equalValues++; }
+		}
+
+		return (double) equalValues / SIGNATURE_LENGTH;
+	}
+
+
+	/**
+	 * Mix the bits of a hash value (finalizer of MurmurHash3), so that similar shingles get unrelated hashes.
+	 *
+	 * @param hash  Hash value.
+	 *
+	 * @return  Mixed hash value.
+	 */
+	public static long mix(long hash) {
+
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		hash ^= hash >>> 33;
+
+		return hash;
+	}
+
+}
@@ -0,0 +1,483 @@
+package de.mide.kahoot.result2word.dedup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.mide.kahoot.result2word.cache.QuestionListCodec;
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.AnswerOption;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Question bank with each distinct question of many games and the games it was asked in (option {@code --bank}).
+ * Two questions are the same when they have the same type, the same normalized text (see {@link MinHasher#normalize(String)})
+ * and the same normalized answer options with the same right answers, in any order; unlike {@link DuplicateFinder}
+ * edited copies are different questions.
+ * <br><br>
+ *
+ * The questions are looked up in a concurrent index of 64 bit fingerprints (first bytes of SHA-256 of the normalized
+ * question), {@link #addQuestionList(String, QuestionList)} can be called by several threads at the same time. The
+ * first occurrence of each question and the name of each game are written into temporary files at once; the heap only
+ * holds the fingerprint index and a few numbers per question and game (about 100 bytes per distinct question),
+ * so a bank of hundreds of thousands of questions can be built. {@link #forEachDistinctQuestion(DistinctQuestionConsumer)}
+ * reads the questions back one after the other, in the order of their first occurrence.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionBank implements AutoCloseable {
+
+	/** Name of temporary file with the first occurrence of each distinct question. */
+	protected static final String QUESTIONS_FILE_NAME = "questions.bin";
+
+	/** Name of temporary file with the names of the games. */
+	protected static final String GAMES_FILE_NAME = "games.bin";
+
+	/** Marks end of list of occurrences. */
+	protected static final int NO_OCCURRENCE = -1;
+
+
+	/**
+	 * Functional interface for processing the distinct questions of the bank.
+	 */
+	@FunctionalInterface
+	public interface DistinctQuestionConsumer {
+
+		/**
+		 * Process a distinct question.
+		 *
+		 * @param numberOfQuestion  Number of question in the bank (1 for first question).
+		 *
+		 * @param question  First occurrence of the question.
+		 *
+		 * @param namesOfGames  Names of all games the question was asked in, see {@link QuestionBank#getNameOfGame(String, QuestionList)}.
+		 *
+		 * @throws KahootException  Processing failed, the remaining questions are not read.
+		 */
+		void accept(int numberOfQuestion, AbstractQuestion question, List<String> namesOfGames) throws KahootException;
+	}
+
+
+	/** Fingerprint of each distinct question, mapped to its index (0 for first question). */
+	protected final ConcurrentHashMap<Long, Integer> _fingerprintIndex = new ConcurrentHashMap<Long, Integer>();
+
+	/** Folder with the temporary files, deleted by {@link #close()}. */
+	protected final Path _tempFolder;
+
+	/** Stream to temporary file with the encoded questions, each as single question of a {@link QuestionList}. */
+	protected DataOutputStream _questionsOutputStream = null;
+
+	/** Stream to temporary file with the names of the games. */
+	protected DataOutputStream _gamesOutputStream = null;
+
+	/** Offset of the name of each game in the temporary file. */
+	protected long[] _offsetOfGame = new long[1024];
+
+	/** Number of bytes written into the temporary file with the names of the games. */
+	protected long _gamesFileSize = 0;
+
+	/** Index of first occurrence of each distinct question. */
+	protected int[] _firstOccurrence = new int[1024];
+
+	/** Index of last occurrence of each distinct question. */
+	protected int[] _lastOccurrence = new int[1024];
+
+	/** Index of game of each occurrence. */
+	protected int[] _gameOfOccurrence = new int[1024];
+
+	/** Index of next occurrence of the same question, or {@link #NO_OCCURRENCE}. */
+	protected int[] _nextOccurrence = new int[1024];
+
+	/** Number of games added. */
+	protected int _numberOfGames = 0;
+
+	/** Number of questions of all games added. */
+	protected long _numberOfQuestions = 0;
+
+	/** Number of occurrences, i.e. of distinct questions per game. */
+	protected int _numberOfOccurrences = 0;
+
+
+	/**
+	 * Constructor, creates the temporary files.
+	 *
+	 * @throws KahootException  Temporary files could not be created.
+	 */
+	public QuestionBank() throws KahootException {
+
+		try {
+			_tempFolder = Files.createTempDirectory("kahoot_bank");
+
+			_questionsOutputStream = new DataOutputStream( new BufferedOutputStream(Files.newOutputStream(_tempFolder.resolve(QUESTIONS_FILE_NAME)), 64 * 1024) );
+			_gamesOutputStream     = new DataOutputStream( new BufferedOutputStream(Files.newOutputStream(_tempFolder.resolve(GAMES_FILE_NAME    )), 64 * 1024) );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not create temporary files of question bank.", ex);
+		}
+	}
+
+
+	/**
+	 * Add the questions of a game; questions already in the bank only get the game added. Can be called by several
+	 * threads at the same time, the fingerprints are computed by the calling thread.
+	 *
+	 * @param pathToXlsxFile  Path of xlsx file the questions were extracted from.
+	 *
+	 * @param questionList  Questions of the file.
+	 *
+	 * @throws KahootException  Temporary file could not be written.
+	 */
+	public void addQuestionList(String pathToXlsxFile, QuestionList questionList) throws KahootException {
+
+		int    numberOfQuestions = questionList.getNumberOfQuestions();
+		long[] fingerprints      = new long[numberOfQuestions];
+
+		MessageDigest messageDigest = createMessageDigest();
+		for (int i = 0; i < numberOfQuestions; i++) {
+
+			fingerprints[i] = computeFingerprint( questionList.getQuestion(i), messageDigest );
+		}
+
+		synchronized (this) {
+
+			int game = addGame( getNameOfGame(pathToXlsxFile, questionList) );
+
+			for (int i = 0; i < numberOfQuestions; i++) {
+
+				Integer indexOfQuestion = _fingerprintIndex.get(fingerprints[i]);
+				if (indexOfQuestion == null) {
+
+					indexOfQuestion = addDistinctQuestion( questionList.getQuestion(i) );
+					_fingerprintIndex.put(fingerprints[i], indexOfQuestion);
+				}
+
+				addOccurrence(indexOfQuestion, game);
+			}
+
+			_numberOfQuestions += numberOfQuestions;
+		}
+	}
+
+
+	/**
+	 * Hand each distinct question with the names of its games to the consumer, in the order of their first occurrence.
+	 * No more question lists can be added afterwards.
+	 *
+	 * @param consumer  Object processing the questions.
+	 *
+	 * @throws KahootException  Temporary file could not be read, or consumer failed.
+	 */
+	public synchronized void forEachDistinctQuestion(DistinctQuestionConsumer consumer) throws KahootException {
+
+		try {
+			_questionsOutputStream.close();
+			_gamesOutputStream.close();
+
+			try (DataInputStream questionsInputStream = new DataInputStream( new BufferedInputStream(Files.newInputStream(_tempFolder.resolve(QUESTIONS_FILE_NAME)), 64 * 1024) );
+			     RandomAccessFile gamesFile           = new RandomAccessFile( _tempFolder.resolve(GAMES_FILE_NAME).toFile(), "r" )) {
+
+				int numberOfDistinctQuestions = getNumberOfDistinctQuestions();
+				for (int q = 0; q < numberOfDistinctQuestions; q++) {
+
+					byte[] encoded = new byte[ questionsInputStream.readInt() ];
+					questionsInputStream.readFully(encoded);
+
+					AbstractQuestion question = QuestionListCodec.decode(encoded).getQuestion(0);
+
+					List<String> namesOfGames = new ArrayList<String>();
+					for (int o = _firstOccurrence[q]; o != NO_OCCURRENCE; o = _nextOccurrence[o]) {
+
+						gamesFile.seek( _offsetOfGame[ _gameOfOccurrence[o] ] );
+
+						byte[] name = new byte[ gamesFile.readInt() ];
+						gamesFile.readFully(name);
+
+						namesOfGames.add( new String(name, StandardCharsets.UTF_8) );
+					}
+
+					consumer.accept(q + 1, question, namesOfGames);
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not read temporary files of question bank.", ex);
+		}
+	}
+
+
+	/**
+	 * Getter for number of games.
+	 *
+	 * @return  Number of question lists added.
+	 */
+	public synchronized int getNumberOfGames() {
+
+		return _numberOfGames;
+	}
+
+
+	/**
+	 * Getter for number of questions.
+	 *
+	 * @return  Number of questions of all question lists added, including repeated questions.
+	 */
+	public synchronized long getNumberOfQuestions() {
+
+		return _numberOfQuestions;
+	}
+
+
+	/**
+	 * Getter for number of distinct questions.
+	 *
+	 * @return  Number of questions in the bank.
+	 */
+	public int getNumberOfDistinctQuestions() {
+
+		return _fingerprintIndex.size();
+	}
+
+
+	/**
+	 * Delete the temporary files.
+	 */
+	@Override
+	public synchronized void close() {
+
+		try {
+			_questionsOutputStream.close();
+			_gamesOutputStream.close();
+		}
+		catch (IOException ex) {
+			// files are deleted anyway
+		}
+
+		File[] tempFiles = _tempFolder.toFile().listFiles();
+		if (tempFiles != null) {
+
+			for (File tempFile: tempFiles) { tempFile.delete(); }
+		}
+		_tempFolder.toFile().delete();
+	}
+
+
+	/**
+	 * Summary of bank, printed after it was written.
+	 *
+	 * @return  Number of distinct questions, questions and games.
+	 */
+	@Override
+	public synchronized String toString() {
+
+		return "Question bank: " + getNumberOfDistinctQuestions() + " distinct of " + _numberOfQuestions + " questions in " + _numberOfGames + " games.";
+	}
+
+
+	/**
+	 * Compute fingerprint of a question: first 8 bytes of SHA-256 of its type, normalized text and the sorted normalized
+	 * answer options with their flags (or the truth of the statement).
+	 *
+	 * @param question  Question.
+	 *
+	 * @param messageDigest  SHA-256 digest, not shared with other threads.
+	 *
+	 * @return  Fingerprint.
+	 *
+	 * @throws KahootException  Answer option could not be read.
+	 */
+	public static long computeFingerprint(AbstractQuestion question, MessageDigest messageDigest) throws KahootException {
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append( question.getQuestionType() ).append('\0');
+		sb.append( MinHasher.normalize(question.getQuestionText()) ).append('\0');
+
+		if (question.isTrueOrFalseQuestion()) {
+
+			sb.append( ((TrueFalseQuestion) question).isStatementTrue() );
+
+		} else {
+
+			MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+
+			List<String> answerOptions = new ArrayList<String>();
+			for (int n = 1; n <= choiceQuestion.getNumberOfAnswerQuestions(); n++) {
+
+				AnswerOption answerOption = choiceQuestion.getAnswerOption(n);
+
+				answerOptions.add( MinHasher.normalize(answerOption.getAnswerOptionText()) + '\0' + answerOption.getAnswerOptionIsRight() );
+			}
+			Collections.sort(answerOptions);
+
+			for (String answerOption: answerOptions) { sb.append(answerOption).append('\0'); }
+		}
+
+		byte[] digest = messageDigest.digest( sb.toString().getBytes(StandardCharsets.UTF_8) );
+
+		long fingerprint = 0;
+		for (int i = 0; i < 8; i++) {
+
+			fingerprint = (fingerprint << 8) | (digest[i] & 0xFF);
+		}
+
+		return fingerprint;
+	}
+
+
+	/**
+	 * Create SHA-256 digest for {@link #computeFingerprint(AbstractQuestion, MessageDigest)}.
+	 *
+	 * @return  New digest.
+	 *
+	 * @throws KahootException  SHA-256 not available (should not happen).
+	 */
+	public static MessageDigest createMessageDigest() throws KahootException {
+
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+
+			throw new KahootException("SHA-256 not available.", ex);
+		}
+	}
+
+
+	/**
+	 * Get name of a game as listed for the questions in the bank.
+	 *
+	 * @param pathToXlsxFile  Path of xlsx file.
+	 *
+	 * @param questionList  Questions of the file.
+	 *
+	 * @return  Title of the game and name of the file in parentheses.
+	 */
+	public static String getNameOfGame(String pathToXlsxFile, QuestionList questionList) {
+
+		return questionList.getTitle() + " (" + new File(pathToXlsxFile).getName() + ")";
+	}
+
+
+	/**
+	 * Write name of game into temporary file.
+	 *
+	 * @param nameOfGame  Name of game.
+	 *
+	 * @return  Index of game.
+	 *
+	 * @throws KahootException  Temporary file could not be written.
+	 */
+	protected int addGame(String nameOfGame) throws KahootException {
+
+		if (_numberOfGames == _offsetOfGame.length) { _offsetOfGame = Arrays.copyOf(_offsetOfGame, 2 * _numberOfGames); }
+
+		byte[] name = nameOfGame.getBytes(StandardCharsets.UTF_8);
+		try {
+			_gamesOutputStream.writeInt(name.length);
+			_gamesOutputStream.write(name);
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write temporary file of question bank.", ex);
+		}
+
+		_offsetOfGame[_numberOfGames] = _gamesFileSize;
+		_gamesFileSize += 4 + name.length;
+
+		return _numberOfGames++;
+	}
+
+
+	/**
+	 * Write first occurrence of a question into temporary file.
+	 *
+	 * @param question  Question not yet in the bank.
+	 *
+	 * @return  Index of question.
+	 *
+	 * @throws KahootException  Temporary file could not be written.
+	 */
+	protected int addDistinctQuestion(AbstractQuestion question) throws KahootException {
+
+		int indexOfQuestion = _fingerprintIndex.size();
+
+		if (indexOfQuestion == _firstOccurrence.length) {
+
+			_firstOccurrence = Arrays.copyOf(_firstOccurrence, 2 * indexOfQuestion);
+			_lastOccurrence  = Arrays.copyOf(_lastOccurrence,  2 * indexOfQuestion);
+		}
+		_firstOccurrence[indexOfQuestion] = NO_OCCURRENCE;
+		_lastOccurrence [indexOfQuestion] = NO_OCCURRENCE;
+
+		QuestionList singleQuestion = new QuestionList(1);
+		singleQuestion.addQuestion(question);
+
+		byte[] encoded = QuestionListCodec.encode(singleQuestion);
+		try {
+			_questionsOutputStream.writeInt(encoded.length);
+			_questionsOutputStream.write(encoded);
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write temporary file of question bank.", ex);
+		}
+
+		return indexOfQuestion;
+	}
+
+
+	/**
+	 * Record that a question was asked in a game; a question asked twice in the same game is recorded once.
+	 *
+	 * @param indexOfQuestion  Index of question.
+	 *
+	 * @param game  Index of game.
+	 */
+	protected void addOccurrence(int indexOfQuestion, int game) {
+
+		int last = _lastOccurrence[indexOfQuestion];
+		if (last != NO_OCCURRENCE && _gameOfOccurrence[last] == game) { return; }
+
+		if (_numberOfOccurrences == _gameOfOccurrence.length) {
+
+			_gameOfOccurrence = Arrays.copyOf(_gameOfOccurrence, 2 * _numberOfOccurrences);
+			_nextOccurrence   = Arrays.copyOf(_nextOccurrence,   2 * _numberOfOccurrences);
+		}
+
+		int occurrence = _numberOfOccurrences++;
+		_gameOfOccurrence[occurrence] = game;
+		_nextOccurrence  [occurrence] = NO_OCCURRENCE;
+
+		if (last == NO_OCCURRENCE) {
+
+			_firstOccurrence[indexOfQuestion] = occurrence;
+
+		} else {
+
+			_nextOccurrence[last] = occurrence;
+		}
+		_lastOccurrence[indexOfQuestion] = occurrence;
+	}
+
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains the detection of near-duplicate questions across the result files of a whole archive
+ * (option {@code --duplicates}), e.g. slightly edited copies of the same question in several question banks, and
+ * the question bank with each distinct question of all files (option {@code --bank}).
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.dedup;
@@ -0,0 +1,464 @@
+package de.mide.kahoot.result2word.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * One immutable file of a {@link QuestionIndex}: the sorted terms of some games, each with its postings (number
+ * of game and number of question). A segment is written once by {@link #write(Path, SortedMap)} and then only
+ * read through a memory mapping, so opening a segment does not read it and a lookup only touches the pages of
+ * the binary search and of the postings of the term.
+ * <br><br>
+ *
+ * Format (big endian): header with magic number, version, number of terms and number of postings (4 ints);
+ * term table with one entry of 3 ints per term in the order of {@link #TERM_ORDER} (offset of the term bytes
+ * in the file, index of the first posting, number of postings); postings with 6 bytes each (int number of game,
+ * unsigned short number of question), ordered by game and question for each term; term bytes with an unsigned
+ * short length followed by the UTF-8 bytes of each term. As UTF-8 preserves the order of code points, the binary
+ * search compares bytes without decoding terms. Offsets are ints, so a segment has at most 2 GB.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class IndexSegment {
+
+	/** First int of a segment file ("KQIX"). */
+	protected static final int MAGIC_NUMBER = 0x4B514958;
+
+	/** Version of the format. */
+	protected static final int FORMAT_VERSION = 1;
+
+	/** Size of the header in bytes. */
+	protected static final int HEADER_BYTES = 16;
+
+	/** Size of an entry of the term table in bytes. */
+	protected static final int TERM_ENTRY_BYTES = 12;
+
+	/** Size of a posting in bytes. */
+	protected static final int POSTING_BYTES = 6;
+
+	/** Order of the terms in a segment: by code points, which is the order of their UTF-8 bytes. */
+	public static final Comparator<String> TERM_ORDER = IndexSegment::compareCodePoints;
+
+
+	/**
+	 * Growable list of postings while a segment is built; a posting is encoded as
+	 * {@code (numberOfGame << 16) | numberOfQuestion}, so sorting the values orders by game and question.
+	 */
+	public static class PostingList {
+
+		/** Postings, only the first {@link #_size} are used. */
+		protected long[] _postings = new long[4];
+
+		/** Number of postings. */
+		protected int _size = 0;
+
+		/**
+		 * Add posting.
+		 *
+		 * @param posting  Posting encoded by {@link IndexSegment#encodePosting(int, int)}.
+		 */
+		public void add(long posting) {
+
+			if (_size == _postings.length) { _postings = Arrays.copyOf(_postings, 2 * _size); }
+
+			_postings[_size++] = posting;
+		}
+
+		/**
+		 * Getter for number of postings.
+		 *
+		 * @return  Number of postings added.
+		 */
+		public int size() {
+
+			return _size;
+		}
+
+		/**
+		 * Get postings sorted and without duplicates.
+		 *
+		 * @return  New array.
+		 */
+		public long[] toSortedArray() {
+
+			long[] postings = Arrays.copyOf(_postings, _size);
+			Arrays.sort(postings);
+
+			return removeDuplicates(postings);
+		}
+	}
+
+
+	/** Mapping of the whole file, only read with absolute methods, so it can be shared by threads. */
+	protected final ByteBuffer _buffer;
+
+	/** Number of terms. */
+	protected final int _numberOfTerms;
+
+	/** Offset of the postings in the file. */
+	protected final int _postingsOffset;
+
+
+	/**
+	 * Constructor, use {@link #open(Path)}.
+	 *
+	 * @param buffer  Mapping of the file, header already checked.
+	 */
+	protected IndexSegment(ByteBuffer buffer) {
+
+		_buffer         = buffer;
+		_numberOfTerms  = buffer.getInt(8);
+		_postingsOffset = HEADER_BYTES + TERM_ENTRY_BYTES * _numberOfTerms;
+	}
+
+
+	/**
+	 * Map segment file into memory.
+	 *
+	 * @param segmentFile  Path of segment file.
+	 *
+	 * @return  Segment.
+	 *
+	 * @throws KahootException  File could not be mapped or is not a segment file of this version.
+	 */
+	public static IndexSegment open(Path segmentFile) throws KahootException {
+
+		try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC_NUMBER || buffer.getInt(4) != FORMAT_VERSION) {
+
+				throw new KahootException("File \"" + segmentFile + "\" is not an index segment of version " + FORMAT_VERSION + ".");
+			}
+
+			return new IndexSegment(buffer);
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not open index segment \"" + segmentFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Write segment file; it is written to a temporary file first and then renamed.
+	 *
+	 * @param segmentFile  Path of segment file.
+	 *
+	 * @param postingsMap  Postings of each term, ordered by {@link #TERM_ORDER}; terms have at most 65535 UTF-8 bytes.
+	 *
+	 * @throws KahootException  File could not be written.
+	 */
+	public static void write(Path segmentFile, SortedMap<String, PostingList> postingsMap) throws KahootException {
+
+		int      numberOfTerms = postingsMap.size();
+		byte[][] termBytes     = new byte[numberOfTerms][];
+		long[][] postings      = new long[numberOfTerms][];
+		long     postingsCount = 0;
+
+		int i = 0;
+		for (Map.Entry<String, PostingList> entry: postingsMap.entrySet()) {
+
+			termBytes[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			postings [i] = entry.getValue().toSortedArray();
+			postingsCount += postings[i].length;
+			i++;
+		}
+
+		long termBytesOffset = HEADER_BYTES + (long) TERM_ENTRY_BYTES * numberOfTerms + POSTING_BYTES * postingsCount;
+
+		Path tempFile = null;
+		try {
+			tempFile = Files.createTempFile(segmentFile.toAbsolutePath().getParent(), segmentFile.getFileName().toString(), ".tmp");
+
+			try (DataOutputStream out = new DataOutputStream( new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024) )) {
+
+				out.writeInt(MAGIC_NUMBER);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(numberOfTerms);
+				out.writeInt( (int) postingsCount );
+
+				long termOffset   = termBytesOffset;
+				int  postingIndex = 0;
+				for (int t = 0; t < numberOfTerms; t++) {
+
+					if (termOffset > Integer.MAX_VALUE) { throw new IOException("Segment would exceed 2 GB."); }
+
+					out.writeInt( (int) termOffset );
+					out.writeInt( postingIndex );
+					out.writeInt( postings[t].length );
+
+					termOffset   += 2 + termBytes[t].length;
+					postingIndex += postings[t].length;
+				}
+
+				for (long[] termPostings: postings) {
+
+					for (long posting: termPostings) {
+
+						out.writeInt  ( (int) (posting >>> 16) );
+						out.writeShort( (int) (posting & 0xFFFF) );
+					}
+				}
+
+				for (byte[] term: termBytes) {
+
+					out.writeShort(term.length);
+					out.write(term);
+				}
+			}
+
+			Files.move( tempFile, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (IOException ex) {
+
+			if (tempFile != null) { tempFile.toFile().delete(); }
+
+			throw new KahootException("Could not write index segment \"" + segmentFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Encode posting.
+	 *
+	 * @param numberOfGame  Number of game in the index.
+	 *
+	 * @param numberOfQuestion  Number of question (1 for first question), 0 for the title; at most 65535.
+	 *
+	 * @return  Posting as stored in a {@link PostingList}.
+	 */
+	public static long encodePosting(int numberOfGame, int numberOfQuestion) {
+
+		return ((long) numberOfGame << 16) | numberOfQuestion;
+	}
+
+
+	/**
+	 * Decode number of game of a posting.
+	 *
+	 * @param posting  Posting encoded by {@link #encodePosting(int, int)}.
+	 *
+	 * @return  Number of game.
+	 */
+	public static int getNumberOfGame(long posting) {
+
+		return (int) (posting >>> 16);
+	}
+
+
+	/**
+	 * Decode number of question of a posting.
+	 *
+	 * @param posting  Posting encoded by {@link #encodePosting(int, int)}.
+	 *
+	 * @return  Number of question, 0 for the title.
+	 */
+	public static int getNumberOfQuestion(long posting) {
+
+		return (int) (posting & 0xFFFF);
+	}
+
+
+	/**
+	 * Getter for number of terms.
+	 *
+	 * @return  Number of different terms in this segment.
+	 */
+	public int getNumberOfTerms() {
+
+		return _numberOfTerms;
+	}
+
+
+	/**
+	 * Get term of the term table.
+	 *
+	 * @param termIndex  Index in the term table.
+	 *
+	 * @return  Term.
+	 */
+	public String getTerm(int termIndex) {
+
+		int    offset = _buffer.getInt(HEADER_BYTES + TERM_ENTRY_BYTES * termIndex);
+		byte[] bytes  = new byte[ _buffer.getShort(offset) & 0xFFFF ];
+
+		for (int i = 0; i < bytes.length; i++) {
+
+			bytes[i] = _buffer.get(offset + 2 + i);
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Get postings of a term of the term table.
+	 *
+	 * @param termIndex  Index in the term table.
+	 *
+	 * @return  Postings encoded by {@link #encodePosting(int, int)}, sorted.
+	 */
+	public long[] getPostings(int termIndex) {
+
+		int entryOffset = HEADER_BYTES + TERM_ENTRY_BYTES * termIndex;
+		int first       = _buffer.getInt(entryOffset + 4);
+		int count       = _buffer.getInt(entryOffset + 8);
+
+		long[] postings = new long[count];
+		for (int i = 0; i < count; i++) {
+
+			int postingOffset = _postingsOffset + POSTING_BYTES * (first + i);
+
+			postings[i] = encodePosting( _buffer.getInt(postingOffset), _buffer.getShort(postingOffset + 4) & 0xFFFF );
+		}
+
+		return postings;
+	}
+
+
+	/**
+	 * Binary search for the first term which is not less than the given bytes.
+	 *
+	 * @param termBytes  UTF-8 bytes of a term or prefix.
+	 *
+	 * @return  Index in the term table, {@link #getNumberOfTerms()} if all terms are less.
+	 */
+	public int findFirstTermNotLessThan(byte[] termBytes) {
+
+		int low  = 0;
+		int high = _numberOfTerms;
+
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (compareTerm(middle, termBytes) < 0) {
+
+				low = middle + 1;
+
+			} else {
+
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+
+	/**
+	 * Check whether a term of the term table starts with the given bytes.
+	 *
+	 * @param termIndex  Index in the term table.
+	 *
+	 * @param prefixBytes  UTF-8 bytes of prefix.
+	 *
+	 * @return  True if the term starts with the prefix (or equals it).
+	 */
+	public boolean termStartsWith(int termIndex, byte[] prefixBytes) {
+
+		int offset = _buffer.getInt(HEADER_BYTES + TERM_ENTRY_BYTES * termIndex);
+		int length = _buffer.getShort(offset) & 0xFFFF;
+
+		if (length < prefixBytes.length) { return false; }
+
+		for (int i = 0; i < prefixBytes.length; i++) {
+
+			if (_buffer.get(offset + 2 + i) != prefixBytes[i]) { return false; }
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * Compare a term of the term table with bytes, as unsigned bytes.
+	 *
+	 * @param termIndex  Index in the term table.
+	 *
+	 * @param termBytes  UTF-8 bytes of other term.
+	 *
+	 * @return  Negative, zero or positive as the term of the table is less than, equal to or greater than the other term.
+	 */
+	protected int compareTerm(int termIndex, byte[] termBytes) {
+
+		int offset = _buffer.getInt(HEADER_BYTES + TERM_ENTRY_BYTES * termIndex);
+		int length = _buffer.getShort(offset) & 0xFFFF;
+
+		int commonLength = Math.min(length, termBytes.length);
+		for (int i = 0; i < commonLength; i++) {
+
+			int difference = (_buffer.get(offset + 2 + i) & 0xFF) - (termBytes[i] & 0xFF);
+			if (difference != 0) { return difference; }
+		}
+
+		return length - termBytes.length;
+	}
+
+
+	/**
+	 * Compare two strings by code points, see {@link #TERM_ORDER}.
+	 *
+	 * @param term1  First term.
+	 *
+	 * @param term2  Second term.
+	 *
+	 * @return  Negative, zero or positive as the first term is less than, equal to or greater than the second term.
+	 */
+	protected static int compareCodePoints(String term1, String term2) {
+
+		int i1 = 0;
+		int i2 = 0;
+
+		while (i1 < term1.length() && i2 < term2.length()) {
+
+			int codePoint1 = term1.codePointAt(i1);
+			int codePoint2 = term2.codePointAt(i2);
+
+			if (codePoint1 != codePoint2) { return Integer.compare(codePoint1, codePoint2); }
+
+			i1 += Character.charCount(codePoint1);
+			i2 += Character.charCount(codePoint2);
+		}
+
+		return Boolean.compare( i1 < term1.length(), i2 < term2.length() );
+	}
+
+
+	/**
+	 * Remove duplicates from a sorted array.
+	 *
+	 * @param sortedValues  Sorted values.
+	 *
+	 * @return  The same array if there are no duplicates, else a new shorter array.
+	 */
+	protected static long[] removeDuplicates(long[] sortedValues) {
+
+		int size = 0;
+		for (int i = 0; i < sortedValues.length; i++) {
+
+			if (size == 0 || sortedValues[i] != sortedValues[size - 1]) { sortedValues[size++] = sortedValues[i]; }
+		}
+
+		return size == sortedValues.length ? sortedValues : Arrays.copyOf(sortedValues, size);
+	}
+
+}
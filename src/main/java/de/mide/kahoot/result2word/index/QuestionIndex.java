@@ -0,0 +1,1051 @@
+package de.mide.kahoot.result2word.index;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import de.mide.kahoot.result2word.batch.ParallelExtractor;
+import de.mide.kahoot.result2word.batch.ParallelExtractor.QuestionListExtractor;
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Full-text index over the titles, questions and answer options of many Kahoot result files (option {@code --index}),
+ * e.g. to find every game with a question about subnet masks (option {@code --search}) among tens of thousands of
+ * games without opening any xlsx file. The index is a folder with a manifest and some {@link IndexSegment} files;
+ * each segment maps the terms of some games to postings (number of game, number of question), searching maps the
+ * segments into memory and only needs a binary search per term and segment.
+ * <br><br>
+ *
+ * The index is updated incrementally: a file whose size and modification time are the same as when it was indexed
+ * is not read again; new and changed files get new numbers and are written into new segments, games of changed and
+ * deleted files are removed from the manifest and their postings are ignored. When there are more than
+ * {@value #MAX_SEGMENTS} segments, or more than a quarter of the games in the segments were removed, all segments are
+ * merged into one. Exports of several archives can be added to the same index; only one process may update an index
+ * at a time.
+ * <br><br>
+ *
+ * The manifest {@value #MANIFEST_FILE_NAME} starts with the line {@value #HEADER}, followed by the line
+ * {@code next <number of next game> <number of next segment>}, one line {@code segment <file name> <number of games>}
+ * per segment and one line {@code game <number> <size> <modification time> <number of questions> <path> <title>}
+ * per game, with fields separated by tabs. An index with another header is built again.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionIndex {
+
+	/** Name of manifest file in the index folder. */
+	public static final String MANIFEST_FILE_NAME = "index.manifest";
+
+	/** First line of the manifest, with the version of the format. */
+	protected static final String HEADER = "#kahoot_result2word index 1";
+
+	/** Suffix of segment files. */
+	protected static final String SEGMENT_SUFFIX = ".kqx";
+
+	/** Maximum number of segments before they are merged. */
+	protected static final int MAX_SEGMENTS = 8;
+
+	/** Number of postings after which a new segment is written during an update, bounds the heap used by an update. */
+	protected static final int MAX_POSTINGS_PER_SEGMENT = 4_000_000;
+
+	/** Minimum number of chars of a term, shorter words are not indexed. */
+	protected static final int MIN_TERM_LENGTH = 2;
+
+	/** Maximum number of chars of a term, longer words are not indexed. */
+	protected static final int MAX_TERM_LENGTH = 64;
+
+	/** Maximum number of questions of a game that are indexed, as postings store the number of question in 16 bits. */
+	protected static final int MAX_QUESTIONS_PER_GAME = 0xFFFF;
+
+	/** Separator between the fields of a line of the manifest. */
+	protected static final char FIELD_SEPARATOR = '\t';
+
+
+	/**
+	 * Entry of a game in the manifest. Objects of this class are immutable.
+	 */
+	public static class IndexedGame {
+
+		/** Number of the game in the postings. */
+		protected final int _numberOfGame;
+
+		/** Normalized path of the xlsx file. */
+		protected final String _pathToXlsxFile;
+
+		/** Size of the xlsx file when it was indexed. */
+		protected final long _fileSize;
+
+		/** Modification time of the xlsx file when it was indexed. */
+		protected final long _lastModified;
+
+		/** Number of questions of the game. */
+		protected final int _numberOfQuestions;
+
+		/** Title of the game. */
+		protected final String _title;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param numberOfGame  Number of the game in the postings.
+		 *
+		 * @param pathToXlsxFile  Normalized path of the xlsx file.
+		 *
+		 * @param fileSize  Size of the file.
+		 *
+		 * @param lastModified  Modification time of the file.
+		 *
+		 * @param numberOfQuestions  Number of questions.
+		 *
+		 * @param title  Title of the game.
+		 */
+		public IndexedGame(int numberOfGame, String pathToXlsxFile, long fileSize, long lastModified, int numberOfQuestions, String title) {
+
+			_numberOfGame      = numberOfGame;
+			_pathToXlsxFile    = pathToXlsxFile;
+			_fileSize          = fileSize;
+			_lastModified      = lastModified;
+			_numberOfQuestions = numberOfQuestions;
+			_title             = title;
+		}
+
+		/**
+		 * Getter for path.
+		 *
+		 * @return  Normalized path of the xlsx file.
+		 */
+		public String getPathToXlsxFile() {
+
+			return _pathToXlsxFile;
+		}
+
+		/**
+		 * Getter for number of questions.
+		 *
+		 * @return  Number of questions of the game.
+		 */
+		public int getNumberOfQuestions() {
+
+			return _numberOfQuestions;
+		}
+
+		/**
+		 * Getter for title.
+		 *
+		 * @return  Title of the game.
+		 */
+		public String getTitle() {
+
+			return _title;
+		}
+
+		/**
+		 * Check whether the file was changed since it was indexed.
+		 *
+		 * @param file  The xlsx file.
+		 *
+		 * @return  True if size and modification time are the same as when the file was indexed.
+		 */
+		public boolean isUpToDate(File file) {
+
+			return _fileSize == file.length() && _lastModified == file.lastModified();
+		}
+	}
+
+
+	/**
+	 * Game matching a search, with the matching questions.
+	 */
+	public static class SearchHit {
+
+		/** Matching game. */
+		protected final IndexedGame _game;
+
+		/** Numbers of the matching questions in ascending order (1 for the first question), 0 for the title. */
+		protected final int[] _numbersOfQuestions;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param game  Matching game.
+		 *
+		 * @param numbersOfQuestions  Numbers of matching questions, ascending.
+		 */
+		public SearchHit(IndexedGame game, int[] numbersOfQuestions) {
+
+			_game               = game;
+			_numbersOfQuestions = numbersOfQuestions;
+		}
+
+		/**
+		 * Getter for game.
+		 *
+		 * @return  Matching game.
+		 */
+		public IndexedGame getGame() {
+
+			return _game;
+		}
+
+		/**
+		 * Getter for questions.
+		 *
+		 * @return  Numbers of matching questions in ascending order (1 for the first question), 0 if the title matches.
+		 */
+		public int[] getNumbersOfQuestions() {
+
+			return _numbersOfQuestions.clone();
+		}
+
+		/**
+		 * One line for the result of a search.
+		 *
+		 * @return  Title, matching questions and path.
+		 */
+		@Override
+		public String toString() {
+
+			StringBuilder sb = new StringBuilder();
+			sb.append('"').append( _game.getTitle() ).append("\" (");
+
+			for (int i = 0; i < _numbersOfQuestions.length; i++) {
+
+				if (i > 0) { sb.append(", "); }
+
+				if (_numbersOfQuestions[i] == 0) {
+
+					sb.append("title");
+
+				} else {
+
+					sb.append("question ").append( _numbersOfQuestions[i] ).append(" of ").append( _game.getNumberOfQuestions() );
+				}
+			}
+
+			return sb.append("): ").append( _game.getPathToXlsxFile() ).toString();
+		}
+	}
+
+
+	/** Folder with manifest and segments. */
+	protected final Path _indexFolder;
+
+	/** Number for the next game added. */
+	protected int _nextNumberOfGame = 1;
+
+	/** Number for the name of the next segment written. */
+	protected int _nextNumberOfSegment = 1;
+
+	/** File names of the segments with the number of games written into them, in order of creation. */
+	protected final Map<String, Integer> _segmentMap = new LinkedHashMap<String, Integer>();
+
+	/** Games, key is the normalized path of the xlsx file. */
+	protected final Map<String, IndexedGame> _gameMap = new TreeMap<String, IndexedGame>();
+
+	/** Segments mapped for searching, key is the file name. */
+	protected final Map<String, IndexSegment> _openSegmentMap = new HashMap<String, IndexSegment>();
+
+	/** Postings of the games added by an update which are not yet written into a segment. */
+	protected final SortedMap<String, IndexSegment.PostingList> _pendingPostingsMap = new TreeMap<String, IndexSegment.PostingList>(IndexSegment.TERM_ORDER);
+
+	/** Number of postings in {@link #_pendingPostingsMap}. */
+	protected long _numberOfPendingPostings = 0;
+
+	/** Number of games whose postings are in {@link #_pendingPostingsMap}. */
+	protected int _numberOfPendingGames = 0;
+
+	/** Segment files merged by the last update, deleted after the manifest was saved. */
+	protected final List<String> _obsoleteSegments = new ArrayList<String>();
+
+	/** Number of files read by the last update. */
+	protected int _numberOfFilesIndexed = 0;
+
+	/** Number of files not read by the last update because they were indexed before. */
+	protected int _numberOfFilesUnchanged = 0;
+
+	/** Number of files that could not be read by the last update. */
+	protected int _numberOfFilesFailed = 0;
+
+	/** Number of games removed by the last update because their files were deleted. */
+	protected int _numberOfGamesRemoved = 0;
+
+	/** True if the last update merged the segments. */
+	protected boolean _segmentsMerged = false;
+
+
+	/**
+	 * Create empty index; use {@link #load(String)} to read an existing index.
+	 *
+	 * @param indexFolder  Folder of index, is created when the index is saved.
+	 */
+	public QuestionIndex(String indexFolder) {
+
+		_indexFolder = Paths.get(indexFolder).toAbsolutePath();
+	}
+
+
+	/**
+	 * Read manifest of an index.
+	 *
+	 * @param indexFolder  Folder of index.
+	 *
+	 * @return  Index with the games of the manifest; empty if there is no manifest or it has another format version.
+	 *
+	 * @throws KahootException  Manifest could not be read.
+	 */
+	public static QuestionIndex load(String indexFolder) throws KahootException {
+
+		QuestionIndex index        = new QuestionIndex(indexFolder);
+		Path          manifestFile = index._indexFolder.resolve(MANIFEST_FILE_NAME);
+
+		try (BufferedReader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+
+			if (!HEADER.equals(reader.readLine())) { return index; } // written by another version, will be built again
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+
+				String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), -1);
+
+				if (fields[0].equals("next") && fields.length == 3) {
+
+					index._nextNumberOfGame    = Integer.parseInt(fields[1]);
+					index._nextNumberOfSegment = Integer.parseInt(fields[2]);
+
+				} else if (fields[0].equals("segment") && fields.length == 3) {
+
+					index._segmentMap.put( fields[1], Integer.parseInt(fields[2]) );
+
+				} else if (fields[0].equals("game") && fields.length == 7) {
+
+					IndexedGame game = new IndexedGame( Integer.parseInt(fields[1]), fields[5], Long.parseLong(fields[2]),
+					                                    Long.parseLong(fields[3]), Integer.parseInt(fields[4]), fields[6] );
+
+					index._gameMap.put( fields[5], game );
+				}
+			}
+		}
+		catch (NoSuchFileException ex) {
+
+			// new index
+		}
+		catch (IOException | NumberFormatException ex) {
+
+			throw new KahootException("Could not read index manifest \"" + manifestFile + "\".", ex);
+		}
+
+		return index;
+	}
+
+
+	/**
+	 * Add new and changed xlsx files to the index and remove the games of deleted files. Games of files not
+	 * in the given list stay in the index as long as their files exist, so several folders can share an index.
+	 *
+	 * @param xlsxFiles  Paths of xlsx files to be indexed.
+	 *
+	 * @param extractor  Extracts the questions of a file.
+	 *
+	 * @param numberOfThreads  Number of files read at the same time.
+	 *
+	 * @throws KahootException  Segment could not be written, or indexing was interrupted.
+	 */
+	public void update(String[] xlsxFiles, QuestionListExtractor extractor, int numberOfThreads) throws KahootException {
+
+		_numberOfFilesIndexed   = 0;
+		_numberOfFilesUnchanged = 0;
+		_numberOfFilesFailed    = 0;
+		_numberOfGamesRemoved   = 0;
+		_segmentsMerged         = false;
+
+		List<String> filesToIndex = new ArrayList<String>();
+		Set<String> pathsSeen   = new HashSet<String>();
+
+		for (String xlsxFile: xlsxFiles) {
+
+			String key = normalizePath(xlsxFile);
+			if (!pathsSeen.add(key)) { continue; }
+
+			File        file = new File(xlsxFile);
+			IndexedGame game = _gameMap.get(key);
+
+			if (game != null && game.isUpToDate(file)) {
+
+				_numberOfFilesUnchanged++;
+
+			} else {
+
+				_gameMap.remove(key); // changed file gets a new number
+				filesToIndex.add(xlsxFile);
+			}
+		}
+
+		Iterator<IndexedGame> gameIterator = _gameMap.values().iterator();
+		while (gameIterator.hasNext()) {
+
+			if (!new File(gameIterator.next().getPathToXlsxFile()).isFile()) {
+
+				gameIterator.remove();
+				_numberOfGamesRemoved++;
+			}
+		}
+
+		if (!filesToIndex.isEmpty()) { indexFiles(filesToIndex, extractor, numberOfThreads); }
+
+		int gamesInSegments = 0;
+		for (int numberOfGames: _segmentMap.values()) {
+
+			gamesInSegments += numberOfGames;
+		}
+
+		int removedGamesInSegments = gamesInSegments - _gameMap.size();
+
+		if (_segmentMap.size() > MAX_SEGMENTS || (removedGamesInSegments > 0 && 4 * removedGamesInSegments > gamesInSegments)) {
+
+			mergeSegments();
+		}
+	}
+
+
+	/**
+	 * Read files and write their postings into new segments.
+	 *
+	 * @param filesToIndex  Paths of new or changed files.
+	 *
+	 * @param extractor  Extracts the questions of a file.
+	 *
+	 * @param numberOfThreads  Number of files read at the same time.
+	 *
+	 * @throws KahootException  Segment could not be written, or indexing was interrupted.
+	 */
+	protected void indexFiles(List<String> filesToIndex, QuestionListExtractor extractor, int numberOfThreads) throws KahootException {
+
+		ParallelExtractor parallelExtractor = new ParallelExtractor(extractor, numberOfThreads);
+
+		_numberOfFilesIndexed = parallelExtractor.extractAll(filesToIndex, this::addGame);
+		_numberOfFilesFailed  = parallelExtractor.getNumberOfFilesFailed();
+
+		if (_numberOfPendingGames > 0) { writePendingSegment(); }
+	}
+
+
+	/**
+	 * Add a game with a new number; the postings are written into a new segment as soon as there are
+	 * {@value #MAX_POSTINGS_PER_SEGMENT} postings not yet written.
+	 *
+	 * @param pathToInputFile  Path of xlsx file.
+	 *
+	 * @param questionList  Questions of the file.
+	 *
+	 * @throws KahootException  Segment could not be written.
+	 */
+	protected void addGame(String pathToInputFile, QuestionList questionList) throws KahootException {
+
+		File   file         = new File(pathToInputFile);
+		String key          = normalizePath(pathToInputFile);
+		int    numberOfGame = _nextNumberOfGame++;
+
+		_numberOfPendingPostings += addPostings(_pendingPostingsMap, numberOfGame, questionList);
+		_numberOfPendingGames++;
+
+		_gameMap.put( key, new IndexedGame(numberOfGame, key, file.length(), file.lastModified(),
+		                                   questionList.getNumberOfQuestions(), questionList.getTitle()) );
+
+		if (_numberOfPendingPostings >= MAX_POSTINGS_PER_SEGMENT) { writePendingSegment(); }
+	}
+
+
+	/**
+	 * Write the postings of the games added since the last segment into a new segment.
+	 *
+	 * @throws KahootException  Segment could not be written.
+	 */
+	protected void writePendingSegment() throws KahootException {
+
+		writeSegment(_pendingPostingsMap, _numberOfPendingGames);
+
+		_pendingPostingsMap.clear();
+		_numberOfPendingPostings = 0;
+		_numberOfPendingGames    = 0;
+	}
+
+
+	/**
+	 * Add the postings of a game: the terms of the title with question number 0, the terms of each question
+	 * and its answer options with the number of the question.
+	 *
+	 * @param postingsMap  Postings of the segment being built.
+	 *
+	 * @param numberOfGame  Number of the game.
+	 *
+	 * @param questionList  Questions of the game.
+	 *
+	 * @return  Number of postings added.
+	 *
+	 * @throws KahootException  Question could not be read.
+	 */
+	protected static int addPostings(SortedMap<String, IndexSegment.PostingList> postingsMap, int numberOfGame, QuestionList questionList) throws KahootException {
+
+		Set<String> terms = new HashSet<String>( tokenize(questionList.getTitle()) );
+		int postingsAdded = addPostings(postingsMap, terms, IndexSegment.encodePosting(numberOfGame, 0));
+
+		int numberOfQuestions = Math.min(questionList.getNumberOfQuestions(), MAX_QUESTIONS_PER_GAME);
+		for (int i = 0; i < numberOfQuestions; i++) {
+
+			AbstractQuestion question = questionList.getQuestion(i);
+
+			terms.clear();
+			terms.addAll( tokenize(question.getQuestionText()) );
+
+			if (question instanceof MultipleOrSingleChoiceQuestion) {
+
+				MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+				for (int n = 1; n <= choiceQuestion.getNumberOfAnswerQuestions(); n++) {
+
+					terms.addAll( tokenize(choiceQuestion.getAnswerOption(n).getAnswerOptionText()) );
+				}
+			}
+
+			postingsAdded += addPostings(postingsMap, terms, IndexSegment.encodePosting(numberOfGame, i + 1));
+		}
+
+		return postingsAdded;
+	}
+
+
+	/**
+	 * Add the same posting to several terms.
+	 *
+	 * @param postingsMap  Postings of the segment being built.
+	 *
+	 * @param terms  Terms without duplicates.
+	 *
+	 * @param posting  Posting encoded by {@link IndexSegment#encodePosting(int, int)}.
+	 *
+	 * @return  Number of postings added.
+	 */
+	protected static int addPostings(SortedMap<String, IndexSegment.PostingList> postingsMap, Set<String> terms, long posting) {
+
+		for (String term: terms) {
+
+			IndexSegment.PostingList postingList = postingsMap.get(term);
+			if (postingList == null) {
+
+				postingList = new IndexSegment.PostingList();
+				postingsMap.put(term, postingList);
+			}
+
+			postingList.add(posting);
+		}
+
+		return terms.size();
+	}
+
+
+	/**
+	 * Write new segment and add it to the manifest.
+	 *
+	 * @param postingsMap  Postings ordered by {@link IndexSegment#TERM_ORDER}.
+	 *
+	 * @param numberOfGames  Number of games whose postings are in the map.
+	 *
+	 * @throws KahootException  Segment could not be written.
+	 */
+	protected void writeSegment(SortedMap<String, IndexSegment.PostingList> postingsMap, int numberOfGames) throws KahootException {
+
+		String segmentName = "segment-" + (_nextNumberOfSegment++) + SEGMENT_SUFFIX;
+
+		try {
+			Files.createDirectories(_indexFolder);
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not create index folder \"" + _indexFolder + "\".", ex);
+		}
+
+		IndexSegment.write( _indexFolder.resolve(segmentName), postingsMap );
+
+		_segmentMap.put(segmentName, numberOfGames);
+	}
+
+
+	/**
+	 * Merge all segments into one, without the postings of removed games. The postings of all games
+	 * are on the heap while the new segment is written (8 bytes per posting).
+	 *
+	 * @throws KahootException  A segment could not be read or the new segment could not be written.
+	 */
+	protected void mergeSegments() throws KahootException {
+
+		BitSet liveGames = getLiveGames();
+
+		SortedMap<String, IndexSegment.PostingList> postingsMap = new TreeMap<String, IndexSegment.PostingList>(IndexSegment.TERM_ORDER);
+
+		for (String segmentName: _segmentMap.keySet()) {
+
+			IndexSegment segment = getSegment(segmentName);
+
+			for (int t = 0; t < segment.getNumberOfTerms(); t++) {
+
+				IndexSegment.PostingList postingList = null;
+
+				for (long posting: segment.getPostings(t)) {
+
+					if (!liveGames.get( IndexSegment.getNumberOfGame(posting) )) { continue; }
+
+					if (postingList == null) {
+
+						String term = segment.getTerm(t);
+
+						postingList = postingsMap.get(term);
+						if (postingList == null) {
+
+							postingList = new IndexSegment.PostingList();
+							postingsMap.put(term, postingList);
+						}
+					}
+
+					postingList.add(posting);
+				}
+			}
+		}
+
+		_obsoleteSegments.addAll( _segmentMap.keySet() );
+		_segmentMap.clear();
+		_openSegmentMap.clear();
+
+		if (!_gameMap.isEmpty()) { writeSegment(postingsMap, _gameMap.size()); }
+
+		_segmentsMerged = true;
+	}
+
+
+	/**
+	 * Write manifest; it is written to a temporary file first and then renamed, so a search never sees an
+	 * incomplete manifest. Afterwards segment files no longer in the manifest are deleted.
+	 *
+	 * @throws KahootException  Manifest could not be written.
+	 */
+	public void save() throws KahootException {
+
+		Path manifestFile = _indexFolder.resolve(MANIFEST_FILE_NAME);
+		Path tempFile     = null;
+
+		try {
+			Files.createDirectories(_indexFolder);
+
+			tempFile = Files.createTempFile(_indexFolder, MANIFEST_FILE_NAME, ".tmp");
+
+			try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+
+				writer.write(HEADER);
+				writer.write('\n');
+
+				writer.write( "next" + FIELD_SEPARATOR + _nextNumberOfGame + FIELD_SEPARATOR + _nextNumberOfSegment + "\n" );
+
+				for (Map.Entry<String, Integer> entry: _segmentMap.entrySet()) {
+
+					writer.write( "segment" + FIELD_SEPARATOR + entry.getKey() + FIELD_SEPARATOR + entry.getValue() + "\n" );
+				}
+
+				for (IndexedGame game: _gameMap.values()) {
+
+					writer.write( "game" + FIELD_SEPARATOR + game._numberOfGame + FIELD_SEPARATOR + game._fileSize
+					              + FIELD_SEPARATOR + game._lastModified + FIELD_SEPARATOR + game._numberOfQuestions
+					              + FIELD_SEPARATOR + game._pathToXlsxFile + FIELD_SEPARATOR + escape(game._title) + "\n" );
+				}
+			}
+
+			Files.move( tempFile, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		}
+		catch (IOException ex) {
+
+			if (tempFile != null) { tempFile.toFile().delete(); }
+
+			throw new KahootException("Could not write index manifest \"" + manifestFile + "\".", ex);
+		}
+
+		deleteUnusedSegments();
+	}
+
+
+	/**
+	 * Delete segment files not in the manifest: segments merged by the last update, and segments of an
+	 * index of another format version. A file that cannot be deleted (e.g. still mapped on Windows) is
+	 * deleted by a later update.
+	 */
+	protected void deleteUnusedSegments() {
+
+		_obsoleteSegments.clear();
+
+		try (DirectoryStream<Path> segmentFiles = Files.newDirectoryStream(_indexFolder, "*" + SEGMENT_SUFFIX)) {
+
+			for (Path segmentFile: segmentFiles) {
+
+				if (_segmentMap.containsKey( segmentFile.getFileName().toString() )) { continue; }
+
+				try {
+					Files.deleteIfExists(segmentFile);
+				}
+				catch (IOException ex) {
+
+					// deleted by a later update
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			// deleted by a later update
+		}
+	}
+
+
+	/**
+	 * Find the games with questions matching a query. The query consists of words separated by blanks, all of
+	 * them must occur in the same question (text of question or answer options) or in the title; case is ignored.
+	 * A word ending with {@code *} matches all words starting with it, e.g. {@code mask*} matches "mask" and "masks".
+	 * Words with less than {@value #MIN_TERM_LENGTH} letters or digits are ignored.
+	 *
+	 * @param query  Query.
+	 *
+	 * @return  Matching games with the matching questions, ordered by path; empty if the query contains no word.
+	 *
+	 * @throws KahootException  A segment could not be opened.
+	 */
+	public List<SearchHit> search(String query) throws KahootException {
+
+		BitSet       liveGames    = getLiveGames();
+		List<long[]> termPostings = new ArrayList<long[]>();
+
+		for (String word: query.trim().split("\\s+")) {
+
+			boolean     isPrefix = word.endsWith("*");
+			List<String> terms   = tokenize( isPrefix ? word.substring(0, word.length() - 1) : word );
+
+			for (int i = 0; i < terms.size(); i++) {
+
+				termPostings.add( findPostings(terms.get(i), isPrefix && i == terms.size() - 1, liveGames) );
+			}
+		}
+
+		List<SearchHit> hits = new ArrayList<SearchHit>();
+		if (termPostings.isEmpty()) { return hits; }
+
+		termPostings.sort( Comparator.comparingInt( (long[] postings) -> postings.length ) );
+
+		long[] matches = termPostings.get(0);
+		for (int i = 1; i < termPostings.size() && matches.length > 0; i++) {
+
+			matches = intersect( matches, termPostings.get(i) );
+		}
+
+		Map<Integer, IndexedGame> gamesByNumber = new HashMap<Integer, IndexedGame>();
+		for (IndexedGame game: _gameMap.values()) {
+
+			gamesByNumber.put(game._numberOfGame, game);
+		}
+
+		int start = 0;
+		while (start < matches.length) {
+
+			int numberOfGame = IndexSegment.getNumberOfGame(matches[start]);
+
+			int end = start;
+			while (end < matches.length && IndexSegment.getNumberOfGame(matches[end]) == numberOfGame) { end++; }
+
+			int[] numbersOfQuestions = new int[end - start];
+			for (int i = start; i < end; i++) {
+
+				numbersOfQuestions[i - start] = IndexSegment.getNumberOfQuestion(matches[i]);
+			}
+
+			hits.add( new SearchHit(gamesByNumber.get(numberOfGame), numbersOfQuestions) );
+			start = end;
+		}
+
+		hits.sort( Comparator.comparing( (SearchHit hit) -> hit.getGame().getPathToXlsxFile() ) );
+
+		return hits;
+	}
+
+
+	/**
+	 * Collect the postings of a term from all segments.
+	 *
+	 * @param term  Term as returned by {@link #tokenize(String)}.
+	 *
+	 * @param isPrefix  True to collect the postings of all terms starting with the term.
+	 *
+	 * @param liveGames  Numbers of the games in the manifest, postings of other games are skipped.
+	 *
+	 * @return  Postings sorted and without duplicates.
+	 *
+	 * @throws KahootException  A segment could not be opened.
+	 */
+	protected long[] findPostings(String term, boolean isPrefix, BitSet liveGames) throws KahootException {
+
+		byte[]                   termBytes   = term.getBytes(StandardCharsets.UTF_8);
+		IndexSegment.PostingList postingList = new IndexSegment.PostingList();
+
+		for (String segmentName: _segmentMap.keySet()) {
+
+			IndexSegment segment = getSegment(segmentName);
+
+			for (int t = segment.findFirstTermNotLessThan(termBytes); t < segment.getNumberOfTerms(); t++) {
+
+				if (isPrefix ? !segment.termStartsWith(t, termBytes) : segment.compareTerm(t, termBytes) != 0) { break; }
+
+				for (long posting: segment.getPostings(t)) {
+
+					if (liveGames.get( IndexSegment.getNumberOfGame(posting) )) { postingList.add(posting); }
+				}
+
+				if (!isPrefix) { break; }
+			}
+		}
+
+		return postingList.toSortedArray();
+	}
+
+
+	/**
+	 * Intersection of two sorted arrays.
+	 *
+	 * @param postings1  First postings, sorted.
+	 *
+	 * @param postings2  Second postings, sorted.
+	 *
+	 * @return  Postings contained in both arrays, sorted.
+	 */
+	protected static long[] intersect(long[] postings1, long[] postings2) {
+
+		IndexSegment.PostingList result = new IndexSegment.PostingList();
+
+		int i1 = 0;
+		int i2 = 0;
+		while (i1 < postings1.length && i2 < postings2.length) {
+
+			if (postings1[i1] < postings2[i2]) {
+
+				i1++;
+
+			} else if (postings1[i1] > postings2[i2]) {
+
+				i2++;
+
+			} else {
+
+				result.add(postings1[i1]);
+				i1++;
+				i2++;
+			}
+		}
+
+		return result.toSortedArray();
+	}
+
+
+	/**
+	 * Split a text into terms: maximal sequences of letters and digits, in lower case; terms shorter than
+	 * {@value #MIN_TERM_LENGTH} or longer than {@value #MAX_TERM_LENGTH} chars are skipped.
+	 *
+	 * @param text  Text of title, question or answer option; may be {@code null}.
+	 *
+	 * @return  Terms in order of occurrence, may contain duplicates.
+	 */
+	public static List<String> tokenize(String text) {
+
+		List<String> terms = new ArrayList<String>();
+		if (text == null) { return terms; }
+
+		StringBuilder sb = new StringBuilder();
+
+		int i = 0;
+		while (i < text.length()) {
+
+			int codePoint = text.codePointAt(i);
+			i += Character.charCount(codePoint);
+
+			if (Character.isLetterOrDigit(codePoint)) {
+
+				sb.appendCodePoint(codePoint);
+
+			} else {
+
+				addTerm(terms, sb);
+			}
+		}
+
+		addTerm(terms, sb);
+
+		return terms;
+	}
+
+
+	/**
+	 * Add the chars collected by {@link #tokenize(String)} as term, if the length is allowed, then clear them.
+	 *
+	 * @param terms  Terms found so far.
+	 *
+	 * @param sb  Letters and digits of a word.
+	 */
+	protected static void addTerm(List<String> terms, StringBuilder sb) {
+
+		if (sb.length() >= MIN_TERM_LENGTH && sb.length() <= MAX_TERM_LENGTH) {
+
+			terms.add( sb.toString().toLowerCase(Locale.ROOT) );
+		}
+
+		sb.setLength(0);
+	}
+
+
+	/**
+	 * Get segment, map it on first use.
+	 *
+	 * @param segmentName  File name of segment.
+	 *
+	 * @return  Mapped segment.
+	 *
+	 * @throws KahootException  Segment could not be opened.
+	 */
+	protected IndexSegment getSegment(String segmentName) throws KahootException {
+
+		IndexSegment segment = _openSegmentMap.get(segmentName);
+		if (segment == null) {
+
+			segment = IndexSegment.open( _indexFolder.resolve(segmentName) );
+			_openSegmentMap.put(segmentName, segment);
+		}
+
+		return segment;
+	}
+
+
+	/**
+	 * Get numbers of the games in the manifest.
+	 *
+	 * @return  Set bit for each game.
+	 */
+	protected BitSet getLiveGames() {
+
+		BitSet liveGames = new BitSet(_nextNumberOfGame);
+		for (IndexedGame game: _gameMap.values()) {
+
+			liveGames.set(game._numberOfGame);
+		}
+
+		return liveGames;
+	}
+
+
+	/**
+	 * Replace the chars that separate fields and lines by blanks.
+	 *
+	 * @param text  Title of a game.
+	 *
+	 * @return  Text without tabs and line breaks.
+	 */
+	protected static String escape(String text) {
+
+		return text == null ? "" : text.replace('\t', ' ').replace('\r', ' ').replace('\n', ' ');
+	}
+
+
+	/**
+	 * Normalize path of a xlsx file, so that the same file is found under another relative path.
+	 *
+	 * @param path  Path as given for indexing.
+	 *
+	 * @return  Absolute path without redundant elements like {@code ./}.
+	 */
+	protected static String normalizePath(String path) {
+
+		return Paths.get(path).toAbsolutePath().normalize().toString();
+	}
+
+
+	/**
+	 * Getter for number of games.
+	 *
+	 * @return  Number of games in the index.
+	 */
+	public int getNumberOfGames() {
+
+		return _gameMap.size();
+	}
+
+
+	/**
+	 * Getter for number of segments.
+	 *
+	 * @return  Number of segment files in the manifest.
+	 */
+	public int getNumberOfSegments() {
+
+		return _segmentMap.size();
+	}
+
+
+	/**
+	 * Getter for number of files read by the last update.
+	 *
+	 * @return  Number of new or changed files indexed.
+	 */
+	public int getNumberOfFilesIndexed() {
+
+		return _numberOfFilesIndexed;
+	}
+
+
+	/**
+	 * Getter for number of files not read by the last update.
+	 *
+	 * @return  Number of files indexed before and not changed since.
+	 */
+	public int getNumberOfFilesUnchanged() {
+
+		return _numberOfFilesUnchanged;
+	}
+
+
+	/**
+	 * Statistics of the last update.
+	 *
+	 * @return  Number of games and segments, files indexed, unchanged, failed and games removed.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "Index \"%s\": %d games in %d segments, %d files indexed, %d unchanged, %d failed, %d games removed%s.",
+		                      _indexFolder, _gameMap.size(), _segmentMap.size(), _numberOfFilesIndexed, _numberOfFilesUnchanged,
+		                      _numberOfFilesFailed, _numberOfGamesRemoved, _segmentsMerged ? ", segments merged" : "" );
+	}
+
+}
@@ -0,0 +1,8 @@
+/**
+ * This package contains the full-text index over the question and answer texts of many result files (option {@code --index}),
+ * which finds all games with a question containing some words (option {@code --search}) without opening any xlsx file.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+package de.mide.kahoot.result2word.index;
@@ -62,6 +62,16 @@ public class AnswerOption {
 	protected static String i18nAnswerOptionWrong = "";
 	
 	
+	/**
+	 * Forget the i18n texts loaded so far, must be called after another language was loaded.
+	 */
+	public static void resetTranslatedTexts() {
+		
+		i18nAnswerOptionRight = "";
+		i18nAnswerOptionWrong = "";
+	}
+	
+	
 	
 	/**
 	 * Getter for text saying whether the answer option of this object is right or false.
@@ -71,6 +81,11 @@ public class AnswerOption {
 	 */
 	public String getAnswerOptionIsRightAsString() {
 		
+		if ( TranslatedTextsProvider.hasResourceBundleForCurrentThread() ) { // language of this thread, not cached
+			
+			return TranslatedTextsProvider.getTextByKey( getAnswerOptionIsRight() ? "right" : "wrong" );
+		}
+		
 		if ( getAnswerOptionIsRight() ) {
 			
 			if (i18nAnswerOptionRight.length() == 0) {
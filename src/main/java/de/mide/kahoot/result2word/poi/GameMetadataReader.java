@@ -0,0 +1,454 @@
+package de.mide.kahoot.result2word.poi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import de.mide.kahoot.result2word.catalog.GameMetadata;
+import de.mide.kahoot.result2word.poi.StreamingWorkbook.StopParsingException;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Reads only the metadata of a Kahoot result file for option {@code --scan}: the list of sheets from
+ * {@code workbook.xml} and the cells A1 (title), B2 ("Played on"), B3 ("Hosted by") and B4 ("Played with")
+ * of the first sheet "Overview". The question sheets and the sheet with the raw data of all answers are not
+ * opened at all, and parsing of the Overview sheet stops after its fourth row. Of the shared strings table only
+ * the strings referenced by these cells are kept, parsing stops after the last of them.
+ * <br><br>
+ *
+ * The parts are read directly from the ZIP archive instead of opening it as package with POI, which would parse
+ * the content types and all relationships first and takes longer than reading the metadata itself.
+ * <br><br>
+ *
+ * The number of questions is the number of sheets minus the four sheets that are not questions
+ * (Overview, Final Scores, Kahoot! Summary and RawReportData).
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class GameMetadataReader {
+
+	/** Number of sheets of a result file that are not questions. */
+	protected static final int NUMBER_OF_SHEETS_WITHOUT_QUESTIONS = 4;
+
+	/** Highest 0-based row index read from the Overview sheet (row 4 with "Played with"). */
+	protected static final int MAX_ROW_INDEX = 3;
+
+	/** Name of the part with the list of sheets. */
+	protected static final String WORKBOOK_PART_NAME = "xl/workbook.xml";
+
+	/** Name of the part with the relationships of the workbook, i.e. the names of the parts of the sheets. */
+	protected static final String WORKBOOK_RELATIONSHIPS_PART_NAME = "xl/_rels/workbook.xml.rels";
+
+	/** Name of the part with the shared strings table if the relationships do not name it. */
+	protected static final String DEFAULT_SHARED_STRINGS_PART_NAME = "xl/sharedStrings.xml";
+
+	/** Formats of the "Played on" cell when it contains text, e.g. "23 Dec 2019". */
+	protected static final DateTimeFormatter[] PLAYED_ON_FORMATS = {
+			DateTimeFormatter.ofPattern("d MMM yyyy",  Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("yyyy-MM-dd",  Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("d.M.yyyy",    Locale.ENGLISH),
+			DateTimeFormatter.ofPattern("M/d/yyyy",    Locale.ENGLISH)
+	};
+
+
+	/**
+	 * SAX handler collecting the relationship ids of the sheets from {@code workbook.xml}.
+	 */
+	protected static class WorkbookCollector extends DefaultHandler {
+
+		/** Relationship ids of the sheets in the order of the workbook. */
+		protected final List<String> _sheetRelationshipIds = new ArrayList<String>();
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+
+			if (localName.equals("sheet")) {
+
+				_sheetRelationshipIds.add( attributes.getValue("http://schemas.openxmlformats.org/officeDocument/2006/relationships", "id") );
+
+			} else if (localName.equals("calcPr") || localName.equals("definedNames")) {
+
+				throw new StopParsingException(); // element "sheets" is complete
+			}
+		}
+	}
+
+
+	/**
+	 * SAX handler collecting the part names of the relationships of the workbook.
+	 */
+	protected static class RelationshipsCollector extends DefaultHandler {
+
+		/** Part names, key is the relationship id. */
+		protected final Map<String, String> _partNames = new HashMap<String, String>();
+
+		/** Part name of the shared strings table. */
+		protected String _sharedStringsPartName = DEFAULT_SHARED_STRINGS_PART_NAME;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+
+			if (!localName.equals("Relationship")) { return; }
+
+			String target   = attributes.getValue("Target");
+			String partName = target.startsWith("/") ? target.substring(1) : "xl/" + target;
+
+			_partNames.put( attributes.getValue("Id"), partName );
+
+			if (attributes.getValue("Type").endsWith("/sharedStrings")) { _sharedStringsPartName = partName; }
+		}
+	}
+
+
+	/**
+	 * Raw value of one cell of the Overview sheet.
+	 */
+	protected static class RawCell {
+
+		/** Value of attribute {@code t}, {@code null} for a number. */
+		protected String _type = null;
+
+		/** Text of element {@code v} or of the inline string. */
+		protected final StringBuilder _text = new StringBuilder();
+	}
+
+
+	/**
+	 * SAX handler keeping the raw values of the cells in column A and B of the first rows.
+	 */
+	protected static class OverviewCollector extends DefaultHandler {
+
+		/** Cells kept, key is the reference, e.g. "B2". */
+		protected final Map<String, RawCell> _cells = new HashMap<String, RawCell>();
+
+		/** Current cell, {@code null} if it is not kept. */
+		protected RawCell _currentCell = null;
+
+		/** True while inside an element whose text is to be collected. */
+		protected boolean _collectText = false;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+
+			switch (localName) {
+
+				case "row":
+					String rowNumber = attributes.getValue("r");
+					if (rowNumber != null && Integer.parseInt(rowNumber) - 1 > MAX_ROW_INDEX) { throw new StopParsingException(); }
+					break;
+
+				case "c":
+					String reference = attributes.getValue("r");
+					_currentCell = null;
+					if ( reference != null && (reference.startsWith("A") || reference.startsWith("B")) && reference.length() == 2 ) {
+
+						_currentCell = new RawCell();
+						_currentCell._type = attributes.getValue("t");
+						_cells.put(reference, _currentCell);
+					}
+					break;
+
+				case "v":
+				case "t":
+					_collectText = _currentCell != null;
+					break;
+
+				default:
+					break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+
+			if (_collectText) { _currentCell._text.append(ch, start, length); }
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+
+			if ( localName.equals("v") || localName.equals("t") ) { _collectText = false; }
+		}
+	}
+
+
+	/**
+	 * SAX handler reading some entries of the shared strings table, stops after the highest index wanted.
+	 */
+	protected static class SharedStringsCollector extends DefaultHandler {
+
+		/** Indexes wanted, mapped to their text; texts are {@code null} until the entry was read. */
+		protected final TreeMap<Integer, String> _strings;
+
+		/** Index of current entry {@code si}. */
+		protected int _index = -1;
+
+		/** Text of the current entry, {@code null} if the entry is not wanted. */
+		protected StringBuilder _text = null;
+
+		/** True while inside element {@code t} of the entry (not of a phonetic run {@code rPh}). */
+		protected boolean _collectText = false;
+
+		/** True while inside element {@code rPh}. */
+		protected boolean _insidePhoneticRun = false;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param strings  Indexes wanted, must not be empty.
+		 */
+		protected SharedStringsCollector(TreeMap<Integer, String> strings) {
+
+			_strings = strings;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+
+			switch (localName) {
+
+				case "si":
+					_index++;
+					if (_index > _strings.lastKey()) { throw new StopParsingException(); }
+					_text = _strings.containsKey(_index) ? new StringBuilder() : null;
+					break;
+
+				case "rPh":
+					_insidePhoneticRun = true;
+					break;
+
+				case "t":
+					_collectText = _text != null && !_insidePhoneticRun;
+					break;
+
+				default:
+					break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+
+			if (_collectText) { _text.append(ch, start, length); }
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+
+			switch (localName) {
+
+				case "t":
+					_collectText = false;
+					break;
+
+				case "rPh":
+					_insidePhoneticRun = false;
+					break;
+
+				case "si":
+					if (_text != null) { _strings.put(_index, _text.toString()); }
+					break;
+
+				default:
+					break;
+			}
+		}
+	}
+
+
+	/**
+	 * Read metadata of a Kahoot result file.
+	 *
+	 * @param xlsxFile  Xlsx file.
+	 *
+	 * @return  Metadata with size and modification time of the file.
+	 *
+	 * @throws KahootException  File is not a workbook, or has less sheets than a Kahoot result file.
+	 */
+	public static GameMetadata read(File xlsxFile) throws KahootException {
+
+		long fileSize     = xlsxFile.length();
+		long lastModified = xlsxFile.lastModified();
+
+		try (ZipFile zipFile = new ZipFile(xlsxFile)) {
+
+			WorkbookCollector workbook = new WorkbookCollector();
+			parse(zipFile, WORKBOOK_PART_NAME, workbook);
+
+			int numberOfSheets = workbook._sheetRelationshipIds.size();
+			if (numberOfSheets < NUMBER_OF_SHEETS_WITHOUT_QUESTIONS) {
+
+				throw new KahootException("File \"" + xlsxFile + "\" has only " + numberOfSheets + " sheets, this is not a Kahoot result file.");
+			}
+
+			RelationshipsCollector relationships = new RelationshipsCollector();
+			parse(zipFile, WORKBOOK_RELATIONSHIPS_PART_NAME, relationships);
+
+			OverviewCollector overview = new OverviewCollector();
+			parse(zipFile, relationships._partNames.get( workbook._sheetRelationshipIds.get(0) ), overview);
+
+			Map<String, String> texts = resolveTexts(zipFile, relationships._sharedStringsPartName, overview._cells);
+
+			String playedOn = texts.getOrDefault("B2", "");
+
+			return new GameMetadata( xlsxFile.getPath(), fileSize, lastModified,
+			                         texts.getOrDefault("A1", ""),
+			                         playedOn,
+			                         parsePlayedOn(playedOn, overview._cells.get("B2")),
+			                         texts.getOrDefault("B3", ""),
+			                         texts.getOrDefault("B4", ""),
+			                         numberOfSheets - NUMBER_OF_SHEETS_WITHOUT_QUESTIONS );
+		}
+		catch (KahootException ex) {
+
+			throw ex;
+		}
+		catch (Exception ex) {
+
+			throw new KahootException("Error when trying to read metadata of input file \"" + xlsxFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Get the texts of the cells, reading the entries of the shared strings table referenced by them.
+	 *
+	 * @param zipFile  Xlsx file.
+	 *
+	 * @param sharedStringsPartName  Name of the part with the shared strings table.
+	 *
+	 * @param cells  Raw values of the cells.
+	 *
+	 * @return  Texts of the cells that are not blank, key is the reference of the cell.
+	 *
+	 * @throws Exception  Shared strings table could not be read.
+	 */
+	protected static Map<String, String> resolveTexts(ZipFile zipFile, String sharedStringsPartName, Map<String, RawCell> cells) throws Exception {
+
+		TreeMap<Integer, String> sharedStrings = new TreeMap<Integer, String>();
+		for (RawCell cell: cells.values()) {
+
+			if ("s".equals(cell._type) && cell._text.length() > 0) { sharedStrings.put( Integer.parseInt(cell._text.toString().trim()), null ); }
+		}
+
+		if (!sharedStrings.isEmpty()) {
+
+			parse( zipFile, sharedStringsPartName, new SharedStringsCollector(sharedStrings) );
+		}
+
+		Map<String, String> texts = new HashMap<String, String>();
+		for (Map.Entry<String, RawCell> entry: cells.entrySet()) {
+
+			RawCell cell = entry.getValue();
+			if (cell._text.length() == 0) { continue; }
+
+			String text = "s".equals(cell._type) ? sharedStrings.get( Integer.parseInt(cell._text.toString().trim()) ) : cell._text.toString();
+			if (text != null) { texts.put( entry.getKey(), text.trim() ); }
+		}
+
+		return texts;
+	}
+
+
+	/**
+	 * Parse a part with SAX until the handler stops parsing.
+	 *
+	 * @param zipFile  Xlsx file.
+	 *
+	 * @param partName  Name of part to be parsed, e.g. {@code xl/workbook.xml}.
+	 *
+	 * @param handler  Handler which may throw {@link StopParsingException}.
+	 *
+	 * @throws IOException  Part does not exist or could not be read.
+	 *
+	 * @throws SAXException  Part is not valid XML.
+	 *
+	 * @throws ParserConfigurationException  No SAX parser.
+	 */
+	protected static void parse(ZipFile zipFile, String partName, DefaultHandler handler) throws IOException, SAXException, ParserConfigurationException {
+
+		ZipEntry zipEntry = partName != null ? zipFile.getEntry(partName) : null;
+		if (zipEntry == null) { throw new IOException("Part \"" + partName + "\" not found."); }
+
+		try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+
+			XMLReader xmlReader = SAXHelper.newXMLReader();
+			xmlReader.setContentHandler(handler);
+			xmlReader.parse( new InputSource(inputStream) );
+		}
+		catch (StopParsingException ex) {
+
+			// all data needed was read
+		}
+	}
+
+
+	/**
+	 * Get the date of the game from the "Played on" cell, which contains a text like "23 Dec 2019"
+	 * or an Excel date.
+	 *
+	 * @param playedOn  Text of cell.
+	 *
+	 * @param rawCell  Raw value of cell, {@code null} if the cell does not exist.
+	 *
+	 * @return  Date, or empty if it could not be recognized.
+	 */
+	protected static Optional<LocalDate> parsePlayedOn(String playedOn, RawCell rawCell) {
+
+		if (rawCell != null && (rawCell._type == null || rawCell._type.equals("n")) && !playedOn.isEmpty()) {
+
+			try {
+				double excelDate = Double.parseDouble(playedOn);
+				if (DateUtil.isValidExcelDate(excelDate)) {
+
+					return Optional.of( DateUtil.getJavaDate(excelDate).toInstant().atZone(ZoneId.systemDefault()).toLocalDate() );
+				}
+			}
+			catch (NumberFormatException ex) {
+
+				// not a number
+			}
+		}
+
+		for (DateTimeFormatter format: PLAYED_ON_FORMATS) {
+
+			try {
+				return Optional.of( LocalDate.parse(playedOn, format) );
+			}
+			catch (DateTimeParseException ex) {
+
+				// try next format
+			}
+		}
+
+		return Optional.empty();
+	}
+
+}
@@ -7,12 +7,17 @@ import static de.mide.kahoot.result2word.utils.TranslatedTextsProvider.getTextBy
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
 import org.apache.poi.xwpf.model.XWPFHeaderFooterPolicy;
+import org.apache.poi.xwpf.usermodel.BodyElementType;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFFooter;
@@ -23,12 +28,15 @@ import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 
+import de.mide.kahoot.result2word.cache.RenderedSectionCache;
+import de.mide.kahoot.result2word.cache.RenderedSectionCache.SectionFragment;
 import de.mide.kahoot.result2word.model.AbstractQuestion;
 import de.mide.kahoot.result2word.model.AnswerOption;
 import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
 import de.mide.kahoot.result2word.model.QuestionList;
 import de.mide.kahoot.result2word.model.QuestionTypeEnum;
 import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.utils.CancellationToken;
 import de.mide.kahoot.result2word.utils.CmdLineArgsParser;
 import de.mide.kahoot.result2word.utils.KahootException;
 
@@ -54,8 +62,20 @@ public class KahootResultDocxWriter {
 	/** Path where target file (docx) is to be written, must end with suffix {@code .docx}. */
 	protected String _pathForWordFile = "";
 
-	/** Command line options */
-	protected CommandLine _cmdLine = null;
+	/** Begin each question except the first one on a new page, see {@link CmdLineArgsParser#CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE}. */
+	protected boolean _newPageForEachQuestion = false;
+
+	/** Write percentage of players who gave the right answer, see {@link CmdLineArgsParser#CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE}. */
+	protected boolean _writePercentage = false;
+
+	/** Text for header on each page, see {@link CmdLineArgsParser#CMDLINE_OPTION_LETTER_T_FOR_TOPLINE}. */
+	protected Optional<String> _toplineTextOptional = Optional.empty();
+
+	/** Token checked before each question, by default the token of the thread that created the writer. */
+	protected CancellationToken _cancellationToken = CancellationToken.getCurrent();
+
+	/** Cache of the rendered question sections, by default the cache shared by all writers (see {@link RenderedSectionCache#getDefault()}). */
+	protected Optional<RenderedSectionCache> _sectionCacheOptional = RenderedSectionCache.getDefault();
 
 
 	/**
@@ -71,14 +91,66 @@ public class KahootResultDocxWriter {
 	 */
 	public KahootResultDocxWriter(QuestionList questionList, String pathToWordResultFile, CommandLine cmdLine) throws KahootException {
 
+		this( questionList, pathToWordResultFile,
+		      cmdLine != null && cmdLine.hasOption(CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE),
+		      cmdLine != null && cmdLine.hasOption(CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE),
+		      CmdLineArgsParser.getToplineText() );
+	}
+
+
+	/**
+	 * Create new object with options that are not taken from the command line, e.g. for applications that
+	 * convert files in-process.
+	 *
+	 * @param questionList  Object with data extracted from Kahoot Result file.
+	 *
+	 * @param pathToWordResultFile  Path of Word file to be written as result, must end with suffix {@code .docx};
+	 *                              only used for error messages if the document is written with {@link #writeResultFile(OutputStream)}.
+	 *
+	 * @param newPageForEachQuestion  Begin each question except the first one on a new page.
+	 *
+	 * @param writePercentage  Write percentage of players who gave the right answer for each question.
+	 *
+	 * @param toplineTextOptional  Text for header on each page, or empty for no header.
+	 *
+	 * @throws KahootException  {@code pathToWordResultFile} does not end with {@code .docx}.
+	 */
+	public KahootResultDocxWriter(QuestionList questionList, String pathToWordResultFile,
+			                      boolean newPageForEachQuestion, boolean writePercentage,
+			                      Optional<String> toplineTextOptional) throws KahootException {
+
 		if (pathToWordResultFile.endsWith(".docx") == false) {
 
 			throw new KahootException("Target file name \"" + pathToWordResultFile + "\" does not end with \".docx\".");
 		}
 
-		_questionList    = questionList;
-		_pathForWordFile = pathToWordResultFile;
-		_cmdLine         = cmdLine;
+		_questionList           = questionList;
+		_pathForWordFile        = pathToWordResultFile;
+		_newPageForEachQuestion = newPageForEachQuestion;
+		_writePercentage        = writePercentage;
+		_toplineTextOptional    = toplineTextOptional;
+	}
+
+
+	/**
+	 * Set token which is checked before each question is written.
+	 *
+	 * @param cancellationToken  Token, replaces the token of the thread that created the writer.
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+
+		_cancellationToken = cancellationToken;
+	}
+
+
+	/**
+	 * Set cache of the rendered question sections.
+	 *
+	 * @param sectionCache  Cache, replaces the default cache; {@code null} to render each section.
+	 */
+	public void setRenderedSectionCache(RenderedSectionCache sectionCache) {
+
+		_sectionCacheOptional = Optional.ofNullable(sectionCache);
 	}
 
 
@@ -89,26 +161,65 @@ public class KahootResultDocxWriter {
 	 */
 	public void writeResultFile() throws KahootException {
 
-		XWPFDocument wordDocument = new XWPFDocument();
+		XWPFDocument wordDocument = createWordDocument();
 
-		writeDocumentTitle(wordDocument);
+		_cancellationToken.throwIfCancelledBeforeWriting("before writing \"" + _pathForWordFile + "\"");
 
-		loopOverAllQuestions(wordDocument);
+		try {
+			writeFileToDisk(wordDocument);
+		}
+		catch (IOException ex) {
 
-		addHeaderAndFooter(wordDocument);
+			throw new KahootException("I/O Error when writing docx file \"" + _pathForWordFile + "\".", ex);
+		}
+	}
 
-		setMetadata(wordDocument);
+
+	/**
+	 * Write result to a stream instead of the file passed to the constructor, e.g. to render the document
+	 * into memory and write it to disk later.
+	 *
+	 * @param outputStream  Stream to which the docx document is written, is not closed.
+	 *
+	 * @throws KahootException  Error when creating or writing the document.
+	 */
+	public void writeResultFile(OutputStream outputStream) throws KahootException {
+
+		XWPFDocument wordDocument = createWordDocument();
 
 		try {
-			writeFileToDisk(wordDocument);
+			wordDocument.write(outputStream);
 		}
 		catch (IOException ex) {
 
-			throw new KahootException("I/O Error when writing docx file \"" + _pathForWordFile + "\".", ex);
+			throw new KahootException("I/O Error when writing docx document \"" + _pathForWordFile + "\".", ex);
 		}
 	}
 
 
+	/**
+	 * Create the Word document with title, all questions, header/footer and metadata.
+	 *
+	 * @return  Document in memory, not yet written.
+	 *
+	 * @throws KahootException  Error when creating the document.
+	 */
+	protected XWPFDocument createWordDocument() throws KahootException {
+
+		XWPFDocument wordDocument = new XWPFDocument();
+
+		writeDocumentTitle(wordDocument);
+
+		loopOverAllQuestions(wordDocument);
+
+		addHeaderAndFooter(wordDocument);
+
+		setMetadata(wordDocument);
+
+		return wordDocument;
+	}
+
+
 	/**
 	 * Set some meta data values in the word document.
 	 *
@@ -138,7 +249,7 @@ public class KahootResultDocxWriter {
 
 	/**
 	 * Add footer on each page with "Page X of Y" with field expression.
-	 * Header is only added when a topline was supplied via command line argument
+	 * Header is only added when a topline was supplied, e.g. via command line argument
 	 * {@link CmdLineArgsParser#CMDLINE_OPTION_LETTER_T_FOR_TOPLINE}
 	 * <br><br>
 	 *
@@ -150,8 +261,7 @@ public class KahootResultDocxWriter {
 
 		XWPFHeaderFooterPolicy headerFooterPolicy = wordDocument.createHeaderFooterPolicy();
 
-		Optional<String> toplineTextOptional = CmdLineArgsParser.getToplineText();
-		if (toplineTextOptional.isPresent()) {
+		if (_toplineTextOptional.isPresent()) {
 
 			XWPFHeader header = headerFooterPolicy.createHeader(XWPFHeaderFooterPolicy.DEFAULT);
 
@@ -160,7 +270,7 @@ public class KahootResultDocxWriter {
 			headerParagraph.setAlignment(ParagraphAlignment.CENTER);
 
 			XWPFRun headerRun = headerParagraph.createRun();
-			headerRun.setText( toplineTextOptional.get() );
+			headerRun.setText( _toplineTextOptional.get() );
 		}
 
 
@@ -188,44 +298,30 @@ public class KahootResultDocxWriter {
 	 *
 	 * @param wordDocument  Document into which the questions are to be written.
 	 *
-	 * @throws KahootException  Something went wrong.
+	 * @throws KahootException  Something went wrong, or conversion was cancelled (see {@link #setCancellationToken(CancellationToken)}).
 	 */
 	protected void loopOverAllQuestions(XWPFDocument wordDocument) throws KahootException {
 
-		TrueFalseQuestion              trueFalseQuestion         = null;
-		MultipleOrSingleChoiceQuestion multiSingleChoiceQuestion = null;
-
-
 		int numberOfQuestions = _questionList.getNumberOfQuestions();
 
 		for (int index = 0; index < numberOfQuestions; index++) {
 
-			writeQuestionTitle(wordDocument, index + 1);
+			_cancellationToken.throwIfCancelled("before question " + (index + 1) + " of \"" + _pathForWordFile + "\"");
 
-			QuestionTypeEnum questionType = _questionList.getTypeOfQuestion(index);
+			writeQuestionTitle(wordDocument, index + 1);
 
-			AbstractQuestion abstractQuestion = null;
+			AbstractQuestion abstractQuestion = _questionList.getQuestion(index);
 
-			switch(questionType) {
+			if (_sectionCacheOptional.isPresent()) {
 
-				case TRUE_OR_FALSE:
-					trueFalseQuestion = _questionList.getTrueOrFalseQuestion(index);
-					writeTrueFalseQuestion(wordDocument, trueFalseQuestion);
-					abstractQuestion = trueFalseQuestion;
-					break;
+				writeQuestionSectionWithCache(wordDocument, index, _sectionCacheOptional.get());
 
-				case MULTIPLE_CHOICE:
-				case SINGLE_CHOICE:
-					multiSingleChoiceQuestion = _questionList.getMultiSingleChoiceQuestion(index);
-					writeMultiSingleChoiceQuestion(wordDocument, multiSingleChoiceQuestion);
-					abstractQuestion = multiSingleChoiceQuestion;
-					break;
+			} else {
 
-				default:
-					throw new KahootException("Unexcepted type of question: " + questionType);
+				writeQuestionSection(wordDocument, index);
 			}
 
-			if ( _cmdLine.hasOption(CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE) ) {
+			if (_writePercentage) {
 
 				writePercentageAnswersCorrect(wordDocument, abstractQuestion);
 			}
@@ -234,6 +330,134 @@ public class KahootResultDocxWriter {
 	}
 
 
+	/**
+	 * Write the section of a question below its title, i.e. the statement of a True/False question
+	 * or the text and the table with the answer options of the other questions.
+	 *
+	 * @param wordDocument  Document into which the section is to be written.
+	 *
+	 * @param index  0-based index of question in question list.
+	 *
+	 * @throws KahootException  Unexpected type of question.
+	 */
+	protected void writeQuestionSection(XWPFDocument wordDocument, int index) throws KahootException {
+
+		QuestionTypeEnum questionType = _questionList.getTypeOfQuestion(index);
+
+		switch(questionType) {
+
+			case TRUE_OR_FALSE:
+				writeTrueFalseQuestion(wordDocument, _questionList.getTrueOrFalseQuestion(index));
+				break;
+
+			case MULTIPLE_CHOICE:
+			case SINGLE_CHOICE:
+				writeMultiSingleChoiceQuestion(wordDocument, _questionList.getMultiSingleChoiceQuestion(index));
+				break;
+
+			default:
+				throw new KahootException("Unexcepted type of question: " + questionType);
+		}
+	}
+
+
+	/**
+	 * Splice the section of a question from {@code sectionCache} into the document; if it is not cached yet,
+	 * render it with {@link #writeQuestionSection(XWPFDocument, int)} and add copies of the new body elements
+	 * to the cache.
+	 *
+	 * @param wordDocument  Document into which the section is to be written.
+	 *
+	 * @param index  0-based index of question in question list.
+	 *
+	 * @param sectionCache  Cache of the rendered sections.
+	 *
+	 * @throws KahootException  Unexpected type of question.
+	 */
+	protected void writeQuestionSectionWithCache(XWPFDocument wordDocument, int index, RenderedSectionCache sectionCache) throws KahootException {
+
+		String key = RenderedSectionCache.computeKey( getSectionContent(_questionList.getQuestion(index)) );
+
+		Optional<List<SectionFragment>> fragmentsOptional = sectionCache.get(key);
+		if (fragmentsOptional.isPresent()) {
+
+			for (SectionFragment fragment: fragmentsOptional.get()) {
+
+				if (fragment.isTable()) {
+
+					wordDocument.createTable().getCTTbl().set( fragment.getXmlObject() );
+
+				} else {
+
+					wordDocument.createParagraph().getCTP().set( fragment.getXmlObject() );
+				}
+			}
+			return;
+		}
+
+		int numberOfElementsBefore = wordDocument.getBodyElements().size();
+
+		writeQuestionSection(wordDocument, index);
+
+		List<IBodyElement>    newElements = wordDocument.getBodyElements().subList( numberOfElementsBefore, wordDocument.getBodyElements().size() );
+		List<SectionFragment> fragments   = new ArrayList<SectionFragment>( newElements.size() );
+
+		for (IBodyElement element: newElements) {
+
+			if (element.getElementType() == BodyElementType.TABLE) {
+
+				fragments.add( new SectionFragment(true, ((XWPFTable) element).getCTTbl()) );
+
+			} else {
+
+				fragments.add( new SectionFragment(false, ((XWPFParagraph) element).getCTP()) );
+			}
+		}
+
+		sectionCache.put(key, fragments);
+	}
+
+
+	/**
+	 * Get all texts the section of a question depends on, as input for {@link RenderedSectionCache#computeKey(String)}.
+	 * The translated texts are part of it, so a section rendered in another language has another key.
+	 *
+	 * @param question  Question from question list.
+	 *
+	 * @return  Type and text of question, translated texts and answer options, separated by char 0.
+	 *
+	 * @throws KahootException  Internal error has occured
+	 */
+	protected String getSectionContent(AbstractQuestion question) throws KahootException {
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append( question.getQuestionType() ).append('\0');
+		sb.append( question.getQuestionText() ).append('\0');
+
+		if (question.isTrueOrFalseQuestion()) {
+
+			sb.append( getTextByKey("statementTrueOrFalse") ).append('\0');
+			sb.append( getTextByKey("theStatementIs")       ).append('\0');
+			sb.append( getTextByKey( ((TrueFalseQuestion) question).isStatementTrue() ? "right" : "wrong" ) );
+
+		} else {
+
+			MultipleOrSingleChoiceQuestion choiceQuestion = (MultipleOrSingleChoiceQuestion) question;
+
+			for (int i = 1; i <= choiceQuestion.getNumberOfAnswerQuestions(); i++) {
+
+				AnswerOption answerOption = choiceQuestion.getAnswerOption(i);
+
+				sb.append( answerOption.getAnswerOptionText()           ).append('\0');
+				sb.append( answerOption.getAnswerOptionIsRightAsString() ).append('\0');
+			}
+		}
+
+		return sb.toString();
+	}
+
+
 	/**
 	 * Write a single True/False question into the Word document.
 	 *
@@ -384,7 +608,7 @@ public class KahootResultDocxWriter {
 
 		XWPFParagraph paragraph = wordDocument.createParagraph();
 
-		if ( questionNumber != 1 && _cmdLine.hasOption(CMDLINE_OPTION_LETTER_N_FOR_NEWPAGE) ) {
+		if ( questionNumber != 1 && _newPageForEachQuestion ) {
 
 			paragraph.setPageBreak(true); // paragraph to begin on new page
 		}
@@ -410,6 +634,23 @@ public class KahootResultDocxWriter {
 	 */
 	protected void writeDocumentTitle(XWPFDocument wordDocument) {
 
+		String i18nText = getTextByKey("wordDocTitle"); // Questions and answers for Kahoot game:
+
+		writeDocumentTitle(wordDocument, i18nText, _questionList.getTitle());
+	}
+
+
+	/**
+	 * Add title paragraph with two lines to word document, in the format of the title of the Kahoot game.
+	 *
+	 * @param wordDocument  Word document to which title paragraph is to be added.
+	 *
+	 * @param firstLine  First line of title.
+	 *
+	 * @param secondLine  Second line of title.
+	 */
+	protected void writeDocumentTitle(XWPFDocument wordDocument, String firstLine, String secondLine) {
+
 		XWPFParagraph paragraph = wordDocument.createParagraph();
 		paragraph.setAlignment(ParagraphAlignment.CENTER);
 
@@ -418,11 +659,10 @@ public class KahootResultDocxWriter {
 		run.setFontSize(18);
 		run.setBold(true);
 
-		String i18nText = getTextByKey("wordDocTitle"); // Questions and answers for Kahoot game:
-		run.setText(i18nText);
+		run.setText(firstLine);
 		run.addBreak();
 
-		run.setText( _questionList.getTitle() );
+		run.setText(secondLine);
 		run.addBreak();
 		run.addBreak();
 	}
@@ -1,9 +1,17 @@
 package de.mide.kahoot.result2word.poi;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Optional;
 
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xssf.usermodel.XSSFCell;
 import org.apache.poi.xssf.usermodel.XSSFRow;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -14,8 +22,14 @@ import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
 import de.mide.kahoot.result2word.model.QuestionList;
 import de.mide.kahoot.result2word.model.QuestionTypeEnum;
 import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.CellSymbolEnum;
 import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.ResourceLimitExceededException;
+import de.mide.kahoot.result2word.utils.StringInternPool;
 import de.mide.kahoot.result2word.utils.StringUtils;
+import de.mide.kahoot.result2word.utils.XlsxPackageInfo;
+import de.mide.kahoot.result2word.utils.XlsxResourceLimits;
 
 
 /**
@@ -28,6 +42,12 @@ import de.mide.kahoot.result2word.utils.StringUtils;
  * in Xlsx file is number of sheets minus 4.
  * <br><br>
  *
+ * Before the workbook is parsed, the sizes stated in the ZIP central directory are checked against
+ * {@link XlsxResourceLimits}, so that zip bombs and oversized files are rejected at once. The sizes also
+ * determine the engine (see {@link ReaderEngineSelector}): small files are loaded completely into a
+ * {@code XSSFWorkbook}, large files are streamed sheet by sheet with {@link StreamingWorkbook}.
+ * <br><br>
+ *
  * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
  */
 public class KahootResultXlsxReader {
@@ -84,19 +104,91 @@ public class KahootResultXlsxReader {
 	protected static final int COL_INDEX_TITLE = 0;
 
 
-	/** Object representing the whole XLSX file which consists of several sheets. */
+	/** Object representing the whole XLSX file which consists of several sheets; {@code null} with the streaming engine. */
 	protected XSSFWorkbook _excelWorkbook = null;
 
+	/** Workbook read by the streaming engine, empty with the DOM engine. */
+	protected Optional<StreamingWorkbook> _streamingWorkbookOptional = Optional.empty();
+
+	/** Engine chosen by {@link ReaderEngineSelector} for this input. */
+	protected ReaderEngineEnum _readerEngine = ReaderEngineEnum.DOM;
+
+	/** Central directory of the input, inspected before it was opened. */
+	protected XlsxPackageInfo _packageInfo = null;
+
+	/** Milliseconds needed to open the workbook. */
+	protected long _openMillis = 0;
+
+	/** Milliseconds needed by {@link #extractQuestionList()}. */
+	protected long _extractMillis = 0;
+
+	/** Write the number of question sheets and each question found to STDOUT, see {@link #setPrintQuestionsFound(boolean)}. */
+	protected boolean _printQuestionsFound = true;
+
+	/** Token checked before each sheet, by default the token of the thread that created the reader. */
+	protected CancellationToken _cancellationToken = CancellationToken.getCurrent();
+
+	/** Object to be notified about each question as soon as its sheet was decoded, see {@link #setExtractionListener(ExtractionListener)}. */
+	protected Optional<ExtractionListener> _extractionListenerOptional = Optional.empty();
+
+	/** Pool for title, question texts and answer options, by default {@link StringInternPool#getDefault()}. */
+	protected Optional<StringInternPool> _stringInternPoolOptional = StringInternPool.getDefault();
+
 
 	/**
-	 * Load Xlsx file with Kahoot results.
+	 * Interface for objects that process the title and the questions while the workbook is read,
+	 * e.g. to publish them as events.
+	 */
+	public interface ExtractionListener {
+
+		/**
+		 * Called before the first question is extracted.
+		 *
+		 * @param title  Title of the Kahoot game.
+		 *
+		 * @param numberOfQuestions  Number of sheets with questions.
+		 *
+		 * @throws KahootException  Extraction is to be aborted.
+		 */
+		void titleExtracted(String title, int numberOfQuestions) throws KahootException;
+
+		/**
+		 * Called as soon as the sheet of a question was decoded.
+		 *
+		 * @param questionNo  1-based number of question.
+		 *
+		 * @param question  Question extracted from sheet.
+		 *
+		 * @throws KahootException  Extraction is to be aborted.
+		 */
+		void questionExtracted(int questionNo, AbstractQuestion question) throws KahootException;
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results, checked against the default limits (see {@link XlsxResourceLimits#getDefault()}).
 	 *
 	 * @param pathToExcelFile  Relative path to Excel file with Kahoot results to be read.
 	 *
-	 * @throws KahootException  File was not found
+	 * @throws KahootException  File was not found, or exceeds a limit
 	 */
 	public KahootResultXlsxReader(String pathToExcelFile) throws KahootException {
 
+		this( pathToExcelFile, XlsxResourceLimits.getDefault() );
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results after checking its central directory against limits.
+	 *
+	 * @param pathToExcelFile  Relative path to Excel file with Kahoot results to be read.
+	 *
+	 * @param resourceLimits  Limits checked before the file is parsed.
+	 *
+	 * @throws KahootException  File was not found, or exceeds a limit ({@link ResourceLimitExceededException})
+	 */
+	public KahootResultXlsxReader(String pathToExcelFile, XlsxResourceLimits resourceLimits) throws KahootException {
+
 		File file = new File(pathToExcelFile);
 
 		if ( !file.exists() ) {
@@ -104,16 +196,237 @@ public class KahootResultXlsxReader {
 			throw new KahootException("Input file \"" + pathToExcelFile + "\" not found.");
 		}
 
+		long startNanos = System.nanoTime();
+
+		if ( selectEngine(XlsxPackageInfo.inspect(pathToExcelFile), resourceLimits) == ReaderEngineEnum.STREAMING ) {
+
+			_streamingWorkbookOptional = Optional.of( StreamingWorkbook.open(file) );
+
+		} else {
+
+			try (FileInputStream fis = new FileInputStream(file)) {
+
+				_excelWorkbook = new XSSFWorkbook(fis);
+			}
+			catch (Exception ex) {
+
+				throw new KahootException("Error when trying to read input file \"" + pathToExcelFile + "\".", ex);
+			}
+		}
+
+		_openMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results from a stream, e.g. from a buffer with the content of a file
+	 * that was already read into memory; checked against the default limits (see {@link XlsxResourceLimits#getDefault()}).
+	 *
+	 * @param inputStream  Stream with content of Xlsx file, will be read completely but not closed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. path of file the content was read from), for error messages.
+	 *
+	 * @throws KahootException  Content of stream could not be loaded as workbook, or exceeds a limit.
+	 */
+	public KahootResultXlsxReader(InputStream inputStream, String nameOfInput) throws KahootException {
+
+		this( inputStream, nameOfInput, XlsxResourceLimits.getDefault() );
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results from a stream, e.g. an upload, after checking its central directory against limits.
+	 * The stream is read into memory first, because the central directory is at the end of the content.
+	 *
+	 * @param inputStream  Stream with content of Xlsx file, will be read completely but not closed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. path of file the content was read from), for error messages.
+	 *
+	 * @param resourceLimits  Limits checked before the content is parsed; reading stops when the content is larger than the
+	 *                        uncompressed size limit.
+	 *
+	 * @throws KahootException  Content of stream could not be loaded as workbook, or exceeds a limit ({@link ResourceLimitExceededException}).
+	 */
+	public KahootResultXlsxReader(InputStream inputStream, String nameOfInput, XlsxResourceLimits resourceLimits) throws KahootException {
+
+		this( ByteBuffer.wrap( readAllBytes(inputStream, nameOfInput, resourceLimits) ), nameOfInput, resourceLimits );
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results from a buffer, e.g. filled by a read-ahead of the file; checked against
+	 * the default limits (see {@link XlsxResourceLimits#getDefault()}). The buffer can be reused as soon as the
+	 * constructor has returned.
+	 *
+	 * @param xlsxBuffer  Buffer with content of Xlsx file between position and limit; position is not changed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. path of file the content was read from), for error messages.
+	 *
+	 * @throws KahootException  Content of buffer could not be loaded as workbook, or exceeds a limit.
+	 */
+	public KahootResultXlsxReader(ByteBuffer xlsxBuffer, String nameOfInput) throws KahootException {
+
+		this( xlsxBuffer, nameOfInput, XlsxResourceLimits.getDefault() );
+	}
+
+
+	/**
+	 * Load Xlsx file with Kahoot results from a buffer after checking its central directory against limits.
+	 * The buffer can be reused as soon as the constructor has returned.
+	 *
+	 * @param xlsxBuffer  Buffer with content of Xlsx file between position and limit; position is not changed.
+	 *
+	 * @param nameOfInput  Name of input (e.g. path of file the content was read from), for error messages.
+	 *
+	 * @param resourceLimits  Limits checked before the content is parsed.
+	 *
+	 * @throws KahootException  Content of buffer could not be loaded as workbook, or exceeds a limit ({@link ResourceLimitExceededException}).
+	 */
+	public KahootResultXlsxReader(ByteBuffer xlsxBuffer, String nameOfInput, XlsxResourceLimits resourceLimits) throws KahootException {
+
+		long startNanos = System.nanoTime();
+
+		if ( selectEngine(XlsxPackageInfo.inspect(xlsxBuffer, nameOfInput), resourceLimits) == ReaderEngineEnum.STREAMING ) {
+
+			_streamingWorkbookOptional = Optional.of( StreamingWorkbook.open(toInputStream(xlsxBuffer), nameOfInput) );
+
+		} else {
+
+			try {
+
+				_excelWorkbook = new XSSFWorkbook( toInputStream(xlsxBuffer) );
+			}
+			catch (Exception ex) {
+
+				throw new KahootException("Error when trying to read input \"" + nameOfInput + "\".", ex);
+			}
+		}
+
+		_openMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+	}
+
+
+	/**
+	 * Check the central directory of the input against the limits and choose the engine.
+	 *
+	 * @param packageInfo  Central directory of input.
+	 *
+	 * @param resourceLimits  Limits to be checked.
+	 *
+	 * @return  Engine chosen by the default {@link ReaderEngineSelector}.
+	 *
+	 * @throws ResourceLimitExceededException  A limit is exceeded.
+	 */
+	protected ReaderEngineEnum selectEngine(XlsxPackageInfo packageInfo, XlsxResourceLimits resourceLimits) throws ResourceLimitExceededException {
+
+		resourceLimits.check(packageInfo);
+
+		_packageInfo  = packageInfo;
+		_readerEngine = ReaderEngineSelector.getDefault().selectEngine(packageInfo);
+
+		return _readerEngine;
+	}
+
+
+	/**
+	 * Read content of stream into memory.
+	 *
+	 * @param inputStream  Stream with content of Xlsx file, is not closed.
+	 *
+	 * @param nameOfInput  Name of input for error messages.
+	 *
+	 * @param resourceLimits  Reading stops when more bytes than the uncompressed size limit were read.
+	 *
+	 * @return  Content of stream.
+	 *
+	 * @throws KahootException  I/O error, or stream too large ({@link ResourceLimitExceededException}).
+	 */
+	protected static byte[] readAllBytes(InputStream inputStream, String nameOfInput, XlsxResourceLimits resourceLimits) throws KahootException {
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		byte[] chunk = new byte[64 * 1024];
+
 		try {
 
-			FileInputStream fis = new FileInputStream(file);
+			int bytesRead;
+			while ( (bytesRead = inputStream.read(chunk)) > 0 ) {
 
-			_excelWorkbook = new XSSFWorkbook(fis);
+				outputStream.write(chunk, 0, bytesRead);
+				resourceLimits.checkInputSize( outputStream.size(), nameOfInput );
+			}
 		}
-		catch (Exception ex) {
+		catch (IOException ex) {
+
+			throw new KahootException("Error when trying to read input \"" + nameOfInput + "\".", ex);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+
+	/**
+	 * Create stream for reading the content of a buffer, without copying if the buffer is backed by an array.
+	 *
+	 * @param buffer  Buffer with content between position and limit; position is not changed.
+	 *
+	 * @return  Stream on content of buffer.
+	 */
+	protected static InputStream toInputStream(ByteBuffer buffer) {
+
+		if (buffer.hasArray()) {
 
-			throw new KahootException("Error when trying to read input file \"" + pathToExcelFile + "\".", ex);
+			return new ByteArrayInputStream( buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining() );
 		}
+
+		byte[] bytes = new byte[ buffer.remaining() ];
+		buffer.duplicate().get(bytes);
+
+		return new ByteArrayInputStream(bytes);
+	}
+
+
+	/**
+	 * Switch off the output of the questions found to STDOUT, e.g. when used by an application that converts
+	 * files in-process.
+	 *
+	 * @param printQuestionsFound  False if nothing is to be written to STDOUT; default is true.
+	 */
+	public void setPrintQuestionsFound(boolean printQuestionsFound) {
+
+		_printQuestionsFound = printQuestionsFound;
+	}
+
+
+	/**
+	 * Set token which is checked before each sheet is decoded.
+	 *
+	 * @param cancellationToken  Token, replaces the token of the thread that created the reader.
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+
+		_cancellationToken = cancellationToken;
+	}
+
+
+	/**
+	 * Set object to be notified about the title and each question during {@link #extractQuestionList()}.
+	 *
+	 * @param extractionListener  Listener, or {@code null} for none.
+	 */
+	public void setExtractionListener(ExtractionListener extractionListener) {
+
+		_extractionListenerOptional = Optional.ofNullable(extractionListener);
+	}
+
+
+	/**
+	 * Set pool in which the title, the question texts and the answer options are interned.
+	 *
+	 * @param stringInternPool  Pool, or {@code null} if the strings are not to be interned.
+	 */
+	public void setStringInternPool(StringInternPool stringInternPool) {
+
+		_stringInternPoolOptional = Optional.ofNullable(stringInternPool);
 	}
 
 
@@ -122,41 +435,75 @@ public class KahootResultXlsxReader {
 	 *
 	 * @return  Object with list of all questions in XSLX file.
 	 *
-	 * @throws KahootException  Xlsx file was not as expected.
+	 * With the streaming engine the workbook is closed afterwards, so this method can only be called once.
+	 *
+	 * @throws KahootException  Xlsx file was not as expected, or conversion was cancelled (see {@link #setCancellationToken(CancellationToken)}).
 	 */
 	public QuestionList extractQuestionList() throws KahootException {
 
+		long startNanos = System.nanoTime();
+		try {
+
+			QuestionList questionList = extractQuestionListFromSheets();
+
+			_extractMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+
+			if (_printQuestionsFound) { System.out.println( getEngineReport() ); }
+
+			return questionList;
+		}
+		finally {
+
+			if (_streamingWorkbookOptional.isPresent()) { _streamingWorkbookOptional.get().close(); }
+		}
+	}
+
+
+	/**
+	 * Extract the title and the questions with the engine in use.
+	 *
+	 * @return  Object with list of all questions in XSLX file.
+	 *
+	 * @throws KahootException  Xlsx file was not as expected, or conversion was cancelled.
+	 */
+	protected QuestionList extractQuestionListFromSheets() throws KahootException {
+
 		QuestionList questionList = null;
 
-		int numberOfSheets = _excelWorkbook.getNumberOfSheets();
+		int numberOfSheets = getNumberOfSheets();
 
 		// "minus 4" because of the following sheets: "Overview", "Final Scores", "Kahoot! Summary", "RawReportData Data".
 		int numberOfQuestions = numberOfSheets - 4;
 
 		if (numberOfQuestions < 1) { throw new KahootException("Less than 1 sheet with questions."); }
 
-		System.out.println("Number of sheets with questions: " + numberOfQuestions);
+		if (_printQuestionsFound) { System.out.println("Number of sheets with questions: " + numberOfQuestions); }
 
 		questionList = new QuestionList(numberOfQuestions);
 
+		String title = extractTitle( getSheetCells(0, ROW_INDEX_TITLE) );
+		questionList.setTitle(title);
+
+		if (_extractionListenerOptional.isPresent()) { _extractionListenerOptional.get().titleExtracted(title, numberOfQuestions); }
+
 
 		// Loop over all sheets with a question
 		for (int questionNo = 1; questionNo <= numberOfQuestions; questionNo++) {
 
 			int sheetIndex = 2 + questionNo;
 
-			XSSFSheet sheet = _excelWorkbook.getSheetAt(sheetIndex);
+			_cancellationToken.throwIfCancelled("before sheet with index=" + sheetIndex);
+
+			SheetCells sheet = getSheetCells(sheetIndex, ROW_INDEX_ANSWER_CORRECT);
 
 			AbstractQuestion question = extractQuestionFromSheet(sheet); // might raise exception
 
-			System.out.println("Found question on sheet with index=" + sheetIndex + ": " + question);
+			if (_printQuestionsFound) { System.out.println("Found question on sheet with index=" + sheetIndex + ": " + question); }
 
 			questionList.addQuestion(question);
-		}
 
-
-		String title = extractTitle( _excelWorkbook.getSheetAt(0) );
-		questionList.setTitle(title);
+			if (_extractionListenerOptional.isPresent()) { _extractionListenerOptional.get().questionExtracted(questionNo, question); }
+		}
 
 		return questionList;
 	}
@@ -169,13 +516,9 @@ public class KahootResultXlsxReader {
 	 *
 	 * @return  Title of the game.
 	 */
-	protected String extractTitle(XSSFSheet sheet) {
-
-		XSSFRow row = sheet.getRow(ROW_INDEX_TITLE);
+	protected String extractTitle(SheetCells sheet) {
 
-		XSSFCell cell = row.getCell(COL_INDEX_TITLE);
-
-		return cell.getStringCellValue().trim();
+		return intern( sheet.getStringCellValue(ROW_INDEX_TITLE, COL_INDEX_TITLE).trim() );
 	}
 
 
@@ -189,7 +532,7 @@ public class KahootResultXlsxReader {
 	 *
 	 * @throws KahootException  Error during attempt to extract question from sheet.
 	 */
-	protected AbstractQuestion extractQuestionFromSheet(XSSFSheet sheet) throws KahootException {
+	protected AbstractQuestion extractQuestionFromSheet(SheetCells sheet) throws KahootException {
 
 		String   questionText  = getQuestionText(  sheet );
 		String[] answerOptions = getAnswerOptions( sheet );
@@ -240,14 +583,10 @@ public class KahootResultXlsxReader {
 	 *
 	 * @throws KahootException  No percentage value found in cell C4.
 	 */
-	protected float extractPercentageOfRightAnswers(XSSFSheet sheet)  throws KahootException {
-
-		XSSFRow row = sheet.getRow(ROW_INDEX_PLAYERS_CORRECT_PERCENT);
-
-		XSSFCell cell = row.getCell(COL_INDEX_PLAYERS_CORRECT_PERCENT);
+	protected float extractPercentageOfRightAnswers(SheetCells sheet)  throws KahootException {
 
 		// Percent value 100% is returned as 1.0, so times 100 to get 100%
-		return (float) cell.getNumericCellValue() * 100f;
+		return (float) sheet.getNumericCellValue(ROW_INDEX_PLAYERS_CORRECT_PERCENT, COL_INDEX_PLAYERS_CORRECT_PERCENT) * 100f;
 	}
 
 
@@ -260,27 +599,25 @@ public class KahootResultXlsxReader {
 	 *
 	 * @throws KahootException  Error during attempt to extract info from sheet.
 	 */
-	protected boolean[] extractCorrectAnswerOptions(XSSFSheet sheet) throws KahootException {
+	protected boolean[] extractCorrectAnswerOptions(SheetCells sheet) throws KahootException {
 
 		boolean[] resultArray = null;
 
-		XSSFRow row = sheet.getRow(ROW_INDEX_ANSWER_CORRECT);
-
-		XSSFCell cell1 = row.getCell(COL_INDEX_ANSWER_CORRECT_1);
-		XSSFCell cell2 = row.getCell(COL_INDEX_ANSWER_CORRECT_2);
-		XSSFCell cell3 = row.getCell(COL_INDEX_ANSWER_CORRECT_3);
-		XSSFCell cell4 = row.getCell(COL_INDEX_ANSWER_CORRECT_4);
+		String cell1 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_1);
+		String cell2 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_2);
+		String cell3 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_3);
+		String cell4 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_4);
 
-		if (isCellEmpty(cell1, true)) { throw new KahootException("Cell with true/false for first  answer option is empty."); }
-		if (isCellEmpty(cell2, true)) { throw new KahootException("Cell with true/false for second answer option is empty."); }
+		if (isCellEmpty(cell1)) { throw new KahootException("Cell with true/false for first  answer option is empty."); }
+		if (isCellEmpty(cell2)) { throw new KahootException("Cell with true/false for second answer option is empty."); }
 
 		int numberOfAnswerOptions = 2;
 
-		if (isCellEmpty(cell3, true) == false) {
+		if (isCellEmpty(cell3) == false) {
 
 			numberOfAnswerOptions = 3;
 
-			if (isCellEmpty(cell4, true) == false) {
+			if (isCellEmpty(cell4) == false) {
 
 				numberOfAnswerOptions = 4;
 			}
@@ -288,17 +625,17 @@ public class KahootResultXlsxReader {
 
 		resultArray = new boolean[numberOfAnswerOptions];
 
-		resultArray[0] = StringUtils.isSymbolForCorrectAnwerOption( cell1.getStringCellValue().charAt(0) );
-		resultArray[1] = StringUtils.isSymbolForCorrectAnwerOption( cell2.getStringCellValue().charAt(0) );
+		resultArray[0] = isMarkedAsCorrect( cell1 );
+		resultArray[1] = isMarkedAsCorrect( cell2 );
 
 		if (numberOfAnswerOptions >= 3) {
 
-			resultArray[2] = StringUtils.isSymbolForCorrectAnwerOption( cell3.getStringCellValue().charAt(0) );
+			resultArray[2] = isMarkedAsCorrect( cell3 );
 		}
 
 		if (numberOfAnswerOptions == 4) {
 
-			resultArray[3] = StringUtils.isSymbolForCorrectAnwerOption( cell4.getStringCellValue().charAt(0) );
+			resultArray[3] = isMarkedAsCorrect( cell4 );
 		}
 
 		return resultArray;
@@ -339,38 +676,33 @@ public class KahootResultXlsxReader {
 	 * The method checks both cells C9 and E9, but one of them would be sufficient to determine if the statement
 	 * is wrong or right; however, checking the symbol in both cells allows to perform a simple consistency check.
 	 *
-	 * @param sheet  Sheet must contain a true/false question detected by method {@link #extractQuestionFromSheet(XSSFSheet)}.
+	 * @param sheet  Sheet must contain a true/false question detected by method {@link #extractQuestionFromSheet(SheetCells)}.
 	 *
 	 * @return  {@code true} iff the statement of the true/false question is true.
 	 *
 	 * @throws KahootException  Could not determine if statement is marked as true or false.
 	 */
-	protected boolean extractAnswerForTrueFalseQuestion(XSSFSheet sheet) throws KahootException {
+	protected boolean extractAnswerForTrueFalseQuestion(SheetCells sheet) throws KahootException {
 
 		// First we find out if the correct answer is in the first or second answer option
 
-		XSSFRow answerOptionRow = sheet.getRow(ROW_INDEX_ANSWER_CORRECT);
-
-		XSSFCell answerOptionCell1 = answerOptionRow.getCell(COL_INDEX_ANSWER_CORRECT_1);
-		XSSFCell answerOptionCell2 = answerOptionRow.getCell(COL_INDEX_ANSWER_CORRECT_2);
-
-		String answerOptionStr1 = answerOptionCell1.getStringCellValue();
-		String answerOptionStr2 = answerOptionCell2.getStringCellValue();
+		String answerOptionStr1 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_1);
+		String answerOptionStr2 = sheet.getStringCellValue(ROW_INDEX_ANSWER_CORRECT, COL_INDEX_ANSWER_CORRECT_2);
 
-		char answerOptionChar1 = answerOptionStr1.charAt(0);
-		char answerOptionChar2 = answerOptionStr2.charAt(0);
+		boolean isCorrect1 = isMarkedAsCorrect(answerOptionStr1);
+		boolean isCorrect2 = isMarkedAsCorrect(answerOptionStr2);
 
 
 		boolean correctOptionIsFirstColumn = false;
-		if ( StringUtils.isSymbolForCorrectAnwerOption(answerOptionChar1) == true  &&
-			 StringUtils.isSymbolForCorrectAnwerOption(answerOptionChar2) == false
+		if ( isCorrect1 == true  &&
+			 isCorrect2 == false
 		   ) {
 
 			correctOptionIsFirstColumn = true;
 
 		} else
-			if ( StringUtils.isSymbolForCorrectAnwerOption(answerOptionChar1) == false &&
-				 StringUtils.isSymbolForCorrectAnwerOption(answerOptionChar2) == true
+			if ( isCorrect1 == false &&
+				 isCorrect2 == true
 			   ) {
 
 				correctOptionIsFirstColumn = false;
@@ -383,27 +715,22 @@ public class KahootResultXlsxReader {
 
 		// Now we have to find out if the option which is marked as correct stands for "right" or "wrong"
 
-		XSSFRow isAnswerCorrectRow = sheet.getRow(ROW_INDEX_ANSWER_OPTIONS);
+		CellSymbolEnum label1 = StringUtils.decodeCellSymbol( sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_1) );
+		CellSymbolEnum label2 = StringUtils.decodeCellSymbol( sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_2) );
 
-		XSSFCell isCorrectCell1 = isAnswerCorrectRow.getCell(COL_INDEX_ANSWER_OPTION_1);
-		XSSFCell isCorrectCell2 = isAnswerCorrectRow.getCell(COL_INDEX_ANSWER_OPTION_2);
-
-		String str1 = isCorrectCell1.getStringCellValue();
-		String str2 = isCorrectCell2.getStringCellValue();
-
-		if ( str1.equalsIgnoreCase("true") && correctOptionIsFirstColumn == true ) {
+		if ( label1 == CellSymbolEnum.TRUE_LABEL && correctOptionIsFirstColumn == true ) {
 
 			return true;
 		}
-		if ( str2.equalsIgnoreCase("true") && correctOptionIsFirstColumn == false ) {
+		if ( label2 == CellSymbolEnum.TRUE_LABEL && correctOptionIsFirstColumn == false ) {
 
 			return true;
 		}
-		if ( str1.equalsIgnoreCase("false") && correctOptionIsFirstColumn == true ) {
+		if ( label1 == CellSymbolEnum.FALSE_LABEL && correctOptionIsFirstColumn == true ) {
 
 			return false;
 		}
-		if ( str2.equalsIgnoreCase("false") && correctOptionIsFirstColumn == false ) {
+		if ( label2 == CellSymbolEnum.FALSE_LABEL && correctOptionIsFirstColumn == false ) {
 
 			return false;
 		}
@@ -419,7 +746,7 @@ public class KahootResultXlsxReader {
 	 *
 	 * Method is public to allow simple unit testing.
 	 *
-	 * @param answerOptionsArray  Array obtained from method {@link #getAnswerOptions(XSSFSheet)}.
+	 * @param answerOptionsArray  Array obtained from method {@link #getAnswerOptions(SheetCells)}.
 	 *
 	 * @return  {@code true} if argument {@code answerOptionsArray} indicates a true/false questions,
 	 *          i.e. first element contains "false" and second element contains "true", and
@@ -429,10 +756,11 @@ public class KahootResultXlsxReader {
 
 		if (answerOptionsArray.length != 2) { return false; }
 
-		String wert1 = answerOptionsArray[0].toLowerCase();
-		String wert2 = answerOptionsArray[1].toLowerCase();
+		CellSymbolEnum wert1 = StringUtils.decodeCellSymbol( answerOptionsArray[0] );
+		CellSymbolEnum wert2 = StringUtils.decodeCellSymbol( answerOptionsArray[1] );
 
-		return ( wert1.equals("false") && wert2.equals("true") ) || ( wert1.equals("true") && wert2.equals("false") );
+		return ( wert1 == CellSymbolEnum.FALSE_LABEL && wert2 == CellSymbolEnum.TRUE_LABEL  ) ||
+		       ( wert1 == CellSymbolEnum.TRUE_LABEL  && wert2 == CellSymbolEnum.FALSE_LABEL );
 	}
 
 
@@ -443,14 +771,11 @@ public class KahootResultXlsxReader {
 	 *
 	 * @return  String with question text in cell B2.
 	 */
-	protected String getQuestionText(XSSFSheet sheet) {
+	protected String getQuestionText(SheetCells sheet) {
 
-		XSSFRow  row  = sheet.getRow(ROW_INDEX_QUESTION_TEXT);
-		XSSFCell cell = row.getCell(COL_INDEX_QUESTION_TEXT);
+		String questionText = sheet.getStringCellValue(ROW_INDEX_QUESTION_TEXT, COL_INDEX_QUESTION_TEXT);
 
-		String   questionText = cell.getStringCellValue();
-
-		return questionText.trim();
+		return intern( questionText.trim() );
 	}
 
 
@@ -462,22 +787,20 @@ public class KahootResultXlsxReader {
 	 * @return Array with answer options, e.g. <code>["France", "Switzerland", "Spain", "Austria"]</code>;
 	 *         will have at least two and at most four elements.
 	 */
-	protected String[] getAnswerOptions(XSSFSheet sheet) {
-
-		XSSFRow row = sheet.getRow(ROW_INDEX_ANSWER_OPTIONS);
+	protected String[] getAnswerOptions(SheetCells sheet) {
 
-		XSSFCell cell1 = row.getCell(COL_INDEX_ANSWER_OPTION_1);
-		XSSFCell cell2 = row.getCell(COL_INDEX_ANSWER_OPTION_2);
-		XSSFCell cell3 = row.getCell(COL_INDEX_ANSWER_OPTION_3);
-		XSSFCell cell4 = row.getCell(COL_INDEX_ANSWER_OPTION_4);
+		String cell1 = sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_1);
+		String cell2 = sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_2);
+		String cell3 = sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_3);
+		String cell4 = sheet.getStringCellValue(ROW_INDEX_ANSWER_OPTIONS, COL_INDEX_ANSWER_OPTION_4);
 
 		int numOfAnswerOptions = 2;
 
-		if (isCellEmpty(cell3, true) == false) {
+		if (isCellEmpty(cell3) == false) {
 
 			numOfAnswerOptions = 3;
 
-			if (isCellEmpty(cell4, true) == false) {
+			if (isCellEmpty(cell4) == false) {
 
 				numOfAnswerOptions = 4;
 			}
@@ -486,16 +809,16 @@ public class KahootResultXlsxReader {
 
 		String[] resultArray = new String[numOfAnswerOptions];
 
-		resultArray[0] = cell1.getStringCellValue().trim();
-		resultArray[1] = cell2.getStringCellValue().trim();
+		resultArray[0] = intern( cell1.trim() );
+		resultArray[1] = intern( cell2.trim() );
 
 		if (numOfAnswerOptions >= 3) {
 
-			resultArray[2] = cell3.getStringCellValue().trim();
+			resultArray[2] = intern( cell3.trim() );
 		}
 		if (numOfAnswerOptions == 4) {
 
-			resultArray[3] = cell4.getStringCellValue().trim();
+			resultArray[3] = intern( cell4.trim() );
 		}
 
 		return resultArray;
@@ -503,25 +826,188 @@ public class KahootResultXlsxReader {
 
 
 	/**
-	 * Check if {@code cell} is empty.
+	 * Replace text by the equal string of the pool, if a pool is used.
 	 *
-	 * @param cell  Cell to be checked for being empty.
+	 * @param text  Text of cell.
 	 *
-	 * @param isString  {@code true} if this cell should contain a String, {@code false} for other
-	 *                  cell types like cells with percentage value. In case of a string cell an
-	 *                  additional test if performed.
+	 * @return  Pooled string or {@code text}.
+	 */
+	protected String intern(String text) {
+
+		return _stringInternPoolOptional.isPresent() ? _stringInternPoolOptional.get().intern(text) : text;
+	}
+
+
+	/**
+	 * Check if string cell is empty.
+	 *
+	 * @param cellValue  Value of cell as returned by {@link SheetCells#getStringCellValue(int, int)}.
 	 *
-	 * @return  {@code true} iff this cell is empty.
+	 * @return  {@code true} iff the cell does not exist, is blank or only contains whitespace.
 	 */
-	protected boolean isCellEmpty(XSSFCell cell, boolean isString) {
+	protected boolean isCellEmpty(String cellValue) {
 
-		if (cell == null) { return true; }
+		return StringUtils.decodeCellSymbol(cellValue) == CellSymbolEnum.BLANK;
+	}
 
-		if (cell.getCellType() == CellType.BLANK) { return true; }
 
-		if (isString && cell.getStringCellValue().trim().length() == 0) { return true; }
+	/**
+	 * Decode check mark or cross in a cell of row 9.
+	 *
+	 * @param cellValue  Value of cell, e.g. check mark U+2714 followed by variation selector U+FE0E.
+	 *
+	 * @return  {@code true} for a check mark (correct answer option), {@code false} for a cross.
+	 *
+	 * @throws KahootException  Cell contains neither a check mark nor a cross.
+	 */
+	protected static boolean isMarkedAsCorrect(String cellValue) throws KahootException {
+
+		switch ( StringUtils.decodeCellSymbol(cellValue) ) {
+
+			case CHECK_MARK: return true;
+			case BALLOT_X:   return false;
+			default:
+				throw new KahootException("Could not recognize check mark or cross in cell with value \"" + cellValue + "\".");
+		}
+	}
 
-		return false;
+
+	/**
+	 * Get number of sheets from the engine in use.
+	 *
+	 * @return  Number of sheets of the workbook.
+	 */
+	protected int getNumberOfSheets() {
+
+		return _streamingWorkbookOptional.isPresent() ? _streamingWorkbookOptional.get().getNumberOfSheets()
+		                                              : _excelWorkbook.getNumberOfSheets();
+	}
+
+
+	/**
+	 * Get the cells of a sheet from the engine in use.
+	 *
+	 * @param sheetIndex  0-based index of sheet.
+	 *
+	 * @param maxRowIndex  Highest 0-based row index needed; the streaming engine does not parse the rows below.
+	 *
+	 * @return  Cells of sheet.
+	 *
+	 * @throws KahootException  Sheet could not be parsed.
+	 */
+	protected SheetCells getSheetCells(int sheetIndex, int maxRowIndex) throws KahootException {
+
+		if (_streamingWorkbookOptional.isPresent()) {
+
+			return _streamingWorkbookOptional.get().readSheet(sheetIndex, maxRowIndex, COL_INDEX_ANSWER_OPTION_4);
+		}
+
+		return new DomSheetCells( _excelWorkbook.getSheetAt(sheetIndex) );
+	}
+
+
+	/**
+	 * Build line for tuning the thresholds of {@link ReaderEngineSelector}.
+	 *
+	 * @return  Engine, sizes of input and times needed, e.g. for logging.
+	 */
+	public String getEngineReport() {
+
+		return String.format( Locale.ROOT, "Reader engine %s for \"%s\" (%d sheets, %.1f MB uncompressed, largest sheet %.1f MB): "
+		                                   + "workbook opened in %d ms, questions extracted in %d ms.",
+		                      _readerEngine, _packageInfo.getPathToXlsxFile(), _packageInfo.getNumberOfWorksheets(),
+		                      _packageInfo.getTotalUncompressedSize() / (1024.0 * 1024.0),
+		                      _packageInfo.getLargestWorksheetSize()  / (1024.0 * 1024.0),
+		                      _openMillis, _extractMillis );
+	}
+
+
+	/**
+	 * Getter for engine chosen for the input.
+	 *
+	 * @return  Engine reading the workbook.
+	 */
+	public ReaderEngineEnum getReaderEngine() {
+
+		return _readerEngine;
+	}
+
+
+	/**
+	 * Getter for time needed by the constructor.
+	 *
+	 * @return  Milliseconds needed to open the workbook (DOM engine: to parse it completely).
+	 */
+	public long getOpenMillis() {
+
+		return _openMillis;
+	}
+
+
+	/**
+	 * Getter for time needed by {@link #extractQuestionList()}.
+	 *
+	 * @return  Milliseconds needed to extract the questions, 0 before the extraction.
+	 */
+	public long getExtractMillis() {
+
+		return _extractMillis;
+	}
+
+
+	/**
+	 * Access to the cells of a sheet loaded by the DOM engine.
+	 */
+	protected static class DomSheetCells implements SheetCells {
+
+		/** Sheet of {@code XSSFWorkbook}. */
+		protected final XSSFSheet _sheet;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param sheet  Sheet of {@code XSSFWorkbook}.
+		 */
+		protected DomSheetCells(XSSFSheet sheet) {
+
+			_sheet = sheet;
+		}
+
+		/**
+		 * Get cell.
+		 *
+		 * @param rowIndex  0-based index of row.
+		 *
+		 * @param colIndex  0-based index of column.
+		 *
+		 * @return  Cell or {@code null}.
+		 */
+		protected XSSFCell getCell(int rowIndex, int colIndex) {
+
+			XSSFRow row = _sheet.getRow(rowIndex);
+
+			return row != null ? row.getCell(colIndex) : null;
+		}
+
+		@Override
+		public String getStringCellValue(int rowIndex, int colIndex) {
+
+			XSSFCell cell = getCell(rowIndex, colIndex);
+
+			if (cell == null || cell.getCellType() == CellType.BLANK) { return ""; }
+
+			return cell.getStringCellValue();
+		}
+
+		@Override
+		public double getNumericCellValue(int rowIndex, int colIndex) throws KahootException {
+
+			XSSFCell cell = getCell(rowIndex, colIndex);
+
+			if (cell == null) { throw new KahootException("Cell " + new CellReference(rowIndex, colIndex).formatAsString() + " not found."); }
+
+			return cell.getNumericCellValue();
+		}
 	}
 
 }
@@ -0,0 +1,184 @@
+package de.mide.kahoot.result2word.poi;
+
+import static de.mide.kahoot.result2word.utils.TranslatedTextsProvider.getTextByKey;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Writes the questions of many games into a single Word file, with a section for each game in the format of the
+ * files written for single games, beginning on a new page with the title of the game. Each game is rendered into
+ * its own small document as soon as its questions were extracted, and appended with {@link StreamingDocxWriter};
+ * so the heap needed depends on the size of the largest game, not on the number of games.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class MergedDocxWriter extends KahootResultDocxWriter implements AutoCloseable {
+
+	/** Target file while the games are appended. */
+	protected final StreamingDocxWriter _streamingDocxWriter;
+
+	/** Number of games appended. */
+	protected int _numberOfGames = 0;
+
+	/** Number of questions of all games appended. */
+	protected long _numberOfQuestions = 0;
+
+
+	/**
+	 * Constructor, writes the title of the merged document into a temporary file.
+	 *
+	 * @param pathToWordFile  Path of Word file to be written, must end with suffix {@code .docx}.
+	 *
+	 * @param newPageForEachQuestion  Begin each question except the first one of a game on a new page.
+	 *
+	 * @param writePercentage  Write percentage of players who gave the right answer for each question.
+	 *
+	 * @param toplineTextOptional  Text for header on each page, or empty for no header.
+	 *
+	 * @param numberOfFiles  Number of files to be merged, for the title; the title is written before the files are read,
+	 *                       so it states the number of files, which includes files that cannot be read.
+	 *
+	 * @throws KahootException  {@code pathToWordFile} does not end with {@code .docx}, or I/O error.
+	 */
+	public MergedDocxWriter(String pathToWordFile, boolean newPageForEachQuestion, boolean writePercentage,
+			                Optional<String> toplineTextOptional, int numberOfFiles) throws KahootException {
+
+		super( new QuestionList(0), pathToWordFile, newPageForEachQuestion, writePercentage, toplineTextOptional );
+
+		XWPFDocument frameDocument = new XWPFDocument();
+
+		String numberOfFilesText = getTextByKey("mergedDocSize").replace("{1}", numberOfFiles + ""); // {1} files
+
+		writeDocumentTitle( frameDocument, getTextByKey("mergedDocTitle"), numberOfFilesText );
+		addHeaderAndFooter(frameDocument);
+		setMetadata(frameDocument);
+
+		_streamingDocxWriter = new StreamingDocxWriter(pathToWordFile, frameDocument);
+	}
+
+
+	/**
+	 * Render the section of a game and append it to the target file.
+	 *
+	 * @param pathToXlsxFile  Path of xlsx file the questions were extracted from.
+	 *
+	 * @param questionList  Questions of the file.
+	 *
+	 * @throws KahootException  Error when writing the file, or conversion was cancelled.
+	 */
+	public void appendGame(String pathToXlsxFile, QuestionList questionList) throws KahootException {
+
+		_questionList = questionList;
+
+		XWPFDocument sectionDocument = new XWPFDocument();
+
+		writeDocumentTitle(sectionDocument);
+		sectionDocument.getParagraphs().get(0).setPageBreak(true);
+
+		loopOverAllQuestions(sectionDocument);
+
+		_streamingDocxWriter.appendBodyOf(sectionDocument);
+
+		_questionList = new QuestionList(0);
+
+		_numberOfGames++;
+		_numberOfQuestions += questionList.getNumberOfQuestions();
+	}
+
+
+	/**
+	 * Write the end of the merged document and move it to the target path.
+	 *
+	 * @throws KahootException  I/O error.
+	 */
+	public void finish() throws KahootException {
+
+		_streamingDocxWriter.finish();
+	}
+
+
+	/**
+	 * Getter for number of games.
+	 *
+	 * @return  Number of games appended.
+	 */
+	public int getNumberOfGames() {
+
+		return _numberOfGames;
+	}
+
+
+	/**
+	 * Delete the temporary file if the merged document was not finished.
+	 */
+	@Override
+	public void close() {
+
+		_streamingDocxWriter.close();
+	}
+
+
+	/**
+	 * Summary of merged document, printed after it was written.
+	 *
+	 * @return  Number of games and questions.
+	 */
+	@Override
+	public String toString() {
+
+		return "Merged document: " + _numberOfGames + " games with " + _numberOfQuestions + " questions.";
+	}
+
+
+	/**
+	 * Sort files by the date in "Played on" of their Overview sheet, see {@link GameMetadataReader}.
+	 * Files without recognized date follow in their original order.
+	 *
+	 * @param pathsToFiles  Xlsx files to be sorted, is not changed.
+	 *
+	 * @return  New array with the files, the game played first at index 0.
+	 */
+	public static String[] sortByPlayedOnDate(String[] pathsToFiles) {
+
+		int numFiles = pathsToFiles.length;
+
+		Integer[] indexArray = new Integer[numFiles];
+		long[]    keyArray   = new long[numFiles];
+
+		for (int i = 0; i < numFiles; i++) {
+
+			indexArray[i] = i;
+			keyArray[i]   = Long.MAX_VALUE;
+
+			try {
+				Optional<LocalDate> playedOnOptional = GameMetadataReader.read( new File(pathsToFiles[i]) ).getPlayedOnDate();
+				if (playedOnOptional.isPresent()) { keyArray[i] = playedOnOptional.get().toEpochDay(); }
+			}
+			catch (KahootException ex) {
+				// file is reported when its questions cannot be extracted either
+			}
+		}
+
+		Arrays.sort( indexArray, Comparator.comparingLong( index -> keyArray[index] ) ); // stable, so games of the same day keep their order
+
+		String[] resultArray = new String[numFiles];
+		for (int i = 0; i < numFiles; i++) {
+
+			resultArray[i] = pathsToFiles[ indexArray[i] ];
+		}
+
+		return resultArray;
+	}
+
+}
@@ -0,0 +1,66 @@
+package de.mide.kahoot.result2word.poi;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+
+/**
+ * Pre-initialization of POI: loading the classes of POI and the XMLBeans type systems for spreadsheets and
+ * word processing documents takes a large part of the time of a single-file run. With {@link #startInBackground()}
+ * this is done on a background thread while the command line arguments are parsed; it is also used by the
+ * daemon before it accepts the first request.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class PoiWarmUp {
+
+	/** Name of system property which enables the warm-up in the background, e.g. {@code -Dde.mide.kahoot.warmup=true}. */
+	public static final String WARM_UP_PROPERTY = "de.mide.kahoot.warmup";
+
+
+	/**
+	 * Create an empty workbook and a small Word document in memory, so that all classes needed by
+	 * {@link KahootResultXlsxReader} and {@link KahootResultDocxWriter} are loaded and initialized.
+	 *
+	 * @return  Milliseconds needed for the warm-up.
+	 */
+	public static long warmUp() {
+
+		long startNanos = System.nanoTime();
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); XWPFDocument document = new XWPFDocument()) {
+
+			workbook.createSheet().createRow(0).createCell(0).setCellValue("warm-up");
+			document.createParagraph().createRun().setText("warm-up");
+			document.createTable(1, 2).getRow(0).getCell(0).setText("warm-up");
+
+			document.write( new ByteArrayOutputStream() );
+		}
+		catch (Exception ex) {
+
+			System.err.println("Warm-up of POI failed: " + ex);
+		}
+
+		return (System.nanoTime() - startNanos) / 1_000_000L;
+	}
+
+
+	/**
+	 * Start {@link #warmUp()} on a daemon thread; the class initialization of the JVM makes sure that
+	 * the main thread waits for classes currently initialized by the warm-up thread.
+	 *
+	 * @return  Thread that was started.
+	 */
+	public static Thread startInBackground() {
+
+		Thread thread = new Thread( PoiWarmUp::warmUp, "poi-warm-up" );
+		thread.setDaemon(true);
+		thread.start();
+
+		return thread;
+	}
+
+}
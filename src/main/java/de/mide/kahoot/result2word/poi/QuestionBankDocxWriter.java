@@ -0,0 +1,168 @@
+package de.mide.kahoot.result2word.poi;
+
+import static de.mide.kahoot.result2word.utils.TranslatedTextsProvider.getTextByKey;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import de.mide.kahoot.result2word.dedup.QuestionBank;
+import de.mide.kahoot.result2word.model.AbstractQuestion;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Writes the questions of a {@link QuestionBank} into a single Word file, in the format of the files written for
+ * single games, with the names of the games each question was asked in below its title. The questions are rendered
+ * in batches of {@value #QUESTIONS_PER_BATCH} and appended with {@link StreamingDocxWriter}, so the heap needed does not
+ * depend on the size of the bank.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionBankDocxWriter extends KahootResultDocxWriter {
+
+	/** Number of questions rendered into one document before it is appended to the target file. */
+	public static final int QUESTIONS_PER_BATCH = 100;
+
+	/** Document with the questions of the current batch. */
+	protected XWPFDocument _batchDocument = null;
+
+	/** Number of questions in {@link #_batchDocument}. */
+	protected int _numberOfQuestionsInBatch = 0;
+
+	/** Target file while the bank is written. */
+	protected StreamingDocxWriter _streamingDocxWriter = null;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param pathToWordFile  Path of Word file to be written, must end with suffix {@code .docx}.
+	 *
+	 * @param newPageForEachQuestion  Begin each question except the first one on a new page.
+	 *
+	 * @param toplineTextOptional  Text for header on each page, or empty for no header.
+	 *
+	 * @throws KahootException  {@code pathToWordFile} does not end with {@code .docx}.
+	 */
+	public QuestionBankDocxWriter(String pathToWordFile, boolean newPageForEachQuestion, Optional<String> toplineTextOptional) throws KahootException {
+
+		super( new QuestionList(0), pathToWordFile, newPageForEachQuestion, false, toplineTextOptional );
+	}
+
+
+	/**
+	 * Write all questions of the bank into the Word file.
+	 *
+	 * @param questionBank  Bank with all question lists added.
+	 *
+	 * @throws KahootException  Error when writing the file, or conversion was cancelled.
+	 */
+	public void writeQuestionBank(QuestionBank questionBank) throws KahootException {
+
+		XWPFDocument frameDocument = new XWPFDocument();
+
+		String sizeOfBank = getTextByKey("questionBankSize") // {1} distinct questions from {2} games
+		                    .replace( "{1}", questionBank.getNumberOfDistinctQuestions() + "" )
+		                    .replace( "{2}", questionBank.getNumberOfGames() + "" );
+
+		writeDocumentTitle( frameDocument, getTextByKey("questionBankTitle"), sizeOfBank );
+		addHeaderAndFooter(frameDocument);
+		setMetadata(frameDocument);
+
+		try (StreamingDocxWriter streamingDocxWriter = new StreamingDocxWriter(_pathForWordFile, frameDocument)) {
+
+			_streamingDocxWriter = streamingDocxWriter;
+
+			questionBank.forEachDistinctQuestion(this::writeBankQuestion);
+
+			if (_batchDocument != null) { appendBatch(); }
+
+			streamingDocxWriter.finish();
+		}
+		finally {
+
+			_streamingDocxWriter      = null;
+			_batchDocument            = null;
+			_numberOfQuestionsInBatch = 0;
+		}
+	}
+
+
+	/**
+	 * Render a question of the bank into the current batch; a full batch is appended to the target file.
+	 *
+	 * @param numberOfQuestion  Number of question in the bank (1 for first question).
+	 *
+	 * @param question  Question.
+	 *
+	 * @param namesOfGames  Names of the games the question was asked in.
+	 *
+	 * @throws KahootException  Error when writing the file, or conversion was cancelled.
+	 */
+	protected void writeBankQuestion(int numberOfQuestion, AbstractQuestion question, List<String> namesOfGames) throws KahootException {
+
+		_cancellationToken.throwIfCancelled("before question " + numberOfQuestion + " of \"" + _pathForWordFile + "\"");
+
+		if (_batchDocument == null) { _batchDocument = new XWPFDocument(); }
+
+		writeQuestionTitle(_batchDocument, numberOfQuestion);
+		writeNamesOfGames(_batchDocument, namesOfGames);
+
+		if (question.isTrueOrFalseQuestion()) {
+
+			writeTrueFalseQuestion(_batchDocument, (TrueFalseQuestion) question);
+
+		} else {
+
+			writeMultiSingleChoiceQuestion(_batchDocument, (MultipleOrSingleChoiceQuestion) question);
+		}
+
+		if (++_numberOfQuestionsInBatch == QUESTIONS_PER_BATCH) { appendBatch(); }
+	}
+
+
+	/**
+	 * Write the names of the games a question was asked in.
+	 *
+	 * @param wordDocument  Document into which the names are to be written.
+	 *
+	 * @param namesOfGames  Names of the games.
+	 */
+	protected void writeNamesOfGames(XWPFDocument wordDocument, List<String> namesOfGames) {
+
+		XWPFParagraph paragraph = wordDocument.createParagraph();
+		XWPFRun       run       = paragraph.createRun();
+
+		// askedInGames = Asked in {1} game(s): {2}
+		String i18nText = getTextByKey("askedInGames");
+		i18nText = i18nText.replace("{1}", namesOfGames.size() + "").replace("{2}", String.join("; ", namesOfGames));
+
+		run.setText(i18nText);
+		run.setItalic(true);
+		run.setFontSize(FONT_SIZE_NORMAL);
+		run.addBreak();
+	}
+
+
+	/**
+	 * Append the current batch to the target file.
+	 *
+	 * @throws KahootException  Error when writing the file.
+	 */
+	protected void appendBatch() throws KahootException {
+
+		_streamingDocxWriter.appendBodyOf(_batchDocument);
+
+		_batchDocument            = null;
+		_numberOfQuestionsInBatch = 0;
+	}
+
+}
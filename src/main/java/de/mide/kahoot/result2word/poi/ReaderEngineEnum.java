@@ -0,0 +1,24 @@
+package de.mide.kahoot.result2word.poi;
+
+
+/**
+ * Enumeration type for the engines with which {@link KahootResultXlsxReader} reads the workbook,
+ * chosen per file by {@link ReaderEngineSelector}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public enum ReaderEngineEnum {
+
+	/**
+	 * Workbook is loaded completely into {@code XSSFWorkbook} (XMLBeans DOM); fastest for small files,
+	 * but needs about 8 bytes of heap per byte of uncompressed XML.
+	 */
+	DOM,
+
+	/**
+	 * Sheets are parsed one after the other with SAX (see {@link StreamingWorkbook}), only the cells of the
+	 * first rows are kept and the rest of each sheet (e.g. the answers of thousands of players) is skipped.
+	 */
+	STREAMING;
+}
@@ -0,0 +1,42 @@
+package de.mide.kahoot.result2word.poi;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Access to the cells of one sheet needed for extracting a question, independent of the engine
+ * (see {@link ReaderEngineEnum}) which has read the sheet. Row and column indexes are 0-based.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public interface SheetCells {
+
+	/**
+	 * Get value of a cell containing text.
+	 *
+	 * @param rowIndex  0-based index of row, e.g. 1 for cell B2.
+	 *
+	 * @param colIndex  0-based index of column, e.g. 1 for cell B2.
+	 *
+	 * @return  Text of cell; empty string if the cell does not exist or is blank (like POI for a blank cell).
+	 *
+	 * @throws IllegalStateException  Cell contains a number.
+	 */
+	String getStringCellValue(int rowIndex, int colIndex);
+
+	/**
+	 * Get value of a cell containing a number, e.g. a percentage.
+	 *
+	 * @param rowIndex  0-based index of row.
+	 *
+	 * @param colIndex  0-based index of column.
+	 *
+	 * @return  Number in cell; 0 for a blank cell.
+	 *
+	 * @throws KahootException  Cell does not exist.
+	 *
+	 * @throws IllegalStateException  Cell contains text.
+	 */
+	double getNumericCellValue(int rowIndex, int colIndex) throws KahootException;
+}
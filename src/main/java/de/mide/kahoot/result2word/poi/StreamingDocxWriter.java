@@ -0,0 +1,292 @@
+package de.mide.kahoot.result2word.poi;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.xmlbeans.XmlOptions;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Writes a Word file (docx) that is too large to be built as one {@link XWPFDocument} in memory, e.g. a document
+ * with the questions of hundreds of games. A small frame document (title, header and footer, metadata) is rendered
+ * by POI first; all its parts except {@code word/document.xml} are copied into the target file. Then the body
+ * elements of further small documents, each rendered by POI with the formatting of {@link KahootResultDocxWriter},
+ * are appended to the body of the frame one after the other, and are written into the zip stream of the target file
+ * right away. So only one of these documents is in memory at a time, however large the target file gets.
+ * <br><br>
+ *
+ * The appended documents must not reference other parts (e.g. images or numbering), because their relations are
+ * not copied. The target file is written into a temporary file in the same folder, which is moved to the target path
+ * by {@link #finish()}; {@link #close()} without {@link #finish()} deletes the temporary file.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class StreamingDocxWriter implements AutoCloseable {
+
+	/** Name of the part with the body of the document. */
+	protected static final String DOCUMENT_PART_NAME = "word/document.xml";
+
+	/** Start tag of the body in the XML written by POI. */
+	protected static final String BODY_START_TAG = "<w:body>";
+
+	/** End tag of the body in the XML written by POI. */
+	protected static final String BODY_END_TAG = "</w:body>";
+
+	/** Start of the section properties (header, footer), which have to be the last element of the body. */
+	protected static final String SECTION_PROPERTIES_TAG = "<w:sectPr";
+
+
+	/** Path where target file (docx) is to be written. */
+	protected final Path _targetFile;
+
+	/** Temporary file in the folder of the target file. */
+	protected final Path _tempFile;
+
+	/** Zip stream of the temporary file. */
+	protected ZipOutputStream _zipOutputStream = null;
+
+	/** Writer for part {@value #DOCUMENT_PART_NAME}, which is the last entry of the zip stream. */
+	protected Writer _documentWriter = null;
+
+	/** End of part {@value #DOCUMENT_PART_NAME} of the frame document: section properties and end tags. */
+	protected String _documentEnd = "";
+
+	/** Number of documents appended. */
+	protected int _numberOfDocumentsAppended = 0;
+
+	/** True when the target file was written. */
+	protected boolean _finished = false;
+
+
+	/**
+	 * Constructor, writes all parts of the frame document and the beginning of its body into the temporary file.
+	 *
+	 * @param pathToWordFile  Path of Word file to be written, must end with suffix {@code .docx}.
+	 *
+	 * @param frameDocument  Document with the elements before the appended documents (e.g. title), the header and
+	 *                       footer and the metadata; it is written and can be discarded afterwards.
+	 *
+	 * @throws KahootException  {@code pathToWordFile} does not end with {@code .docx}, or I/O error.
+	 */
+	public StreamingDocxWriter(String pathToWordFile, XWPFDocument frameDocument) throws KahootException {
+
+		if (pathToWordFile.endsWith(".docx") == false) {
+
+			throw new KahootException("Target file name \"" + pathToWordFile + "\" does not end with \".docx\".");
+		}
+
+		_targetFile = Paths.get(pathToWordFile).toAbsolutePath().normalize();
+
+		try {
+			_tempFile = Files.createTempFile(_targetFile.getParent(), _targetFile.getFileName().toString(), ".tmp");
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not create temporary file for docx file \"" + pathToWordFile + "\".", ex);
+		}
+
+		try {
+			ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(16 * 1024);
+			frameDocument.write(frameBytes);
+
+			_zipOutputStream = new ZipOutputStream( new BufferedOutputStream(Files.newOutputStream(_tempFile), 64 * 1024) );
+
+			String documentXml = null;
+
+			try (ZipInputStream zipInputStream = new ZipInputStream( new ByteArrayInputStream(frameBytes.toByteArray()) )) {
+
+				ZipEntry entry = null;
+				while ((entry = zipInputStream.getNextEntry()) != null) {
+
+					if (entry.getName().equals(DOCUMENT_PART_NAME)) {
+
+						documentXml = readEntry(zipInputStream);
+						continue;
+					}
+
+					_zipOutputStream.putNextEntry( new ZipEntry(entry.getName()) );
+
+					byte[] buffer = new byte[8192];
+					int    length = 0;
+					while ((length = zipInputStream.read(buffer)) > 0) {
+
+						_zipOutputStream.write(buffer, 0, length);
+					}
+
+					_zipOutputStream.closeEntry();
+				}
+			}
+
+			if (documentXml == null) {
+
+				throw new IOException("Frame document has no part \"" + DOCUMENT_PART_NAME + "\".");
+			}
+
+			int endOfBody = documentXml.lastIndexOf(SECTION_PROPERTIES_TAG);
+			if (endOfBody < 0) { endOfBody = documentXml.lastIndexOf(BODY_END_TAG); }
+			if (endOfBody < 0) {
+
+				throw new IOException("Body of frame document is empty.");
+			}
+
+			_documentEnd = documentXml.substring(endOfBody);
+
+			_zipOutputStream.putNextEntry( new ZipEntry(DOCUMENT_PART_NAME) );
+			_documentWriter = new OutputStreamWriter(_zipOutputStream, StandardCharsets.UTF_8);
+			_documentWriter.write( documentXml, 0, endOfBody );
+		}
+		catch (IOException ex) {
+
+			close();
+
+			throw new KahootException("Could not write docx file \"" + pathToWordFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Append the body elements of a document to the body of the target file.
+	 *
+	 * @param document  Document with paragraphs and tables, rendered e.g. by the methods of {@link KahootResultDocxWriter};
+	 *                  it can be discarded afterwards.
+	 *
+	 * @throws KahootException  Document is not a body of the expected format, or I/O error.
+	 */
+	public void appendBodyOf(XWPFDocument document) throws KahootException {
+
+		XmlOptions xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
+		xmlOptions.setSaveSyntheticDocumentElement( new QName(CTDocument1.type.getName().getNamespaceURI(), "document") );
+
+		try {
+			ByteArrayOutputStream xmlBytes = new ByteArrayOutputStream(16 * 1024);
+			document.getDocument().save(xmlBytes, xmlOptions);
+
+			String documentXml = new String(xmlBytes.toByteArray(), StandardCharsets.UTF_8);
+
+			int startOfBody = documentXml.indexOf(BODY_START_TAG);
+			if (startOfBody < 0) {
+
+				if (documentXml.contains("<w:body/>")) { return; } // no body elements
+
+				throw new KahootException("Document to be appended to \"" + _targetFile + "\" has no body with prefix \"w\".");
+			}
+			startOfBody += BODY_START_TAG.length();
+
+			int endOfBody = documentXml.indexOf(SECTION_PROPERTIES_TAG, startOfBody);
+			if (endOfBody < 0) { endOfBody = documentXml.lastIndexOf(BODY_END_TAG); }
+
+			_documentWriter.write( documentXml, startOfBody, endOfBody - startOfBody );
+			_numberOfDocumentsAppended++;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write docx file \"" + _targetFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Write the end of the body and move the temporary file to the target path.
+	 *
+	 * @throws KahootException  I/O error.
+	 */
+	public void finish() throws KahootException {
+
+		try {
+			_documentWriter.write(_documentEnd);
+			_documentWriter.flush();
+
+			_zipOutputStream.closeEntry();
+			_zipOutputStream.close();
+
+			Files.move( _tempFile, _targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+			_finished = true;
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not write docx file \"" + _targetFile + "\".", ex);
+		}
+		finally {
+
+			close();
+		}
+	}
+
+
+	/**
+	 * Getter for number of appended documents.
+	 *
+	 * @return  Number of calls of {@link #appendBodyOf(XWPFDocument)} which appended body elements.
+	 */
+	public int getNumberOfDocumentsAppended() {
+
+		return _numberOfDocumentsAppended;
+	}
+
+
+	/**
+	 * Close the temporary file and delete it if the target file was not written by {@link #finish()}.
+	 */
+	@Override
+	public void close() {
+
+		if (_zipOutputStream != null) {
+
+			try {
+				_zipOutputStream.close();
+			}
+			catch (IOException ex) {
+				// file is deleted anyway
+			}
+			_zipOutputStream = null;
+		}
+
+		if (_finished == false) { _tempFile.toFile().delete(); }
+	}
+
+
+	/**
+	 * Read the current entry of a zip stream as UTF-8 text.
+	 *
+	 * @param zipInputStream  Stream positioned at the entry.
+	 *
+	 * @return  Content of entry.
+	 *
+	 * @throws IOException  Error when reading.
+	 */
+	protected static String readEntry(ZipInputStream zipInputStream) throws IOException {
+
+		ByteArrayOutputStream entryBytes = new ByteArrayOutputStream(16 * 1024);
+
+		byte[] buffer = new byte[8192];
+		int    length = 0;
+		while ((length = zipInputStream.read(buffer)) > 0) {
+
+			entryBytes.write(buffer, 0, length);
+		}
+
+		return new String(entryBytes.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,389 @@
+package de.mide.kahoot.result2word.poi;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Engine {@link ReaderEngineEnum#STREAMING}: reads the sheets of a workbook with SAX one after the other instead
+ * of building a DOM of the whole workbook. Only the cells in the first rows and columns of a sheet are kept;
+ * parsing of a sheet stops after these rows, so the rows with the answers of the players, which make up most
+ * of a large Kahoot result file, are not even parsed. Only the shared strings table is loaded completely.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class StreamingWorkbook implements Closeable {
+
+	/** Number of columns of a worksheet, for the key of a cell in {@link CellCollector}. */
+	protected static final long MAX_COLUMNS = 16384;
+
+	/** Package (ZIP archive) of the workbook, parts are read on demand. */
+	protected final OPCPackage _package;
+
+	/** All strings referenced by the cells. */
+	protected final ReadOnlySharedStringsTable _sharedStrings;
+
+	/** Parts with the worksheets in the order of the workbook. */
+	protected final List<PackagePart> _sheetParts = new ArrayList<PackagePart>();
+
+
+	/**
+	 * Thrown by {@link CellCollector} to end parsing of a sheet after the last row needed.
+	 */
+	protected static class StopParsingException extends SAXException {
+
+		private static final long serialVersionUID = 1L;
+
+		/** Constructor. */
+		protected StopParsingException() {
+
+			super("Rows needed were read.");
+		}
+
+		/** No stack trace needed, the exception is thrown for every sheet. */
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+
+			return this;
+		}
+	}
+
+
+	/**
+	 * Value of one cell.
+	 */
+	protected static class CellValue {
+
+		/** Text or number as in the XML; {@code null} for a blank cell. */
+		protected final String _text;
+
+		/** True if {@link #_text} is a number. */
+		protected final boolean _isNumeric;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param text  Text or number, or {@code null} for a blank cell.
+		 *
+		 * @param isNumeric  True for a number.
+		 */
+		protected CellValue(String text, boolean isNumeric) {
+
+			_text      = text;
+			_isNumeric = isNumeric;
+		}
+	}
+
+
+	/**
+	 * SAX handler keeping the cells of the first rows and columns of one sheet.
+	 */
+	protected class CellCollector extends DefaultHandler implements SheetCells {
+
+		/** Highest 0-based row index to be kept; parsing stops at the next row. */
+		protected final int _maxRowIndex;
+
+		/** Highest 0-based column index to be kept. */
+		protected final int _maxColIndex;
+
+		/** Cells kept, key is row index times {@link #MAX_COLUMNS} plus column index. */
+		protected final Map<Long, CellValue> _cells = new HashMap<Long, CellValue>();
+
+		/** Index of current row. */
+		protected int _rowIndex = -1;
+
+		/** Index of current column. */
+		protected int _colIndex = -1;
+
+		/** Value of attribute {@code t} of current cell, {@code null} for a number. */
+		protected String _cellType = null;
+
+		/** Text of elements {@code v} or {@code t} of current cell. */
+		protected final StringBuilder _text = new StringBuilder();
+
+		/** True while inside an element whose text is to be collected. */
+		protected boolean _collectText = false;
+
+		/** True if current cell has an element {@code v} or {@code is}. */
+		protected boolean _hasValue = false;
+
+
+		/**
+		 * Constructor.
+		 *
+		 * @param maxRowIndex  Highest 0-based row index to be kept.
+		 *
+		 * @param maxColIndex  Highest 0-based column index to be kept.
+		 */
+		protected CellCollector(int maxRowIndex, int maxColIndex) {
+
+			_maxRowIndex = maxRowIndex;
+			_maxColIndex = maxColIndex;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+
+			switch (localName) {
+
+				case "row":
+					String rowNumber = attributes.getValue("r"); // optional according to the standard
+					_rowIndex = rowNumber != null ? Integer.parseInt(rowNumber) - 1 : _rowIndex + 1;
+					_colIndex = -1;
+					if (_rowIndex > _maxRowIndex) { throw new StopParsingException(); }
+					break;
+
+				case "c":
+					String reference = attributes.getValue("r");
+					_colIndex = reference != null ? new CellReference(reference).getCol() : _colIndex + 1;
+					_cellType = attributes.getValue("t");
+					_hasValue = false;
+					_text.setLength(0);
+					break;
+
+				case "v":
+				case "t": // in "is" of inline strings, also of rich text runs
+					_collectText = true;
+					_hasValue    = true;
+					break;
+
+				default:
+					break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+
+			if (_collectText) { _text.append(ch, start, length); }
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+
+			if ( localName.equals("v") || localName.equals("t") ) {
+
+				_collectText = false;
+
+			} else if ( localName.equals("c") && _colIndex <= _maxColIndex ) {
+
+				_cells.put( _rowIndex * MAX_COLUMNS + _colIndex, createCellValue() );
+			}
+		}
+
+		/**
+		 * Create value of current cell from its type and text.
+		 *
+		 * @return  Value of cell.
+		 */
+		protected CellValue createCellValue() {
+
+			if (!_hasValue) { return new CellValue(null, false); }
+
+			if (_cellType == null || _cellType.equals("n")) { return new CellValue(_text.toString(), true); }
+
+			if (_cellType.equals("s")) {
+
+				int index = Integer.parseInt( _text.toString().trim() );
+
+				return new CellValue( _sharedStrings.getItemAt(index).getString(), false );
+			}
+
+			return new CellValue(_text.toString(), false); // "inlineStr", "str" (formula), "b", "e"
+		}
+
+		@Override
+		public String getStringCellValue(int rowIndex, int colIndex) {
+
+			CellValue value = _cells.get( rowIndex * MAX_COLUMNS + colIndex );
+
+			if (value == null || value._text == null) { return ""; }
+
+			if (value._isNumeric) { throw new IllegalStateException("Cannot get a STRING value from a NUMERIC cell"); }
+
+			return value._text;
+		}
+
+		@Override
+		public double getNumericCellValue(int rowIndex, int colIndex) throws KahootException {
+
+			CellValue value = _cells.get( rowIndex * MAX_COLUMNS + colIndex );
+
+			if (value == null) {
+
+				throw new KahootException("Cell " + new CellReference(rowIndex, colIndex).formatAsString() + " not found.");
+			}
+
+			if (value._text == null) { return 0; }
+
+			if (!value._isNumeric) { throw new IllegalStateException("Cannot get a NUMERIC value from a STRING cell"); }
+
+			return Double.parseDouble(value._text);
+		}
+	}
+
+
+	/**
+	 * Open workbook and read the list of sheets and the shared strings table.
+	 *
+	 * @param opcPackage  Package of workbook, is closed by {@link #close()}.
+	 *
+	 * @throws IOException  Error when reading the package.
+	 *
+	 * @throws SAXException  Shared strings table is not valid XML.
+	 *
+	 * @throws OpenXML4JException  Package has no workbook.
+	 */
+	protected StreamingWorkbook(OPCPackage opcPackage) throws IOException, SAXException, OpenXML4JException {
+
+		_package       = opcPackage;
+		_sharedStrings = new ReadOnlySharedStringsTable(opcPackage, false);
+
+		XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) new XSSFReader(opcPackage).getSheetsData();
+		while (sheetIterator.hasNext()) {
+
+			sheetIterator.next().close(); // stream is not needed, only the part
+			_sheetParts.add( sheetIterator.getSheetPart() );
+		}
+	}
+
+
+	/**
+	 * Open workbook in a file; parts are read from the file on demand.
+	 *
+	 * @param xlsxFile  Xlsx file.
+	 *
+	 * @return  Opened workbook.
+	 *
+	 * @throws KahootException  File is not a workbook.
+	 */
+	public static StreamingWorkbook open(File xlsxFile) throws KahootException {
+
+		OPCPackage opcPackage = null;
+		try {
+
+			opcPackage = OPCPackage.open(xlsxFile, PackageAccess.READ);
+
+			return new StreamingWorkbook(opcPackage);
+		}
+		catch (Exception ex) {
+
+			if (opcPackage != null) { opcPackage.revert(); }
+
+			throw new KahootException("Error when trying to read input file \"" + xlsxFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Open workbook whose content is read from a stream; the parts are kept in memory, but not parsed.
+	 *
+	 * @param inputStream  Content of xlsx file, is read completely but not closed.
+	 *
+	 * @param nameOfInput  Name of input for error messages.
+	 *
+	 * @return  Opened workbook.
+	 *
+	 * @throws KahootException  Content is not a workbook.
+	 */
+	public static StreamingWorkbook open(InputStream inputStream, String nameOfInput) throws KahootException {
+
+		OPCPackage opcPackage = null;
+		try {
+
+			opcPackage = OPCPackage.open(inputStream);
+
+			return new StreamingWorkbook(opcPackage);
+		}
+		catch (Exception ex) {
+
+			if (opcPackage != null) { opcPackage.revert(); }
+
+			throw new KahootException("Error when trying to read input \"" + nameOfInput + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Getter for number of sheets.
+	 *
+	 * @return  Number of worksheets of the workbook.
+	 */
+	public int getNumberOfSheets() {
+
+		return _sheetParts.size();
+	}
+
+
+	/**
+	 * Parse the first rows of a sheet.
+	 *
+	 * @param sheetIndex  0-based index of sheet in the order of the workbook.
+	 *
+	 * @param maxRowIndex  Highest 0-based row index needed, the following rows are not parsed.
+	 *
+	 * @param maxColIndex  Highest 0-based column index needed.
+	 *
+	 * @return  Cells of the sheet up to the given row and column.
+	 *
+	 * @throws KahootException  Sheet could not be parsed.
+	 */
+	public SheetCells readSheet(int sheetIndex, int maxRowIndex, int maxColIndex) throws KahootException {
+
+		CellCollector collector = new CellCollector(maxRowIndex, maxColIndex);
+
+		try (InputStream inputStream = _sheetParts.get(sheetIndex).getInputStream()) {
+
+			XMLReader xmlReader = SAXHelper.newXMLReader();
+			xmlReader.setContentHandler(collector);
+			xmlReader.parse( new InputSource(inputStream) );
+		}
+		catch (StopParsingException ex) {
+
+			// all rows needed were read
+		}
+		catch (IOException | SAXException | ParserConfigurationException | RuntimeException ex) {
+
+			throw new KahootException("Error when parsing sheet with index=" + sheetIndex + ".", ex);
+		}
+
+		return collector;
+	}
+
+
+	/**
+	 * Close the package without saving anything.
+	 */
+	@Override
+	public void close() {
+
+		_package.revert();
+	}
+
+
+}
@@ -0,0 +1,163 @@
+package de.mide.kahoot.result2word.utils;
+
+import java.util.Optional;
+
+
+/**
+ * Token for aborting a conversion cooperatively: the reader checks it before each sheet and the writer
+ * before each question, so a conversion stops within the time needed for one sheet or question. A token
+ * is cancelled by {@link #cancel()}, when its deadline has passed, or when its parent token is cancelled;
+ * e.g. the token of each file of a batch is a child of the token of the batch.
+ * <br><br>
+ *
+ * Reader and writer take the token of the current thread (see {@link #setCurrent(CancellationToken)}) when
+ * they are created, so it need not be passed through all methods between the batch loop and the conversion.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class CancellationToken {
+
+	/** Token that is never cancelled, used when no token was set for the current thread. */
+	public static final CancellationToken NONE = new CancellationToken() {
+
+		@Override
+		public void cancel() { /* shared by all threads, must not be cancelled */ }
+	};
+
+	/** Token of the current thread. */
+	protected static final ThreadLocal<CancellationToken> sCurrentToken = new ThreadLocal<CancellationToken>();
+
+	/** Token whose cancellation also cancels this token. */
+	protected final Optional<CancellationToken> _parentOptional;
+
+	/** Time budget in milliseconds, 0 for none. */
+	protected final long _timeBudgetMillis;
+
+	/** Value of {@link System#nanoTime()} after which this token counts as cancelled, only used if there is a time budget. */
+	protected final long _deadlineNanos;
+
+	/** Set by {@link #cancel()}. */
+	protected volatile boolean _cancelled = false;
+
+
+	/**
+	 * Create token without deadline and without parent, it is only cancelled by {@link #cancel()}.
+	 */
+	public CancellationToken() {
+
+		this(null, 0);
+	}
+
+
+	/**
+	 * Create token with a time budget starting now.
+	 *
+	 * @param parent  Token whose cancellation also cancels this token, or {@code null}.
+	 *
+	 * @param timeBudgetMillis  Milliseconds after which this token counts as cancelled, 0 for no time budget.
+	 */
+	public CancellationToken(CancellationToken parent, long timeBudgetMillis) {
+
+		_parentOptional   = Optional.ofNullable(parent);
+		_timeBudgetMillis = timeBudgetMillis;
+		_deadlineNanos    = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+	}
+
+
+	/**
+	 * Cancel this token and all its children.
+	 */
+	public void cancel() {
+
+		_cancelled = true;
+	}
+
+
+	/**
+	 * Check whether the conversion is to be aborted.
+	 *
+	 * @return  True if this token or its parent was cancelled, or if the deadline has passed.
+	 */
+	public boolean isCancelled() {
+
+		return _cancelled || isDeadlinePassed() || (_parentOptional.isPresent() && _parentOptional.get().isCancelled());
+	}
+
+
+	/**
+	 * Check whether the deadline of this token has passed.
+	 *
+	 * @return  True if the token has a time budget and it is exceeded.
+	 */
+	protected boolean isDeadlinePassed() {
+
+		return _timeBudgetMillis > 0 && System.nanoTime() - _deadlineNanos > 0;
+	}
+
+
+	/**
+	 * Abort the current conversion if the token is cancelled, is called between sheets and between questions.
+	 *
+	 * @param position  Where the conversion is aborted, for the message, e.g. "before sheet with index=5".
+	 *
+	 * @throws ConversionCancelledException  Token is cancelled or time budget is exceeded.
+	 */
+	public void throwIfCancelled(String position) throws ConversionCancelledException {
+
+		if (!isCancelled()) { return; }
+
+		if (isDeadlinePassed() && !_cancelled) {
+
+			throw new ConversionCancelledException("Conversion aborted " + position + ": time budget of " + _timeBudgetMillis + " ms exceeded.");
+		}
+
+		throw new ConversionCancelledException("Conversion aborted " + position + ": cancelled.");
+	}
+
+
+	/**
+	 * Abort the current conversion if the token is cancelled, is called right before the output file is written;
+	 * a subclass can check conditions here which are too expensive to be checked before each question.
+	 *
+	 * @param position  Where the conversion is aborted, for the message, e.g. "before writing file.docx".
+	 *
+	 * @throws ConversionCancelledException  Token is cancelled or time budget is exceeded.
+	 */
+	public void throwIfCancelledBeforeWriting(String position) throws ConversionCancelledException {
+
+		throwIfCancelled(position);
+	}
+
+
+	/**
+	 * Getter for the token of the current thread.
+	 *
+	 * @return  Token set by {@link #setCurrent(CancellationToken)}, or {@link #NONE}.
+	 */
+	public static CancellationToken getCurrent() {
+
+		CancellationToken token = sCurrentToken.get();
+
+		return token != null ? token : NONE;
+	}
+
+
+	/**
+	 * Set token of the current thread, which is taken by readers and writers created afterwards on this thread.
+	 *
+	 * @param token  Token, or {@code null} to remove the token.
+	 */
+	public static void setCurrent(CancellationToken token) {
+
+		if (token == null) {
+
+			sCurrentToken.remove();
+
+		} else {
+
+			sCurrentToken.set(token);
+		}
+	}
+
+}
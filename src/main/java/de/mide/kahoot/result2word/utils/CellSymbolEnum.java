@@ -0,0 +1,29 @@
+package de.mide.kahoot.result2word.utils;
+
+/**
+ * Enumeration type for the classification of a cell value of a question sheet by
+ * {@link StringUtils#decodeCellSymbol(String)}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public enum CellSymbolEnum {
+
+	/** "Heavy Check Mark" (U+2714), marks a correct answer option. */
+	CHECK_MARK,
+
+	/** "Heavy Ballot X" (U+2718), marks a wrong answer option. */
+	BALLOT_X,
+
+	/** Label "True" of a true/false question (case is ignored). */
+	TRUE_LABEL,
+
+	/** Label "False" of a true/false question (case is ignored). */
+	FALSE_LABEL,
+
+	/** Cell does not exist, is blank or only contains whitespace. */
+	BLANK,
+
+	/** Any other value, e.g. the text of an answer option. */
+	OTHER;
+}
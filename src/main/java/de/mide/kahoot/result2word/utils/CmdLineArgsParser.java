@@ -46,6 +46,66 @@ public class CmdLineArgsParser {
 	/** Single letter "p" for command line argument to specify that for each question the percentage of players with the correct answer is to be included in the result document. */
 	public static final String CMDLINE_OPTION_LETTER_P_FOR_PERCENTAGE = "p";
 
+	/** Single letter "r" for command line argument to specify that an interrupted run with option {@code -i} is to be resumed using the journal. */
+	public static final String CMDLINE_OPTION_LETTER_R_FOR_RESUME = "r";
+
+	/** Single letter "s" for command line argument to specify that only one shard of the input folder is to be processed, e.g. <code>-s 2/4</code>. */
+	public static final String CMDLINE_OPTION_LETTER_S_FOR_SHARD = "s";
+
+	/** Single letter "c" for command line argument to specify that input files are to be claimed, so several processes can work on the same folder, e.g. <code>-c 600</code> for a lease time of ten minutes. */
+	public static final String CMDLINE_OPTION_LETTER_C_FOR_CLAIM = "c";
+
+	/** Single letter "j" for command line argument to specify the number of files to be converted at the same time with option {@code -i}, e.g. <code>-j 4</code>. */
+	public static final String CMDLINE_OPTION_LETTER_J_FOR_THREADS = "j";
+
+	/** Single letter "m" for command line argument to specify the heap budget in MB for workbooks loaded at the same time, e.g. <code>-m 1024</code>. */
+	public static final String CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET = "m";
+
+	/** Single letter "q" for command line argument to specify the order in which the files found with {@code -i} are processed, e.g. <code>-q largest</code>. */
+	public static final String CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER = "q";
+
+	/** Single letter "a" for command line argument to read ahead the files found with {@code -i}, value is the limit in MB, e.g. <code>-a 64</code>. */
+	public static final String CMDLINE_OPTION_LETTER_A_FOR_READ_AHEAD = "a";
+
+	/** Single letter "w" for command line argument to convert the files found with {@code -i} in a pool of worker processes, e.g. <code>-w 3</code>. */
+	public static final String CMDLINE_OPTION_LETTER_W_FOR_WORKERS = "w";
+
+	/** Single letter "d" for command line argument to run as daemon listening on a Unix domain socket, e.g. <code>-d /tmp/kahoot.sock</code>. */
+	public static final String CMDLINE_OPTION_LETTER_D_FOR_DAEMON = "d";
+
+	/** Single letter "u" for command line argument to forward the invocation to a daemon, e.g. <code>-u /tmp/kahoot.sock -f result.xlsx</code>. */
+	public static final String CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON = "u";
+
+	/** Single letter "v" for command line argument to process each file found with {@code -i} on a virtual thread. */
+	public static final String CMDLINE_OPTION_LETTER_V_FOR_VIRTUAL_THREADS = "v";
+
+	/** Single letter "b" for command line argument with the time budget in seconds for each file found with {@code -i}, e.g. <code>-b 30</code>. */
+	public static final String CMDLINE_OPTION_LETTER_B_FOR_BUDGET = "b";
+
+	/** Single letter "k" for command line argument with the folder in which the question lists are cached, e.g. <code>-k /tmp/kahoot_cache</code>. */
+	public static final String CMDLINE_OPTION_LETTER_K_FOR_CACHE = "k";
+
+	/** Single letter "g" for command line switch to only scan the metadata of the files found with {@code -i} into the catalog. */
+	public static final String CMDLINE_OPTION_LETTER_G_FOR_SCAN = "g";
+
+	/** Single letter "e" for command line argument with a query for the catalog, e.g. <code>-e "networking from:2019-03"</code>. */
+	public static final String CMDLINE_OPTION_LETTER_E_FOR_QUERY = "e";
+
+	/** Single letter "x" for command line argument with the folder of the full-text index, e.g. <code>-x /data/kahoot_index</code>. */
+	public static final String CMDLINE_OPTION_LETTER_X_FOR_INDEX = "x";
+
+	/** Single letter "y" for command line argument with words to be searched in the full-text index, e.g. <code>-y "subnet mask*"</code>. */
+	public static final String CMDLINE_OPTION_LETTER_Y_FOR_SEARCH = "y";
+
+	/** Single letter "z" for command line argument with the report file of near-duplicate questions, e.g. <code>-z duplicates.txt</code>. */
+	public static final String CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES = "z";
+
+	/** Single letter "B" (upper case, "b" is used for the time budget) for command line argument with the Word file of the question bank, e.g. <code>-B bank.docx</code>. */
+	public static final String CMDLINE_OPTION_LETTER_B_FOR_BANK = "B";
+
+	/** Single letter "M" (upper case, "m" is used for the memory budget) for command line argument with the merged Word file of all games, e.g. <code>-M recap.docx</code>. */
+	public static final String CMDLINE_OPTION_LETTER_M_FOR_MERGE = "M";
+
 
 	/** Options object (configuration for parser), will be filled in {@code static} block when class is loaded. */
 	protected static Options sOptions = null;
@@ -123,6 +183,163 @@ public class CmdLineArgsParser {
 							                .hasArg(false)
 							                .build();
 
+		Option resumeOption = Option.builder(CMDLINE_OPTION_LETTER_R_FOR_RESUME)
+							                .required(false)
+							                .longOpt("resume")
+							                .desc("Resume interrupted run with -i: only process files not recorded as completed in the journal of the previous run or whose docx file was changed or deleted since")
+							                .hasArg(false)
+							                .build();
+
+		Option shardOption = Option.builder(CMDLINE_OPTION_LETTER_S_FOR_SHARD)
+							                .required(false)
+							                .longOpt("shard")
+							                .desc("Only process shard k of N shards of the files found with -i, e.g. \"2/4\"; allows to split a folder across several machines")
+							                .hasArg(true)
+							                .argName("k/N")
+							                .build();
+
+		Option claimOption = Option.builder(CMDLINE_OPTION_LETTER_C_FOR_CLAIM)
+							                .required(false)
+							                .longOpt("claim")
+							                .desc("Claim each file found with -i before processing it, so several processes can share one folder; claims of dead processes expire after the lease time")
+							                .hasArg(true)
+							                .argName("leaseSeconds")
+							                .build();
+
+		Option threadsOption = Option.builder(CMDLINE_OPTION_LETTER_J_FOR_THREADS)
+							                .required(false)
+							                .longOpt("threads")
+							                .desc("Number of files found with -i to be converted at the same time; default value is 1")
+							                .hasArg(true)
+							                .argName("number")
+							                .build();
+
+		Option memoryBudgetOption = Option.builder(CMDLINE_OPTION_LETTER_M_FOR_MEMORY_BUDGET)
+							                .required(false)
+							                .longOpt("membudget")
+							                .desc("Heap budget in MB for workbooks loaded at the same time with -j; conversions wait when the budget would be exceeded; default value is half of the maximum heap")
+							                .hasArg(true)
+							                .argName("MB")
+							                .build();
+
+		Option queueOrderOption = Option.builder(CMDLINE_OPTION_LETTER_Q_FOR_QUEUE_ORDER)
+							                .required(false)
+							                .longOpt("queueorder")
+							                .desc("Order in which files found with -i are processed: \"file\" (default), \"largest\" (largest first, shortest total time with -j), \"smallest\" (smallest first) or \"newest\" (most recently modified first)")
+							                .hasArg(true)
+							                .argName("policy")
+							                .build();
+
+		Option virtualThreadsOption = Option.builder(CMDLINE_OPTION_LETTER_V_FOR_VIRTUAL_THREADS)
+							                .required(false)
+							                .longOpt("virtualthreads")
+							                .desc("Read and write each file found with -i on its own virtual thread (Java 21 or newer); parsing and rendering is limited to the number of threads given with -j")
+							                .hasArg(false)
+							                .build();
+
+		Option readAheadOption = Option.builder(CMDLINE_OPTION_LETTER_A_FOR_READ_AHEAD)
+							                .required(false)
+							                .longOpt("readahead")
+							                .desc("Read the next files found with -i into memory while the current files are converted; at most the given number of MB are read ahead")
+							                .hasArg(true)
+							                .argName("MB")
+							                .build();
+
+		Option workersOption = Option.builder(CMDLINE_OPTION_LETTER_W_FOR_WORKERS)
+							                .required(false)
+							                .longOpt("workers")
+							                .desc("Convert the files found with -i in the given number of separate worker JVMs; a worker that crashes only fails its current file and is restarted (-m sets the heap of each worker)")
+							                .hasArg(true)
+							                .argName("number")
+							                .build();
+
+		Option budgetOption = Option.builder(CMDLINE_OPTION_LETTER_B_FOR_BUDGET)
+							                .required(false)
+							                .longOpt("budget")
+							                .desc("Abort the conversion of a file found with -i after the given number of seconds (checked between sheets and between questions); the file is counted as failed and the other files are still converted")
+							                .hasArg(true)
+							                .argName("seconds")
+							                .build();
+
+		Option cacheOption = Option.builder(CMDLINE_OPTION_LETTER_K_FOR_CACHE)
+							                .required(false)
+							                .longOpt("cache")
+							                .desc("Keep the questions extracted from each input file in the given folder, so that converting the same file again (e.g. with other options) does not need to read it with POI; the least recently used entries are deleted when the folder exceeds its size limit")
+							                .hasArg(true)
+							                .argName("folder")
+							                .build();
+
+		Option scanOption = Option.builder(CMDLINE_OPTION_LETTER_G_FOR_SCAN)
+							                .required(false)
+							                .longOpt("scan")
+							                .desc("Do not convert the files found with -i, only read title, date, host, players and number of questions of each new or changed file into a catalog file in the output folder; -j sets the number of files read at the same time (default: number of CPU cores)")
+							                .hasArg(false)
+							                .build();
+
+		Option queryOption = Option.builder(CMDLINE_OPTION_LETTER_E_FOR_QUERY)
+							                .required(false)
+							                .longOpt("query")
+							                .desc("Print the games of the catalog of -i matching all terms: words of the title, host:word, date:2019-03, from:2019-03-01, to:2019")
+							                .hasArg(true)
+							                .argName("terms")
+							                .build();
+
+		Option indexOption = Option.builder(CMDLINE_OPTION_LETTER_X_FOR_INDEX)
+							                .required(false)
+							                .longOpt("index")
+							                .desc("Do not convert the files found with -i (or -f), only add the texts of the questions and answer options of each new or changed file to the full-text index in the given folder; -j sets the number of files read at the same time")
+							                .hasArg(true)
+							                .argName("folder")
+							                .build();
+
+		Option searchOption = Option.builder(CMDLINE_OPTION_LETTER_Y_FOR_SEARCH)
+							                .required(false)
+							                .longOpt("search")
+							                .desc("Print the games of the full-text index of -x with a question (or title) containing all words; a word ending with * matches all words starting with it")
+							                .hasArg(true)
+							                .argName("words")
+							                .build();
+
+		Option duplicatesOption = Option.builder(CMDLINE_OPTION_LETTER_Z_FOR_DUPLICATES)
+							                .required(false)
+							                .longOpt("duplicates")
+							                .desc("Do not convert the files found with -i (or -f), only write the clusters of near-duplicate questions (text and answer options) across all files into the given report file; -j sets the number of files read at the same time")
+							                .hasArg(true)
+							                .argName("reportFile")
+							                .build();
+
+		Option bankOption = Option.builder(CMDLINE_OPTION_LETTER_B_FOR_BANK)
+							                .required(false)
+							                .longOpt("bank")
+							                .desc("Do not convert the files found with -i (or -f), only write each distinct question (text and answer options) of all files with the games it was asked in into the given Word file; -j sets the number of files read at the same time")
+							                .hasArg(true)
+							                .argName("docxFile")
+							                .build();
+
+		Option mergeOption = Option.builder(CMDLINE_OPTION_LETTER_M_FOR_MERGE)
+							                .required(false)
+							                .longOpt("merge")
+							                .desc("Write the questions and answers of all files found with -i (or -f) into the given Word file instead of one file per input file, with a section per game ordered by the \"Played on\" date (or by -q); -j sets the number of files read at the same time")
+							                .hasArg(true)
+							                .argName("docxFile")
+							                .build();
+
+		Option daemonOption = Option.builder(CMDLINE_OPTION_LETTER_D_FOR_DAEMON)
+							                .required(false)
+							                .longOpt("daemon")
+							                .desc("Run as daemon which keeps the converter loaded and serves requests of invocations with -u on the given Unix domain socket (Java 16 or newer)")
+							                .hasArg(true)
+							                .argName("socketFile")
+							                .build();
+
+		Option useDaemonOption = Option.builder(CMDLINE_OPTION_LETTER_U_FOR_USE_DAEMON)
+							                .required(false)
+							                .longOpt("usedaemon")
+							                .desc("Forward this invocation with all other options to the daemon listening on the given socket and print its output")
+							                .hasArg(true)
+							                .argName("socketFile")
+							                .build();
+
 		sOptions.addOption( infileOption     );
 		sOptions.addOption( infolderOption   );
 		sOptions.addOption( outfolderOption  );
@@ -131,6 +348,26 @@ public class CmdLineArgsParser {
 		sOptions.addOption( toplineOption    );
 		sOptions.addOption( newpageOption    );
 		sOptions.addOption( percentageOption );
+		sOptions.addOption( resumeOption     );
+		sOptions.addOption( shardOption      );
+		sOptions.addOption( claimOption      );
+		sOptions.addOption( threadsOption    );
+		sOptions.addOption( memoryBudgetOption );
+		sOptions.addOption( queueOrderOption );
+		sOptions.addOption( virtualThreadsOption );
+		sOptions.addOption( readAheadOption );
+		sOptions.addOption( workersOption );
+		sOptions.addOption( budgetOption );
+		sOptions.addOption( cacheOption );
+		sOptions.addOption( scanOption );
+		sOptions.addOption( queryOption );
+		sOptions.addOption( indexOption );
+		sOptions.addOption( searchOption );
+		sOptions.addOption( duplicatesOption );
+		sOptions.addOption( bankOption );
+		sOptions.addOption( mergeOption );
+		sOptions.addOption( daemonOption );
+		sOptions.addOption( useDaemonOption );
 	}
 
 
@@ -155,6 +392,10 @@ public class CmdLineArgsParser {
 
 			String toplineString = parseResult.getOptionValue(CMDLINE_OPTION_LETTER_T_FOR_TOPLINE);
 		    _toplineTextOptional = Optional.of(toplineString);
+
+		} else {
+
+			_toplineTextOptional = Optional.empty(); // the daemon parses arguments for each request
 		}
 
 		return parseResult;
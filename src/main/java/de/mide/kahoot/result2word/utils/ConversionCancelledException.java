@@ -0,0 +1,25 @@
+package de.mide.kahoot.result2word.utils;
+
+/**
+ * Exception thrown when a conversion was aborted because its {@link CancellationToken} was cancelled
+ * or its time budget was exceeded.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionCancelledException extends KahootException {
+
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * Create new exception object.
+	 *
+	 * @param message  Message saying where and why the conversion was aborted.
+	 */
+	public ConversionCancelledException(String message) {
+
+		super(message);
+	}
+
+}
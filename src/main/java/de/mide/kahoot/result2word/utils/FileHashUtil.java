@@ -0,0 +1,102 @@
+package de.mide.kahoot.result2word.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+
+/**
+ * Class with helper methods to compute the SHA-256 hash of files, used to record the output files in the
+ * journal and in the done markers of a batch, and as key of the question list cache.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class FileHashUtil {
+
+	/**
+	 * Compute SHA-256 hash of a file.
+	 *
+	 * @param pathToFile  File for which the hash is to be computed.
+	 *
+	 * @return  Hash as string with hex digits.
+	 *
+	 * @throws KahootException  File could not be read.
+	 */
+	public static String computeFileHash(String pathToFile) throws KahootException {
+
+		try (InputStream is = new FileInputStream(pathToFile)) {
+
+			MessageDigest messageDigest = createMessageDigest();
+
+			byte[] buffer = new byte[8192];
+			int numBytesRead = 0;
+			while ( (numBytesRead = is.read(buffer)) != -1 ) {
+
+				messageDigest.update(buffer, 0, numBytesRead);
+			}
+
+			return toHexDigits( messageDigest.digest() );
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not compute hash for file \"" + pathToFile + "\".", ex);
+		}
+	}
+
+
+	/**
+	 * Compute SHA-256 hash of the content of a file already in memory, the same as {@link #computeFileHash(String)} for the file.
+	 *
+	 * @param buffer  Content of file between position and limit; position is not changed.
+	 *
+	 * @return  Hash as string with hex digits.
+	 */
+	public static String computeHash(ByteBuffer buffer) {
+
+		MessageDigest messageDigest = createMessageDigest();
+		messageDigest.update( buffer.duplicate() );
+
+		return toHexDigits( messageDigest.digest() );
+	}
+
+
+	/**
+	 * Create object computing SHA-256 hashes.
+	 *
+	 * @return  New message digest.
+	 */
+	protected static MessageDigest createMessageDigest() {
+
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+
+			throw new IllegalStateException("SHA-256 not supported by JVM.", ex); // every JVM has to support it
+		}
+	}
+
+
+	/**
+	 * Format hash as hex digits.
+	 *
+	 * @param hash  Bytes of hash.
+	 *
+	 * @return  Two lower case hex digits per byte.
+	 */
+	protected static String toHexDigits(byte[] hash) {
+
+		StringBuilder sb = new StringBuilder();
+		for (byte b: hash) {
+
+			sb.append( String.format("%02x", b) );
+		}
+
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,25 @@
+package de.mide.kahoot.result2word.utils;
+
+/**
+ * Exception thrown when a xlsx file is rejected before it is parsed, because the central directory of the
+ * ZIP archive states sizes or counts exceeding the {@link XlsxResourceLimits}, e.g. for a zip bomb.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ResourceLimitExceededException extends KahootException {
+
+	private static final long serialVersionUID = 1L;
+
+
+	/**
+	 * Create new exception object.
+	 *
+	 * @param message  Message saying which limit was exceeded by which input.
+	 */
+	public ResourceLimitExceededException(String message) {
+
+		super(message);
+	}
+
+}
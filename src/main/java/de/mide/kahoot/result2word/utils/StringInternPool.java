@@ -0,0 +1,246 @@
+package de.mide.kahoot.result2word.utils;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Pool shared by all readers of a batch, so that question texts, answer options and titles which recur
+ * across files (e.g. "True", "False", questions of quizzes played by many classes) are kept only once
+ * on the heap when the question lists are retained, e.g. for aggregation or caching.
+ * <br><br>
+ *
+ * The pool is bounded: when it holds the maximum number of entries, new strings are no longer added
+ * (but still looked up), and strings longer than the maximum length are never added. Several threads
+ * may use one pool; the number of entries can exceed the maximum by the number of threads adding at
+ * the same moment.
+ * <br><br>
+ *
+ * By default no pool is used; it is switched on with the system property {@value #PROPERTY_PREFIX}{@code maxEntries},
+ * e.g. {@code -Dde.mide.kahoot.intern.maxEntries=100000}, and optionally {@value #PROPERTY_PREFIX}{@code maxLength}.
+ * The bytes saved are estimated from the size of a string object with UTF-16 content on a 64-bit JVM
+ * with compressed references; with compact strings (Java 9+) Latin-1 texts save a bit less.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class StringInternPool {
+
+	/** Prefix of the system properties for the default pool. */
+	public static final String PROPERTY_PREFIX = "de.mide.kahoot.intern.";
+
+	/** Default for the maximum length of a pooled string; Kahoot allows 120 chars for a question and 75 for an answer. */
+	public static final int DEFAULT_MAX_LENGTH = 1024;
+
+	/** Bytes of a string object and the header of its char array. */
+	protected static final int STRING_OVERHEAD_BYTES = 24 + 16;
+
+	/** Pool used by readers, empty if switched off; {@code null} if the system properties were not read yet. */
+	protected static volatile Optional<StringInternPool> sDefaultPoolOptional = null;
+
+
+	/** Pooled strings, each mapped to itself. */
+	protected final ConcurrentMap<String, String> _pool = new ConcurrentHashMap<String, String>();
+
+	/** No strings are added when the pool has this number of entries. */
+	protected final int _maxEntries;
+
+	/** Longer strings are not pooled. */
+	protected final int _maxLength;
+
+	/** Number of calls of {@link #intern(String)} with a string that may be pooled. */
+	protected final LongAdder _lookups = new LongAdder();
+
+	/** Number of lookups which returned a pooled string. */
+	protected final LongAdder _hits = new LongAdder();
+
+	/** Estimated bytes of the strings replaced by pooled strings. */
+	protected final LongAdder _bytesSaved = new LongAdder();
+
+
+	/**
+	 * Create pool.
+	 *
+	 * @param maxEntries  Maximum number of pooled strings, must be positive.
+	 *
+	 * @param maxLength  Maximum length of a pooled string, must be positive.
+	 *
+	 * @throws IllegalArgumentException  Value not positive.
+	 */
+	public StringInternPool(int maxEntries, int maxLength) {
+
+		if (maxEntries <= 0 || maxLength <= 0) {
+
+			throw new IllegalArgumentException("Maximum number of entries and maximum length of string pool must be positive.");
+		}
+
+		_maxEntries = maxEntries;
+		_maxLength  = maxLength;
+	}
+
+
+	/**
+	 * Create pool from the system properties with prefix {@value #PROPERTY_PREFIX}.
+	 *
+	 * @return  New pool, or empty if {@code maxEntries} is not set or 0.
+	 *
+	 * @throws IllegalArgumentException  Value of a system property is not a number.
+	 */
+	public static Optional<StringInternPool> fromSystemProperties() {
+
+		String value = System.getProperty(PROPERTY_PREFIX + "maxEntries");
+		if (value == null || Integer.parseInt(value.trim()) == 0) { return Optional.empty(); }
+
+		int maxEntries = Integer.parseInt(value.trim());
+
+		value = System.getProperty(PROPERTY_PREFIX + "maxLength");
+		int maxLength = value != null ? Integer.parseInt(value.trim()) : DEFAULT_MAX_LENGTH;
+
+		return Optional.of( new StringInternPool(maxEntries, maxLength) );
+	}
+
+
+	/**
+	 * Getter for pool used by readers.
+	 *
+	 * @return  Pool set by {@link #setDefault(StringInternPool)}, or else pool from the system properties; empty if no pool is to be used.
+	 */
+	public static Optional<StringInternPool> getDefault() {
+
+		Optional<StringInternPool> poolOptional = sDefaultPoolOptional;
+		if (poolOptional == null) {
+
+			poolOptional = fromSystemProperties();
+			sDefaultPoolOptional = poolOptional;
+		}
+
+		return poolOptional;
+	}
+
+
+	/**
+	 * Set pool used by readers.
+	 *
+	 * @param pool  New default pool, or {@code null} for no pool.
+	 */
+	public static void setDefault(StringInternPool pool) {
+
+		sDefaultPoolOptional = Optional.ofNullable(pool);
+	}
+
+
+	/**
+	 * Get pooled string equal to {@code str}; if there is none, {@code str} is added to the pool unless the pool is full.
+	 *
+	 * @param str  String to be interned, may be {@code null}.
+	 *
+	 * @return  Pooled string, or {@code str} itself.
+	 */
+	public String intern(String str) {
+
+		if (str == null || str.length() > _maxLength) { return str; }
+
+		_lookups.increment();
+
+		String pooled = _pool.get(str);
+
+		if (pooled == null && _pool.size() < _maxEntries) {
+
+			pooled = _pool.putIfAbsent(str, str);
+			if (pooled == null) { return str; }
+		}
+
+		if (pooled == null) { return str; }
+
+		_hits.increment();
+		if (pooled != str) { _bytesSaved.add( estimateBytes(str) ); }
+
+		return pooled;
+	}
+
+
+	/**
+	 * Estimate heap size of a string.
+	 *
+	 * @param str  String.
+	 *
+	 * @return  Bytes of string object and char array, rounded up to 8 bytes.
+	 */
+	protected static long estimateBytes(String str) {
+
+		return (STRING_OVERHEAD_BYTES + 2L * str.length() + 7) & ~7L;
+	}
+
+
+	/**
+	 * Getter for number of pooled strings.
+	 *
+	 * @return  Number of entries.
+	 */
+	public int getSize() {
+
+		return _pool.size();
+	}
+
+
+	/**
+	 * Getter for number of lookups.
+	 *
+	 * @return  Number of calls of {@link #intern(String)} with a string not longer than the maximum length.
+	 */
+	public long getLookups() {
+
+		return _lookups.sum();
+	}
+
+
+	/**
+	 * Getter for number of hits.
+	 *
+	 * @return  Number of lookups that returned a pooled string.
+	 */
+	public long getHits() {
+
+		return _hits.sum();
+	}
+
+
+	/**
+	 * Getter for hit rate.
+	 *
+	 * @return  Hits divided by lookups, 0 if there was no lookup.
+	 */
+	public double getHitRate() {
+
+		long lookups = getLookups();
+
+		return lookups > 0 ? (double) getHits() / lookups : 0.0;
+	}
+
+
+	/**
+	 * Getter for estimated bytes saved.
+	 *
+	 * @return  Sum of estimated sizes of the strings that were replaced by an equal pooled string.
+	 */
+	public long getBytesSaved() {
+
+		return _bytesSaved.sum();
+	}
+
+
+	/**
+	 * Statistics of pool for the summary of a batch.
+	 *
+	 * @return  Number of entries, lookups, hit rate and bytes saved.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format("String pool: %d of max. %d entries, %d lookups, %.1f%% hits, about %d KB saved",
+		                     getSize(), _maxEntries, getLookups(), 100.0 * getHitRate(), getBytesSaved() / 1024);
+	}
+
+}
@@ -20,6 +20,14 @@ public class StringUtils {
 	 * see also <a href="https://unicode.org/cldr/utility/character.jsp?a=2718">this page on unicode.org</a>.
 	 */
 	public static final String UNICODE_FOR_WRONG_ANSWER_OPTION = "\\u2718"; 
+	
+	
+	/** Char for check symbol ("Heavy Check Mark"), see {@link #UNICODE_FOR_RIGHT_ANSWER_OPTION}. */
+	public static final char CHAR_FOR_RIGHT_ANSWER_OPTION = '\u2714';
+	
+	
+	/** Char for cross symbol ("Heavy Ballot X"), see {@link #UNICODE_FOR_WRONG_ANSWER_OPTION}. */
+	public static final char CHAR_FOR_WRONG_ANSWER_OPTION = '\u2718';
 		
 	
 	/**
@@ -79,13 +87,69 @@ public class StringUtils {
 	 */
 	public static boolean isSymbolForCorrectAnwerOption(char ch) throws KahootException {
 		
-		String charAsUnicode = charToUnicode(ch);
+		if ( ch == CHAR_FOR_RIGHT_ANSWER_OPTION ) { return true; }
+		
+		if ( ch == CHAR_FOR_WRONG_ANSWER_OPTION ) { return false; }
+		
+		throw new KahootException("Could not recognize symbol with unicode \"" + charToUnicode(ch) + "\".");
+	}
+	
+	
+	/**
+	 * Classify value of a cell of a question sheet without allocating any object, because it is called for
+	 * every check/cross cell and every answer option of every sheet. Leading and trailing whitespace is ignored;
+	 * a check mark or cross may be followed by a variation selector (U+FE00 to U+FE0F), e.g. Kahoot writes
+	 * U+2714 U+FE0E ("text presentation" of the check mark).
+	 * 
+	 * @param cellValue  Value of cell, may be {@code null}.
+	 * 
+	 * @return  Classification of value; {@link CellSymbolEnum#OTHER} if the check mark or cross is followed
+	 *          by other characters.
+	 */
+	public static CellSymbolEnum decodeCellSymbol(String cellValue) {
+		
+		if (cellValue == null) { return CellSymbolEnum.BLANK; }
+		
+		int start = 0;
+		int end   = cellValue.length();
+		
+		while (start < end && cellValue.charAt(start)   <= ' ') { start++; } // same whitespace as String.trim()
+		while (end > start && cellValue.charAt(end - 1) <= ' ') { end--;   }
+		
+		int length = end - start;
 		
-		if ( charAsUnicode.equalsIgnoreCase(UNICODE_FOR_RIGHT_ANSWER_OPTION) ) { return true; }
+		if (length == 0) { return CellSymbolEnum.BLANK; }
 		
-		if ( charAsUnicode.equalsIgnoreCase(UNICODE_FOR_WRONG_ANSWER_OPTION) ) { return false; }		
+		char firstChar = cellValue.charAt(start);
+		
+		if (firstChar == CHAR_FOR_RIGHT_ANSWER_OPTION || firstChar == CHAR_FOR_WRONG_ANSWER_OPTION) {
+			
+			for (int i = start + 1; i < end; i++) {
+				
+				if ( !isVariationSelector(cellValue.charAt(i)) ) { return CellSymbolEnum.OTHER; }
+			}
+			
+			return firstChar == CHAR_FOR_RIGHT_ANSWER_OPTION ? CellSymbolEnum.CHECK_MARK : CellSymbolEnum.BALLOT_X;
+		}
+		
+		if (length == 4 && cellValue.regionMatches(true, start, "true" , 0, 4)) { return CellSymbolEnum.TRUE_LABEL;  }
+		
+		if (length == 5 && cellValue.regionMatches(true, start, "false", 0, 5)) { return CellSymbolEnum.FALSE_LABEL; }
+		
+		return CellSymbolEnum.OTHER;
+	}
+	
+	
+	/**
+	 * Check for variation selector, which selects the glyph of the preceding character (e.g. text or emoji style).
+	 * 
+	 * @param ch  Char to be checked.
+	 * 
+	 * @return  {@code true} iff {@code ch} is in block "Variation Selectors" (U+FE00 to U+FE0F).
+	 */
+	public static boolean isVariationSelector(char ch) {
 		
-		throw new KahootException("Could not recognize symbol with unicode \"" + charAsUnicode + "\".");
+		return ch >= '\uFE00' && ch <= '\uFE0F';
 	}
 	
 	
@@ -2,6 +2,7 @@ package de.mide.kahoot.result2word.utils;
 
 import java.net.URL;
 import java.util.Locale;
+import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 
@@ -26,6 +27,9 @@ public class TranslatedTextsProvider {
 	/** Instance of {@code ResourceBundle} contains i18n texts (key value pairs) for a particular language (locale). */
 	protected static ResourceBundle sResourceBundle = null;
 	
+	/** Bundle used instead of {@link #sResourceBundle} by the current thread, e.g. for in-process conversions with different languages. */
+	protected static final ThreadLocal<ResourceBundle> sResourceBundleOfThread = new ThreadLocal<ResourceBundle>();
+	
 	
 	/**
 	 * Load resource bundle with texts for a particular language, has to be done only once.
@@ -39,6 +43,59 @@ public class TranslatedTextsProvider {
 	}
 	
 	
+	/**
+	 * Get resource bundle for a language without making it the bundle of the program.
+	 * 
+	 * @param locale  Locale for which the texts are to be loaded.
+	 * 
+	 * @return  Bundle for the language of {@code locale}, or the English bundle if there is no bundle for this language.
+	 */
+	public static ResourceBundle getResourceBundle(Locale locale) {
+		
+		ResourceBundle.Control noFallbackControl = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+		
+		try {
+			
+			return ResourceBundle.getBundle(BASE_NAME_LANGUAGE_BUNDLE, locale, noFallbackControl);
+		}
+		catch (MissingResourceException ex) {
+			
+			return ResourceBundle.getBundle(BASE_NAME_LANGUAGE_BUNDLE, Locale.ENGLISH, noFallbackControl);
+		}
+	}
+	
+	
+	/**
+	 * Use a resource bundle for the current thread only, until {@link #clearResourceBundleForCurrentThread()} is called.
+	 * 
+	 * @param resourceBundle  Bundle with texts, e.g. as returned by {@code ResourceBundle.getBundle("i18n", locale)}.
+	 */
+	public static void setResourceBundleForCurrentThread(ResourceBundle resourceBundle) {
+		
+		sResourceBundleOfThread.set(resourceBundle);
+	}
+	
+	
+	/**
+	 * Let the current thread use the bundle loaded by {@link #loadResourceBundle(Locale)} again.
+	 */
+	public static void clearResourceBundleForCurrentThread() {
+		
+		sResourceBundleOfThread.remove();
+	}
+	
+	
+	/**
+	 * Check whether the current thread uses its own resource bundle.
+	 * 
+	 * @return  True if {@link #setResourceBundleForCurrentThread(ResourceBundle)} is in effect.
+	 */
+	public static boolean hasResourceBundleForCurrentThread() {
+		
+		return sResourceBundleOfThread.get() != null;
+	}
+	
+	
 	/**
 	 * Method to query translated text with {@code key}.<br><br>
 	 * 
@@ -55,7 +112,10 @@ public class TranslatedTextsProvider {
 		 		
 		try {
 			
-			String result = sResourceBundle.getString(key);
+			ResourceBundle resourceBundle = sResourceBundleOfThread.get();
+			if (resourceBundle == null) { resourceBundle = sResourceBundle; }
+			
+			String result = resourceBundle.getString(key);
 			
 			if (result == null || result.trim().length() == 0) {
 				
@@ -0,0 +1,488 @@
+package de.mide.kahoot.result2word.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+/**
+ * Cheap inspection of a xlsx file without parsing it: a xlsx file is a ZIP archive, and its central directory
+ * (at the end of the file) contains the compressed and uncompressed size of each part. Reading the central
+ * directory does not require to inflate any part, so it can be done before the expensive loading of the
+ * workbook with Apache POI, e.g. to estimate the memory that will be needed or to reject zip bombs
+ * (see {@link XlsxResourceLimits}). Only the first bytes of the shared strings part are inflated, to read
+ * the number of strings from the attributes of its root element.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class XlsxPackageInfo {
+
+	/** Prefix of the names of the parts with the worksheets, e.g. {@code xl/worksheets/sheet4.xml}. */
+	protected static final String WORKSHEET_PART_PREFIX = "xl/worksheets/sheet";
+
+	/** Name of part with the shared strings table (all strings of all sheets). */
+	protected static final String SHARED_STRINGS_PART_NAME = "xl/sharedStrings.xml";
+
+	/** Number of bytes of the shared strings part inflated to find the root element with the number of strings. */
+	protected static final int SHARED_STRINGS_HEADER_SIZE = 1024;
+
+	/** Start tag of the root element {@code sst} of the shared strings part, group 1 are the attributes. */
+	protected static final Pattern SHARED_STRINGS_ROOT_PATTERN = Pattern.compile("<(?:\\w+:)?sst\\b([^>]*)>");
+
+	/** Attribute {@code uniqueCount} of the root element, the number of entries of the table. */
+	protected static final Pattern UNIQUE_COUNT_PATTERN = Pattern.compile("\\buniqueCount=\"(\\d{1,18})\"");
+
+	/** Attribute {@code count} of the root element, the number of references to the table (at least the number of entries). */
+	protected static final Pattern COUNT_PATTERN = Pattern.compile("\\bcount=\"(\\d{1,18})\"");
+
+	/** Signature of the "end of central directory record" of a ZIP archive. */
+	protected static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+	/** Signature of an entry of the central directory of a ZIP archive. */
+	protected static final int CENTRAL_DIRECTORY_ENTRY_SIGNATURE = 0x02014b50;
+
+	/** Signature of the local header in front of the data of each part of a ZIP archive. */
+	protected static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+	/** Size of "end of central directory record" without the comment at its end (max. 64 KB). */
+	protected static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+
+	/** Value of 32 bit size fields meaning that the real size is in a ZIP64 extra field. */
+	protected static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+
+	/** Path of the xlsx file that was inspected. */
+	protected String _pathToXlsxFile = "";
+
+	/** Size of the xlsx file on disk in bytes. */
+	protected long _fileSize = 0;
+
+	/** Sum of uncompressed sizes of all parts in bytes. */
+	protected long _totalUncompressedSize = 0;
+
+	/** Sum of compressed sizes of all parts in bytes. */
+	protected long _totalCompressedSize = 0;
+
+	/** Number of parts (ZIP entries). */
+	protected int _numberOfParts = 0;
+
+	/** Number of worksheet parts. */
+	protected int _numberOfWorksheets = 0;
+
+	/** Uncompressed size of the largest worksheet part in bytes. */
+	protected long _largestWorksheetSize = 0;
+
+	/** Uncompressed size of the shared strings part in bytes; 0 if there is no such part. */
+	protected long _sharedStringsSize = 0;
+
+	/** Highest ratio between uncompressed and compressed size of a single part. */
+	protected double _maxCompressionRatio = 0.0;
+
+	/** Number of strings in the shared strings table; -1 if there is no such part or the number is not stated. */
+	protected long _numberOfSharedStrings = -1;
+
+
+	/**
+	 * Read central directory of a xlsx file.
+	 *
+	 * @param pathToXlsxFile  Path to xlsx file.
+	 *
+	 * @return  Object with information on the parts of the xlsx file.
+	 *
+	 * @throws KahootException  File was not found or is not a ZIP archive.
+	 */
+	public static XlsxPackageInfo inspect(String pathToXlsxFile) throws KahootException {
+
+		XlsxPackageInfo info = new XlsxPackageInfo();
+		info._pathToXlsxFile = pathToXlsxFile;
+
+		try (ZipFile zipFile = new ZipFile(pathToXlsxFile)) {
+
+			info._fileSize = new File(pathToXlsxFile).length();
+
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+
+				ZipEntry entry = entries.nextElement();
+
+				info.addPart( entry.getName(), Math.max(0, entry.getSize()), Math.max(0, entry.getCompressedSize()) );
+
+				if ( entry.getName().equals(SHARED_STRINGS_PART_NAME) ) {
+
+					try (InputStream inputStream = zipFile.getInputStream(entry)) {
+
+						byte[] header = new byte[SHARED_STRINGS_HEADER_SIZE];
+						int length = 0;
+						int bytesRead;
+						while ( length < header.length && (bytesRead = inputStream.read(header, length, header.length - length)) > 0 ) {
+
+							length += bytesRead;
+						}
+						info._numberOfSharedStrings = parseNumberOfSharedStrings(header, length);
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+
+			throw new KahootException("Could not read ZIP directory of file \"" + pathToXlsxFile + "\".", ex);
+		}
+
+		return info;
+	}
+
+
+	/**
+	 * Read central directory of a xlsx file whose content is in memory, e.g. an upload; the directory is
+	 * decoded directly from the buffer, so nothing is copied or inflated except the start of the shared strings part.
+	 *
+	 * @param xlsxBuffer  Content of xlsx file between position and limit; position is not changed.
+	 *
+	 * @param nameOfInput  Name of input for error messages.
+	 *
+	 * @return  Object with information on the parts of the xlsx file.
+	 *
+	 * @throws KahootException  Content is not a ZIP archive.
+	 */
+	public static XlsxPackageInfo inspect(ByteBuffer xlsxBuffer, String nameOfInput) throws KahootException {
+
+		XlsxPackageInfo info = new XlsxPackageInfo();
+		info._pathToXlsxFile = nameOfInput;
+
+		ByteBuffer buffer = xlsxBuffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		info._fileSize = buffer.limit();
+
+		try {
+
+			int endOfDirectory = findEndOfCentralDirectory(buffer);
+			if (endOfDirectory < 0) {
+
+				throw new KahootException("Input \"" + nameOfInput + "\" is not a ZIP archive (no central directory found).");
+			}
+
+			int  numberOfEntries  = buffer.getShort(endOfDirectory + 10) & 0xFFFF;
+			long directoryOffset  = buffer.getInt  (endOfDirectory + 16) & 0xFFFFFFFFL;
+
+			if (numberOfEntries == 0xFFFF || directoryOffset == ZIP64_MARKER) {
+
+				throw new KahootException("Input \"" + nameOfInput + "\" is a ZIP64 archive, which is not expected for a Kahoot result file.");
+			}
+
+			int position = (int) directoryOffset;
+			for (int i = 0; i < numberOfEntries; i++) {
+
+				if (buffer.getInt(position) != CENTRAL_DIRECTORY_ENTRY_SIGNATURE) {
+
+					throw new KahootException("Central directory of input \"" + nameOfInput + "\" is corrupt at entry " + (i+1) + ".");
+				}
+
+				int  method           = buffer.getShort(position + 10) & 0xFFFF;
+				long compressedSize   = buffer.getInt  (position + 20) & 0xFFFFFFFFL;
+				long uncompressedSize = buffer.getInt  (position + 24) & 0xFFFFFFFFL;
+				int  nameLength       = buffer.getShort(position + 28) & 0xFFFF;
+				int  extraLength      = buffer.getShort(position + 30) & 0xFFFF;
+				int  commentLength    = buffer.getShort(position + 32) & 0xFFFF;
+				long headerOffset     = buffer.getInt  (position + 42) & 0xFFFFFFFFL;
+
+				byte[] nameBytes = new byte[nameLength];
+				((ByteBuffer) buffer.duplicate().position(position + 46)).get(nameBytes);
+				String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+				if (compressedSize == ZIP64_MARKER || uncompressedSize == ZIP64_MARKER || headerOffset == ZIP64_MARKER) {
+
+					throw new KahootException("Part \"" + name + "\" of input \"" + nameOfInput + "\" has ZIP64 sizes, which is not expected for a Kahoot result file.");
+				}
+
+				info.addPart(name, uncompressedSize, compressedSize);
+
+				if ( name.equals(SHARED_STRINGS_PART_NAME) ) {
+
+					info._numberOfSharedStrings = readNumberOfSharedStrings(buffer, (int) headerOffset, method, compressedSize);
+				}
+
+				position += 46 + nameLength + extraLength + commentLength;
+			}
+		}
+		catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+
+			throw new KahootException("Central directory of input \"" + nameOfInput + "\" points outside of the input.", ex);
+		}
+
+		return info;
+	}
+
+
+	/**
+	 * Search "end of central directory record", which is at the end of the archive followed by a comment of up to 64 KB.
+	 *
+	 * @param buffer  Content of ZIP archive, little endian.
+	 *
+	 * @return  Position of record, or -1 if not found.
+	 */
+	protected static int findEndOfCentralDirectory(ByteBuffer buffer) {
+
+		int lowestPosition = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - 0xFFFF);
+
+		for (int position = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= lowestPosition; position--) {
+
+			if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) { return position; }
+		}
+
+		return -1;
+	}
+
+
+	/**
+	 * Inflate the start of the shared strings part and read the number of strings.
+	 *
+	 * @param buffer  Content of ZIP archive, little endian.
+	 *
+	 * @param headerOffset  Position of local header of shared strings part.
+	 *
+	 * @param method  Compression method from central directory, 0 (stored) or 8 (deflated).
+	 *
+	 * @param compressedSize  Compressed size from central directory.
+	 *
+	 * @return  Number of shared strings, or -1 if not stated or method not supported.
+	 *
+	 * @throws KahootException  Local header is corrupt.
+	 */
+	protected static long readNumberOfSharedStrings(ByteBuffer buffer, int headerOffset, int method, long compressedSize) throws KahootException {
+
+		if (buffer.getInt(headerOffset) != LOCAL_HEADER_SIGNATURE) {
+
+			throw new KahootException("Local header of part \"" + SHARED_STRINGS_PART_NAME + "\" is corrupt.");
+		}
+
+		int dataOffset = headerOffset + 30 + (buffer.getShort(headerOffset + 26) & 0xFFFF) + (buffer.getShort(headerOffset + 28) & 0xFFFF);
+		int dataLength = (int) Math.min( compressedSize, buffer.limit() - dataOffset );
+
+		byte[] header = new byte[SHARED_STRINGS_HEADER_SIZE];
+		int length;
+
+		if (method == ZipEntry.STORED) {
+
+			length = Math.min(dataLength, header.length);
+			((ByteBuffer) buffer.duplicate().position(dataOffset)).get(header, 0, length);
+
+		} else if (method == ZipEntry.DEFLATED) {
+
+			byte[] compressed = new byte[ Math.min(dataLength, header.length) ]; // deflate never shrinks the first bytes that much
+			((ByteBuffer) buffer.duplicate().position(dataOffset)).get(compressed);
+
+			Inflater inflater = new Inflater(true);
+			try {
+				inflater.setInput(compressed);
+				length = inflater.inflate(header);
+			}
+			catch (DataFormatException ex) {
+
+				throw new KahootException("Part \"" + SHARED_STRINGS_PART_NAME + "\" cannot be inflated.", ex);
+			}
+			finally {
+
+				inflater.end();
+			}
+
+		} else {
+
+			return -1;
+		}
+
+		return parseNumberOfSharedStrings(header, length);
+	}
+
+
+	/**
+	 * Read number of strings from the attributes of the root element of the shared strings part.
+	 *
+	 * @param header  First bytes of shared strings part.
+	 *
+	 * @param length  Number of valid bytes in {@code header}.
+	 *
+	 * @return  Value of attribute {@code uniqueCount} or else {@code count}; -1 if neither is found.
+	 */
+	protected static long parseNumberOfSharedStrings(byte[] header, int length) {
+
+		Matcher rootMatcher = SHARED_STRINGS_ROOT_PATTERN.matcher( new String(header, 0, length, StandardCharsets.UTF_8) );
+		if ( !rootMatcher.find() ) { return -1; }
+
+		String attributes = rootMatcher.group(1);
+
+		Matcher matcher = UNIQUE_COUNT_PATTERN.matcher(attributes);
+		if ( matcher.find() ) { return Long.parseLong( matcher.group(1) ); }
+
+		matcher = COUNT_PATTERN.matcher(attributes);
+		if ( matcher.find() ) { return Long.parseLong( matcher.group(1) ); }
+
+		return -1;
+	}
+
+
+	/**
+	 * Add sizes of a part to the sums.
+	 *
+	 * @param name  Name of part (ZIP entry).
+	 *
+	 * @param uncompressedSize  Uncompressed size in bytes as stated in the central directory.
+	 *
+	 * @param compressedSize  Compressed size in bytes as stated in the central directory.
+	 */
+	protected void addPart(String name, long uncompressedSize, long compressedSize) {
+
+		_numberOfParts++;
+		_totalUncompressedSize += uncompressedSize;
+		_totalCompressedSize   += compressedSize;
+
+		if (compressedSize > 0) {
+
+			_maxCompressionRatio = Math.max( _maxCompressionRatio, (double) uncompressedSize / compressedSize );
+		}
+
+		if ( name.startsWith(WORKSHEET_PART_PREFIX) && name.endsWith(".xml") ) {
+
+			_numberOfWorksheets++;
+			_largestWorksheetSize = Math.max(_largestWorksheetSize, uncompressedSize);
+		}
+
+		if ( name.equals(SHARED_STRINGS_PART_NAME) ) {
+
+			_sharedStringsSize = uncompressedSize;
+		}
+	}
+
+
+	/**
+	 * Getter for path of inspected file.
+	 *
+	 * @return  Path of the xlsx file.
+	 */
+	public String getPathToXlsxFile() {
+
+		return _pathToXlsxFile;
+	}
+
+
+	/**
+	 * Getter for size of file.
+	 *
+	 * @return  Size of the xlsx file on disk in bytes.
+	 */
+	public long getFileSize() {
+
+		return _fileSize;
+	}
+
+
+	/**
+	 * Getter for sum of uncompressed sizes.
+	 *
+	 * @return  Sum of uncompressed sizes of all parts in bytes.
+	 */
+	public long getTotalUncompressedSize() {
+
+		return _totalUncompressedSize;
+	}
+
+
+	/**
+	 * Getter for sum of compressed sizes.
+	 *
+	 * @return  Sum of compressed sizes of all parts in bytes.
+	 */
+	public long getTotalCompressedSize() {
+
+		return _totalCompressedSize;
+	}
+
+
+	/**
+	 * Getter for number of parts.
+	 *
+	 * @return  Number of ZIP entries.
+	 */
+	public int getNumberOfParts() {
+
+		return _numberOfParts;
+	}
+
+
+	/**
+	 * Getter for number of worksheets.
+	 *
+	 * @return  Number of worksheet parts; for a Kahoot result file this is the number of questions plus 4.
+	 */
+	public int getNumberOfWorksheets() {
+
+		return _numberOfWorksheets;
+	}
+
+
+	/**
+	 * Getter for size of largest worksheet.
+	 *
+	 * @return  Uncompressed size of largest worksheet part in bytes.
+	 */
+	public long getLargestWorksheetSize() {
+
+		return _largestWorksheetSize;
+	}
+
+
+	/**
+	 * Getter for size of shared strings table.
+	 *
+	 * @return  Uncompressed size of shared strings part in bytes, 0 if there is no such part.
+	 */
+	public long getSharedStringsSize() {
+
+		return _sharedStringsSize;
+	}
+
+
+	/**
+	 * Getter for number of shared strings.
+	 *
+	 * @return  Number of strings in the shared strings table as stated in its root element, -1 if unknown.
+	 */
+	public long getNumberOfSharedStrings() {
+
+		return _numberOfSharedStrings;
+	}
+
+
+	/**
+	 * Getter for highest compression ratio.
+	 *
+	 * @return  Highest ratio between uncompressed and compressed size of a single part.
+	 */
+	public double getMaxCompressionRatio() {
+
+		return _maxCompressionRatio;
+	}
+
+
+	/**
+	 * Build string with summary on object's content.
+	 *
+	 * @return  String with number of parts and sizes, might be written to console.
+	 */
+	@Override
+	public String toString() {
+
+		return String.format( "xlsx package \"%s\" with %d parts (%d worksheets), %d bytes uncompressed, %d bytes compressed.",
+				              _pathToXlsxFile, _numberOfParts, _numberOfWorksheets, _totalUncompressedSize, _totalCompressedSize );
+	}
+
+}
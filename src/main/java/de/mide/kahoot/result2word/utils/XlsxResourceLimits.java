@@ -0,0 +1,263 @@
+package de.mide.kahoot.result2word.utils;
+
+
+/**
+ * Limits checked before a xlsx file is parsed, so that a broken or hostile file (e.g. a zip bomb with a
+ * small compressed but huge uncompressed sheet) fails within milliseconds instead of occupying CPU and heap
+ * for minutes. The values are taken from the ZIP central directory (see {@link XlsxPackageInfo}); a limit
+ * with value 0 is not checked.
+ * <br><br>
+ *
+ * The central directory might state wrong sizes; POI itself checks the ratio of the bytes actually inflated
+ * (class {@code ZipSecureFile}, by default the same ratio of 100 as {@link #DEFAULT_MAX_INFLATE_RATIO}),
+ * so such files fail while loading.
+ * <br><br>
+ *
+ * The default limits used by all readers can be changed with the system properties
+ * {@value #PROPERTY_PREFIX}{@code maxUncompressedMB}, {@code maxSheets}, {@code maxSharedStrings}
+ * and {@code maxInflateRatio}, e.g. {@code -Dde.mide.kahoot.limits.maxSheets=200}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class XlsxResourceLimits {
+
+	/** Prefix of the system properties for the default limits. */
+	public static final String PROPERTY_PREFIX = "de.mide.kahoot.limits.";
+
+	/** Default for the sum of the uncompressed sizes of all parts; a Kahoot result file has less than 1 MB per 100 players and question. */
+	public static final long DEFAULT_MAX_UNCOMPRESSED_BYTES = 256L * 1024 * 1024;
+
+	/** Default for the number of worksheets; Kahoot games have at most a few hundred questions, plus 4 other sheets. */
+	public static final int DEFAULT_MAX_SHEETS = 1000;
+
+	/** Default for the number of entries of the shared strings table. */
+	public static final long DEFAULT_MAX_SHARED_STRINGS = 1_000_000L;
+
+	/** Default for the ratio between uncompressed and compressed size of a single part; XML parts of Kahoot files have about 10. */
+	public static final double DEFAULT_MAX_INFLATE_RATIO = 100.0;
+
+	/** Limits used by readers for which no limits were given, initialized from the system properties. */
+	protected static volatile XlsxResourceLimits sDefaultLimits = null;
+
+
+	/** Maximum sum of uncompressed sizes of all parts in bytes. */
+	protected long _maxUncompressedBytes = DEFAULT_MAX_UNCOMPRESSED_BYTES;
+
+	/** Maximum number of worksheets. */
+	protected int _maxSheets = DEFAULT_MAX_SHEETS;
+
+	/** Maximum number of entries of the shared strings table. */
+	protected long _maxSharedStrings = DEFAULT_MAX_SHARED_STRINGS;
+
+	/** Maximum ratio between uncompressed and compressed size of a single part. */
+	protected double _maxInflateRatio = DEFAULT_MAX_INFLATE_RATIO;
+
+
+	/**
+	 * Create limits with the default values (not taking into account the system properties).
+	 */
+	public XlsxResourceLimits() {}
+
+
+	/**
+	 * Create limits with the default values, overridden by the system properties with prefix {@value #PROPERTY_PREFIX}.
+	 *
+	 * @return  New limits.
+	 *
+	 * @throws IllegalArgumentException  Value of a system property is not a number.
+	 */
+	public static XlsxResourceLimits fromSystemProperties() {
+
+		XlsxResourceLimits limits = new XlsxResourceLimits();
+
+		String value = System.getProperty(PROPERTY_PREFIX + "maxUncompressedMB");
+		if (value != null) { limits.setMaxUncompressedBytes( Long.parseLong(value.trim()) * 1024 * 1024 ); }
+
+		value = System.getProperty(PROPERTY_PREFIX + "maxSheets");
+		if (value != null) { limits.setMaxSheets( Integer.parseInt(value.trim()) ); }
+
+		value = System.getProperty(PROPERTY_PREFIX + "maxSharedStrings");
+		if (value != null) { limits.setMaxSharedStrings( Long.parseLong(value.trim()) ); }
+
+		value = System.getProperty(PROPERTY_PREFIX + "maxInflateRatio");
+		if (value != null) { limits.setMaxInflateRatio( Double.parseDouble(value.trim()) ); }
+
+		return limits;
+	}
+
+
+	/**
+	 * Getter for limits used by readers for which no limits were given.
+	 *
+	 * @return  Limits set by {@link #setDefault(XlsxResourceLimits)}, or else limits from the system properties.
+	 */
+	public static XlsxResourceLimits getDefault() {
+
+		XlsxResourceLimits limits = sDefaultLimits;
+		if (limits == null) {
+
+			limits = fromSystemProperties();
+			sDefaultLimits = limits;
+		}
+
+		return limits;
+	}
+
+
+	/**
+	 * Set limits used by readers for which no limits were given.
+	 *
+	 * @param limits  New default limits, or {@code null} for the limits from the system properties.
+	 */
+	public static void setDefault(XlsxResourceLimits limits) {
+
+		sDefaultLimits = limits;
+	}
+
+
+	/**
+	 * Check the sizes and counts of a xlsx file against the limits.
+	 *
+	 * @param packageInfo  Central directory of xlsx file.
+	 *
+	 * @throws ResourceLimitExceededException  A limit is exceeded.
+	 */
+	public void check(XlsxPackageInfo packageInfo) throws ResourceLimitExceededException {
+
+		String prefix = "Input \"" + packageInfo.getPathToXlsxFile() + "\" rejected: ";
+
+		if (_maxUncompressedBytes > 0 && packageInfo.getTotalUncompressedSize() > _maxUncompressedBytes) {
+
+			throw new ResourceLimitExceededException( prefix + "uncompressed size of " + packageInfo.getTotalUncompressedSize()
+			                                          + " bytes exceeds limit of " + _maxUncompressedBytes + " bytes." );
+		}
+
+		if (_maxSheets > 0 && packageInfo.getNumberOfWorksheets() > _maxSheets) {
+
+			throw new ResourceLimitExceededException( prefix + packageInfo.getNumberOfWorksheets() + " sheets exceed limit of "
+			                                          + _maxSheets + " sheets." );
+		}
+
+		if (_maxSharedStrings > 0 && packageInfo.getNumberOfSharedStrings() > _maxSharedStrings) {
+
+			throw new ResourceLimitExceededException( prefix + packageInfo.getNumberOfSharedStrings() + " shared strings exceed limit of "
+			                                          + _maxSharedStrings + " shared strings." );
+		}
+
+		if (_maxInflateRatio > 0 && packageInfo.getMaxCompressionRatio() > _maxInflateRatio) {
+
+			throw new ResourceLimitExceededException( prefix + String.format("inflate ratio of %.1f exceeds limit of %.1f (zip bomb?).",
+			                                                                 packageInfo.getMaxCompressionRatio(), _maxInflateRatio) );
+		}
+	}
+
+
+	/**
+	 * Check number of bytes of a stream read so far, so that reading a huge upload is stopped early;
+	 * the compressed content cannot be larger than the uncompressed size limit.
+	 *
+	 * @param numberOfBytes  Number of bytes read so far.
+	 *
+	 * @param nameOfInput  Name of input for error message.
+	 *
+	 * @throws ResourceLimitExceededException  More bytes than {@link #getMaxUncompressedBytes()}.
+	 */
+	public void checkInputSize(long numberOfBytes, String nameOfInput) throws ResourceLimitExceededException {
+
+		if (_maxUncompressedBytes > 0 && numberOfBytes > _maxUncompressedBytes) {
+
+			throw new ResourceLimitExceededException( "Input \"" + nameOfInput + "\" rejected: size exceeds limit of "
+			                                          + _maxUncompressedBytes + " bytes." );
+		}
+	}
+
+
+	/**
+	 * Setter for maximum uncompressed size.
+	 *
+	 * @param maxUncompressedBytes  Maximum sum of uncompressed sizes of all parts in bytes, 0 for no limit.
+	 */
+	public void setMaxUncompressedBytes(long maxUncompressedBytes) {
+
+		_maxUncompressedBytes = maxUncompressedBytes;
+	}
+
+
+	/**
+	 * Getter for maximum uncompressed size.
+	 *
+	 * @return  Maximum sum of uncompressed sizes of all parts in bytes, 0 for no limit.
+	 */
+	public long getMaxUncompressedBytes() {
+
+		return _maxUncompressedBytes;
+	}
+
+
+	/**
+	 * Setter for maximum number of sheets.
+	 *
+	 * @param maxSheets  Maximum number of worksheets, 0 for no limit.
+	 */
+	public void setMaxSheets(int maxSheets) {
+
+		_maxSheets = maxSheets;
+	}
+
+
+	/**
+	 * Getter for maximum number of sheets.
+	 *
+	 * @return  Maximum number of worksheets, 0 for no limit.
+	 */
+	public int getMaxSheets() {
+
+		return _maxSheets;
+	}
+
+
+	/**
+	 * Setter for maximum number of shared strings.
+	 *
+	 * @param maxSharedStrings  Maximum number of entries of the shared strings table, 0 for no limit.
+	 */
+	public void setMaxSharedStrings(long maxSharedStrings) {
+
+		_maxSharedStrings = maxSharedStrings;
+	}
+
+
+	/**
+	 * Getter for maximum number of shared strings.
+	 *
+	 * @return  Maximum number of entries of the shared strings table, 0 for no limit.
+	 */
+	public long getMaxSharedStrings() {
+
+		return _maxSharedStrings;
+	}
+
+
+	/**
+	 * Setter for maximum inflate ratio.
+	 *
+	 * @param maxInflateRatio  Maximum ratio between uncompressed and compressed size of a single part, 0 for no limit.
+	 */
+	public void setMaxInflateRatio(double maxInflateRatio) {
+
+		_maxInflateRatio = maxInflateRatio;
+	}
+
+
+	/**
+	 * Getter for maximum inflate ratio.
+	 *
+	 * @return  Maximum ratio between uncompressed and compressed size of a single part, 0 for no limit.
+	 */
+	public double getMaxInflateRatio() {
+
+		return _maxInflateRatio;
+	}
+
+}
@@ -0,0 +1,185 @@
+package de.mide.kahoot.result2word.api;
+
+import java.util.concurrent.Flow;
+
+
+/**
+ * Adapters between the interfaces in {@link EventFlow} and the interfaces in {@link java.util.concurrent.Flow},
+ * so that e.g. a {@link ConversionEventPublisher} can be subscribed to by any Reactive Streams library on Java 9
+ * or newer. Each adapter only delegates, the contract of both sets of interfaces is the same.
+ * <br><br>
+ *
+ * This class is compiled for Java 9 from folder {@code src/main/java9} by profile {@code java9-flow}, which is active
+ * when Maven runs on Java 9 or newer; the other classes are still compiled for Java 8 and never load it.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public final class FlowAdapters {
+
+	/** No objects of this class, it only contains static methods. */
+	private FlowAdapters() {}
+
+
+	/**
+	 * Get publisher of {@code java.util.concurrent.Flow} for a publisher of this project.
+	 *
+	 * @param publisher  Publisher, e.g. a {@link ConversionEventPublisher}.
+	 *
+	 * @param <T>  Type of items.
+	 *
+	 * @return  Publisher delegating to {@code publisher}.
+	 */
+	public static <T> Flow.Publisher<T> toFlowPublisher(EventFlow.Publisher<T> publisher) {
+
+		return flowSubscriber -> publisher.subscribe( toEventFlowSubscriber(flowSubscriber) );
+	}
+
+
+	/**
+	 * Get publisher of this project for a publisher of {@code java.util.concurrent.Flow}.
+	 *
+	 * @param flowPublisher  Publisher of {@code java.util.concurrent.Flow}.
+	 *
+	 * @param <T>  Type of items.
+	 *
+	 * @return  Publisher delegating to {@code flowPublisher}.
+	 */
+	public static <T> EventFlow.Publisher<T> toEventFlowPublisher(Flow.Publisher<T> flowPublisher) {
+
+		return subscriber -> flowPublisher.subscribe( toFlowSubscriber(subscriber) );
+	}
+
+
+	/**
+	 * Get subscriber of this project for a subscriber of {@code java.util.concurrent.Flow}.
+	 *
+	 * @param flowSubscriber  Subscriber of {@code java.util.concurrent.Flow}.
+	 *
+	 * @param <T>  Type of items.
+	 *
+	 * @return  Subscriber delegating to {@code flowSubscriber}.
+	 */
+	public static <T> EventFlow.Subscriber<T> toEventFlowSubscriber(Flow.Subscriber<T> flowSubscriber) {
+
+		return new EventFlow.Subscriber<T>() {
+
+			@Override
+			public void onSubscribe(EventFlow.Subscription subscription) {
+
+				flowSubscriber.onSubscribe( toFlowSubscription(subscription) );
+			}
+
+			@Override
+			public void onNext(T item) {
+
+				flowSubscriber.onNext(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+
+				flowSubscriber.onError(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+
+				flowSubscriber.onComplete();
+			}
+		};
+	}
+
+
+	/**
+	 * Get subscriber of {@code java.util.concurrent.Flow} for a subscriber of this project.
+	 *
+	 * @param subscriber  Subscriber of this project.
+	 *
+	 * @param <T>  Type of items.
+	 *
+	 * @return  Subscriber delegating to {@code subscriber}.
+	 */
+	public static <T> Flow.Subscriber<T> toFlowSubscriber(EventFlow.Subscriber<T> subscriber) {
+
+		return new Flow.Subscriber<T>() {
+
+			@Override
+			public void onSubscribe(Flow.Subscription flowSubscription) {
+
+				subscriber.onSubscribe( toEventFlowSubscription(flowSubscription) );
+			}
+
+			@Override
+			public void onNext(T item) {
+
+				subscriber.onNext(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+
+				subscriber.onError(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+
+				subscriber.onComplete();
+			}
+		};
+	}
+
+
+	/**
+	 * Get subscription of {@code java.util.concurrent.Flow} for a subscription of this project.
+	 *
+	 * @param subscription  Subscription of this project.
+	 *
+	 * @return  Subscription delegating to {@code subscription}.
+	 */
+	public static Flow.Subscription toFlowSubscription(EventFlow.Subscription subscription) {
+
+		return new Flow.Subscription() {
+
+			@Override
+			public void request(long n) {
+
+				subscription.request(n);
+			}
+
+			@Override
+			public void cancel() {
+
+				subscription.cancel();
+			}
+		};
+	}
+
+
+	/**
+	 * Get subscription of this project for a subscription of {@code java.util.concurrent.Flow}.
+	 *
+	 * @param flowSubscription  Subscription of {@code java.util.concurrent.Flow}.
+	 *
+	 * @return  Subscription delegating to {@code flowSubscription}.
+	 */
+	public static EventFlow.Subscription toEventFlowSubscription(Flow.Subscription flowSubscription) {
+
+		return new EventFlow.Subscription() {
+
+			@Override
+			public void request(long n) {
+
+				flowSubscription.request(n);
+			}
+
+			@Override
+			public void cancel() {
+
+				flowSubscription.cancel();
+			}
+		};
+	}
+
+}
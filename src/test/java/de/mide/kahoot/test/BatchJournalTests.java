@@ -0,0 +1,218 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.batch.BatchJournal;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.BatchJournal}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class BatchJournalTests {
+
+	/** Temporary folder for journal files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Only files with "completed" record are to be returned when journal is replayed;
+	 * relative and absolute paths to the same file are to be recognized as equal.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void replayCompletedInputs() throws Exception {
+
+		String pathToJournal = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME).getPath();
+		File   outputFile    = writeOutputFile("a.docx", 1);
+
+		try (BatchJournal cut = new BatchJournal(pathToJournal, false)) {
+
+			cut.recordStarted  ("folder/a.xlsx");
+			cut.recordCompleted("folder/a.xlsx", outputFile.getPath(), FileHashUtil.computeFileHash(outputFile.getPath()));
+			cut.recordStarted  ("folder/b.xlsx"); // no "completed" record, e.g. because process was killed
+		}
+
+		Set<String> completedInputs = BatchJournal.readCompletedInputs(pathToJournal);
+
+		assertEquals(1, completedInputs.size());
+		assertTrue ( BatchJournal.isCompleted(completedInputs, "folder/a.xlsx"                                 ) );
+		assertTrue ( BatchJournal.isCompleted(completedInputs, new File("folder/a.xlsx").getAbsolutePath()     ) );
+		assertTrue ( BatchJournal.isCompleted(completedInputs, "./folder/../folder/a.xlsx"                     ) );
+		assertFalse( BatchJournal.isCompleted(completedInputs, "folder/b.xlsx"                                 ) );
+	}
+
+
+	/**
+	 * Records of previous run must be kept when journal is opened in append mode (resume),
+	 * but dropped when journal is opened for a new run.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void appendAndTruncate() throws Exception {
+
+		String pathToJournal = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME).getPath();
+		String pathToOutput  = writeOutputFile("out.docx", 1).getPath();
+		String outputHash    = FileHashUtil.computeFileHash(pathToOutput);
+
+		try (BatchJournal cut = new BatchJournal(pathToJournal, false)) {
+
+			cut.recordCompleted("a.xlsx", pathToOutput, outputHash);
+		}
+		try (BatchJournal cut = new BatchJournal(pathToJournal, true)) {
+
+			cut.recordCompleted("b.xlsx", pathToOutput, outputHash);
+		}
+
+		assertEquals(2, BatchJournal.readCompletedInputs(pathToJournal).size());
+
+		try (BatchJournal cut = new BatchJournal(pathToJournal, false)) {
+
+			cut.recordCompleted("c.xlsx", pathToOutput, outputHash);
+		}
+
+		assertEquals(1, BatchJournal.readCompletedInputs(pathToJournal).size());
+	}
+
+
+	/**
+	 * Incomplete last line (process killed while writing the record) must be ignored, and
+	 * a journal file that does not exist must yield an empty set.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void tornRecordAndMissingJournal() throws Exception {
+
+		File journalFile = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME);
+		File outputFile  = writeOutputFile("a.docx", 1);
+
+		String completedRecord = "COMPLETED\t" + FileHashUtil.computeFileHash(outputFile.getPath()) + "\t" + outputFile.getAbsolutePath() + "\t/x/a.xlsx\n";
+
+		try (FileOutputStream fos = new FileOutputStream(journalFile)) {
+
+			fos.write( (completedRecord + "COMPLETED\thash2\t" + outputFile.getAbsolutePath()).getBytes(StandardCharsets.UTF_8) );
+		}
+
+		Set<String> completedInputs = BatchJournal.readCompletedInputs(journalFile.getPath());
+
+		assertEquals(1, completedInputs.size());
+		assertTrue( BatchJournal.isCompleted(completedInputs, "/x/a.xlsx") );
+
+		assertTrue( BatchJournal.readCompletedInputs( new File(_temporaryFolder.getRoot(), "missing").getPath() ).isEmpty() );
+	}
+
+
+	/**
+	 * Input file must not be regarded as completed when its docx file was deleted or changed after
+	 * the "completed" record was written.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void outputMissingOrChanged() throws Exception {
+
+		String pathToJournal = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME).getPath();
+
+		File outputA = writeOutputFile("a.docx", 1);
+		File outputB = writeOutputFile("b.docx", 2);
+		File outputC = writeOutputFile("c.docx", 3);
+
+		try (BatchJournal cut = new BatchJournal(pathToJournal, false)) {
+
+			for (File outputFile: new File[]{ outputA, outputB, outputC }) {
+
+				String inputFile = outputFile.getName().replace(".docx", ".xlsx");
+				cut.recordCompleted(inputFile, outputFile.getPath(), FileHashUtil.computeFileHash(outputFile.getPath()));
+			}
+		}
+
+		assertTrue( outputB.delete() );
+		writeOutputFile("c.docx", 4);
+
+		Set<String> completedInputs = BatchJournal.readCompletedInputs(pathToJournal);
+
+		assertEquals(1, completedInputs.size());
+		assertTrue ( BatchJournal.isCompleted(completedInputs, "a.xlsx") );
+		assertFalse( BatchJournal.isCompleted(completedInputs, "b.xlsx") );
+		assertFalse( BatchJournal.isCompleted(completedInputs, "c.xlsx") );
+	}
+
+
+	/**
+	 * A journal used by another worker must not be opened a second time, so each worker gets the next free slot;
+	 * on resume the records of all slots must be replayed.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void freeSlotsAndAllJournals() throws Exception {
+
+		String pathPrefix = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME + "_host").getPath();
+		File   outputA    = writeOutputFile("a.docx", 1);
+		File   outputB    = writeOutputFile("b.docx", 2);
+
+		try (BatchJournal worker1 = BatchJournal.openFreeSlot(pathPrefix, false);
+		     BatchJournal worker2 = BatchJournal.openFreeSlot(pathPrefix, false)) {
+
+			assertFalse( BatchJournal.tryOpen(pathPrefix + "_0", false).isPresent() );
+
+			worker1.recordCompleted("a.xlsx", outputA.getPath(), FileHashUtil.computeFileHash(outputA.getPath()));
+			worker2.recordCompleted("b.xlsx", outputB.getPath(), FileHashUtil.computeFileHash(outputB.getPath()));
+		}
+
+		assertTrue( new File(pathPrefix + "_0").isFile() );
+		assertTrue( new File(pathPrefix + "_1").isFile() );
+
+		Set<String> completedInputs = BatchJournal.readCompletedInputsOfAllJournals( _temporaryFolder.getRoot().getPath(),
+		                                                                             BatchJournal.JOURNAL_FILE_NAME + "_" );
+		assertEquals(2, completedInputs.size());
+
+		try (BatchJournal nextRun = BatchJournal.openFreeSlot(pathPrefix, true)) { // slot 0 is free again
+
+			nextRun.recordCompleted("c.xlsx", outputA.getPath(), FileHashUtil.computeFileHash(outputA.getPath()));
+		}
+
+		assertEquals(2, BatchJournal.readCompletedInputs(pathPrefix + "_0").size());
+	}
+
+
+	/**
+	 * Write a small file standing in for a docx file written by the batch.
+	 *
+	 * @param fileName  Name of file in the temporary folder.
+	 *
+	 * @param content  Byte the file consists of, to get different hashes.
+	 *
+	 * @return  File written.
+	 *
+	 * @throws IOException  Test failed
+	 */
+	protected File writeOutputFile(String fileName, int content) throws IOException {
+
+		File outputFile = new File(_temporaryFolder.getRoot(), fileName);
+
+		try (FileOutputStream fos = new FileOutputStream(outputFile)) { fos.write(new byte[]{ (byte) content, 0, 0 }); }
+
+		return outputFile;
+	}
+
+}
@@ -0,0 +1,112 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.api.ConversionOptions;
+import de.mide.kahoot.result2word.api.KahootResultConverter;
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.ConversionCancelledException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.utils.CancellationToken}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class CancellationTokenTests {
+
+	/**
+	 * A token must count as cancelled after {@code cancel()}, after its deadline, or after its parent was cancelled.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void cancelDeadlineAndParent() throws Exception {
+
+		CancellationToken parent = new CancellationToken();
+		CancellationToken child  = new CancellationToken(parent, 0);
+
+		assertFalse( child.isCancelled() );
+		parent.cancel();
+		assertTrue( child.isCancelled() );
+
+		CancellationToken withBudget = new CancellationToken(null, 20);
+		assertFalse( withBudget.isCancelled() );
+		Thread.sleep(50);
+		assertTrue( withBudget.isCancelled() );
+
+		try {
+			withBudget.throwIfCancelled("before sheet with index=3");
+			fail("No exception raised for exceeded time budget.");
+		}
+		catch (ConversionCancelledException ex) {
+
+			assertEquals( "Conversion aborted before sheet with index=3: time budget of 20 ms exceeded.", ex.getMessage() );
+		}
+
+		CancellationToken.NONE.cancel();
+		assertFalse( CancellationToken.NONE.isCancelled() );
+	}
+
+
+	/**
+	 * The token of the current thread must be taken if the options do not have a token.
+	 */
+	@Test
+	public void tokenOfCurrentThread() {
+
+		ConversionOptions options = new ConversionOptions();
+		assertSame( CancellationToken.NONE, options.getCancellationToken() );
+
+		CancellationToken token = new CancellationToken();
+		CancellationToken.setCurrent(token);
+		try {
+			assertSame( token, options.getCancellationToken() );
+		}
+		finally {
+			CancellationToken.setCurrent(null);
+		}
+		assertSame( CancellationToken.NONE, CancellationToken.getCurrent() );
+	}
+
+
+	/**
+	 * A conversion with a cancelled token must be aborted with a {@code ConversionCancelledException}
+	 * and must not write anything.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void conversionAbortedByCancelledToken() throws Exception {
+
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+
+		ConversionOptions options = new ConversionOptions();
+		options.setCancellationToken(token);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		try {
+			new KahootResultConverter().convert( Paths.get("ExampleFiles", "input_result_1.xlsx"), outputStream, options );
+			fail("No exception raised for cancelled token.");
+		}
+		catch (ConversionCancelledException ex) {
+
+			assertTrue( ex.getMessage().endsWith(": cancelled.") );
+		}
+
+		assertEquals( 0, outputStream.size() );
+	}
+
+}
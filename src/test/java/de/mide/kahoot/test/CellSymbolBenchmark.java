@@ -0,0 +1,127 @@
+package de.mide.kahoot.test;
+
+import java.lang.management.ManagementFactory;
+
+import de.mide.kahoot.result2word.utils.CellSymbolEnum;
+import de.mide.kahoot.result2word.utils.StringUtils;
+
+
+/**
+ * Microbenchmark comparing {@link StringUtils#decodeCellSymbol(String)} with the way the reader recognized
+ * check marks, crosses and true/false labels before (unicode string of the first char compared with
+ * {@code equalsIgnoreCase}, labels compared after {@code toLowerCase()}); not a unit test, so it is not
+ * executed by {@code mvn test}. For both variants the time and the bytes allocated per decoded cell are printed;
+ * the allocated bytes are only available on JVMs providing {@code com.sun.management.ThreadMXBean}.
+ * <br><br>
+ *
+ * Start after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes de.mide.kahoot.test.CellSymbolBenchmark [millions of cells]
+ * </pre>
+ * <br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class CellSymbolBenchmark {
+
+	/** Typical cell values of a question sheet; Kahoot writes the check mark with variation selector. */
+	protected static final String[] CELL_VALUES = { "\u2714\uFE0E", "\u2718", "\u2718", "\u2718", "True", "False", "", "Paris" };
+
+	/** Number of rounds, the first ones are for warming up the JIT. */
+	protected static final int NUMBER_OF_ROUNDS = 5;
+
+	/** Prevents the JIT from removing the loops. */
+	protected static volatile int _sink = 0;
+
+
+	/**
+	 * Entry point of benchmark.
+	 *
+	 * @param args  Optional: number of decoded cells per round in millions (default 20).
+	 */
+	public static void main(String[] args) {
+
+		int numberOfCells = ( args.length > 0 ? Integer.parseInt(args[0]) : 20 ) * 1_000_000;
+
+		for (int round = 1; round <= NUMBER_OF_ROUNDS; round++) {
+
+			System.out.println("Round " + round + ":");
+			measure("  legacy (charToUnicode/toLowerCase)", numberOfCells, true );
+			measure("  decodeCellSymbol                  ", numberOfCells, false);
+		}
+	}
+
+
+	/**
+	 * Decode cells and print time and allocated bytes per cell.
+	 *
+	 * @param label  Name of variant.
+	 *
+	 * @param numberOfCells  Number of cells to decode.
+	 *
+	 * @param legacy  True for the former methods.
+	 */
+	protected static void measure(String label, int numberOfCells, boolean legacy) {
+
+		long bytesBefore = getAllocatedBytes();
+		long startNanos  = System.nanoTime();
+
+		int sum = 0;
+		for (int i = 0; i < numberOfCells; i++) {
+
+			String cellValue = CELL_VALUES[i % CELL_VALUES.length];
+
+			sum += legacy ? decodeLegacy(cellValue) : StringUtils.decodeCellSymbol(cellValue).ordinal();
+		}
+		_sink = sum;
+
+		long nanos = System.nanoTime() - startNanos;
+		long bytes = getAllocatedBytes() - bytesBefore;
+
+		System.out.printf("%s %6.2f ns/cell %8.2f bytes/cell%n", label, (double) nanos / numberOfCells,
+		                  bytes < 0 ? Double.NaN : (double) bytes / numberOfCells);
+	}
+
+
+	/**
+	 * Former recognition of a cell value, see {@code StringUtils.isSymbolForCorrectAnwerOption(char)} and
+	 * {@code KahootResultXlsxReader.checkIsTrueFalseQuestion(String[])} before they were changed.
+	 *
+	 * @param cellValue  Value of cell.
+	 *
+	 * @return  Ordinal of {@link CellSymbolEnum} of the value.
+	 */
+	protected static int decodeLegacy(String cellValue) {
+
+		if (cellValue == null || cellValue.trim().length() == 0) { return CellSymbolEnum.BLANK.ordinal(); }
+
+		String charAsUnicode = String.format("\\u%04x", (int) cellValue.charAt(0));
+		if ( charAsUnicode.equalsIgnoreCase(StringUtils.UNICODE_FOR_RIGHT_ANSWER_OPTION) ) { return CellSymbolEnum.CHECK_MARK.ordinal(); }
+		if ( charAsUnicode.equalsIgnoreCase(StringUtils.UNICODE_FOR_WRONG_ANSWER_OPTION) ) { return CellSymbolEnum.BALLOT_X.ordinal();   }
+
+		String lowerCase = cellValue.toLowerCase();
+		if ( lowerCase.equals("true" ) ) { return CellSymbolEnum.TRUE_LABEL.ordinal();  }
+		if ( lowerCase.equals("false") ) { return CellSymbolEnum.FALSE_LABEL.ordinal(); }
+
+		return CellSymbolEnum.OTHER.ordinal();
+	}
+
+
+	/**
+	 * Bytes allocated by the current thread so far.
+	 *
+	 * @return  Number of bytes, or -1 if not supported by the JVM.
+	 */
+	protected static long getAllocatedBytes() {
+
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+
+			return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes( Thread.currentThread().getId() );
+		}
+
+		return -1;
+	}
+
+}
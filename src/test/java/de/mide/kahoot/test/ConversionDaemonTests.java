@@ -0,0 +1,200 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.daemon.ConversionDaemon;
+import de.mide.kahoot.result2word.daemon.DaemonClient;
+import de.mide.kahoot.result2word.daemon.UnixDomainSockets;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.daemon.ConversionDaemon} and
+ * {@code de.mide.kahoot.result2word.daemon.DaemonClient}; skipped on JVMs without Unix domain sockets.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionDaemonTests {
+
+	/** Temporary folder for socket file, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Output written by the request handler to {@code System.out} and {@code System.err} and its result code
+	 * must arrive at the client.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void outputAndResultCodeAreStreamedBack() throws Exception {
+
+		assumeTrue( UnixDomainSockets.isSupported() );
+
+		String pathToSocketFile = new File(_temporaryFolder.getRoot(), "test.sock").getPath();
+
+		ConversionDaemon cut = new ConversionDaemon( pathToSocketFile, args -> {
+
+			System.out.println("Hello " + args[0]);
+			System.err.println("Warning " + args[1]);
+			return 7;
+		});
+
+		Thread daemonThread = startDaemon(cut, pathToSocketFile);
+
+		ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+		ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+
+		try {
+
+			for (int i = 1; i <= 2; i++) { // second request on same daemon
+
+				outBytes.reset();
+				errBytes.reset();
+
+				int resultCode = DaemonClient.forwardRequest( pathToSocketFile, new String[]{ "Client" + i, "ä" },
+						                                      new PrintStream(outBytes, true, "UTF-8"), new PrintStream(errBytes, true, "UTF-8") );
+
+				assertEquals( 7, resultCode );
+				assertEquals( "Hello Client" + i, new String(outBytes.toByteArray(), StandardCharsets.UTF_8).trim() );
+				assertEquals( "Warning ä"       , new String(errBytes.toByteArray(), StandardCharsets.UTF_8).trim() );
+			}
+		}
+		finally {
+
+			cut.stop();
+			daemonThread.join(5000);
+		}
+	}
+
+
+	/**
+	 * Requests with an invalid number of arguments or a too long argument, a client not sending its request,
+	 * and a request handler throwing an error must not stop the daemon; only the owner may use the socket.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void brokenClientsDoNotStopDaemon() throws Exception {
+
+		assumeTrue( UnixDomainSockets.isSupported() );
+
+		String pathToSocketFile = new File(_temporaryFolder.getRoot(), "test.sock").getPath();
+
+		ConversionDaemon cut = new ConversionDaemon( pathToSocketFile, args -> {
+
+			if (args.length == 0) { throw new OutOfMemoryError("simulated"); }
+			return args.length;
+		});
+		cut.setRequestTimeoutMillis(300);
+
+		Thread daemonThread = startDaemon(cut, pathToSocketFile);
+
+		try {
+
+			if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+
+				assertEquals( "rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions( new File(pathToSocketFile).toPath() )) );
+				assertEquals( 1, _temporaryFolder.getRoot().list().length ); // temporary folder for binding was deleted
+			}
+
+			sendRawRequest( pathToSocketFile, -1,                                 null );
+			sendRawRequest( pathToSocketFile, Integer.MAX_VALUE,                  null );
+			sendRawRequest( pathToSocketFile, 1, new String(new char[ ConversionDaemon.MAX_ARGUMENT_BYTES + 1 ]).replace('\0', 'x') );
+
+			try (SocketChannel stalledClient = UnixDomainSockets.connect(pathToSocketFile)) {
+
+				new DataOutputStream( Channels.newOutputStream(stalledClient) ).writeInt(2); // but no arguments
+				Thread.sleep(1000);
+			}
+
+			PrintStream nullStream = new PrintStream( new ByteArrayOutputStream() );
+
+			assertEquals( ConversionDaemon.RESULT_CODE_ON_UNEXPECTED_ERROR, DaemonClient.forwardRequest(pathToSocketFile, new String[0], nullStream, nullStream) );
+			assertEquals( 2, DaemonClient.forwardRequest(pathToSocketFile, new String[]{ "a", "b" }, nullStream, nullStream) );
+			assertTrue  ( daemonThread.isAlive() );
+		}
+		finally {
+
+			cut.stop();
+			daemonThread.join(5000);
+		}
+	}
+
+
+	/**
+	 * Start daemon on a new thread and wait until it listens.
+	 *
+	 * @param daemon  Daemon to be started.
+	 *
+	 * @param pathToSocketFile  Socket file of daemon.
+	 *
+	 * @return  Thread on which the daemon runs.
+	 *
+	 * @throws InterruptedException  Test failed
+	 */
+	protected Thread startDaemon(ConversionDaemon daemon, String pathToSocketFile) throws InterruptedException {
+
+		Thread daemonThread = new Thread( () -> {
+			try {
+				daemon.serve();
+			}
+			catch (Exception ex) { ex.printStackTrace(); }
+		});
+		daemonThread.start();
+
+		File socketFile = new File(pathToSocketFile);
+		for (int i = 0; i < 100 && !socketFile.exists(); i++) { Thread.sleep(50); }
+
+		return daemonThread;
+	}
+
+
+	/**
+	 * Send request without using {@link DaemonClient}, the daemon is expected to drop the connection.
+	 *
+	 * @param pathToSocketFile  Socket file of daemon.
+	 *
+	 * @param numberOfArguments  Number of arguments announced.
+	 *
+	 * @param argument  Argument sent, or null.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	protected void sendRawRequest(String pathToSocketFile, int numberOfArguments, String argument) throws Exception {
+
+		try (SocketChannel channel = UnixDomainSockets.connect(pathToSocketFile)) {
+
+			DataOutputStream requestStream = new DataOutputStream( Channels.newOutputStream(channel) );
+			requestStream.writeInt(numberOfArguments);
+			if (argument != null) { requestStream.writeUTF(argument); }
+			requestStream.flush();
+
+			assertEquals( -1, Channels.newInputStream(channel).read() ); // no frame, connection closed
+		}
+		catch (IOException ex) {
+
+			// connection reset, because the daemon closed it without reading the rest of the request
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.api.ConversionEvent;
+import de.mide.kahoot.result2word.api.ConversionEventPublisher;
+import de.mide.kahoot.result2word.api.ConversionEventTypeEnum;
+import de.mide.kahoot.result2word.api.ConversionOptions;
+import de.mide.kahoot.result2word.api.EventFlow;
+import de.mide.kahoot.result2word.api.KahootResultConverter;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.api.ConversionEventPublisher}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ConversionEventPublisherTests {
+
+	/** Temporary folder for input and output files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Subscriber recording all signals, requests one event after the other if {@code _requestOneByOne} is set.
+	 */
+	protected static class RecordingSubscriber implements EventFlow.Subscriber<ConversionEvent> {
+
+		/** Events received. */
+		protected final List<ConversionEvent> _events = Collections.synchronizedList( new ArrayList<ConversionEvent>() );
+
+		/** Counted down by {@link #onComplete()} or {@link #onError(Throwable)}. */
+		protected final CountDownLatch _doneLatch = new CountDownLatch(1);
+
+		/** Request next event in {@link #onNext(ConversionEvent)}. */
+		protected final boolean _requestOneByOne;
+
+		/** Set by {@link #onSubscribe(EventFlow.Subscription)}. */
+		protected volatile EventFlow.Subscription _subscription = null;
+
+		/** Set by {@link #onComplete()}. */
+		protected volatile boolean _completed = false;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param requestOneByOne  True if the subscriber requests the next event after each event.
+		 */
+		protected RecordingSubscriber(boolean requestOneByOne) {
+
+			_requestOneByOne = requestOneByOne;
+		}
+
+		@Override
+		public void onSubscribe(EventFlow.Subscription subscription) {
+
+			_subscription = subscription;
+			if (_requestOneByOne) { subscription.request(1); }
+		}
+
+		@Override
+		public void onNext(ConversionEvent event) {
+
+			_events.add(event);
+			if (_requestOneByOne) { _subscription.request(1); }
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+
+			_doneLatch.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+
+			_completed = true;
+			_doneLatch.countDown();
+		}
+	}
+
+
+	/**
+	 * For each file of a folder the title, all questions and the completion must be published in this order;
+	 * a file that cannot be read must not stop the batch.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void eventsOfFolderBatch() throws Exception {
+
+		File inputFolder  = _temporaryFolder.newFolder("input");
+		File outputFolder = _temporaryFolder.newFolder("output");
+
+		Files.copy( Paths.get("ExampleFiles", "input_result_1.xlsx"), new File(inputFolder, "input_result_1.xlsx").toPath() );
+		Files.write( new File(inputFolder, "broken.xlsx").toPath(), "no xlsx".getBytes() );
+
+		ConversionEventPublisher cut = ConversionEventPublisher.forFolder( new KahootResultConverter(), inputFolder.toPath(),
+		                                                                   outputFolder.toPath(), new ConversionOptions() );
+
+		RecordingSubscriber subscriber = new RecordingSubscriber(true);
+		cut.subscribe(subscriber);
+
+		assertTrue( subscriber._doneLatch.await(30, TimeUnit.SECONDS) );
+		assertTrue( subscriber._completed );
+
+		List<ConversionEventTypeEnum> typesOfExample = new ArrayList<ConversionEventTypeEnum>();
+		int numberOfFailedEvents = 0;
+
+		for (ConversionEvent event: subscriber._events) {
+
+			if (event.getNameOfInput().endsWith("broken.xlsx")) {
+
+				assertEquals( ConversionEventTypeEnum.FILE_FAILED, event.getType() );
+				numberOfFailedEvents++;
+
+			} else {
+
+				typesOfExample.add( event.getType() );
+			}
+		}
+
+		assertEquals( 1, numberOfFailedEvents );
+		assertEquals( ConversionEventTypeEnum.TITLE         , typesOfExample.get(0) );
+		assertEquals( ConversionEventTypeEnum.QUESTION      , typesOfExample.get(1) );
+		assertEquals( ConversionEventTypeEnum.QUESTION      , typesOfExample.get(3) );
+		assertEquals( ConversionEventTypeEnum.FILE_COMPLETED, typesOfExample.get(4) );
+		assertEquals( 5, typesOfExample.size() );
+
+		assertTrue( new File(outputFolder, "input_result_1.docx").exists() );
+	}
+
+
+	/**
+	 * Not more events than requested must be published, and after cancelling no completion.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void backpressureAndCancel() throws Exception {
+
+		Path inputFile = Paths.get("ExampleFiles", "input_result_2.xlsx");
+
+		ConversionEventPublisher cut = new ConversionEventPublisher( new KahootResultConverter(), inputFile, null, new ConversionOptions() );
+
+		RecordingSubscriber subscriber = new RecordingSubscriber(false);
+		cut.subscribe(subscriber);
+
+		subscriber._subscription.request(2);
+
+		for (int i = 0; i < 200 && subscriber._events.size() < 2; i++) { Thread.sleep(50); }
+		Thread.sleep(300);
+
+		assertEquals( 2, subscriber._events.size() );
+		assertEquals( ConversionEventTypeEnum.TITLE   , subscriber._events.get(0).getType() );
+		assertEquals( ConversionEventTypeEnum.QUESTION, subscriber._events.get(1).getType() );
+		assertEquals( 1, subscriber._events.get(1).getQuestionNo() );
+
+		subscriber._subscription.cancel();
+
+		assertFalse( subscriber._doneLatch.await(500, TimeUnit.MILLISECONDS) );
+		assertEquals( 2, subscriber._events.size() );
+	}
+
+}
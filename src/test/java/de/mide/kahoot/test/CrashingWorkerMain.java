@@ -0,0 +1,51 @@
+package de.mide.kahoot.test;
+
+import de.mide.kahoot.result2word.batch.WorkerProcessPool;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Worker process for {@link WorkerProcessPoolTests}: "converts" a file by returning its path, but the whole
+ * JVM exits for files whose name contains "crash" (like a worker running out of heap), an error is
+ * reported for files whose name contains "error", and files whose name contains "hang" are never finished.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class CrashingWorkerMain {
+
+	/** Exit code of JVM for files whose name contains "crash". */
+	public static final int CRASH_EXIT_CODE = 3;
+
+
+	/**
+	 * Entry point of worker process.
+	 *
+	 * @param args  Not used.
+	 *
+	 * @throws KahootException  Error when reading requests.
+	 */
+	public static void main(String[] args) throws KahootException {
+
+		WorkerProcessPool.serveRequests( pathToInputFile -> {
+
+			if (pathToInputFile.contains("crash")) { System.exit(CRASH_EXIT_CODE); }
+
+			if (pathToInputFile.contains("error")) { throw new KahootException("Cannot convert " + pathToInputFile); }
+
+			while (pathToInputFile.contains("hang")) { sleepUninterruptibly(); } // ignores the time budget
+
+			return pathToInputFile.replace(".xlsx", ".docx");
+		});
+	}
+
+
+	/**
+	 * Sleep one second like a worker stuck in a loop.
+	 */
+	protected static void sleepUninterruptibly() {
+
+		try { Thread.sleep(1000); } catch (InterruptedException ex) { /* keep hanging */ }
+	}
+
+}
@@ -0,0 +1,171 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.dedup.DuplicateFinder;
+import de.mide.kahoot.result2word.dedup.DuplicateFinder.DuplicateQuestion;
+import de.mide.kahoot.result2word.dedup.MinHasher;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.model.QuestionTypeEnum;
+import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.dedup.DuplicateFinder} and
+ * {@code de.mide.kahoot.result2word.dedup.MinHasher}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class DuplicateFinderTests {
+
+	/** Temporary folder for the report, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Set language for reading the example files.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * An edited copy of a question (changed word, other order of answer options) must be in the same cluster
+	 * as the original, other questions about the same topic must not.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void editedCopyIsFound() throws Exception {
+
+		QuestionList game1 = new QuestionList();
+		game1.addQuestion( createQuestion("Which is the capital city of Australia?", "Canberra", "Sydney", "Melbourne", "Perth") );
+		game1.addQuestion( createQuestion("How many states does Australia have?", "6", "5", "7", "8") );
+		game1.addQuestion( new TrueFalseQuestion("Canberra is the capital of Australia.", true) );
+
+		QuestionList game2 = new QuestionList();
+		game2.addQuestion( createQuestion("What is the capital city of Australia ?", "Sydney", "Melbourne", "Canberra", "Perth") );
+		game2.addQuestion( createQuestion("Which is the capital city of New Zealand?", "Wellington", "Auckland", "Christchurch", "Hamilton") );
+
+		DuplicateFinder cut = new DuplicateFinder(DuplicateFinder.DEFAULT_THRESHOLD);
+		cut.addQuestionList("game1.xlsx", game1);
+		cut.addQuestionList("game2.xlsx", game2);
+
+		List<List<DuplicateQuestion>> clusters = cut.findClusters();
+
+		assertEquals( 1, clusters.size() );
+		assertEquals( 2, clusters.get(0).size() );
+		assertEquals( "game1.xlsx", clusters.get(0).get(0).getPathToXlsxFile()   );
+		assertEquals( 1,            clusters.get(0).get(0).getNumberOfQuestion() );
+		assertEquals( "game2.xlsx", clusters.get(0).get(1).getPathToXlsxFile()   );
+		assertEquals( 1,            clusters.get(0).get(1).getNumberOfQuestion() );
+		assertTrue( clusters.get(0).get(1).getSimilarity() >= DuplicateFinder.DEFAULT_THRESHOLD );
+
+		assertEquals( "which is the capital city of australia canberra melbourne perth sydney", MinHasher.normalize( game1.getQuestion(0) ) );
+	}
+
+
+	/**
+	 * Each question of two copies of an example file must form a cluster, which must be written to the report.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void clustersOfCopiesAreReported() throws Exception {
+
+		DuplicateFinder cut = new DuplicateFinder(DuplicateFinder.DEFAULT_THRESHOLD);
+		cut.addQuestionList( "copy1.xlsx", extractQuestionList("ExampleFiles/input_result_1.xlsx") );
+		cut.addQuestionList( "copy2.xlsx", extractQuestionList("ExampleFiles/input_result_1.xlsx") );
+		cut.addQuestionList( "other.xlsx", extractQuestionList("ExampleFiles/input_result_2.xlsx") );
+
+		List<List<DuplicateQuestion>> clusters = cut.findClusters();
+
+		assertEquals( 3, clusters.size() );
+		for (List<DuplicateQuestion> cluster: clusters) {
+
+			assertEquals( 2, cluster.size() );
+			assertEquals( 1.0, cluster.get(1).getSimilarity(), 0.0 );
+		}
+
+		File report = new File(_temporaryFolder.getRoot(), "duplicates.txt");
+		cut.writeReport(report.getPath(), clusters);
+
+		String reportText = new String( Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8 );
+		assertTrue( reportText.startsWith("Near-duplicate questions: 3 clusters with 6 of 9 questions in 3 games") );
+		assertTrue( reportText.contains("question 1 of \"copy2.xlsx\": Which is NOT a country in Europe? [") );
+	}
+
+
+	/**
+	 * Create single-choice question, the first answer option is right.
+	 *
+	 * @param questionText  Text of question.
+	 *
+	 * @param answerTexts  Texts of answer options.
+	 *
+	 * @return  New question.
+	 *
+	 * @throws Exception  Question could not be created
+	 */
+	protected static MultipleOrSingleChoiceQuestion createQuestion(String questionText, String... answerTexts) throws Exception {
+
+		MultipleOrSingleChoiceQuestion question = new MultipleOrSingleChoiceQuestion(QuestionTypeEnum.SINGLE_CHOICE, questionText);
+
+		for (int i = 0; i < answerTexts.length; i++) {
+
+			question.addAnswerOption(answerTexts[i], i == 0);
+		}
+
+		return question;
+	}
+
+
+	/**
+	 * Extract questions of a file.
+	 *
+	 * @param pathToInputFile  Path of xlsx file.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws Exception  Reading failed
+	 */
+	protected static QuestionList extractQuestionList(String pathToInputFile) throws Exception {
+
+		KahootResultXlsxReader reader = new KahootResultXlsxReader(pathToInputFile);
+		reader.setPrintQuestionsFound(false);
+
+		return reader.extractQuestionList();
+	}
+
+}
@@ -0,0 +1,63 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.utils.FileHashUtil}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class FileHashUtilTests {
+
+	/** Temporary folder for files to be hashed, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Same content must yield same hash, different content a different hash; the hash of a file must be the
+	 * same as the hash of its content in memory.
+	 *
+	 * @throws IOException  Test failed
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void fileHash() throws IOException, KahootException {
+
+		File file1 = _temporaryFolder.newFile("1.docx");
+		File file2 = _temporaryFolder.newFile("2.docx");
+		File file3 = _temporaryFolder.newFile("3.docx");
+
+		try (FileOutputStream fos = new FileOutputStream(file1)) { fos.write(new byte[]{ 1, 2, 3 }); }
+		try (FileOutputStream fos = new FileOutputStream(file2)) { fos.write(new byte[]{ 1, 2, 3 }); }
+		try (FileOutputStream fos = new FileOutputStream(file3)) { fos.write(new byte[]{ 1, 2, 4 }); }
+
+		String hash1 = FileHashUtil.computeFileHash(file1.getPath());
+
+		assertEquals(64, hash1.length());
+		assertEquals(hash1, FileHashUtil.computeFileHash(file2.getPath()));
+		assertFalse (hash1.equals( FileHashUtil.computeFileHash(file3.getPath()) ));
+
+		ByteBuffer buffer = ByteBuffer.wrap( new byte[]{ 0, 1, 2, 3 } );
+		buffer.position(1);
+
+		assertEquals(hash1, FileHashUtil.computeHash(buffer));
+		assertEquals(1, buffer.position());
+	}
+
+}
@@ -0,0 +1,189 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.batch.FilePrefetcher;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.FilePrefetcher}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class FilePrefetcherTests {
+
+	/** Temporary folder for input files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Create file with particular size, all bytes have the same value.
+	 *
+	 * @param name  Name of file.
+	 *
+	 * @param size  Number of bytes.
+	 *
+	 * @param value  Value of each byte.
+	 *
+	 * @return  Path of file.
+	 *
+	 * @throws Exception  File could not be created.
+	 */
+	protected String createFile(String name, int size, byte value) throws Exception {
+
+		byte[] content = new byte[size];
+		Arrays.fill(content, value);
+
+		File file = _temporaryFolder.newFile(name);
+		Files.write( file.toPath(), content );
+
+		return file.getPath();
+	}
+
+
+	/**
+	 * Content of files is served from memory in order; files which are larger than the limit
+	 * are not read ahead.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void filesServedFromMemory() throws Exception {
+
+		String file1 = createFile("1.xlsx", 1000, (byte) 1);
+		String file2 = createFile("2.xlsx", 5000, (byte) 2); // larger than limit
+		String file3 = createFile("3.xlsx", 1500, (byte) 3);
+
+		try (FilePrefetcher cut = new FilePrefetcher(2, 3000)) {
+
+			cut.start( new String[]{ file1, file2, file3 } );
+
+			ByteBuffer buffer1 = cut.take(file1);
+			assertNotNull( buffer1 );
+			assertEquals( 1000, buffer1.remaining() );
+			assertEquals( 1, buffer1.get(999) );
+			cut.release(file1);
+
+			assertNull( cut.take(file2) );
+
+			ByteBuffer buffer3 = cut.take(file3);
+			assertNotNull( buffer3 );
+			assertEquals( 1500, buffer3.remaining() );
+			assertEquals( 3, buffer3.get(0) );
+			cut.release(file3);
+		}
+	}
+
+
+	/**
+	 * A discarded file must free its part of the limit, so the following file can be read ahead.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void discardFreesLimit() throws Exception {
+
+		String file1 = createFile("1.xlsx", 2000, (byte) 1);
+		String file2 = createFile("2.xlsx", 2000, (byte) 2); // does not fit together with file1
+
+		try (FilePrefetcher cut = new FilePrefetcher(2, 3000)) {
+
+			cut.start( new String[]{ file1, file2 } );
+
+			Thread.sleep(300); // reading of file1 has finished, reading of file2 has to wait for limit
+
+			cut.discard(file1);
+
+			ByteBuffer buffer2 = cut.take(file2);
+			assertNotNull( buffer2 );
+			assertEquals( 2, buffer2.get(1999) );
+			cut.release(file2);
+		}
+	}
+
+
+	/**
+	 * Unused buffers kept for reuse must count against the same limit as the buffers of the files read ahead,
+	 * so an unused buffer too small for the next file is dropped before a new buffer is allocated.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void pooledBuffersCountAgainstLimit() throws Exception {
+
+		String file1 = createFile("1.xlsx", 1000, (byte) 1);
+		String file2 = createFile("2.xlsx", 2500, (byte) 2); // does not fit together with file1
+		String file3 = createFile("3.xlsx", 2000, (byte) 3); // reuses buffer of file2
+
+		try (FilePrefetcher cut = new FilePrefetcher(2, 3000)) {
+
+			cut.start( new String[]{ file1, file2, file3 } );
+
+			assertNotNull( cut.take(file1) );
+			cut.release(file1); // buffer of 1000 bytes goes to pool, then file2 needs a new buffer of 2500 bytes
+
+			ByteBuffer buffer2 = cut.take(file2);
+			assertNotNull( buffer2 );
+			assertEquals( 2, buffer2.get(2499) );
+			cut.release(file2);
+
+			ByteBuffer buffer3 = cut.take(file3);
+			assertNotNull( buffer3 );
+			assertEquals( 2000, buffer3.remaining() );
+			assertEquals( 3, buffer3.get(1999) );
+			cut.release(file3);
+
+			assertTrue( cut.getPeakBytesHeld() <= 3000 );
+			assertTrue( cut.toString().contains("1 buffers reused") ); // only the buffer of file2, the one of file1 was dropped
+		}
+	}
+
+
+	/**
+	 * Reader must load workbook from buffer with the same result as from the file.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void readerFromBuffer() throws Exception {
+
+		String exampleFile = "ExampleFiles/input_result_1.xlsx";
+
+		QuestionList fromFile = new KahootResultXlsxReader(exampleFile).extractQuestionList();
+
+		ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes(Paths.get(exampleFile)) );
+
+		QuestionList fromBuffer = new KahootResultXlsxReader(buffer, exampleFile).extractQuestionList();
+
+		assertEquals( fromFile.toString(), fromBuffer.toString() );
+	}
+
+
+	/**
+	 * Bounds must be positive.
+	 */
+	@Test(expected = KahootException.class)
+	public void invalidBounds() throws KahootException {
+
+		new FilePrefetcher(0, 1000);
+	}
+
+}
@@ -0,0 +1,108 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.catalog.GameCatalog;
+import de.mide.kahoot.result2word.catalog.GameMetadata;
+import de.mide.kahoot.result2word.poi.GameMetadataReader;
+import de.mide.kahoot.result2word.utils.DirectoryUtil;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.catalog.GameCatalog} and
+ * {@code de.mide.kahoot.result2word.poi.GameMetadataReader}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class GameCatalogTests {
+
+	/** Temporary folder with the xlsx files and the catalog, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * The metadata must be read from the Overview sheet, the number of questions from the number of sheets.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void readMetadata() throws Exception {
+
+		GameMetadata metadata = GameMetadataReader.read( new File("ExampleFiles/input_result_2.xlsx") );
+
+		assertEquals( "Test Questions for XLSX2Word (2)", metadata.getTitle() );
+		assertEquals( "23 Dec 2019", metadata.getPlayedOn() );
+		assertEquals( LocalDate.of(2019, 12, 23), metadata.getPlayedOnDate().get() );
+		assertEquals( "xxx", metadata.getHostedBy() );
+		assertEquals( "1 player", metadata.getPlayedWith() );
+		assertEquals( 3, metadata.getNumberOfQuestions() );
+	}
+
+
+	/**
+	 * A second scan must only read new files and remove entries of deleted files; queries must match
+	 * words of the title and dates.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void incrementalUpdateAndQuery() throws Exception {
+
+		File inputFolder = _temporaryFolder.newFolder("input");
+		copyExampleFile(1, inputFolder);
+		copyExampleFile(2, inputFolder);
+
+		String pathToCatalog = new File(inputFolder, GameCatalog.CATALOG_FILE_NAME).getPath();
+
+		GameCatalog cut = GameCatalog.load(pathToCatalog);
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), 2 );
+		cut.save();
+
+		assertEquals( 2, cut.getNumberOfFilesScanned() );
+
+		new File(inputFolder, "input_result_1.xlsx").delete();
+		Files.copy( new File("ExampleFiles/input_result_1.xlsx").toPath(), new File(inputFolder, "copy.xlsx").toPath() );
+
+		cut = GameCatalog.load(pathToCatalog);
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), 2 );
+
+		assertEquals( 1, cut.getNumberOfFilesScanned()   );
+		assertEquals( 1, cut.getNumberOfFilesUnchanged() );
+		assertEquals( 2, cut.getNumberOfEntries()        );
+
+		assertEquals( 2, cut.query("").size() );
+		assertEquals( 1, cut.query("xlsx2word (2)").size() );
+		assertEquals( 2, cut.query("title:questions host:XX date:2019-12").size() );
+		assertEquals( 2, cut.query("from:2019-12-23 to:2019").size() );
+		assertEquals( 0, cut.query("from:2020").size() );
+	}
+
+
+	/**
+	 * Copy one of the example files into a folder.
+	 *
+	 * @param number  Number of example file.
+	 *
+	 * @param folder  Target folder.
+	 *
+	 * @throws Exception  File could not be copied
+	 */
+	protected static void copyExampleFile(int number, File folder) throws Exception {
+
+		String fileName = "input_result_" + number + ".xlsx";
+
+		Files.copy( new File("ExampleFiles", fileName).toPath(), new File(folder, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING );
+	}
+
+}
@@ -0,0 +1,154 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.api.ConversionOptions;
+import de.mide.kahoot.result2word.api.KahootResultConverter;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.api.KahootResultConverter}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class KahootResultConverterTests {
+
+	/** Example file with three questions, one of them true/false. */
+	protected static final Path EXAMPLE_FILE = Paths.get("ExampleFiles", "input_result_1.xlsx");
+
+
+	/**
+	 * Conversions with different languages running at the same time on one converter must not
+	 * influence each other.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void concurrentConversionsWithDifferentLanguages() throws Exception {
+
+		KahootResultConverter cut = new KahootResultConverter();
+
+		byte[] xlsxBytes = Files.readAllBytes(EXAMPLE_FILE);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+
+			List<Future<String>> germanResults  = new ArrayList<Future<String>>();
+			List<Future<String>> englishResults = new ArrayList<Future<String>>();
+
+			for (int i = 0; i < 8; i++) {
+
+				final int inputVariant = i % 3;
+
+				germanResults.add ( executor.submit( () -> convertToText(cut, xlsxBytes, inputVariant, Locale.GERMAN ) ) );
+				englishResults.add( executor.submit( () -> convertToText(cut, xlsxBytes, inputVariant, Locale.ENGLISH) ) );
+			}
+
+			for (Future<String> result: germanResults) {
+
+				String text = result.get();
+				assertTrue ( text.contains("Frage Nr. 3") );
+				assertTrue ( text.contains("WAHR")        );
+				assertFalse( text.contains("RIGHT")       );
+				assertTrue ( text.contains("Kopfzeile")   );
+			}
+
+			for (Future<String> result: englishResults) {
+
+				String text = result.get();
+				assertTrue ( text.contains("Question Number 3") );
+				assertTrue ( text.contains("RIGHT")             );
+				assertFalse( text.contains("WAHR")              );
+			}
+		}
+		finally {
+
+			executor.shutdown();
+		}
+	}
+
+
+	/**
+	 * Input which is not an xlsx file must raise an exception instead of terminating the JVM.
+	 */
+	@Test
+	public void exceptionOnInvalidInput() {
+
+		KahootResultConverter cut = new KahootResultConverter();
+
+		try {
+			cut.convert( new ByteArrayInputStream("no xlsx".getBytes()), "upload.xlsx", new ByteArrayOutputStream(), new ConversionOptions() );
+
+			fail("No exception raised for invalid input.");
+		}
+		catch (KahootException ex) { /* Expected exception */ }
+	}
+
+
+	/**
+	 * Convert example file and extract the text of the Word document.
+	 *
+	 * @param converter  Object under test.
+	 *
+	 * @param xlsxBytes  Content of example file.
+	 *
+	 * @param inputVariant  0 for {@code InputStream}, 1 for {@code ByteBuffer}, 2 for {@code Path}.
+	 *
+	 * @param locale  Language of Word document; German documents get a topline.
+	 *
+	 * @return  Text of Word document including header.
+	 *
+	 * @throws Exception  Conversion failed
+	 */
+	protected static String convertToText(KahootResultConverter converter, byte[] xlsxBytes, int inputVariant, Locale locale) throws Exception {
+
+		ConversionOptions options = new ConversionOptions();
+		options.setLocale(locale);
+		options.setWritePercentage(true);
+		if (locale.equals(Locale.GERMAN)) { options.setToplineText("Kopfzeile"); }
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		switch (inputVariant) {
+
+			case 0:
+				converter.convert( new ByteArrayInputStream(xlsxBytes), "upload.xlsx", outputStream, options );
+				break;
+
+			case 1:
+				converter.convert( ByteBuffer.wrap(xlsxBytes), null, outputStream, options );
+				break;
+
+			default:
+				converter.convert( EXAMPLE_FILE, outputStream, options );
+		}
+
+		try (XWPFDocument document = new XWPFDocument( new ByteArrayInputStream(outputStream.toByteArray()) );
+			 XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+
+			return extractor.getText();
+		}
+	}
+
+}
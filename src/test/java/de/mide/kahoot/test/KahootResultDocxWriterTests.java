@@ -2,12 +2,22 @@ package de.mide.kahoot.test;
 
 import org.junit.Test;
 import org.apache.commons.cli.CommandLine;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+import de.mide.kahoot.result2word.cache.RenderedSectionCache;
 import de.mide.kahoot.result2word.model.QuestionList;
 import de.mide.kahoot.result2word.poi.KahootResultDocxWriter;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
 import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
 
 
 
@@ -34,4 +44,63 @@ public class KahootResultDocxWriterTests {
 		catch (KahootException ex) { /* Expected exception */ }
 	}
 
+
+	/**
+	 * Sections spliced from the cache must give the same document body as sections rendered by the writer.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void sectionsFromCacheAreEqualToRenderedSections() throws Exception {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+		try {
+			KahootResultXlsxReader reader = new KahootResultXlsxReader("ExampleFiles/input_result_2.xlsx");
+			reader.setPrintQuestionsFound(false);
+
+			QuestionList questionList = reader.extractQuestionList();
+			int numberOfQuestions = questionList.getNumberOfQuestions();
+
+			RenderedSectionCache sectionCache = new RenderedSectionCache(1024 * 1024);
+
+			String bodyRendered = writeDocumentBody(questionList, null);
+			String bodyFilled   = writeDocumentBody(questionList, sectionCache);
+			String bodySpliced  = writeDocumentBody(questionList, sectionCache);
+
+			assertEquals( bodyRendered, bodyFilled  );
+			assertEquals( bodyRendered, bodySpliced );
+			assertEquals( numberOfQuestions, sectionCache.getHits() );
+			assertEquals( 0.5, sectionCache.getHitRatio(), 0.0001 );
+		}
+		finally {
+			TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+		}
+	}
+
+
+	/**
+	 * Write question list into memory and read the body of the document again.
+	 *
+	 * @param questionList  Question list to be written.
+	 *
+	 * @param sectionCache  Cache of the rendered sections, or {@code null} for no cache.
+	 *
+	 * @return  XML of the body of the written document.
+	 *
+	 * @throws Exception  Document could not be written or read
+	 */
+	protected static String writeDocumentBody(QuestionList questionList, RenderedSectionCache sectionCache) throws Exception {
+
+		KahootResultDocxWriter writer = new KahootResultDocxWriter(questionList, "result.docx", true, true, Optional.empty());
+		writer.setRenderedSectionCache(sectionCache);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		writer.writeResultFile(outputStream);
+
+		try (XWPFDocument wordDocument = new XWPFDocument(new ByteArrayInputStream(outputStream.toByteArray()))) {
+
+			return wordDocument.getDocument().getBody().xmlText();
+		}
+	}
+
 }
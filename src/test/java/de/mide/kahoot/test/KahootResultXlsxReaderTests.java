@@ -1,12 +1,22 @@
 package de.mide.kahoot.test;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
 import de.mide.kahoot.result2word.model.QuestionList;
 import de.mide.kahoot.result2word.model.QuestionTypeEnum;
 import de.mide.kahoot.result2word.model.TrueFalseQuestion;
 import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.ReaderEngineEnum;
+import de.mide.kahoot.result2word.poi.ReaderEngineSelector;
 import de.mide.kahoot.result2word.utils.KahootException;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertEquals;
@@ -22,6 +32,21 @@ import static org.junit.Assert.assertTrue;
  */
 public class KahootResultXlsxReaderTests {
 
+	/** Temporary folder for modified example files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Restore the default engine selector after each test.
+	 */
+	@After
+	public void restoreEngineSelector() {
+
+		ReaderEngineSelector.setDefault(null);
+	}
+
+
 	/**
 	 * Process example file {@code ExampleFiles/input_result_1.xlsx}.
 	 * 
@@ -121,6 +146,48 @@ public class KahootResultXlsxReaderTests {
 	}
 	
 	
+	/**
+	 * A blank title cell and a blank answer option (e.g. an answer option with only an image) must be read
+	 * as empty texts by both engines.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void blankTitleAndAnswerOption() throws Exception {
+
+		File modifiedFile = new File(_temporaryFolder.getRoot(), "blank_cells.xlsx");
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook( new FileInputStream("ExampleFiles/input_result_1.xlsx") );
+			 FileOutputStream fos  = new FileOutputStream(modifiedFile)) {
+
+			workbook.getSheetAt(0).getRow(0).getCell(0).setBlank(); // title in A1 of "Overview"
+			workbook.getSheetAt(3).getRow(7).getCell(3).setBlank(); // first answer option of "1 Quiz"
+			workbook.write(fos);
+		}
+
+		for (ReaderEngineEnum engine: ReaderEngineEnum.values()) {
+
+			ReaderEngineSelector selector = new ReaderEngineSelector();
+			selector.setForcedEngine(engine);
+			ReaderEngineSelector.setDefault(selector);
+
+			KahootResultXlsxReader cut = new KahootResultXlsxReader( modifiedFile.getPath() );
+			cut.setPrintQuestionsFound(false);
+
+			QuestionList questionList = cut.extractQuestionList();
+
+			assertEquals( engine, cut.getReaderEngine() );
+			assertEquals( "", questionList.getTitle() );
+			assertEquals( 3, questionList.getNumberOfQuestions() );
+
+			MultipleOrSingleChoiceQuestion question1 = questionList.getMultiSingleChoiceQuestion(0);
+			assertEquals( 4,             question1.getNumberOfAnswerQuestions()                    );
+			assertEquals( "",            question1.getAnswerOption(1).getAnswerOptionText()      );
+			assertEquals( "Switzerland", question1.getAnswerOption(4).getAnswerOptionText()      );
+		}
+	}
+
+
 	/**
 	 * Test behaviour when Xlsx file to be loaded does not exist. 
 	 */
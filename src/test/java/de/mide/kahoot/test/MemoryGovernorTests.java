@@ -0,0 +1,121 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.batch.MemoryGovernor;
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.XlsxPackageInfo;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.batch.MemoryGovernor} and
+ * {@code de.mide.kahoot.result2word.utils.XlsxPackageInfo}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class MemoryGovernorTests {
+
+	/** Example file used by the tests. */
+	protected static final String EXAMPLE_FILE = "ExampleFiles/input_result_1.xlsx";
+
+
+	/**
+	 * Inspection of ZIP directory of example file: 3 questions, so 7 sheets.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void inspectExampleFile() throws KahootException {
+
+		XlsxPackageInfo cut = XlsxPackageInfo.inspect(EXAMPLE_FILE);
+
+		assertEquals( 7, cut.getNumberOfWorksheets() );
+		assertTrue( cut.getTotalUncompressedSize() > cut.getTotalCompressedSize() );
+		assertTrue( cut.getSharedStringsSize() > 0 );
+		assertTrue( cut.getMaxCompressionRatio() > 1.0 );
+	}
+
+
+	/**
+	 * Inspection of a file which is not a ZIP archive must raise an exception.
+	 */
+	@Test
+	public void inspectNonZipFile() {
+
+		try {
+			XlsxPackageInfo.inspect("pom.xml");
+
+			fail("No exception raised for file which is not a ZIP archive.");
+		}
+		catch (KahootException ex) { /* Expected exception */ }
+	}
+
+
+	/**
+	 * Second conversion has to wait until first one has released its memory, if both would not fit
+	 * into the budget at the same time.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void secondConversionWaitsForBudget() throws Exception {
+
+		long cost = MemoryGovernor.estimateCost(EXAMPLE_FILE);
+
+		MemoryGovernor cut = new MemoryGovernor( cost + cost / 2 ); // budget only sufficient for one conversion
+
+		long acquired1 = cut.acquire(EXAMPLE_FILE);
+		assertEquals( cost, acquired1 );
+
+		CountDownLatch admittedLatch = new CountDownLatch(1);
+		AtomicLong     acquired2     = new AtomicLong(0);
+
+		Thread thread = new Thread( () -> {
+			try {
+				acquired2.set( cut.acquire(EXAMPLE_FILE) );
+				admittedLatch.countDown();
+			}
+			catch (KahootException ex) { /* latch will not be counted down, so test fails */ }
+		});
+		thread.start();
+
+		assertFalse( admittedLatch.await(300, TimeUnit.MILLISECONDS) ); // still waiting
+
+		cut.release(acquired1);
+
+		assertTrue( admittedLatch.await(10, TimeUnit.SECONDS) );
+		assertEquals( cost, cut.getBytesInUse() );
+
+		cut.release( acquired2.get() );
+		assertEquals( 0, cut.getBytesInUse() );
+	}
+
+
+	/**
+	 * A file whose estimated cost exceeds the whole budget must still be admitted (alone).
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void fileLargerThanBudget() throws KahootException {
+
+		MemoryGovernor cut = new MemoryGovernor(1024);
+
+		long acquired = cut.acquire(EXAMPLE_FILE);
+
+		assertEquals( 1024, acquired );
+
+		cut.release(acquired);
+	}
+
+}
@@ -0,0 +1,145 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.MergedDocxWriter;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.poi.MergedDocxWriter}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class MergedDocxWriterTests {
+
+	/** Temporary folder for the merged file, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Set language for reading the example files and writing the merged file.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * The merged file must contain the questions of each game in a section of its own, in the order in which the games were appended.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void sectionPerGameInOrderOfAppending() throws Exception {
+
+		File mergedFile = new File(_temporaryFolder.getRoot(), "merged.docx");
+
+		try (MergedDocxWriter cut = new MergedDocxWriter( mergedFile.getPath(), false, true, Optional.of("Recap"), 2 )) {
+
+			cut.appendGame( "ExampleFiles/input_result_2.xlsx", extractQuestionList("ExampleFiles/input_result_2.xlsx") );
+			cut.appendGame( "ExampleFiles/input_result_1.xlsx", extractQuestionList("ExampleFiles/input_result_1.xlsx") );
+			cut.finish();
+
+			assertEquals( 2, cut.getNumberOfGames() );
+			assertEquals( "Merged document: 2 games with 6 questions.", cut.toString() );
+		}
+
+		try (XWPFDocument document = new XWPFDocument( new FileInputStream(mergedFile) );
+			 XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+
+			String text = extractor.getText();
+
+			assertTrue( text.contains("Questions and answers of Kahoot games:\n2 files") );
+
+			int indexOfGame2 = text.indexOf("Questions and answers for Kahoot game:\nTest Questions for XLSX2Word (2)");
+			int indexOfGame1 = text.indexOf("Questions and answers for Kahoot game:\nTest Questions for XLSX2Word (1)");
+			assertTrue( indexOfGame2 > 0 && indexOfGame1 > indexOfGame2 );
+			assertTrue( text.indexOf("Question Number 3", indexOfGame1) > 0 );
+			assertTrue( text.contains("Beijing is the capital city of PR China.") );
+
+			assertEquals( 5, document.getTables().size() );
+			assertEquals( "Recap", document.getHeaderList().get(0).getText().trim() );
+
+			int numberOfPageBreaks = 0;
+			for (XWPFParagraph paragraph: document.getParagraphs()) {
+
+				if (paragraph.isPageBreak()) { numberOfPageBreaks++; }
+			}
+			assertEquals( 2, numberOfPageBreaks );
+		}
+	}
+
+
+	/**
+	 * Files without "Played on" date must follow the other files, files played on the same day must keep their order.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void sortByPlayedOnDate() throws Exception {
+
+		File notAResultFile = _temporaryFolder.newFile("not_a_result.xlsx");
+		Files.write( notAResultFile.toPath(), "no workbook".getBytes(StandardCharsets.UTF_8) );
+
+		String[] sortedFiles = MergedDocxWriter.sortByPlayedOnDate( new String[] { notAResultFile.getPath(),
+		                                                                           "ExampleFiles/input_result_2.xlsx",
+		                                                                           "ExampleFiles/input_result_1.xlsx" } );
+
+		assertArrayEquals( new String[] { "ExampleFiles/input_result_2.xlsx", "ExampleFiles/input_result_1.xlsx", notAResultFile.getPath() },
+		                   sortedFiles );
+	}
+
+
+	/**
+	 * Extract questions of a file.
+	 *
+	 * @param pathToInputFile  Path of xlsx file.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws Exception  Reading failed
+	 */
+	protected static QuestionList extractQuestionList(String pathToInputFile) throws Exception {
+
+		KahootResultXlsxReader reader = new KahootResultXlsxReader(pathToInputFile);
+		reader.setPrintQuestionsFound(false);
+
+		return reader.extractQuestionList();
+	}
+
+}
@@ -0,0 +1,89 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.batch.BatchJournal;
+import de.mide.kahoot.result2word.batch.BatchRunner;
+import de.mide.kahoot.result2word.batch.PhasedConverter;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.PhasedConverter}, used by the
+ * {@code BatchRunner} in virtual thread mode.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class PhasedConverterTests {
+
+	/** Temporary folder for input and output files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * With one thread per file, not more than two in-memory conversions must run at the same time
+	 * when the CPU pool has two threads; all output files must be written.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void cpuPhaseIsBounded() throws Exception {
+
+		int numberOfFiles = 12;
+
+		String[] inputFiles = new String[numberOfFiles];
+		for (int i = 0; i < numberOfFiles; i++) {
+
+			File inputFile = _temporaryFolder.newFile("input_" + i + ".xlsx");
+			Files.write( inputFile.toPath(), new byte[]{ (byte) i } );
+
+			inputFiles[i] = inputFile.getPath();
+		}
+
+		AtomicInteger runningConversions = new AtomicInteger(0);
+		AtomicInteger maxRunning         = new AtomicInteger(0);
+
+		PhasedConverter.InMemoryConverter inMemoryConverter = (xlsxBytes, pathToInputFile) -> {
+
+			maxRunning.accumulateAndGet( runningConversions.incrementAndGet(), Math::max );
+			try {
+				Thread.sleep(20);
+			}
+			catch (InterruptedException ex) { Thread.currentThread().interrupt(); }
+			runningConversions.decrementAndGet();
+
+			return new byte[]{ xlsxBytes[0], xlsxBytes[0] };
+		};
+
+		String pathToJournal = new File(_temporaryFolder.getRoot(), BatchJournal.JOURNAL_FILE_NAME).getPath();
+
+		try (PhasedConverter phasedConverter = new PhasedConverter(inMemoryConverter, path -> path.replace(".xlsx", ".docx"), 2);
+		     BatchJournal    journal         = new BatchJournal(pathToJournal, false)) {
+
+			BatchRunner cut = new BatchRunner(phasedConverter, journal, new HashSet<String>());
+			cut.setUseVirtualThreads(true);
+
+			cut.run(inputFiles);
+
+			assertEquals( numberOfFiles, cut.getNumberOfFilesProcessed() );
+		}
+
+		assertTrue( "More than 2 conversions at the same time: " + maxRunning.get(), maxRunning.get() <= 2 );
+
+		byte[] outputBytes = Files.readAllBytes( new File(_temporaryFolder.getRoot(), "input_7.docx").toPath() );
+		assertArrayEquals( new byte[]{ 7, 7 }, outputBytes );
+	}
+
+}
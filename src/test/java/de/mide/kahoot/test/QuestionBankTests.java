@@ -0,0 +1,155 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.dedup.QuestionBank;
+import de.mide.kahoot.result2word.model.MultipleOrSingleChoiceQuestion;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.model.QuestionTypeEnum;
+import de.mide.kahoot.result2word.model.TrueFalseQuestion;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.QuestionBankDocxWriter;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.dedup.QuestionBank} and
+ * {@code de.mide.kahoot.result2word.poi.QuestionBankDocxWriter}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionBankTests {
+
+	/** Temporary folder for the bank, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Set language for reading the example files and writing the bank.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * Case, punctuation and the order of the answer options must not change the fingerprint of a question,
+	 * another right answer must.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void fingerprintIgnoresOrderOfAnswerOptions() throws Exception {
+
+		MultipleOrSingleChoiceQuestion question1 = new MultipleOrSingleChoiceQuestion(QuestionTypeEnum.SINGLE_CHOICE, "Which is the capital city of Australia?");
+		question1.addAnswerOption("Canberra", true );
+		question1.addAnswerOption("Sydney",   false);
+
+		MultipleOrSingleChoiceQuestion question2 = new MultipleOrSingleChoiceQuestion(QuestionTypeEnum.SINGLE_CHOICE, "which is the capital city of australia");
+		question2.addAnswerOption("Sydney",   false);
+		question2.addAnswerOption("Canberra", true );
+
+		MultipleOrSingleChoiceQuestion question3 = new MultipleOrSingleChoiceQuestion(QuestionTypeEnum.SINGLE_CHOICE, "Which is the capital city of Australia?");
+		question3.addAnswerOption("Canberra", false);
+		question3.addAnswerOption("Sydney",   true );
+
+		long fingerprint1 = QuestionBank.computeFingerprint( question1, QuestionBank.createMessageDigest() );
+
+		assertEquals   ( fingerprint1, QuestionBank.computeFingerprint( question2, QuestionBank.createMessageDigest() ) );
+		assertNotEquals( fingerprint1, QuestionBank.computeFingerprint( question3, QuestionBank.createMessageDigest() ) );
+
+		assertNotEquals( QuestionBank.computeFingerprint( new TrueFalseQuestion("Canberra is the capital of Australia.", true ), QuestionBank.createMessageDigest() ),
+		                 QuestionBank.computeFingerprint( new TrueFalseQuestion("Canberra is the capital of Australia.", false), QuestionBank.createMessageDigest() ) );
+	}
+
+
+	/**
+	 * The bank of two copies of an example file and another example file must contain each question once,
+	 * with both copies listed for the questions of the first file.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void bankContainsEachQuestionOnce() throws Exception {
+
+		File bankFile = new File(_temporaryFolder.getRoot(), "bank.docx");
+
+		try (QuestionBank cut = new QuestionBank()) {
+
+			cut.addQuestionList( "copy1.xlsx", extractQuestionList("ExampleFiles/input_result_1.xlsx") );
+			cut.addQuestionList( "copy2.xlsx", extractQuestionList("ExampleFiles/input_result_1.xlsx") );
+			cut.addQuestionList( "other.xlsx", extractQuestionList("ExampleFiles/input_result_2.xlsx") );
+
+			assertEquals( 3, cut.getNumberOfGames()              );
+			assertEquals( 9, cut.getNumberOfQuestions()          );
+			assertEquals( 6, cut.getNumberOfDistinctQuestions()  );
+
+			new QuestionBankDocxWriter( bankFile.getPath(), false, Optional.of("Topline") ).writeQuestionBank(cut);
+		}
+
+		try (XWPFDocument document = new XWPFDocument( new FileInputStream(bankFile) );
+			 XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
+
+			String text = extractor.getText();
+
+			assertTrue( text.contains("6 distinct questions from 3 games") );
+			assertTrue( text.contains("Question Number 6") );
+			assertFalse( text.contains("Question Number 7") );
+			assertTrue( text.contains("Asked in 2 game(s): Test Questions for XLSX2Word (1) (copy1.xlsx); Test Questions for XLSX2Word (1) (copy2.xlsx)") );
+			assertTrue( text.contains("Asked in 1 game(s): Test Questions for XLSX2Word (2) (other.xlsx)") );
+			assertTrue( text.contains("Beijing is the capital city of PR China.") );
+
+			assertEquals( 5, document.getTables().size() );
+			assertEquals( "Topline", document.getHeaderList().get(0).getText().trim() );
+		}
+	}
+
+
+	/**
+	 * Extract questions of a file.
+	 *
+	 * @param pathToInputFile  Path of xlsx file.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws Exception  Reading failed
+	 */
+	protected static QuestionList extractQuestionList(String pathToInputFile) throws Exception {
+
+		KahootResultXlsxReader reader = new KahootResultXlsxReader(pathToInputFile);
+		reader.setPrintQuestionsFound(false);
+
+		return reader.extractQuestionList();
+	}
+
+}
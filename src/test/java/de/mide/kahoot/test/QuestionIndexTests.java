@@ -0,0 +1,176 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.index.QuestionIndex;
+import de.mide.kahoot.result2word.index.QuestionIndex.SearchHit;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.DirectoryUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.index.QuestionIndex} and
+ * {@code de.mide.kahoot.result2word.index.IndexSegment}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionIndexTests {
+
+	/** Temporary folder with the xlsx files and the index, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Set language for reading the example files.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * All words of a search must occur in the same question (text or answer options) or in the title;
+	 * a word ending with {@code *} must match as prefix.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void searchMatchesWordsOfSameQuestion() throws Exception {
+
+		File inputFolder = _temporaryFolder.newFolder("input");
+		copyExampleFile(1, inputFolder);
+		copyExampleFile(2, inputFolder);
+
+		QuestionIndex cut = new QuestionIndex( _temporaryFolder.newFolder("index").getPath() );
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), QuestionIndexTests::extractQuestionList, 2 );
+
+		List<SearchHit> hits = cut.search("Capital CITY");
+		assertEquals( 2, hits.size() );
+		assertArrayEquals( new int[] { 3 }, hits.get(0).getNumbersOfQuestions() ); // input_result_1.xlsx: "Beijing is the capital city of PR China."
+		assertArrayEquals( new int[] { 1 }, hits.get(1).getNumbersOfQuestions() ); // input_result_2.xlsx: "Which is the capital city of Australia?"
+
+		assertEquals( 2, cut.search("brasil").size() ); // answer options
+		assertEquals( 1, cut.search("capital canberra").size() );
+		assertEquals( 0, cut.search("capital europe").size() );
+		assertEquals( 1, cut.search("benel*").size() );
+		assertEquals( 0, cut.search("benel").size() );
+		assertArrayEquals( new int[] { 0 }, cut.search("xlsx2word").get(0).getNumbersOfQuestions() );
+		assertEquals( 0, cut.search("? *").size() );
+	}
+
+
+	/**
+	 * A second update must only read new files and remove the games of deleted files, and the
+	 * segments must be merged when too many of their games were removed.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void incrementalUpdate() throws Exception {
+
+		File   inputFolder = _temporaryFolder.newFolder("input");
+		String indexFolder = _temporaryFolder.newFolder("index").getPath();
+
+		copyExampleFile(1, inputFolder);
+
+		QuestionIndex cut = QuestionIndex.load(indexFolder);
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), QuestionIndexTests::extractQuestionList, 1 );
+		cut.save();
+
+		copyExampleFile(2, inputFolder);
+
+		cut = QuestionIndex.load(indexFolder);
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), QuestionIndexTests::extractQuestionList, 1 );
+		cut.save();
+
+		assertEquals( 1, cut.getNumberOfFilesIndexed()   );
+		assertEquals( 1, cut.getNumberOfFilesUnchanged() );
+		assertEquals( 2, cut.getNumberOfSegments()       );
+
+		cut = QuestionIndex.load(indexFolder);
+		assertEquals( 2, cut.getNumberOfGames() );
+		assertEquals( 2, cut.search("brasil").size() );
+
+		new File(inputFolder, "input_result_1.xlsx").delete();
+
+		cut.update( DirectoryUtil.findAllXlsxFilesInDirectory(inputFolder.getPath()), QuestionIndexTests::extractQuestionList, 1 );
+		cut.save();
+
+		assertEquals( 1, cut.getNumberOfGames()    );
+		assertEquals( 1, cut.getNumberOfSegments() );
+		assertEquals( 1, cut.search("brasil").size() );
+		assertTrue( cut.search("brasil").get(0).getGame().getPathToXlsxFile().endsWith("input_result_2.xlsx") );
+
+		String[] filesInIndexFolder = new File(indexFolder).list();
+		Arrays.sort(filesInIndexFolder);
+		assertArrayEquals( new String[] { QuestionIndex.MANIFEST_FILE_NAME, "segment-3.kqx" }, filesInIndexFolder );
+	}
+
+
+	/**
+	 * Extract questions of a file.
+	 *
+	 * @param pathToInputFile  Path of xlsx file.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws KahootException  Reading failed
+	 */
+	protected static QuestionList extractQuestionList(String pathToInputFile) throws KahootException {
+
+		KahootResultXlsxReader reader = new KahootResultXlsxReader(pathToInputFile);
+		reader.setPrintQuestionsFound(false);
+
+		return reader.extractQuestionList();
+	}
+
+
+	/**
+	 * Copy one of the example files into a folder.
+	 *
+	 * @param number  Number of example file.
+	 *
+	 * @param folder  Target folder.
+	 *
+	 * @throws Exception  File could not be copied
+	 */
+	protected static void copyExampleFile(int number, File folder) throws Exception {
+
+		String fileName = "input_result_" + number + ".xlsx";
+
+		Files.copy( new File("ExampleFiles", fileName).toPath(), new File(folder, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING );
+	}
+
+}
@@ -0,0 +1,202 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.cache.QuestionListCache;
+import de.mide.kahoot.result2word.cache.QuestionListCodec;
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for classes {@code de.mide.kahoot.result2word.cache.QuestionListCache} and
+ * {@code de.mide.kahoot.result2word.cache.QuestionListCodec}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class QuestionListCacheTests {
+
+	/** Example file with true/false, single-choice and multiple-choice questions. */
+	protected static final String EXAMPLE_FILE = "ExampleFiles/input_result_2.xlsx";
+
+	/** Temporary folder for the cache, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Set language for the string representation of the questions.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * A question list taken from the cache must be equal to the one extracted from the file,
+	 * and a damaged entry must count as miss.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void roundTripAndDamagedEntry() throws Exception {
+
+		QuestionList questionList = extractQuestionList();
+
+		File cacheFolder = _temporaryFolder.newFolder("cache");
+		QuestionListCache cut = new QuestionListCache(cacheFolder.toPath(), 1024 * 1024);
+
+		String key = FileHashUtil.computeFileHash(EXAMPLE_FILE);
+
+		assertFalse( cut.get(key).isPresent() );
+
+		cut.put(key, questionList);
+
+		QuestionList cachedList = cut.get(key).get();
+		assertEquals( questionList.getTitle() , cachedList.getTitle()  );
+		assertEquals( questionList.toString(), cachedList.toString() );
+		assertEquals( 1, cut.getHits()   );
+		assertEquals( 1, cut.getMisses() );
+
+		Files.write( cacheFolder.toPath().resolve(key + ".qlc"), new byte[] { 1, 2, 3 } );
+
+		assertFalse( cut.get(key).isPresent() );
+		assertEquals( 2, cut.getMisses() );
+	}
+
+
+	/**
+	 * When the maximum size is exceeded, the least recently used entry must be deleted (the limit of two and a half
+	 * entries is reduced to 90 percent by the eviction, so two entries are kept).
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+
+		QuestionList questionList = extractQuestionList();
+		int entrySize = QuestionListCodec.encode(questionList).length;
+
+		File cacheFolder = _temporaryFolder.newFolder("cache");
+		QuestionListCache cut = new QuestionListCache(cacheFolder.toPath(), 5L * entrySize / 2);
+
+		cut.put("a", questionList);
+		cut.put("b", questionList);
+		setLastUsed(cacheFolder, "a", 1000);
+		setLastUsed(cacheFolder, "b", 2000);
+
+		assertTrue( cut.get("a").isPresent() ); // "a" is now the most recently used entry
+
+		cut.put("c", questionList);
+
+		assertTrue ( cut.get("a").isPresent() );
+		assertFalse( cut.get("b").isPresent() );
+		assertTrue ( cut.get("c").isPresent() );
+		assertEquals( 1, cut.getEvictions() );
+	}
+
+
+	/**
+	 * The folder must be listed only when the maximum size is exceeded; entries already in the folder when
+	 * the cache is opened must count against the maximum size.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void folderIsListedOnlyWhenLimitIsExceeded() throws Exception {
+
+		QuestionList questionList = extractQuestionList();
+		int entrySize = QuestionListCodec.encode(questionList).length;
+
+		File cacheFolder = _temporaryFolder.newFolder("cache");
+		AtomicInteger evictionCalls = new AtomicInteger();
+
+		QuestionListCache cut = new QuestionListCache(cacheFolder.toPath(), 10L * entrySize) {
+
+			@Override
+			protected synchronized void evictLeastRecentlyUsed() throws KahootException {
+
+				evictionCalls.incrementAndGet();
+				super.evictLeastRecentlyUsed();
+			}
+		};
+
+		for (int i = 0; i < 10; i++) { cut.put("k" + i, questionList); }
+		cut.put("k0", questionList); // replaced entry does not count twice
+
+		assertEquals( 0, evictionCalls.get() );
+
+		QuestionListCache reopened = new QuestionListCache(cacheFolder.toPath(), 10L * entrySize);
+		reopened.put("k10", questionList);
+
+		assertEquals( 2, reopened.getEvictions() );
+		assertEquals( 9, cacheFolder.list().length );
+	}
+
+
+	/**
+	 * Extract questions from example file.
+	 *
+	 * @return  Question list.
+	 *
+	 * @throws Exception  Reading failed
+	 */
+	protected static QuestionList extractQuestionList() throws Exception {
+
+		KahootResultXlsxReader reader = new KahootResultXlsxReader(EXAMPLE_FILE);
+		reader.setPrintQuestionsFound(false);
+
+		return reader.extractQuestionList();
+	}
+
+
+	/**
+	 * Set time of last use of a cache entry to a moment in the past.
+	 *
+	 * @param cacheFolder  Folder of cache.
+	 *
+	 * @param key  Key of entry.
+	 *
+	 * @param secondsAfterEpoch  Time of last use.
+	 *
+	 * @throws Exception  Time could not be set
+	 */
+	protected static void setLastUsed(File cacheFolder, String key, long secondsAfterEpoch) throws Exception {
+
+		Path entryFile = cacheFolder.toPath().resolve(key + ".qlc");
+
+		Files.setLastModifiedTime( entryFile, FileTime.fromMillis(secondsAfterEpoch * 1000) );
+	}
+
+}
@@ -0,0 +1,140 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.poi.ReaderEngineEnum;
+import de.mide.kahoot.result2word.poi.ReaderEngineSelector;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+import de.mide.kahoot.result2word.utils.XlsxPackageInfo;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.poi.ReaderEngineSelector} and for the
+ * streaming engine {@code de.mide.kahoot.result2word.poi.StreamingWorkbook}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ReaderEngineSelectorTests {
+
+	/** Example files, both with true/false, single-choice and multiple-choice questions. */
+	protected static final String[] EXAMPLE_FILES = { "ExampleFiles/input_result_1.xlsx", "ExampleFiles/input_result_2.xlsx" };
+
+
+	/**
+	 * Set language for the string representation of the questions.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the default selector and the language after each test.
+	 */
+	@After
+	public void restoreDefaults() {
+
+		ReaderEngineSelector.setDefault(null);
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * The thresholds must be checked against the sizes in the central directory.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void selectionByThresholds() throws Exception {
+
+		XlsxPackageInfo packageInfo = XlsxPackageInfo.inspect( EXAMPLE_FILES[0] ); // 7 sheets, 81395 bytes, largest sheet 7744 bytes
+
+		ReaderEngineSelector cut = new ReaderEngineSelector();
+		assertEquals( ReaderEngineEnum.DOM, cut.selectEngine(packageInfo) );
+
+		cut.setStreamingFromSheets(7);
+		assertEquals( ReaderEngineEnum.STREAMING, cut.selectEngine(packageInfo) );
+
+		cut = new ReaderEngineSelector();
+		cut.setStreamingFromWorksheetBytes(7744);
+		assertEquals( ReaderEngineEnum.STREAMING, cut.selectEngine(packageInfo) );
+
+		cut = new ReaderEngineSelector();
+		cut.setStreamingFromUncompressedBytes(81396);
+		assertEquals( ReaderEngineEnum.DOM, cut.selectEngine(packageInfo) );
+
+		cut.setForcedEngine(ReaderEngineEnum.STREAMING);
+		assertEquals( ReaderEngineEnum.STREAMING, cut.selectEngine(packageInfo) );
+	}
+
+
+	/**
+	 * Both engines must extract the same questions from files and from buffers.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void sameQuestionsWithBothEngines() throws Exception {
+
+		for (String exampleFile: EXAMPLE_FILES) {
+
+			String domResult       = extractWithEngine(ReaderEngineEnum.DOM, exampleFile, false);
+			String streamingResult = extractWithEngine(ReaderEngineEnum.STREAMING, exampleFile, false);
+
+			assertEquals( domResult, streamingResult );
+			assertEquals( domResult, extractWithEngine(ReaderEngineEnum.STREAMING, exampleFile, true) );
+		}
+	}
+
+
+	/**
+	 * Extract questions with a particular engine.
+	 *
+	 * @param engine  Engine to be used.
+	 *
+	 * @param exampleFile  Path of input file.
+	 *
+	 * @param fromBuffer  True if the content of the file is to be passed in a buffer.
+	 *
+	 * @return  Title and string representation of all questions.
+	 *
+	 * @throws Exception  Extraction failed
+	 */
+	protected static String extractWithEngine(ReaderEngineEnum engine, String exampleFile, boolean fromBuffer) throws Exception {
+
+		ReaderEngineSelector selector = new ReaderEngineSelector();
+		selector.setForcedEngine(engine);
+		ReaderEngineSelector.setDefault(selector);
+
+		KahootResultXlsxReader reader = fromBuffer ? new KahootResultXlsxReader( ByteBuffer.wrap(Files.readAllBytes(Paths.get(exampleFile))), exampleFile )
+		                                           : new KahootResultXlsxReader(exampleFile);
+		reader.setPrintQuestionsFound(false);
+
+		assertEquals( engine, reader.getReaderEngine() );
+
+		QuestionList questionList = reader.extractQuestionList();
+
+		StringBuilder result = new StringBuilder( questionList.getTitle() );
+		for (int i = 0; i < questionList.getNumberOfQuestions(); i++) {
+
+			result.append('\n').append( questionList.getQuestion(i) );
+		}
+
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,101 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.batch.SchedulingPolicyEnum;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for enum {@code de.mide.kahoot.result2word.batch.SchedulingPolicyEnum}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class SchedulingPolicyTests {
+
+	/** Temporary folder for files to be sorted, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * Create file with particular size and last-modified time.
+	 *
+	 * @param name  Name of file.
+	 *
+	 * @param size  Number of bytes to be written into file.
+	 *
+	 * @param lastModified  Last-modified time to be set.
+	 *
+	 * @return  Path of file.
+	 *
+	 * @throws IOException  File could not be created.
+	 */
+	protected String createFile(String name, int size, long lastModified) throws IOException {
+
+		File file = _temporaryFolder.newFile(name);
+
+		try (FileOutputStream fos = new FileOutputStream(file)) {
+
+			fos.write( new byte[size] );
+		}
+		file.setLastModified(lastModified);
+
+		return file.getPath();
+	}
+
+
+	/**
+	 * Sort files according to all policies.
+	 *
+	 * @throws IOException  Test failed
+	 */
+	@Test
+	public void sortFiles() throws IOException {
+
+		String small  = createFile("small.xlsx" ,  10, 3_000_000_000_000L);
+		String large  = createFile("large.xlsx" , 300, 1_000_000_000_000L);
+		String medium = createFile("medium.xlsx", 100, 2_000_000_000_000L);
+
+		String[] files = { small, large, medium };
+
+		assertArrayEquals( new String[]{ small, large, medium }, SchedulingPolicyEnum.FILE_ORDER    .sortFiles(files) );
+		assertArrayEquals( new String[]{ large, medium, small }, SchedulingPolicyEnum.LARGEST_FIRST .sortFiles(files) );
+		assertArrayEquals( new String[]{ small, medium, large }, SchedulingPolicyEnum.SMALLEST_FIRST.sortFiles(files) );
+		assertArrayEquals( new String[]{ small, medium, large }, SchedulingPolicyEnum.NEWEST_FIRST  .sortFiles(files) );
+
+		assertArrayEquals( new String[]{ small, large, medium }, files ); // input array is not changed
+	}
+
+
+	/**
+	 * Mapping of values of command line option to policies.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void fromOptionValue() throws KahootException {
+
+		assertEquals( SchedulingPolicyEnum.LARGEST_FIRST, SchedulingPolicyEnum.fromOptionValue("largest") );
+		assertEquals( SchedulingPolicyEnum.NEWEST_FIRST , SchedulingPolicyEnum.fromOptionValue("Newest" ) );
+
+		try {
+			SchedulingPolicyEnum.fromOptionValue("random");
+
+			fail("No exception raised for unknown scheduling policy.");
+		}
+		catch (KahootException ex) { /* Expected exception */ }
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.batch.ShardSelector;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.ShardSelector}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ShardSelectorTests {
+
+	/**
+	 * For different numbers of shards each file must be selected by exactly one shard,
+	 * and each shard should get at least some files.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void eachFileInExactlyOneShard() throws KahootException {
+
+		String[] files = new String[1000];
+		for (int i = 0; i < files.length; i++) {
+
+			files[i] = "archive/game_" + i + ".xlsx";
+		}
+
+		for (int numberOfShards = 1; numberOfShards <= 7; numberOfShards++) {
+
+			Set<String> selectedFiles = new HashSet<String>();
+			int numFilesSelected = 0;
+
+			for (int shardNumber = 1; shardNumber <= numberOfShards; shardNumber++) {
+
+				String[] filesOfShard = new ShardSelector(shardNumber, numberOfShards).selectFiles(files);
+
+				assertTrue( filesOfShard.length > 0 );
+
+				for (String file: filesOfShard) { selectedFiles.add(file); }
+				numFilesSelected += filesOfShard.length;
+			}
+
+			assertEquals( files.length, numFilesSelected     );
+			assertEquals( files.length, selectedFiles.size() );
+		}
+	}
+
+
+	/**
+	 * Shard of a file must only depend on the file name, not on the path of the folder.
+	 */
+	@Test
+	public void shardDoesNotDependOnPath() {
+
+		assertEquals( ShardSelector.computeShardNumber("/mnt/share/result.xlsx", 5),
+				      ShardSelector.computeShardNumber("Z:/other/mount/result.xlsx", 5) );
+	}
+
+
+	/**
+	 * Parsing of value of command line option.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void parse() throws KahootException {
+
+		assertEquals( "2/4", ShardSelector.parse("2/4"  ).toString() );
+		assertEquals( "1/1", ShardSelector.parse(" 1/1 ").toString() );
+
+		String[] illegalSpecs = { "0/4", "5/4", "2", "a/b", "1/0", "1/2/3" };
+		for (String illegalSpec: illegalSpecs) {
+
+			try {
+				ShardSelector.parse(illegalSpec);
+
+				fail("No exception raised for illegal shard \"" + illegalSpec + "\".");
+			}
+			catch (KahootException ex) { /* Expected exception */ }
+		}
+	}
+
+}
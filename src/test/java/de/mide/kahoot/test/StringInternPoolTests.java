@@ -0,0 +1,103 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.model.QuestionList;
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.StringInternPool;
+import de.mide.kahoot.result2word.utils.TranslatedTextsProvider;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.utils.StringInternPool}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class StringInternPoolTests {
+
+	/**
+	 * Set language for the string representation of the questions.
+	 */
+	@Before
+	public void setLanguage() {
+
+		TranslatedTextsProvider.setResourceBundleForCurrentThread( TranslatedTextsProvider.getResourceBundle(Locale.ENGLISH) );
+	}
+
+
+	/**
+	 * Restore the language after each test.
+	 */
+	@After
+	public void restoreLanguage() {
+
+		TranslatedTextsProvider.clearResourceBundleForCurrentThread();
+	}
+
+
+	/**
+	 * Equal strings must be replaced by the first one, hits and bytes saved must be counted,
+	 * and neither a full pool nor too long strings must grow the pool.
+	 */
+	@Test
+	public void boundedPoolWithStatistics() {
+
+		StringInternPool cut = new StringInternPool(2, 5);
+
+		String first = new String("True");
+		assertSame( first, cut.intern(first) );
+		assertSame( first, cut.intern(new String("True")) );
+
+		assertSame( cut.intern("False"), cut.intern(new String("False")) );
+
+		String third = new String("Paris");
+		assertSame( third, cut.intern(third) );                // pool is full
+		assertNotSame( third, cut.intern(new String("Paris")) );
+
+		String tooLong = "Switzerland";
+		assertSame( tooLong, cut.intern(tooLong) );
+
+		assertEquals( 2, cut.getSize() );
+		assertEquals( 6, cut.getLookups() );
+		assertEquals( 2, cut.getHits() );
+		assertTrue( cut.getBytesSaved() >= 2 * 40 );
+	}
+
+
+	/**
+	 * Reading a file twice with the same pool must return the same string objects for the questions.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void readerUsesPool() throws Exception {
+
+		StringInternPool pool = new StringInternPool(1000, 1024);
+
+		QuestionList[] questionLists = new QuestionList[2];
+		for (int i = 0; i < questionLists.length; i++) {
+
+			KahootResultXlsxReader reader = new KahootResultXlsxReader("ExampleFiles/input_result_1.xlsx");
+			reader.setPrintQuestionsFound(false);
+			reader.setStringInternPool(pool);
+
+			questionLists[i] = reader.extractQuestionList();
+		}
+
+		assertSame( questionLists[0].getTitle(), questionLists[1].getTitle() );
+		assertSame( questionLists[0].getQuestion(0).getQuestionText(), questionLists[1].getQuestion(0).getQuestionText() );
+
+		assertTrue( pool.getHitRate() >= 0.5 );
+	}
+
+}
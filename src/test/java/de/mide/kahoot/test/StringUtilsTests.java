@@ -2,6 +2,7 @@ package de.mide.kahoot.test;
 
 import org.junit.Test;
 
+import de.mide.kahoot.result2word.utils.CellSymbolEnum;
 import de.mide.kahoot.result2word.utils.KahootException;
 import de.mide.kahoot.result2word.utils.StringUtils;
 import static org.junit.Assert.assertEquals;
@@ -121,5 +122,29 @@ public class StringUtilsTests {
 		catch (KahootException ex) { /* Expected exception was caught. */ }
 	}
 	
+	
+	/**
+	 * Test for method {@code StringUtils::decodeCellSymbol(String)}: check marks and crosses with and
+	 * without variation selector, true/false labels in any case, blank and other values.
+	 */
+	@Test
+	public void decodeCellSymbol() {
+		
+		assertEquals( CellSymbolEnum.CHECK_MARK , StringUtils.decodeCellSymbol("\u2714")       );
+		assertEquals( CellSymbolEnum.CHECK_MARK , StringUtils.decodeCellSymbol("\u2714\uFE0E") );
+		assertEquals( CellSymbolEnum.CHECK_MARK , StringUtils.decodeCellSymbol("\u2714\uFE0F") );
+		assertEquals( CellSymbolEnum.BALLOT_X   , StringUtils.decodeCellSymbol(" \u2718 ")     );
+		
+		assertEquals( CellSymbolEnum.TRUE_LABEL , StringUtils.decodeCellSymbol("TRUE")   );
+		assertEquals( CellSymbolEnum.FALSE_LABEL, StringUtils.decodeCellSymbol("False ") );
+		
+		assertEquals( CellSymbolEnum.BLANK, StringUtils.decodeCellSymbol(null)  );
+		assertEquals( CellSymbolEnum.BLANK, StringUtils.decodeCellSymbol("")    );
+		assertEquals( CellSymbolEnum.BLANK, StringUtils.decodeCellSymbol("   ") );
+		
+		assertEquals( CellSymbolEnum.OTHER, StringUtils.decodeCellSymbol("\u2714x") );
+		assertEquals( CellSymbolEnum.OTHER, StringUtils.decodeCellSymbol("truex")   );
+		assertEquals( CellSymbolEnum.OTHER, StringUtils.decodeCellSymbol("Paris")   );
+	}
+	
 }
-
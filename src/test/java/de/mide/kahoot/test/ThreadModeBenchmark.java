@@ -0,0 +1,112 @@
+package de.mide.kahoot.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Benchmark comparing the pool of platform threads (option {@code -j}) with the virtual thread mode
+ * (options {@code -v -j}) on the same input set; not a unit test, so it is not executed by {@code mvn test}.
+ * Each mode is run in a fresh JVM on copies of the example files, and the makespan reported by the
+ * application is printed.
+ * <br><br>
+ *
+ * Start after {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) de.mide.kahoot.test.ThreadModeBenchmark [copies] [threads]
+ * </pre>
+ * For real virtual threads the benchmark has to be started with Java 21 or newer, after compiling with
+ * {@code -Pjava21}; the results of a run on a local disk are listed in the README.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class ThreadModeBenchmark {
+
+	/** Folder with example files which are copied into the input folder. */
+	protected static final String EXAMPLE_FOLDER = "ExampleFiles";
+
+
+	/**
+	 * Entry point of benchmark.
+	 *
+	 * @param args  Optional: number of copies of each example file (default 20), number of threads (default 4).
+	 *
+	 * @throws Exception  Benchmark failed.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		int numberOfCopies  = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int numberOfThreads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+		File inputFolder = Files.createTempDirectory("kahoot_benchmark").toFile();
+
+		for (File exampleFile: new File(EXAMPLE_FOLDER).listFiles( (dir, name) -> name.endsWith(".xlsx") )) {
+
+			for (int i = 0; i < numberOfCopies; i++) {
+
+				File copy = new File(inputFolder, i + "_" + exampleFile.getName());
+				Files.copy( exampleFile.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING );
+			}
+		}
+
+		String threads = Integer.toString(numberOfThreads);
+
+		runMode( "platform threads", inputFolder, "-i", inputFolder.getPath(), "-j", threads );
+		runMode( "virtual threads ", inputFolder, "-i", inputFolder.getPath(), "-j", threads, "-v" );
+	}
+
+
+	/**
+	 * Run application in a new JVM and print the makespan it reports.
+	 *
+	 * @param modeName  Name of mode for output.
+	 *
+	 * @param inputFolder  Input folder, docx files and journal of previous run are deleted before.
+	 *
+	 * @param appArgs  Command line arguments for the application.
+	 *
+	 * @throws IOException  Error when starting the JVM.
+	 *
+	 * @throws InterruptedException  Interrupted while waiting for the JVM.
+	 */
+	protected static void runMode(String modeName, File inputFolder, String... appArgs) throws IOException, InterruptedException {
+
+		for (File file: inputFolder.listFiles( (dir, name) -> !name.endsWith(".xlsx") )) { file.delete(); }
+
+		List<String> command = new ArrayList<String>();
+		command.add( System.getProperty("java.home") + File.separator + "bin" + File.separator + "java" );
+		command.add( "-cp" );
+		command.add( System.getProperty("java.class.path") );
+		command.add( "de.mide.kahoot.result2word.Main" );
+		for (String appArg: appArgs) { command.add(appArg); }
+
+		long startNanos = System.nanoTime();
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+		String makespanLine = "(no makespan reported)";
+		try (BufferedReader reader = new BufferedReader( new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8) )) {
+
+			String line = null;
+			while ( (line = reader.readLine()) != null ) {
+
+				if (line.contains("Makespan")) { makespanLine = line; }
+			}
+		}
+
+		int exitCode = process.waitFor();
+
+		long wallMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+
+		System.out.println( modeName + ": exit code " + exitCode + ", wall time of JVM " + wallMillis + " ms; " + makespanLine );
+	}
+
+}
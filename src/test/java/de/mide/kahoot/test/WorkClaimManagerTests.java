@@ -0,0 +1,359 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.mide.kahoot.result2word.batch.WorkClaimManager;
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.ConversionCancelledException;
+import de.mide.kahoot.result2word.utils.FileHashUtil;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.WorkClaimManager}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class WorkClaimManagerTests {
+
+	/** Lease time for tests which do not test the expiration of claims. */
+	protected static final long LONG_LEASE_MILLIS = 600_000L;
+
+	/** Temporary folder for marker files, will be deleted after each test. */
+	@Rule
+	public TemporaryFolder _temporaryFolder = new TemporaryFolder();
+
+
+	/**
+	 * A file can only be claimed once; after it was marked as done it cannot be claimed again,
+	 * after a claim was released it can be claimed again.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void claimReleaseDone() throws Exception {
+
+		String markerFolder = _temporaryFolder.getRoot().getPath();
+		String outputFile   = writeOutputFile("a.docx", 1);
+
+		try (WorkClaimManager worker1 = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS);
+			 WorkClaimManager worker2 = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS)) {
+
+			assertTrue ( worker1.tryClaim("input/a.xlsx") );
+			assertFalse( worker2.tryClaim("input/a.xlsx") );
+			assertFalse( worker1.tryClaim("input/a.xlsx") );
+
+			worker1.release("input/a.xlsx");
+			assertTrue ( worker2.tryClaim("input/a.xlsx") );
+
+			worker2.markDone("input/a.xlsx", outputFile, FileHashUtil.computeFileHash(outputFile));
+			assertFalse( worker1.tryClaim("input/a.xlsx") );
+			assertFalse( worker2.tryClaim("input/a.xlsx") );
+
+			assertTrue ( new File(markerFolder, "a.xlsx" + WorkClaimManager.DONE_SUFFIX ).exists() );
+			assertFalse( new File(markerFolder, "a.xlsx" + WorkClaimManager.CLAIM_SUFFIX).exists() );
+		}
+	}
+
+
+	/**
+	 * A done marker must only count if its docx file is unchanged and, unless the run is resumed, was written
+	 * with the same options; otherwise the file has to be converted again.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void doneMarkerOfOtherRun() throws Exception {
+
+		String markerFolder = _temporaryFolder.getRoot().getPath();
+		String outputFile   = writeOutputFile("e.docx", 1);
+
+		try (WorkClaimManager worker = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS)) {
+
+			worker.setOutputOptionsKey("en");
+			assertTrue( worker.tryClaim("e.xlsx") );
+			worker.markDone("e.xlsx", outputFile, FileHashUtil.computeFileHash(outputFile));
+		}
+
+		try (WorkClaimManager sameOptions  = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS);
+			 WorkClaimManager otherOptions = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS);
+			 WorkClaimManager resumed      = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS)) {
+
+			sameOptions .setOutputOptionsKey("en");
+			otherOptions.setOutputOptionsKey("de");
+			resumed     .setOutputOptionsKey("de");
+			resumed     .setResume(true);
+
+			assertFalse( sameOptions.tryClaim("e.xlsx") );
+			assertFalse( resumed    .tryClaim("e.xlsx") );
+
+			assertTrue ( otherOptions.tryClaim("e.xlsx") ); // new run with other language
+			otherOptions.release("e.xlsx");
+
+			writeOutputFile("e.docx", 2); // docx file was changed after it was written
+			assertTrue ( sameOptions.tryClaim("e.xlsx") );
+		}
+	}
+
+
+	/**
+	 * Claim of a dead worker (no heartbeat anymore) can be taken over after the lease time.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void takeOverExpiredClaim() throws Exception {
+
+		String markerFolder = _temporaryFolder.getRoot().getPath();
+
+		WorkClaimManager deadWorker = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS);
+		assertTrue( deadWorker.tryClaim("b.xlsx") );
+		deadWorker.close(); // no more heartbeats
+
+		try (WorkClaimManager worker = new WorkClaimManager(markerFolder, 60_000L)) {
+
+			assertFalse( worker.tryClaim("b.xlsx") ); // lease not expired yet
+
+			File claimFile = new File(markerFolder, "b.xlsx" + WorkClaimManager.CLAIM_SUFFIX);
+			Files.setLastModifiedTime( claimFile.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 120_000L) );
+
+			assertTrue( worker.tryClaim("b.xlsx") );
+		}
+	}
+
+
+	/**
+	 * A worker that is slow but alive loses its claim when the lease expires and another worker takes it over:
+	 * it must neither refresh, release nor finish the claim of the other worker, and its conversion must be
+	 * aborted before the output file is written.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void leaseExpiresWhileFirstWorkerIsRunning() throws Exception {
+
+		String markerFolder = _temporaryFolder.getRoot().getPath();
+		File   claimFile    = new File(markerFolder, "d.xlsx" + WorkClaimManager.CLAIM_SUFFIX);
+		File   doneFile     = new File(markerFolder, "d.xlsx" + WorkClaimManager.DONE_SUFFIX);
+		String outputFile   = writeOutputFile("d.docx", 1);
+
+		try (WorkClaimManager slowWorker = new WorkClaimManager(markerFolder, 900L);
+			 WorkClaimManager newWorker  = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS)) {
+
+			assertTrue( slowWorker.tryClaim("d.xlsx") );
+
+			CancellationToken slowToken = slowWorker.createCancellationToken("d.xlsx", null, 0);
+			slowToken.throwIfCancelledBeforeWriting("before writing d.docx");
+
+			// lease of slow worker has expired, e.g. because its heartbeat was stalled by a long GC pause;
+			// retried in case the heartbeat of the slow worker refreshes the claim in between
+			boolean takenOver = false;
+			for (int attempt = 0; attempt < 10 && !takenOver; attempt++) {
+
+				Files.setLastModifiedTime( claimFile.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 2 * LONG_LEASE_MILLIS) );
+				takenOver = newWorker.tryClaim("d.xlsx");
+			}
+			assertTrue( takenOver );
+
+			assertFalse( slowWorker.holdsClaim("d.xlsx") );
+			assertTrue ( slowToken.isCancelled() );
+			try {
+				slowToken.throwIfCancelledBeforeWriting("before writing d.docx");
+				fail("Conversion of slow worker was not aborted.");
+			}
+			catch (ConversionCancelledException ex) { /* expected */ }
+
+			// heartbeat of slow worker (every 300 ms) must not refresh the claim of the new worker
+			FileTime claimTimeOfNewWorker = FileTime.fromMillis(System.currentTimeMillis() - 60_000L);
+			Files.setLastModifiedTime( claimFile.toPath(), claimTimeOfNewWorker );
+			Thread.sleep(1000);
+			assertEquals( claimTimeOfNewWorker, Files.getLastModifiedTime(claimFile.toPath()) );
+
+			slowWorker.release("d.xlsx");
+			assertTrue( claimFile.exists() );
+			try {
+				slowWorker.markDone("d.xlsx", outputFile, FileHashUtil.computeFileHash(outputFile));
+				fail("Slow worker could mark file as done.");
+			}
+			catch (KahootException ex) { /* expected */ }
+			assertFalse( doneFile.exists() );
+
+			assertTrue( newWorker.holdsClaim("d.xlsx") );
+			newWorker.markDone("d.xlsx", outputFile, FileHashUtil.computeFileHash(outputFile));
+			assertTrue ( doneFile.exists() );
+			assertFalse( claimFile.exists() );
+		}
+	}
+
+
+	/**
+	 * Two workers trying to take over the same expired claim at the same time: exactly one of them must get it,
+	 * and no renamed claim file must be left behind.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void twoWorkersContendForExpiredClaim() throws Exception {
+
+		final int NUM_ROUNDS = 50;
+
+		String markerFolder = _temporaryFolder.getRoot().getPath();
+
+		WorkClaimManager deadWorker = new WorkClaimManager(markerFolder, LONG_LEASE_MILLIS);
+		deadWorker.close(); // no heartbeats
+
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+		try (WorkClaimManager worker1 = new WorkClaimManager(markerFolder, 60_000L);
+			 WorkClaimManager worker2 = new WorkClaimManager(markerFolder, 60_000L)) {
+
+			for (int round = 0; round < NUM_ROUNDS; round++) {
+
+				String inputFile = "c" + round + ".xlsx";
+
+				assertTrue( deadWorker.tryClaim(inputFile) );
+
+				File claimFile = new File(markerFolder, inputFile + WorkClaimManager.CLAIM_SUFFIX);
+				Files.setLastModifiedTime( claimFile.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 120_000L) );
+
+				CyclicBarrier barrier = new CyclicBarrier(2);
+
+				List<Future<Boolean>> futureList = new ArrayList<Future<Boolean>>();
+				for (WorkClaimManager worker: new WorkClaimManager[]{ worker1, worker2 }) {
+
+					Callable<Boolean> claimTask = () -> { barrier.await(); return worker.tryClaim(inputFile); };
+					futureList.add( executorService.submit(claimTask) );
+				}
+
+				int numberOfClaims = 0;
+				for (Future<Boolean> future: futureList) {
+
+					if (future.get(30, TimeUnit.SECONDS)) { numberOfClaims++; }
+				}
+
+				assertEquals( "round " + round, 1, numberOfClaims );
+				assertTrue( claimFile.exists() );
+			}
+		}
+		finally {
+
+			executorService.shutdownNow();
+		}
+
+		for (String fileName: _temporaryFolder.getRoot().list()) {
+
+			assertTrue( fileName, fileName.endsWith(WorkClaimManager.CLAIM_SUFFIX) );
+		}
+	}
+
+
+	/**
+	 * Write a small file standing in for a docx file written by a worker.
+	 *
+	 * @param fileName  Name of file in the temporary folder.
+	 *
+	 * @param content  Byte the file consists of, to get different hashes.
+	 *
+	 * @return  Path of file written.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	protected String writeOutputFile(String fileName, int content) throws Exception {
+
+		File outputFile = new File(_temporaryFolder.getRoot(), fileName);
+		Files.write( outputFile.toPath(), new byte[]{ (byte) content } );
+
+		return outputFile.getPath();
+	}
+
+
+	/**
+	 * Several JVMs process copies of the example files in the same input folder with option {@code --claim};
+	 * every input file must be converted by exactly one of them.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void exactlyOnceWithSeveralProcesses() throws Exception {
+
+		final int NUM_PROCESSES = 3;
+		final int NUM_COPIES    = 4;
+
+		File inputFolder  = _temporaryFolder.newFolder("input");
+		File outputFolder = _temporaryFolder.newFolder("output");
+
+		int numInputFiles = 0;
+		for (int i = 1; i <= NUM_COPIES; i++) {
+
+			for (String exampleFile: new String[]{ "input_result_1", "input_result_2" }) {
+
+				Files.copy( new File("ExampleFiles/" + exampleFile + ".xlsx").toPath(),
+						    new File(inputFolder, exampleFile + "_copy" + i + ".xlsx").toPath() );
+				numInputFiles++;
+			}
+		}
+
+		String classPath = System.getProperty( "surefire.test.class.path", System.getProperty("java.class.path") );
+		String javaBin   = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+		List<Process> processList = new ArrayList<Process>();
+		for (int i = 0; i < NUM_PROCESSES; i++) {
+
+			ProcessBuilder processBuilder = new ProcessBuilder( javaBin, "-cp", classPath, "de.mide.kahoot.result2word.Main",
+					                                            "-i", inputFolder.getPath(), "-o", outputFolder.getPath(), "-c", "600" );
+			processBuilder.redirectErrorStream(true);
+			processList.add( processBuilder.start() );
+		}
+
+		int numOutputFilesWritten = 0;
+		for (Process process: processList) {
+
+			try (BufferedReader reader = new BufferedReader( new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8) )) {
+
+				String line = null;
+				while ( (line = reader.readLine()) != null ) {
+
+					if (line.startsWith("Target file written:")) { numOutputFilesWritten++; }
+				}
+			}
+
+			assertTrue( process.waitFor(120, TimeUnit.SECONDS) );
+			assertEquals( 0, process.exitValue() );
+		}
+
+		assertEquals( numInputFiles, numOutputFilesWritten );
+
+		for (File inputFile: inputFolder.listFiles()) {
+
+			String baseName = inputFile.getName().replace(".xlsx", "");
+
+			assertTrue ( new File(outputFolder, baseName + ".docx"                                 ).exists() );
+			assertTrue ( new File(outputFolder, inputFile.getName() + WorkClaimManager.DONE_SUFFIX ).exists() );
+			assertFalse( new File(outputFolder, inputFile.getName() + WorkClaimManager.CLAIM_SUFFIX).exists() );
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.batch.WorkerProcessPool;
+import de.mide.kahoot.result2word.utils.CancellationToken;
+import de.mide.kahoot.result2word.utils.ConversionCancelledException;
+import de.mide.kahoot.result2word.utils.KahootException;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.batch.WorkerProcessPool}; the worker JVMs
+ * run {@link CrashingWorkerMain}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class WorkerProcessPoolTests {
+
+	/**
+	 * Build command to start a worker JVM with {@link CrashingWorkerMain}.
+	 *
+	 * @return  Command for pool.
+	 */
+	protected static List<String> buildWorkerCommand() {
+
+		String classPath = System.getProperty( "surefire.test.class.path", System.getProperty("java.class.path") );
+		String javaBin   = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+		return Arrays.asList( javaBin, "-cp", classPath, CrashingWorkerMain.class.getName() );
+	}
+
+
+	/**
+	 * Replies of worker are passed on; a worker that dies fails only its current file and is restarted
+	 * for the next file.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void workerIsRestartedAfterCrash() throws KahootException {
+
+		try (WorkerProcessPool cut = new WorkerProcessPool( buildWorkerCommand(), 1 )) {
+
+			assertEquals( "a.docx", cut.convert("a.xlsx") );
+
+			try {
+				cut.convert("error.xlsx");
+				fail("No exception raised for error reply of worker.");
+			}
+			catch (KahootException ex) {
+
+				assertTrue( ex.getMessage().contains("Cannot convert error.xlsx") );
+			}
+			assertEquals( 0, cut.getNumberOfRestarts() );
+
+			try {
+				cut.convert("crash.xlsx");
+				fail("No exception raised when worker died.");
+			}
+			catch (KahootException ex) {
+
+				assertTrue( ex.getMessage().contains("exit code " + CrashingWorkerMain.CRASH_EXIT_CODE) );
+			}
+
+			assertEquals( "b.docx", cut.convert("b.xlsx") ); // on restarted worker
+			assertEquals( 1, cut.getNumberOfRestarts() );
+		}
+	}
+
+
+	/**
+	 * A worker that does not reply after the time budget of its file is exceeded, or after the token of its file was
+	 * cancelled (e.g. because the claim was lost), must be killed after the grace period and restarted for the next file.
+	 *
+	 * @throws KahootException  Test failed
+	 */
+	@Test
+	public void hangingWorkerIsKilled() throws KahootException {
+
+		try (WorkerProcessPool cut = new WorkerProcessPool( buildWorkerCommand(), 1 )) {
+
+			cut.setKillGraceMillis(200);
+
+			try {
+				CancellationToken.setCurrent( new CancellationToken(null, 300) );
+				cut.convert("hang1.xlsx");
+				fail("No exception raised for worker exceeding its time budget.");
+			}
+			catch (ConversionCancelledException ex) {
+
+				assertTrue( ex.getMessage().contains("was killed") );
+			}
+			finally {
+
+				CancellationToken.setCurrent(null);
+			}
+
+			CancellationToken claimToken = new CancellationToken();
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+			try {
+				executor.schedule( claimToken::cancel, 300, TimeUnit.MILLISECONDS ); // like a claim taken over
+				CancellationToken.setCurrent(claimToken);
+				cut.convert("hang2.xlsx");
+				fail("No exception raised for worker whose token was cancelled.");
+			}
+			catch (ConversionCancelledException ex) {
+
+				assertTrue( ex.getMessage().contains("was killed") );
+			}
+			finally {
+
+				CancellationToken.setCurrent(null);
+				executor.shutdownNow();
+			}
+
+			assertEquals( "c.docx", cut.convert("c.xlsx") ); // on restarted worker
+			assertEquals( 2, cut.getNumberOfKills()    );
+			assertEquals( 2, cut.getNumberOfRestarts() );
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.poi.KahootResultXlsxReader;
+import de.mide.kahoot.result2word.utils.ResourceLimitExceededException;
+import de.mide.kahoot.result2word.utils.XlsxPackageInfo;
+import de.mide.kahoot.result2word.utils.XlsxResourceLimits;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.utils.XlsxResourceLimits}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class XlsxResourceLimitsTests {
+
+	/** Example file with 7 sheets and 86 shared strings. */
+	protected static final String EXAMPLE_FILE = "ExampleFiles/input_result_1.xlsx";
+
+
+	/**
+	 * Inspecting the central directory from a buffer must give the same values as from the file.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void inspectBufferAndFile() throws Exception {
+
+		XlsxPackageInfo fromFile   = XlsxPackageInfo.inspect(EXAMPLE_FILE);
+		XlsxPackageInfo fromBuffer = XlsxPackageInfo.inspect( ByteBuffer.wrap(Files.readAllBytes(Paths.get(EXAMPLE_FILE))), "upload.xlsx" );
+
+		assertEquals( 7 , fromFile.getNumberOfWorksheets() );
+		assertEquals( 86, fromFile.getNumberOfSharedStrings() );
+
+		assertEquals( fromFile.getNumberOfParts()        , fromBuffer.getNumberOfParts()         );
+		assertEquals( fromFile.getNumberOfWorksheets()   , fromBuffer.getNumberOfWorksheets()    );
+		assertEquals( fromFile.getNumberOfSharedStrings(), fromBuffer.getNumberOfSharedStrings() );
+		assertEquals( fromFile.getTotalUncompressedSize(), fromBuffer.getTotalUncompressedSize() );
+		assertEquals( fromFile.getMaxCompressionRatio()  , fromBuffer.getMaxCompressionRatio(), 0.0001 );
+
+		new XlsxResourceLimits().check(fromFile); // no exception expected
+	}
+
+
+	/**
+	 * A sheet with a huge inflate ratio must be rejected before it is parsed.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void zipBombRejected() throws Exception {
+
+		ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+		try (ZipOutputStream zipOutputStream = new ZipOutputStream(zipBytes)) {
+
+			zipOutputStream.putNextEntry( new ZipEntry("xl/worksheets/sheet1.xml") );
+
+			byte[] spaces = new byte[1024 * 1024];
+			Arrays.fill(spaces, (byte) ' ');
+			for (int i = 0; i < 20; i++) { zipOutputStream.write(spaces); }
+
+			zipOutputStream.closeEntry();
+		}
+
+		long startMillis = System.currentTimeMillis();
+		try {
+			new KahootResultXlsxReader( new ByteArrayInputStream(zipBytes.toByteArray()), "bomb.xlsx", new XlsxResourceLimits() );
+			fail("No exception raised for zip bomb.");
+		}
+		catch (ResourceLimitExceededException ex) {
+
+			assertTrue( ex.getMessage().contains("inflate ratio") );
+		}
+		assertTrue( System.currentTimeMillis() - startMillis < 1000 );
+	}
+
+
+	/**
+	 * Each limit must be checked.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void limitsExceeded() throws Exception {
+
+		XlsxPackageInfo packageInfo = XlsxPackageInfo.inspect(EXAMPLE_FILE);
+
+		XlsxResourceLimits limits = new XlsxResourceLimits();
+		limits.setMaxSheets(6);
+		assertLimitExceeded( limits, packageInfo, "7 sheets exceed limit of 6 sheets" );
+
+		limits = new XlsxResourceLimits();
+		limits.setMaxSharedStrings(50);
+		assertLimitExceeded( limits, packageInfo, "86 shared strings exceed limit of 50" );
+
+		limits = new XlsxResourceLimits();
+		limits.setMaxUncompressedBytes(50_000);
+		assertLimitExceeded( limits, packageInfo, "uncompressed size of 81395 bytes" );
+
+		limits = new XlsxResourceLimits();
+		limits.setMaxInflateRatio(5);
+		assertLimitExceeded( limits, packageInfo, "inflate ratio" );
+
+		limits.setMaxInflateRatio(0); // 0 means no limit
+		limits.check(packageInfo);
+	}
+
+
+	/**
+	 * Check that the limits reject the package.
+	 *
+	 * @param limits  Limits to be checked.
+	 *
+	 * @param packageInfo  Central directory of example file.
+	 *
+	 * @param expectedText  Expected part of error message.
+	 */
+	protected static void assertLimitExceeded(XlsxResourceLimits limits, XlsxPackageInfo packageInfo, String expectedText) {
+
+		try {
+			limits.check(packageInfo);
+			fail("No exception raised, expected: " + expectedText);
+		}
+		catch (ResourceLimitExceededException ex) {
+
+			assertTrue( ex.getMessage(), ex.getMessage().contains(expectedText) );
+		}
+	}
+
+}
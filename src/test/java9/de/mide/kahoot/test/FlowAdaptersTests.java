@@ -0,0 +1,149 @@
+package de.mide.kahoot.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.mide.kahoot.result2word.api.ConversionEvent;
+import de.mide.kahoot.result2word.api.ConversionEventPublisher;
+import de.mide.kahoot.result2word.api.ConversionEventTypeEnum;
+import de.mide.kahoot.result2word.api.ConversionOptions;
+import de.mide.kahoot.result2word.api.EventFlow;
+import de.mide.kahoot.result2word.api.FlowAdapters;
+import de.mide.kahoot.result2word.api.KahootResultConverter;
+
+
+/**
+ * Unit tests for class {@code de.mide.kahoot.result2word.api.FlowAdapters}; compiled for Java 9 from folder
+ * {@code src/test/java9}.
+ * <br><br>
+ *
+ * This project is licensed under the terms of the GNU GENERAL PUBLIC LICENSE version 3 (GPL v3).
+ */
+public class FlowAdaptersTests {
+
+	/**
+	 * A subscriber of {@code java.util.concurrent.Flow} must receive all events of a {@link ConversionEventPublisher},
+	 * requesting one after the other, and then the completion.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void flowSubscriberOfConversionEvents() throws Exception {
+
+		Path inputFile = Paths.get("ExampleFiles", "input_result_2.xlsx");
+
+		ConversionEventPublisher publisher = new ConversionEventPublisher( new KahootResultConverter(), inputFile, null, new ConversionOptions() );
+
+		List<ConversionEvent> events    = Collections.synchronizedList( new ArrayList<ConversionEvent>() );
+		CountDownLatch        doneLatch = new CountDownLatch(1);
+
+		FlowAdapters.toFlowPublisher(publisher).subscribe( new Flow.Subscriber<ConversionEvent>() {
+
+			private Flow.Subscription _subscription = null;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+
+				_subscription = subscription;
+				_subscription.request(1);
+			}
+
+			@Override
+			public void onNext(ConversionEvent event) {
+
+				events.add(event);
+				_subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+
+				throwable.printStackTrace();
+			}
+
+			@Override
+			public void onComplete() {
+
+				doneLatch.countDown();
+			}
+		});
+
+		assertTrue( doneLatch.await(30, TimeUnit.SECONDS) );
+
+		assertEquals( ConversionEventTypeEnum.TITLE         , events.get(0).getType() );
+		assertEquals( ConversionEventTypeEnum.QUESTION      , events.get(1).getType() );
+		assertEquals( ConversionEventTypeEnum.FILE_COMPLETED, events.get( events.size() - 1 ).getType() );
+	}
+
+
+	/**
+	 * A subscriber of this project must receive the items of the {@link SubmissionPublisher} of the JDK,
+	 * not more than requested.
+	 *
+	 * @throws Exception  Test failed
+	 */
+	@Test
+	public void eventFlowSubscriberOfSubmissionPublisher() throws Exception {
+
+		List<Integer>  items     = Collections.synchronizedList( new ArrayList<Integer>() );
+		CountDownLatch doneLatch = new CountDownLatch(1);
+
+		List<EventFlow.Subscription> subscriptions = new ArrayList<EventFlow.Subscription>();
+
+		try (SubmissionPublisher<Integer> submissionPublisher = new SubmissionPublisher<Integer>()) {
+
+			FlowAdapters.toEventFlowPublisher(submissionPublisher).subscribe( new EventFlow.Subscriber<Integer>() {
+
+				@Override
+				public void onSubscribe(EventFlow.Subscription subscription) {
+
+					subscriptions.add(subscription);
+					subscription.request(2);
+				}
+
+				@Override
+				public void onNext(Integer item) {
+
+					items.add(item);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+
+					throwable.printStackTrace();
+				}
+
+				@Override
+				public void onComplete() {
+
+					doneLatch.countDown();
+				}
+			});
+
+			for (int i = 1; i <= 3; i++) { submissionPublisher.submit(i); }
+
+			for (int i = 0; i < 100 && items.size() < 2; i++) { Thread.sleep(50); }
+			Thread.sleep(200);
+
+			assertEquals( 2, items.size() );
+
+			subscriptions.get(0).request(1);
+		}
+
+		assertTrue( doneLatch.await(5, TimeUnit.SECONDS) );
+		assertEquals( 3, items.size() );
+	}
+
+}